@@ -11,6 +11,19 @@ repositories {
     mavenCentral()
 }
 
+// Ein eigenes Quellcode-Set für Mikro-Benchmarks mit JMH ("Java Microbenchmark Harness");
+// diese werden nicht mit dem Server ausgeliefert, können aber auf alle Klassen des Servers zugreifen
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
+// Ein weiteres Quellcode-Set für Last-Tests über das Netzwerk, welche einen echten Server starten
+val load by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
 dependencies {
     // Mithilfe dieser Annotations-Bibliotheken können Laufzeitfehler vorgebeugt werden,
     // da mit sogenannten "Nullabilitäts-Annotationen" markiert wird, ob eine
@@ -19,6 +32,16 @@ dependencies {
     // durch externe Bibliotheken gelöst werden
     compileOnlyApi("org.jspecify:jspecify:1.0.0")
     compileOnlyApi("org.jetbrains:annotations:26.0.2")
+
+    // JMH misst die Leistung einzelner Methoden; der Annotations-Prozessor erzeugt
+    // dabei aus den mit "@Benchmark" markierten Methoden die eigentlichen Messprogramme
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
+    // Mit JUnit werden einzelne Bestandteile (z.B. Parser) über "./gradlew test" automatisch getestet
+    testImplementation(platform("org.junit:junit-bom:5.11.3"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 configure<JavaApplication> {
@@ -34,3 +57,33 @@ configure<JavaPluginExtension> {
         vendor = JvmVendorSpec.ADOPTIUM
     }
 }
+
+tasks.named<Test>("test") {
+    useJUnitPlatform()
+}
+
+// Startet alle Benchmarks mit "./gradlew jmh"; zusätzliche JMH-Argumente können mit
+// "-PjmhArgs=..." übergeben werden, z.B. "-PjmhArgs=RequestParserBenchmark -f 1"
+//
+// Dabei läuft immer der "gc"-Profiler mit, welcher u.a. die Allokationen pro Aufruf ausgibt ("gc.alloc.rate.norm");
+// die Ergebnisse werden zusätzlich als JSON gespeichert, damit spätere Läufe mit einer Basis verglichen werden können
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks"
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+    doFirst { resultFile.parentFile.mkdirs() }
+    args = listOf("-prof", "gc", "-rf", "json", "-rff", resultFile.path) +
+            ((findProperty("jmhArgs") as String?)?.split(' ') ?: emptyList())
+}
+
+// Startet einen Last-Test mit "./gradlew loadTest"; Einstellungen werden mit "-PloadArgs=..." übergeben,
+// z.B. "-PloadArgs=engine=NIO mode=open rate=20000 connections=64 keepAlive=false"
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    description = "Runs an end-to-end load test against a local server"
+    classpath = load.runtimeClasspath
+    mainClass = "dev.booky.http.load.LoadTestMain"
+    args = (findProperty("loadArgs") as String?)?.split(' ') ?: emptyList()
+}
@@ -0,0 +1,142 @@
+package dev.booky.http.bench;
+
+import dev.booky.http.bench.legacy.HttpReader;
+import dev.booky.http.bench.legacy.Latin1Reader;
+import dev.booky.http.bench.legacy.LegacyRequestParser;
+import dev.booky.http.protocol.HttpHeaders;
+import dev.booky.http.protocol.HttpRequest;
+import dev.booky.http.protocol.HttpRequestHead;
+import dev.booky.http.protocol.HttpRequestParser;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Misst das Einlesen von Anfragen-Headern sowie das Erstellen und Kodieren von Antwort-Headern,
+// wie sie bei jeder ausgelieferten Datei anfallen
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeadersBenchmark {
+
+    // Die Header einer typischen Browser-Anfrage, samt abschließender leerer Zeile
+    private static final String REQUEST_HEADERS = "Host: localhost:8080\r\n"
+            + "User-Agent: Mozilla/5.0 (X11; Linux x86_64; rv:131.0) Gecko/20100101 Firefox/131.0\r\n"
+            + "Accept: text/css,*/*;q=0.1\r\n"
+            + "Accept-Language: de,en-US;q=0.7,en;q=0.3\r\n"
+            + "Accept-Encoding: gzip, deflate, br, zstd\r\n"
+            + "Connection: keep-alive\r\n"
+            + "Referer: http://localhost:8080/index.html\r\n"
+            + "Cookie: session=2f6c1c8e9a4b4d7f8e3a1b2c3d4e5f60; theme=dark\r\n"
+            + "If-None-Match: \"5f3a2c1b0e9d8-400\"\r\n"
+            + "Sec-Fetch-Dest: style\r\n"
+            + "Sec-Fetch-Mode: no-cors\r\n"
+            + "Sec-Fetch-Site: same-origin\r\n"
+            + "\r\n";
+    // Die byte-basierten Header werden immer zusammen mit einer Anfragen-Zeile eingelesen
+    private static final String REQUEST_LINE = "GET /css/site.css HTTP/1.1\r\n";
+    private static final int MAX_HEAD_SIZE = 16 * 1024;
+    private static final long MAX_BODY_SIZE = 1024L * 1024L;
+
+    private byte[] headerBytes = new byte[0];
+    private ByteBuffer requestBuffer = ByteBuffer.allocate(0);
+    private HttpRequestParser parser = new HttpRequestParser(MAX_HEAD_SIZE);
+    private Map<String, String> responseHeaderMap = Map.of();
+    private HttpHeaders responseHeaders = HttpHeaders.builder().build();
+    private HttpHeaders requestHeaders = HttpHeaders.builder().build();
+    private ByteBuffer encodeBuffer = ByteBuffer.allocateDirect(0);
+
+    @Setup
+    public void setup() throws IOException {
+        this.headerBytes = REQUEST_HEADERS.getBytes(StandardCharsets.ISO_8859_1);
+        this.requestBuffer = ByteBuffer.wrap((REQUEST_LINE + REQUEST_HEADERS).getBytes(StandardCharsets.ISO_8859_1));
+        this.parser = new HttpRequestParser(MAX_HEAD_SIZE);
+
+        // Die Header, welche beim Ausliefern einer Datei gesetzt werden
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("content-type", "text/css; charset=utf-8");
+        headers.put("content-length", "1024");
+        headers.put("etag", "\"5f3a2c1b0e9d8-400\"");
+        headers.put("last-modified", "Tue, 15 Oct 2024 12:00:00 GMT");
+        headers.put("accept-ranges", "bytes");
+        headers.put("vary", "accept-encoding");
+        headers.put("cache-control", "max-age=3600");
+        this.responseHeaderMap = headers;
+        this.responseHeaders = HttpHeaders.buildResponseHeaders(headers);
+        this.requestHeaders = this.parseReader();
+        this.encodeBuffer = ByteBuffer.allocateDirect(4096);
+    }
+
+    // Die zeichenbasierten Header über den "HttpReader"
+    @Benchmark
+    public HttpHeaders parseReader() throws IOException {
+        final InputStream input = new ByteArrayInputStream(this.headerBytes);
+        return LegacyRequestParser.parseHeaders(new HttpReader(new Latin1Reader(input)));
+    }
+
+    // Die byte-basierten Header samt Anfragen-Zeile, wie sie von beiden Engines eingelesen werden
+    @Benchmark
+    public HttpHeaders parseBytes() throws IOException {
+        final HttpRequestHead head = this.parser.parseHead(this.requestBuffer, 0, this.requestBuffer.limit());
+        if (head == null) {
+            throw new IllegalStateException("Incomplete request head");
+        }
+        return HttpRequest.parseRequest(head, InputStream.nullInputStream(), MAX_BODY_SIZE).getHeaders();
+    }
+
+    // Das Nachschlagen einzelner Header ohne Beachtung der Groß- und Kleinschreibung
+    @Benchmark
+    public int lookup() {
+        int found = 0;
+        found += this.requestHeaders.getHeader("Accept-Encoding") != null ? 1 : 0;
+        found += this.requestHeaders.getHeader("if-none-match") != null ? 1 : 0;
+        found += this.requestHeaders.getHeader("Range") != null ? 1 : 0;
+        return found;
+    }
+
+    @Benchmark
+    public HttpHeaders buildResponseHeaders() {
+        return HttpHeaders.buildResponseHeaders(this.responseHeaderMap);
+    }
+
+    @Benchmark
+    public HttpHeaders buildResponseHeadersBuilder() {
+        return HttpHeaders.builder()
+                .set("content-type", "text/css; charset=utf-8")
+                .set("content-length", "1024")
+                .set("etag", "\"5f3a2c1b0e9d8-400\"")
+                .set("last-modified", "Tue, 15 Oct 2024 12:00:00 GMT")
+                .set("accept-ranges", "bytes")
+                .set("vary", "accept-encoding")
+                .set("cache-control", "max-age=3600")
+                .buildResponse();
+    }
+
+    // Das Kodieren aller Antwort-Header direkt als Bytes
+    @Benchmark
+    public int encodeResponseHeaders() {
+        this.encodeBuffer.clear();
+        this.responseHeaders.writeTo(this.encodeBuffer);
+        return this.encodeBuffer.position();
+    }
+}
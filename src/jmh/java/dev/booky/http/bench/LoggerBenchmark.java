@@ -0,0 +1,77 @@
+package dev.booky.http.bench;
+
+import dev.booky.http.log.AsyncAppender;
+import dev.booky.http.log.AsyncAppender.OverflowPolicy;
+import dev.booky.http.log.Logger;
+import dev.booky.http.log.Logger.Level;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Misst, was eine Infonachricht (wie "Handled ... with ...") den bearbeitenden Thread kostet: bei ausgeblendeter
+// Stufe, bei direkter Ausgabe samt Formatierung und bei Übergabe an den Log-Thread; alle Ausgaben werden verworfen
+@NullMarked
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private static final String MESSAGE = "Handled %s %s %s from %s with %s";
+    private static final String ADDRESS = "127.0.0.1:50000";
+
+    private final PrintStream nullStream = new PrintStream(OutputStream.nullOutputStream());
+    private Logger disabledLogger = new Logger("Http", this.nullStream, this.nullStream);
+    private Logger directLogger = new Logger("Http", this.nullStream, this.nullStream);
+    private Logger asyncLogger = new Logger("Http", this.nullStream, this.nullStream);
+    private @Nullable AsyncAppender asyncAppender;
+
+    @Setup
+    public void setup() {
+        this.disabledLogger = new Logger("Http", this.nullStream, this.nullStream);
+        this.disabledLogger.setLevel(Level.WARN);
+        this.directLogger = new Logger("Http", this.nullStream, this.nullStream);
+        // Bei vollem Puffer wird verworfen, damit nur die Übergabe und nicht die Ausgabe gemessen wird
+        this.asyncAppender = new AsyncAppender(this.nullStream, this.nullStream,
+                AsyncAppender.DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP, AsyncAppender.DEFAULT_SAMPLE_RATE);
+        this.asyncLogger = new Logger("Http", this.asyncAppender);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (this.asyncAppender != null) {
+            this.asyncAppender.close();
+        }
+    }
+
+    @Benchmark
+    public void disabled() {
+        this.disabledLogger.info(MESSAGE, "HTTP/1.1", "GET", "/index.html", ADDRESS, "200 OK");
+    }
+
+    @Benchmark
+    public void direct() {
+        this.directLogger.info(MESSAGE, "HTTP/1.1", "GET", "/index.html", ADDRESS, "200 OK");
+    }
+
+    @Benchmark
+    public void async() {
+        this.asyncLogger.info(MESSAGE, "HTTP/1.1", "GET", "/index.html", ADDRESS, "200 OK");
+    }
+}
@@ -0,0 +1,58 @@
+package dev.booky.http.bench;
+
+import dev.booky.http.protocol.HttpUri;
+import dev.booky.http.util.MimeType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Misst die Schritte, welche für jede Dateianfrage mit dem Pfad der URI durchgeführt werden: das Auflösen
+// relativ zum Server-Verzeichnis (samt Prüfung auf "..") und das Erraten des Inhaltstyps anhand der Endung
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBenchmark {
+
+    private static final Path ROOT_DIR = Path.of("/srv/http");
+
+    // Eine Seite, eine Datei in einem Unterverzeichnis, eine unbekannte Endung und ein ungültiger Pfad
+    @Param({"/index.html", "/static/css/site.min.css", "/downloads/archive.unknown", "/static/../../etc/passwd"})
+    public String path = "/index.html";
+
+    private HttpUri uri = new HttpUri(URI.create("/"));
+    private Path filePath = ROOT_DIR;
+
+    @Setup
+    public void setup() {
+        this.uri = new HttpUri(URI.create(this.path));
+        this.filePath = ROOT_DIR.resolve(this.path.substring(1)).normalize();
+    }
+
+    @Benchmark
+    public @Nullable Path resolvePath() {
+        return this.uri.resolvePath(ROOT_DIR);
+    }
+
+    @Benchmark
+    public MimeType guessMimeType() {
+        return MimeType.guessFromPathName(this.filePath);
+    }
+}
@@ -0,0 +1,146 @@
+package dev.booky.http.bench;
+
+import dev.booky.http.bench.legacy.HttpReader;
+import dev.booky.http.bench.legacy.Latin1Reader;
+import dev.booky.http.bench.legacy.LegacyRequestParser;
+import dev.booky.http.protocol.HttpRequest;
+import dev.booky.http.protocol.HttpRequestHead;
+import dev.booky.http.protocol.HttpRequestParser;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Vergleicht das Einlesen typischer Anfragen mit dem zeichenbasierten "HttpReader"
+// und mit dem byte-basierten "HttpRequestParser"; gemessen wird jeweils die Zeit bis zur fertigen
+// "HttpRequest", damit auch das Dekodieren der Bestandteile berücksichtigt wird
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParserBenchmark {
+
+    // Eine Anfrage, wie sie ein aktueller Browser beim Aufruf einer Seite sendet
+    private static final String BROWSER_REQUEST = "GET /index.html?lang=de HTTP/1.1\r\n"
+            + "Host: localhost:8080\r\n"
+            + "User-Agent: Mozilla/5.0 (X11; Linux x86_64; rv:131.0) Gecko/20100101 Firefox/131.0\r\n"
+            + "Accept: text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8\r\n"
+            + "Accept-Language: de,en-US;q=0.7,en;q=0.3\r\n"
+            + "Accept-Encoding: gzip, deflate, br, zstd\r\n"
+            + "Connection: keep-alive\r\n"
+            + "Cookie: session=2f6c1c8e9a4b4d7f8e3a1b2c3d4e5f60; theme=dark\r\n"
+            + "Upgrade-Insecure-Requests: 1\r\n"
+            + "Sec-Fetch-Dest: document\r\n"
+            + "Sec-Fetch-Mode: navigate\r\n"
+            + "Sec-Fetch-Site: none\r\n"
+            + "Sec-Fetch-User: ?1\r\n"
+            + "Priority: u=0, i\r\n"
+            + "\r\n";
+    // Eine minimale Anfrage, wie sie z.B. von "curl" oder Monitoring-Werkzeugen gesendet wird
+    private static final String MINIMAL_REQUEST = "GET /health HTTP/1.1\r\n"
+            + "Host: localhost:8080\r\n"
+            + "User-Agent: curl/8.10.1\r\n"
+            + "Accept: */*\r\n"
+            + "\r\n";
+    // Eine Anfrage hinter einem Proxy mit vielen weitergereichten und wiederholten Headern
+    private static final String PROXIED_REQUEST = "GET /static/js/app.3f9c2b.js?v=20241015 HTTP/1.1\r\n"
+            + "Host: example.org\r\n"
+            + "X-Forwarded-For: 203.0.113.7, 198.51.100.23\r\n"
+            + "X-Forwarded-Proto: https\r\n"
+            + "X-Forwarded-Host: example.org\r\n"
+            + "X-Request-Id: 6f1c0a52-9b7e-4c2d-8a31-0e5b9f4d2c17\r\n"
+            + "Via: 1.1 proxy-1.example.net\r\n"
+            + "User-Agent: Mozilla/5.0 (Macintosh; Intel Mac OS X 14_6) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/18.0 Safari/605.1.15\r\n"
+            + "Accept: */*\r\n"
+            + "Accept-Language: en-GB,en;q=0.9\r\n"
+            + "Accept-Encoding: gzip, deflate, br\r\n"
+            + "Referer: https://example.org/dashboard\r\n"
+            + "Cookie: session=2f6c1c8e9a4b4d7f8e3a1b2c3d4e5f60\r\n"
+            + "Cookie: consent=analytics%3Dfalse%26marketing%3Dfalse; _ga=GA1.1.123456789.1729000000\r\n"
+            + "If-None-Match: \"5f3a2c1b0e9d8-1a2b3\"\r\n"
+            + "If-Modified-Since: Tue, 15 Oct 2024 12:00:00 GMT\r\n"
+            + "Cache-Control: max-age=0\r\n"
+            + "Sec-Fetch-Dest: script\r\n"
+            + "Sec-Fetch-Mode: no-cors\r\n"
+            + "Sec-Fetch-Site: same-origin\r\n"
+            + "Connection: keep-alive\r\n"
+            + "\r\n";
+    private static final long MAX_BODY_SIZE = 1024L * 1024L;
+    private static final int MAX_HEAD_SIZE = 16 * 1024;
+
+    @Param({"browser", "minimal", "proxied"})
+    public String request = "browser";
+
+    private byte[] requestBytes = new byte[0];
+    private ByteBuffer requestBuffer = ByteBuffer.allocate(0);
+    private HttpRequestParser parser = new HttpRequestParser(MAX_HEAD_SIZE);
+
+    @Setup
+    public void setup() {
+        final String request = switch (this.request) {
+            case "minimal" -> MINIMAL_REQUEST;
+            case "proxied" -> PROXIED_REQUEST;
+            default -> BROWSER_REQUEST;
+        };
+        this.requestBytes = request.getBytes(StandardCharsets.ISO_8859_1);
+        this.requestBuffer = ByteBuffer.wrap(this.requestBytes);
+        this.parser = new HttpRequestParser(MAX_HEAD_SIZE);
+    }
+
+    // Der ursprüngliche Aufbau: ein gepufferter Reader mit dem Standard-Zeichensatz der Plattform
+    @Benchmark
+    public HttpRequest bufferedReader() throws IOException {
+        final InputStream input = new ByteArrayInputStream(this.requestBytes);
+        final HttpReader reader = new HttpReader(new BufferedReader(new InputStreamReader(input)));
+        return LegacyRequestParser.parseRequest(reader);
+    }
+
+    // Der zeichenbasierte Reader, welcher byteweise ISO-8859-1 liest
+    @Benchmark
+    public HttpRequest latin1Reader() throws IOException {
+        final InputStream input = new BufferedInputStream(new ByteArrayInputStream(this.requestBytes));
+        final HttpReader reader = new HttpReader(new Latin1Reader(input));
+        return LegacyRequestParser.parseRequest(reader);
+    }
+
+    // Der byte-basierte Parser, welcher direkt im Puffer sucht
+    @Benchmark
+    public HttpRequest byteParser() throws IOException {
+        final HttpRequestHead head = this.parser.parseHead(this.requestBuffer, 0, this.requestBytes.length);
+        if (head == null) {
+            throw new IllegalStateException("Incomplete request head");
+        }
+        return HttpRequest.parseRequest(head, InputStream.nullInputStream(), MAX_BODY_SIZE);
+    }
+
+    // Nur das Finden der Bestandteile, ohne diese zu dekodieren
+    @Benchmark
+    public int byteParserHeadOnly() throws IOException {
+        final HttpRequestHead head = this.parser.parseHead(this.requestBuffer, 0, this.requestBytes.length);
+        if (head == null) {
+            throw new IllegalStateException("Incomplete request head");
+        }
+        return head.getLength();
+    }
+}
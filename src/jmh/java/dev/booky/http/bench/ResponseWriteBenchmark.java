@@ -0,0 +1,171 @@
+package dev.booky.http.bench;
+
+import dev.booky.http.protocol.HttpBufferBody;
+import dev.booky.http.protocol.HttpHeaders;
+import dev.booky.http.protocol.HttpResponse;
+import dev.booky.http.protocol.HttpResponseQueue;
+import dev.booky.http.protocol.HttpStatus;
+import dev.booky.http.protocol.HttpVersion;
+import dev.booky.http.util.BufferPool;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Vergleicht das Schreiben einer kleinen Antwort über "BufferedWriter" und Stream mit dem direkten Kodieren
+// des Kopfteils und einem "gathering write" über die "HttpResponseQueue"; neben der Zeit werden die Zähler
+// "writeCalls" und "responses" ausgegeben, deren Verhältnis die Schreibaufrufe (und damit Systemaufrufe) pro Antwort ist
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseWriteBenchmark {
+
+    // Wie viele Antworten bei hintereinander gesendeten Anfragen auf einmal geschrieben werden
+    private static final int PIPELINED_RESPONSES = 8;
+    private static final int BODY_SIZE = 1024;
+    private static final long BUFFER_POOL_SIZE = 1024L * 1024L;
+
+    private HttpResponse response = HttpResponse.buildError(HttpVersion.HTTP_1_1, HttpStatus.STATUS_OK, "");
+    private CountingChannel channel = new CountingChannel();
+    private BufferPool pool = new BufferPool(0L, false);
+    private HttpResponseQueue queue = new HttpResponseQueue(this.channel, this.pool);
+    private OutputStream output = OutputStream.nullOutputStream();
+    private BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(this.output));
+
+    @Setup
+    public void setup() {
+        // Eine typische Antwort mit einem bereits im Speicher liegenden Inhalt, z.B. aus dem Datei-Cache
+        final HttpHeaders headers = HttpHeaders.buildResponseHeaders(Map.of(
+                "Content-Type", "text/css; charset=utf-8",
+                "Content-Length", Integer.toString(BODY_SIZE),
+                "ETag", "\"5f3a2c1b0e9d8-400\"",
+                "Last-Modified", "Tue, 15 Oct 2024 12:00:00 GMT",
+                "Accept-Ranges", "bytes",
+                "Cache-Control", "max-age=3600"
+        ));
+        this.response = new HttpResponse(HttpVersion.HTTP_1_1, HttpStatus.STATUS_OK, headers,
+                new HttpBufferBody(ByteBuffer.allocateDirect(BODY_SIZE)));
+        this.channel = new CountingChannel();
+        this.pool = new BufferPool(BUFFER_POOL_SIZE, false);
+        this.queue = new HttpResponseQueue(this.channel, this.pool);
+        this.output = Channels.newOutputStream(this.channel);
+        this.writer = new BufferedWriter(new OutputStreamWriter(this.output));
+    }
+
+    // Der ursprüngliche Aufbau: Kopfteil über einen Writer samt Zeichenkodierung, danach der Inhalt über den Stream
+    @Benchmark
+    public void writerAndStream(final WriteCounters counters) throws IOException {
+        this.response.writeTo(this.output, this.writer);
+        counters.writeCalls += this.channel.takeWriteCalls();
+        counters.responses++;
+    }
+
+    // Kopfteil direkt als Bytes kodiert und zusammen mit dem Inhalt in einem einzigen Aufruf geschrieben
+    @Benchmark
+    public void gatheringWrite(final WriteCounters counters) throws IOException {
+        this.queue.add(this.response);
+        this.queue.flush();
+        counters.writeCalls += this.channel.takeWriteCalls();
+        counters.responses++;
+    }
+
+    // Mehrere hintereinander angefragte Antworten werden gemeinsam in einem einzigen Aufruf geschrieben
+    @Benchmark
+    @OperationsPerInvocation(PIPELINED_RESPONSES)
+    public void gatheringWritePipelined(final WriteCounters counters) throws IOException {
+        for (int i = 0; i < PIPELINED_RESPONSES; i++) {
+            this.queue.add(this.response);
+        }
+        this.queue.flush();
+        counters.writeCalls += this.channel.takeWriteCalls();
+        counters.responses += PIPELINED_RESPONSES;
+    }
+
+    // Die Zähler werden von JMH zusätzlich zur Zeit pro Iteration ausgegeben
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WriteCounters {
+
+        public long writeCalls;
+        public long responses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.writeCalls = 0L;
+            this.responses = 0L;
+        }
+    }
+
+    // Ein Kanal, welcher alle Bytes verwirft und nur zählt, wie oft geschrieben wurde; jeder Aufruf
+    // entspricht bei einem echten Socket-Kanal einem Systemaufruf - die Zähler von JMH dürfen nur an
+    // die Benchmark-Methoden übergeben werden, daher werden die Aufrufe dort übernommen
+    private static final class CountingChannel implements GatheringByteChannel {
+
+        private long writeCalls;
+
+        // Gibt die Anzahl an Aufrufen seit dem letzten Abfragen zurück
+        long takeWriteCalls() {
+            final long writeCalls = this.writeCalls;
+            this.writeCalls = 0L;
+            return writeCalls;
+        }
+
+        @Override
+        public int write(final ByteBuffer source) {
+            this.writeCalls++;
+            final int count = source.remaining();
+            source.position(source.limit());
+            return count;
+        }
+
+        @Override
+        public long write(final ByteBuffer[] sources, final int offset, final int length) {
+            this.writeCalls++;
+            long count = 0L;
+            for (int i = offset; i < offset + length; i++) {
+                count += sources[i].remaining();
+                sources[i].position(sources[i].limit());
+            }
+            return count;
+        }
+
+        @Override
+        public long write(final ByteBuffer[] sources) {
+            return this.write(sources, 0, sources.length);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // Es gibt keine Ressourcen, welche geschlossen werden müssten
+        }
+    }
+}
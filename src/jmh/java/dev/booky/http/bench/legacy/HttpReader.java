@@ -1,4 +1,4 @@
-package dev.booky.http.util;
+package dev.booky.http.bench.legacy;
 
 import dev.booky.http.protocol.HttpDefinitions;
 import org.jspecify.annotations.NullMarked;
@@ -11,8 +11,9 @@ import static dev.booky.http.protocol.HttpDefinitions.CRLF;
 import static dev.booky.http.protocol.HttpDefinitions.LF;
 import static dev.booky.http.protocol.HttpDefinitions.SP;
 
-// Einer der Hauptbestandteile dieses Projekts, da hier aus einem Text-Reader der Java-Standard-Bibliothek
-// (mit mark-/reset-Unterstützung) bestimmte mehrfach verwendeten String-Strukturen ausgelesen werden können
+// Ursprünglich einer der Hauptbestandteile dieses Projekts, da hier aus einem Text-Reader der Java-Standard-Bibliothek
+// (mit mark-/reset-Unterstützung) bestimmte mehrfach verwendeten String-Strukturen ausgelesen werden können;
+// der Server liest Anfragen inzwischen byte-basiert, dieser Reader wird nur noch für Vergleiche in Benchmarks genutzt
 @NullMarked
 public final class HttpReader {
 
@@ -205,7 +206,7 @@ public final class HttpReader {
         // und die nächsten zwei Zeichen (länge eines Zeilenumbruchs) auch
         // wirklich ein Zeilenumbruch ist, ...
         if (this.isReadable(CRLF.length())
-                || CRLF.equals(this.peek(CRLF.length()))) {
+                && CRLF.equals(this.peek(CRLF.length()))) {
             // ... wird dieser Zeilenumbruch übersprungen und ein Erfolg zurückgegeben; ...
             this.skip(CRLF.length());
             return true;
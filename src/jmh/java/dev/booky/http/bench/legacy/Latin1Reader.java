@@ -0,0 +1,79 @@
+package dev.booky.http.bench.legacy;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+// Ein Text-Reader, welcher jedes Byte direkt als ein Zeichen im ISO-8859-1-Zeichensatz interpretiert;
+// anders als ein "InputStreamReader" liest dieser Reader nie mehr Bytes als Zeichen angefragt wurden,
+// wodurch nach den Http-Headern der Anfragen-Inhalt exakt aus dem darunterliegenden Stream gelesen werden kann
+// (Http-Header sind laut https://www.rfc-editor.org/rfc/rfc2616#section-2.2 ohnehin ISO-8859-1-kodiert)
+@NullMarked
+public final class Latin1Reader extends Reader {
+
+    // Die Markierung dafür, dass der Java InputStream am Ende angekommen ist
+    private static final int END_MARKER = -1;
+
+    // Der darunterliegende Stream (mit mark-/reset-Unterstützung)
+    private final InputStream input;
+
+    public Latin1Reader(final InputStream input) {
+        // Hier wird sich vergewissert, dass der Stream auch tatsächlich mark/reset unterstützt,
+        // da der "HttpReader" diese Funktionen durchgehend benötigt
+        if (!input.markSupported()) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + " requires an input stream with mark/reset support");
+        }
+        this.input = input;
+    }
+
+    @Override
+    public int read() throws IOException {
+        // Ein Byte entspricht genau einem Zeichen, daher kann der Wert direkt zurückgegeben werden
+        return this.input.read();
+    }
+
+    @Override
+    public int read(final char[] chars, final int offset, final int length) throws IOException {
+        // Anders als z.B. ein "BufferedReader" wird hier so lange gelesen, bis entweder die gesamte
+        // angefragte Länge gelesen wurde oder der Stream endet; dies erwartet auch der "HttpReader"
+        int count = 0;
+        while (count < length) {
+            final int b = this.input.read();
+            if (b == END_MARKER) {
+                // Falls noch gar nichts gelesen wurde, wird das Ende des Streams weitergegeben
+                return count == 0 ? END_MARKER : count;
+            }
+            chars[offset + count++] = (char) b;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return this.input.available() > 0;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(final int readAheadLimit) {
+        // Da ein Zeichen immer genau ein Byte ist, kann das Limit direkt übernommen werden
+        this.input.mark(readAheadLimit);
+    }
+
+    @Override
+    public void reset() throws IOException {
+        this.input.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.input.close();
+    }
+}
@@ -0,0 +1,101 @@
+package dev.booky.http.bench.legacy;
+
+import dev.booky.http.protocol.HttpHeaders;
+import dev.booky.http.protocol.HttpRequest;
+import dev.booky.http.protocol.HttpUri;
+import dev.booky.http.protocol.HttpVersion;
+import dev.booky.http.util.HttpMethod;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import static dev.booky.http.protocol.HttpDefinitions.CRLF;
+
+// Der ursprüngliche, zeichenbasierte Parser über den "HttpReader"; der Server nutzt inzwischen den
+// byte-basierten "HttpRequestParser", dieser Parser bleibt nur als Vergleich für die Benchmarks erhalten
+@NullMarked
+public final class LegacyRequestParser {
+
+    private LegacyRequestParser() {
+    }
+
+    // Liest eine Anfrage ein; wie beim Vergleich mit dem "HttpRequestParser" wird der Inhalt
+    // nicht aus dem Stream gelesen, da die gemessenen Anfragen keinen Inhalt haben
+    public static HttpRequest parseRequest(final HttpReader reader) throws IOException {
+        // Laut dem Http-Protokoll sollte beim Start einer Anfrage eigentlich nur
+        // ein Zeilensprung übersprungen werden, allerdings überspringen wir hier
+        // zur Sicherheit alle Weißzeichen, siehe https://www.rfc-editor.org/rfc/rfc2616#section-4.1
+        reader.skipLWS();
+
+        // Die erste Zeile einer Http-Anfrage sieht wie folgt aus:
+        // Request-Line = Method SP Request-URI SP HTTP-Version CRLF
+        // (https://www.rfc-editor.org/rfc/rfc2616#section-5.1)
+        final HttpMethod method = parseMethod(reader);
+        reader.skipLWS(); // statt nur einem Leerzeichen überspringen wir hier zur Sicherheit alle Weißzeichen
+        final HttpUri uri = new HttpUri(URI.create(reader.readLineUntilLWS()));
+        reader.skipLWS(); // statt nur einem Leerzeichen überspringen wir hier zur Sicherheit alle Weißzeichen
+        final HttpVersion version = parseVersion(reader);
+        // Hier wird genau ein Zeilensprung erwartet; würden alle Weißzeichen übersprungen werden, würde
+        // bei einer Anfrage ohne Header auf persistenten Verbindungen bis zur nächsten Anfrage gewartet werden
+        if (!reader.skipCRLF()) {
+            throw new IllegalArgumentException("Expected line break after request line");
+        }
+
+        // Nach der Anfragen-Zeile folgen die Http-Header
+        final HttpHeaders headers = parseHeaders(reader);
+        return new HttpRequest(method, uri, version, headers, InputStream.nullInputStream());
+    }
+
+    private static HttpMethod parseMethod(final HttpReader reader) throws IOException {
+        reader.skipLWS(); // zuerst werden wieder Weißzeichen übersprungen
+        // Danach wird bis zum nächsten Weißzeichen Text gelesen
+        final String method = reader.readLineUntilLWS();
+        return switch (method) {
+            case "OPTIONS" -> HttpMethod.OPTIONS;
+            case "GET" -> HttpMethod.GET;
+            case "HEAD" -> HttpMethod.HEAD;
+            case "POST" -> HttpMethod.POST;
+            case "PUT" -> HttpMethod.PUT;
+            case "DELETE" -> HttpMethod.DELETE;
+            case "TRACE" -> HttpMethod.TRACE;
+            case "CONNECT" -> HttpMethod.CONNECT;
+            default -> new HttpMethod(method);
+        };
+    }
+
+    private static HttpVersion parseVersion(final HttpReader reader) throws IOException {
+        // Da nur HTTP/1.0 und HTTP/1.1 unterstützt werden, wird bei einem anderen Wert eine Fehlermeldung ausgegeben
+        final String version = reader.read("HTTP/0.0".length());
+        return switch (version) {
+            case "HTTP/1.0" -> HttpVersion.HTTP_1_0;
+            case "HTTP/1.1" -> HttpVersion.HTTP_1_1;
+            default -> throw new IllegalArgumentException("Illegal http version: " + version);
+        };
+    }
+
+    // Nutzt den HTTP-Reader, um alle HTTP-Header auszulesen, bis entweder der
+    // Inhalt vorbei ist oder der Anfragen-Inhalt anfängt
+    public static HttpHeaders parseHeaders(final HttpReader reader) throws IOException {
+        final HttpHeaders.Builder headers = HttpHeaders.builder();
+        do {
+            if (CRLF.equals(reader.peek(CRLF.length()))) {
+                // Falls nach einem Zeilenbruch noch ein weiterer Zeilenbruch
+                // vorliegt, ist das Ende der HTTP-Header erreicht
+                break;
+            }
+            // Ein Header ist normalerweise nach "<Name> ': ' <Wert>" formatiert -
+            // deshalb wird jetzt bis zum ersten ":" der Header-Name eingelesen
+            final String name = reader.readLineUntil(':');
+            reader.skip(1); // Das Trennzeichen zwischen Header-Name und Header-Wert (":") wird übersprungen
+            reader.skipLWS(); // Weißzeichen werden übersprungen
+            // Der Wert des Headers kann auch mehrzeilig sein
+            final String value = reader.readMultiLine();
+            headers.add(name, value);
+        } while (reader.skipCRLF() && reader.isReadable(CRLF.length()));
+        // Die leere Zeile, welche das Ende der Http-Header markiert, wird noch konsumiert
+        reader.skipCRLF();
+        return headers.build();
+    }
+}
@@ -0,0 +1,136 @@
+package dev.booky.http.load;
+
+import dev.booky.http.HttpServer.ExecutorType;
+import dev.booky.http.HttpServer.ServerEngine;
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Konfiguration eines Last-Tests; alle Werte können als "name=wert"-Programmargumente überschrieben werden,
+// z.B. "engine=NIO mode=open rate=20000 connections=64 keepAlive=false mix=small:80,large:20"
+@NullMarked
+public record LoadConfig(
+        // Mit welcher Engine und welchem Thread-Pool der Server Verbindungen bearbeitet
+        ServerEngine engine,
+        ExecutorType executor,
+        // Die Anzahl an Event-Loop- bzw. Worker-Threads des Servers; 0 nutzt die Standard-Werte des Servers
+        int serverThreads,
+        // Wie viele Sockets des Servers mit "SO_REUSEPORT" auf demselben Port lauschen
+        int listeners,
+        // Ob jede Verbindung so schnell wie möglich Anfragen sendet oder einem festen Zeitplan folgt
+        LoadMode mode,
+        // Die Anzahl an gleichzeitigen Verbindungen
+        int connections,
+        // Wie viele Anfragen pro Sekunde insgesamt gesendet werden, falls einem festen Zeitplan gefolgt wird
+        int rate,
+        // Ob Verbindungen für weitere Anfragen offen gehalten oder nach jeder Antwort neu aufgebaut werden
+        boolean keepAlive,
+        // Wie lange vor der eigentlichen Messung Last erzeugt wird, damit u.a. der JIT-Compiler und die Caches
+        // des Servers aufgewärmt sind
+        Duration warmup,
+        Duration duration,
+        RequestMix mix,
+        // Die Anzahl und Größe der erzeugten Dateien
+        int smallFiles,
+        int smallFileSize,
+        int largeFiles,
+        int largeFileSize,
+        // Startwert für alle Zufallszahlen, damit Dateien und Anfragen-Reihenfolge reproduzierbar sind
+        long seed
+) {
+
+    private static final int DEFAULT_CONNECTIONS = 32;
+    private static final int DEFAULT_RATE = 10_000;
+    private static final Duration DEFAULT_WARMUP = Duration.ofSeconds(5L);
+    private static final Duration DEFAULT_DURATION = Duration.ofSeconds(20L);
+    private static final int DEFAULT_SMALL_FILES = 1000;
+    private static final int DEFAULT_SMALL_FILE_SIZE = 4 * 1024; // 4 KiB
+    private static final int DEFAULT_LARGE_FILES = 4;
+    private static final int DEFAULT_LARGE_FILE_SIZE = 8 * 1024 * 1024; // 8 MiB
+    private static final long DEFAULT_SEED = 42L;
+
+    public LoadConfig {
+        if (connections <= 0) {
+            throw new IllegalArgumentException("At least one connection is required");
+        }
+        if (mode == LoadMode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("A positive rate is required for an open-loop test");
+        }
+        if (smallFiles <= 0 || largeFiles <= 0) {
+            throw new IllegalArgumentException("At least one small and one large file are required");
+        }
+    }
+
+    public static LoadConfig parse(final String[] args) {
+        ServerEngine engine = ServerEngine.BLOCKING;
+        ExecutorType executor = ExecutorType.CACHED;
+        int serverThreads = 0;
+        int listeners = 1;
+        LoadMode mode = LoadMode.CLOSED;
+        int connections = DEFAULT_CONNECTIONS;
+        int rate = DEFAULT_RATE;
+        boolean keepAlive = true;
+        Duration warmup = DEFAULT_WARMUP;
+        Duration duration = DEFAULT_DURATION;
+        RequestMix mix = RequestMix.DEFAULT_MIX;
+        int smallFiles = DEFAULT_SMALL_FILES;
+        int smallFileSize = DEFAULT_SMALL_FILE_SIZE;
+        int largeFiles = DEFAULT_LARGE_FILES;
+        int largeFileSize = DEFAULT_LARGE_FILE_SIZE;
+        long seed = DEFAULT_SEED;
+
+        for (final String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            final int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected argument as name=value: " + arg);
+            }
+            final String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "engine" -> engine = ServerEngine.valueOf(value.toUpperCase(Locale.ROOT));
+                case "executor" -> executor = ExecutorType.valueOf(value.toUpperCase(Locale.ROOT));
+                case "serverThreads" -> serverThreads = Integer.parseInt(value);
+                case "listeners" -> listeners = Integer.parseInt(value);
+                case "mode" -> mode = LoadMode.valueOf(value.toUpperCase(Locale.ROOT));
+                case "connections" -> connections = Integer.parseInt(value);
+                case "rate" -> rate = Integer.parseInt(value);
+                case "keepAlive" -> keepAlive = Boolean.parseBoolean(value);
+                case "warmup" -> warmup = parseDuration(value);
+                case "duration" -> duration = parseDuration(value);
+                case "mix" -> mix = RequestMix.parse(value);
+                case "smallFiles" -> smallFiles = Integer.parseInt(value);
+                case "smallFileSize" -> smallFileSize = Integer.parseInt(value);
+                case "largeFiles" -> largeFiles = Integer.parseInt(value);
+                case "largeFileSize" -> largeFileSize = Integer.parseInt(value);
+                case "seed" -> seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        return new LoadConfig(engine, executor, serverThreads, listeners, mode, connections, rate, keepAlive,
+                warmup, duration, mix, smallFiles, smallFileSize, largeFiles, largeFileSize, seed);
+    }
+
+    // Dauern werden mit Einheit angegeben, z.B. "500ms", "30s" oder "2m"
+    private static Duration parseDuration(final String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        } else if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        } else if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("Expected duration with unit (ms, s or m): " + value);
+    }
+
+    public enum LoadMode {
+        // Jede Verbindung sendet die nächste Anfrage direkt nach der letzten Antwort ("closed loop"); ist der
+        // Server langsam, werden auch weniger Anfragen gesendet, wodurch gemessene Latenzen zu gut ausfallen
+        CLOSED,
+        // Anfragen werden unabhängig vom Server mit fester Rate gesendet ("open loop"); die Latenz wird ab dem
+        // geplanten Sendezeitpunkt gemessen, damit auch die Wartezeit hinter langsamen Anfragen zählt
+        OPEN,
+    }
+}
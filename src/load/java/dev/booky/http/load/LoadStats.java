@@ -0,0 +1,79 @@
+package dev.booky.http.load;
+
+import dev.booky.http.metrics.LatencyHistogram;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Die Messwerte eines Abschnitts (Aufwärmen oder Messung) eines Last-Tests, von allen Verbindungen gemeinsam genutzt
+@NullMarked
+public final class LoadStats {
+
+    // Die Dauer vom tatsächlichen Senden einer Anfrage bis zum Empfang des letzten Bytes der Antwort
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    // Die um das "Coordinated Omission"-Problem korrigierte Dauer (siehe "recordCorrected")
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+
+    // Die Statusklassen 1xx bis 5xx
+    private final LongAdder[] statusClasses = {
+            new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(),
+    };
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+
+    public void recordResponse(final int status, final long bytes, final long serviceNanos) {
+        this.statusClasses[Math.max(0, Math.min(this.statusClasses.length - 1, status / 100 - 1))].increment();
+        this.bytesReceived.add(bytes);
+        this.serviceTime.record(serviceNanos);
+    }
+
+    // Bei einem festen Zeitplan wird die Dauer ab dem geplanten Sendezeitpunkt übergeben, wodurch bereits alle
+    // Wartezeiten hinter vorherigen, langsamen Anfragen enthalten sind und "expectedIntervalNanos" 0 ist
+    //
+    // Ohne festen Zeitplan sendet eine Verbindung während einer langsamen Antwort keine weiteren Anfragen, deren
+    // Latenzen damit in der Messung fehlen würden; wie bei "HdrHistogram" werden daher für jedes erwartete
+    // Intervall, welches die Antwort länger gedauert hat, die Latenzen der ausgelassenen Anfragen nachgetragen
+    public void recordCorrected(final long nanos, final long expectedIntervalNanos) {
+        this.responseTime.record(nanos);
+        if (expectedIntervalNanos <= 0L) {
+            return;
+        }
+        for (long missing = nanos - expectedIntervalNanos; missing >= expectedIntervalNanos;
+                missing -= expectedIntervalNanos) {
+            this.responseTime.record(missing);
+        }
+    }
+
+    public void recordError() {
+        this.errors.increment();
+    }
+
+    public void recordConnection() {
+        this.connections.increment();
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return this.serviceTime;
+    }
+
+    public LatencyHistogram getResponseTime() {
+        return this.responseTime;
+    }
+
+    public long getStatusClassCount(final int statusClass) {
+        return this.statusClasses[statusClass - 1].sum();
+    }
+
+    public long getErrorCount() {
+        return this.errors.sum();
+    }
+
+    public long getBytesReceived() {
+        return this.bytesReceived.sum();
+    }
+
+    public long getConnectionCount() {
+        return this.connections.sum();
+    }
+}
@@ -0,0 +1,60 @@
+package dev.booky.http.load;
+
+import dev.booky.http.load.RequestMix.RequestKind;
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+// Alle Anfragen, welche während eines Last-Tests gesendet werden; diese werden einmalig vorab kodiert,
+// damit der Lastgenerator selbst möglichst wenig Zeit pro Anfrage benötigt
+@NullMarked
+public final class LoadTargets {
+
+    private final byte[][] small;
+    private final byte[][] large;
+    private final byte[] index;
+    private final byte[][] missing;
+
+    public LoadTargets(final String host, final boolean keepAlive, final int smallFiles, final int largeFiles) {
+        this.small = new byte[smallFiles][];
+        this.missing = new byte[smallFiles][];
+        for (int i = 0; i < smallFiles; i++) {
+            this.small[i] = encodeRequest(host, keepAlive, "/" + smallFilePath(i));
+            this.missing[i] = encodeRequest(host, keepAlive, "/missing/file-" + i + ".txt");
+        }
+        this.large = new byte[largeFiles][];
+        for (int i = 0; i < largeFiles; i++) {
+            this.large[i] = encodeRequest(host, keepAlive, "/" + largeFilePath(i));
+        }
+        this.index = encodeRequest(host, keepAlive, "/");
+    }
+
+    // Die Pfade der erzeugten Dateien relativ zum Server-Verzeichnis
+    public static String smallFilePath(final int index) {
+        return "small/file-" + index + ".txt";
+    }
+
+    public static String largeFilePath(final int index) {
+        return "large/file-" + index + ".bin";
+    }
+
+    private static byte[] encodeRequest(final String host, final boolean keepAlive, final String path) {
+        // Ohne "Accept-Encoding" werden alle Dateien unkomprimiert übertragen
+        final String request = "GET " + path + " HTTP/1.1\r\n"
+                + "Host: " + host + "\r\n"
+                + "User-Agent: http-load\r\n"
+                + (keepAlive ? "" : "Connection: close\r\n")
+                + "\r\n";
+        return request.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    public byte[] pick(final RequestKind kind, final SplittableRandom random) {
+        return switch (kind) {
+            case SMALL -> this.small[random.nextInt(this.small.length)];
+            case LARGE -> this.large[random.nextInt(this.large.length)];
+            case INDEX -> this.index;
+            case MISSING -> this.missing[random.nextInt(this.missing.length)];
+        };
+    }
+}
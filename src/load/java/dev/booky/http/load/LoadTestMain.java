@@ -0,0 +1,196 @@
+package dev.booky.http.load;
+
+import dev.booky.http.HttpServer;
+import dev.booky.http.HttpServer.ServerParameters;
+import dev.booky.http.load.LoadConfig.LoadMode;
+import dev.booky.http.log.Logger.Level;
+import dev.booky.http.log.LoggerFactory;
+import dev.booky.http.metrics.LatencyHistogram;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+// Ein Last-Test über das Netzwerk: startet einen Http-Server auf einem freien Port der Loopback-Adresse, erzeugt
+// dafür ein Verzeichnis mit vielen kleinen und einigen großen Dateien und sendet anschließend mit dem eingebauten
+// Lastgenerator Anfragen, bis Durchsatz und Latenzen ausgegeben werden; damit lassen sich z.B. Engines und
+// Thread-Pools auf demselben Rechner ohne externe Werkzeuge vergleichen
+@NullMarked
+public final class LoadTestMain {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    private static final double BYTES_PER_MIB = 1024d * 1024d;
+    // Welche Quantile ausgegeben werden; 1.0 ist die größte gemessene Latenz
+    private static final double[] QUANTILES = {0.5d, 0.9d, 0.99d, 0.999d, 1d};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p99.9", "max"};
+
+    private LoadTestMain() {
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final LoadConfig config = LoadConfig.parse(args);
+        // Jede bearbeitete Anfrage würde sonst eine Info-Nachricht ausgeben und damit die Messung verfälschen
+        LoggerFactory.setLevel(Level.WARN);
+
+        final Path rootDir = Files.createTempDirectory("http-load-");
+        try {
+            generateFiles(rootDir, config);
+            final InetSocketAddress bindAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+            try (final HttpServer server = HttpServer.createAndBind(bindAddress, buildParameters(rootDir, config))) {
+                final InetSocketAddress address = (InetSocketAddress) server.getLocalAddress();
+                server.start();
+
+                System.out.printf(Locale.ROOT, "Load test against http://%s:%d/ (%s engine, %s executor)%n",
+                        address.getHostString(), address.getPort(), config.engine(), config.executor());
+                System.out.printf(Locale.ROOT, "%s loop, %d connections%s, keep-alive %s, mix %s%n",
+                        config.mode() == LoadMode.OPEN ? "Open" : "Closed", config.connections(),
+                        config.mode() == LoadMode.OPEN ? " at " + config.rate() + " requests/s" : "",
+                        config.keepAlive() ? "on" : "off", config.mix());
+
+                final LoadTargets targets = new LoadTargets(address.getHostString() + ":" + address.getPort(),
+                        config.keepAlive(), config.smallFiles(), config.largeFiles());
+                final SplittableRandom random = new SplittableRandom(config.seed());
+
+                final LoadStats warmup = new LoadStats();
+                runPhase(config, address, targets, random, config.warmup(), warmup, 0L);
+                // Ohne festen Zeitplan wird die mittlere Dauer einer Anfrage beim Aufwärmen als erwarteter
+                // Abstand zwischen zwei Anfragen einer Verbindung genutzt
+                final long warmupCount = warmup.getServiceTime().getCount();
+                final long expectedIntervalNanos = config.mode() == LoadMode.CLOSED && warmupCount > 0L
+                        ? warmup.getServiceTime().getSum() / warmupCount : 0L;
+
+                final LoadStats stats = new LoadStats();
+                final long elapsedNanos = runPhase(config, address, targets, random,
+                        config.duration(), stats, expectedIntervalNanos);
+                printReport(stats, elapsedNanos);
+            }
+        } finally {
+            deleteRecursively(rootDir);
+        }
+    }
+
+    private static ServerParameters buildParameters(final Path rootDir, final LoadConfig config) {
+        final ServerParameters defaults = new ServerParameters(rootDir);
+        final int threads = config.serverThreads();
+        return new ServerParameters(rootDir, defaults.indexFiles(), defaults.keepAliveTimeout(),
+                defaults.headerReadTimeout(), defaults.bodyReadTimeout(), defaults.writeTimeout(),
+                defaults.maxKeepAliveRequests(), defaults.maxRequestHeadSize(), defaults.maxRequestBodySize(),
+                config.engine(), threads > 0 ? threads : defaults.eventLoopThreads(),
+                config.executor(), threads > 0 ? threads : defaults.workerThreads(),
+                defaults.acceptBacklog(), defaults.acceptorThreads(), config.listeners(),
+                ServerParameters.defaultMaxConcurrentConnections(config.engine(), config.executor()),
+                defaults.maxQueuedConnections(), defaults.maxQueueDelay(),
+                defaults.overloadResponse(), defaults.retryAfter(), defaults.socketOptions(),
+                defaults.fileCacheMaxFileSize(), defaults.fileCacheMaxSize(),
+                defaults.compressionMinSize(), defaults.compressionMaxSize(),
+                defaults.mappedFileMinSize(), defaults.mappedFileIdleTimeout(), defaults.cachePolicies(),
+                defaults.metadataCacheMaxEntries(), defaults.metadataCacheTimeout(),
+                defaults.bufferPoolMaxSize(), defaults.bufferLeakDetection(), null, null);
+    }
+
+    private static void generateFiles(final Path rootDir, final LoadConfig config) throws IOException {
+        final SplittableRandom random = new SplittableRandom(config.seed());
+        Files.writeString(rootDir.resolve("index.html"), "<!DOCTYPE html>\n<html><head><title>Load test</title>"
+                + "</head><body><p>Load test</p></body></html>\n", StandardCharsets.UTF_8);
+
+        Files.createDirectories(rootDir.resolve("small"));
+        final byte[] smallContent = new byte[config.smallFileSize()];
+        for (int i = 0; i < config.smallFiles(); i++) {
+            // Kleine Dateien bestehen aus zufälligen Buchstaben, damit sie wie Textdateien behandelt werden
+            for (int j = 0; j < smallContent.length; j++) {
+                smallContent[j] = (byte) ('a' + random.nextInt(26));
+            }
+            Files.write(rootDir.resolve(LoadTargets.smallFilePath(i)), smallContent);
+        }
+
+        Files.createDirectories(rootDir.resolve("large"));
+        final byte[] largeContent = new byte[config.largeFileSize()];
+        for (int i = 0; i < config.largeFiles(); i++) {
+            random.nextBytes(largeContent);
+            Files.write(rootDir.resolve(LoadTargets.largeFilePath(i)), largeContent);
+        }
+    }
+
+    // Führt einen Abschnitt mit einem Thread pro Verbindung aus und gibt dessen tatsächliche Dauer zurück
+    private static long runPhase(
+            final LoadConfig config,
+            final InetSocketAddress address,
+            final LoadTargets targets,
+            final SplittableRandom random,
+            final Duration duration,
+            final LoadStats stats,
+            final long expectedIntervalNanos
+    ) throws InterruptedException {
+        if (duration.isZero()) {
+            return 0L;
+        }
+        final int connections = config.connections();
+        // Bei einem festen Zeitplan wird die Rate gleichmäßig auf alle Verbindungen verteilt und deren Start
+        // versetzt, damit die Anfragen nicht alle gleichzeitig gesendet werden
+        final long intervalNanos = config.mode() == LoadMode.OPEN
+                ? Math.max(1L, (long) (connections * NANOS_PER_SECOND / config.rate())) : 0L;
+        final long startNanos = System.nanoTime();
+        final long endNanos = startNanos + duration.toNanos();
+
+        final Thread[] threads = new Thread[connections];
+        for (int i = 0; i < connections; i++) {
+            final LoadWorker worker = new LoadWorker(address, targets, config.mix(), stats, random.split(),
+                    startNanos + i * intervalNanos / connections, endNanos, intervalNanos, expectedIntervalNanos);
+            threads[i] = new Thread(worker, "Http-Load-Worker #" + i);
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    private static void printReport(final LoadStats stats, final long elapsedNanos) {
+        final long requests = stats.getServiceTime().getCount();
+        final double seconds = Math.max(1L, elapsedNanos) / NANOS_PER_SECOND;
+        System.out.printf(Locale.ROOT, "Requests:   %d (1xx %d, 2xx %d, 3xx %d, 4xx %d, 5xx %d), %d errors,"
+                        + " %d connections%n", requests, stats.getStatusClassCount(1), stats.getStatusClassCount(2),
+                stats.getStatusClassCount(3), stats.getStatusClassCount(4), stats.getStatusClassCount(5),
+                stats.getErrorCount(), stats.getConnectionCount());
+        System.out.printf(Locale.ROOT, "Throughput: %.1f requests/s, %.1f MiB/s%n",
+                requests / seconds, stats.getBytesReceived() / BYTES_PER_MIB / seconds);
+
+        final StringBuilder header = new StringBuilder(String.format(Locale.ROOT, "%-14s", "Latency (ms)"));
+        for (final String name : QUANTILE_NAMES) {
+            header.append(String.format(Locale.ROOT, "%10s", name));
+        }
+        System.out.println(header);
+        // Die korrigierten Latenzen sind maßgeblich; die reine Bearbeitungsdauer wird zum Vergleich ausgegeben
+        printLatencies("corrected", stats.getResponseTime());
+        printLatencies("uncorrected", stats.getServiceTime());
+    }
+
+    private static void printLatencies(final String name, final LatencyHistogram histogram) {
+        final StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-14s", name));
+        for (final long value : histogram.getValuesAtQuantiles(QUANTILES)) {
+            line.append(String.format(Locale.ROOT, "%10.3f", value / NANOS_PER_MILLI));
+        }
+        System.out.println(line);
+    }
+
+    private static void deleteRecursively(final Path rootDir) throws IOException {
+        final List<Path> paths;
+        try (final Stream<Path> stream = Files.walk(rootDir)) {
+            paths = stream.sorted(Comparator.reverseOrder()).toList();
+        }
+        for (final Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package dev.booky.http.load;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// Eine einzelne Verbindung des Lastgenerators, welche nacheinander Anfragen sendet und die Antworten vollständig
+// einliest; der Server antwortet immer mit "Content-Length", daher wird kein "Transfer-Encoding" unterstützt
+@NullMarked
+public final class LoadWorker implements Runnable {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024; // 64 KiB
+
+    private final InetSocketAddress address;
+    private final LoadTargets targets;
+    private final RequestMix mix;
+    private final LoadStats stats;
+    private final SplittableRandom random;
+    // Der Zeitpunkt der ersten Anfrage sowie das Ende dieses Abschnitts (jeweils "System.nanoTime()")
+    private final long startNanos;
+    private final long endNanos;
+    // Der Abstand zwischen zwei Anfragen bei einem festen Zeitplan; 0 sendet direkt nach jeder Antwort
+    private final long intervalNanos;
+    // Der erwartete Abstand zwischen zwei Anfragen ohne festen Zeitplan, mit welchem Latenzen korrigiert werden
+    private final long expectedIntervalNanos;
+
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private final StringBuilder lineBuilder = new StringBuilder();
+    private @Nullable Socket socket;
+    private @Nullable InputStream input;
+    private @Nullable OutputStream output;
+    private long responseBytes;
+    private boolean closeAfterResponse;
+
+    public LoadWorker(
+            final InetSocketAddress address,
+            final LoadTargets targets,
+            final RequestMix mix,
+            final LoadStats stats,
+            final SplittableRandom random,
+            final long startNanos,
+            final long endNanos,
+            final long intervalNanos,
+            final long expectedIntervalNanos
+    ) {
+        this.address = address;
+        this.targets = targets;
+        this.mix = mix;
+        this.stats = stats;
+        this.random = random;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.intervalNanos = intervalNanos;
+        this.expectedIntervalNanos = expectedIntervalNanos;
+    }
+
+    @Override
+    public void run() {
+        long intendedStart = this.startNanos;
+        while (true) {
+            final long now = System.nanoTime();
+            if (this.intervalNanos > 0L) {
+                // Bei einem festen Zeitplan wird bis zum geplanten Zeitpunkt gewartet; liegt dieser bereits
+                // in der Vergangenheit, wird die Anfrage sofort gesendet, um den Rückstand aufzuholen
+                if (intendedStart - this.endNanos >= 0L) {
+                    break;
+                } else if (intendedStart - now > 0L) {
+                    LockSupport.parkNanos(intendedStart - now);
+                    continue;
+                }
+            } else if (now - this.endNanos >= 0L) {
+                break;
+            }
+
+            final byte[] request = this.targets.pick(this.mix.pick(this.random), this.random);
+            final long start = System.nanoTime();
+            try {
+                final int status = this.exchange(request);
+                final long end = System.nanoTime();
+                this.stats.recordResponse(status, this.responseBytes, end - start);
+                if (this.intervalNanos > 0L) {
+                    this.stats.recordCorrected(end - intendedStart, 0L);
+                } else {
+                    this.stats.recordCorrected(end - start, this.expectedIntervalNanos);
+                }
+            } catch (final IOException | RuntimeException exception) {
+                this.stats.recordError();
+                this.closeAfterResponse = true;
+            }
+            if (this.closeAfterResponse) {
+                this.closeConnection();
+            }
+            intendedStart += this.intervalNanos;
+        }
+        this.closeConnection();
+    }
+
+    private int exchange(final byte[] request) throws IOException {
+        if (this.socket == null) {
+            // Der Verbindungsaufbau zählt mit zur Latenz, wie bei einem Browser ohne offene Verbindung
+            final Socket socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(this.address);
+            this.socket = socket;
+            this.input = new BufferedInputStream(socket.getInputStream(), READ_BUFFER_SIZE);
+            this.output = socket.getOutputStream();
+            this.stats.recordConnection();
+        }
+        final OutputStream output = this.output;
+        final InputStream input = this.input;
+        if (output == null || input == null) {
+            throw new IllegalStateException("Connection is not open");
+        }
+        output.write(request);
+        output.flush();
+        return this.readResponse(input);
+    }
+
+    private int readResponse(final InputStream input) throws IOException {
+        this.responseBytes = 0L;
+        this.closeAfterResponse = false;
+
+        // Die Status-Zeile hat immer die Form "HTTP/1.1 200 OK"
+        final String statusLine = this.readLine(input);
+        if (!statusLine.startsWith("HTTP/1.") || statusLine.length() < 12) {
+            throw new IOException("Invalid status line: " + statusLine);
+        }
+        final int status = Integer.parseInt(statusLine, 9, 12, 10);
+
+        long contentLength = 0L;
+        String line;
+        while (!(line = this.readLine(input)).isEmpty()) {
+            final int separator = line.indexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+            final String name = line.substring(0, separator).trim();
+            final String value = line.substring(separator + 1).trim();
+            if (name.equalsIgnoreCase("Content-Length")) {
+                contentLength = Long.parseLong(value);
+            } else if (name.equalsIgnoreCase("Connection")) {
+                this.closeAfterResponse = value.equalsIgnoreCase("close");
+            }
+        }
+
+        // Der Inhalt wird nur eingelesen und direkt verworfen
+        long remaining = contentLength;
+        while (remaining > 0L) {
+            final int read = input.read(this.readBuffer, 0, (int) Math.min(remaining, this.readBuffer.length));
+            if (read < 0) {
+                throw new EOFException("Connection closed with " + remaining + " bytes of body remaining");
+            }
+            remaining -= read;
+        }
+        this.responseBytes += contentLength;
+        return status;
+    }
+
+    private String readLine(final InputStream input) throws IOException {
+        this.lineBuilder.setLength(0);
+        int read;
+        while ((read = input.read()) != '\n') {
+            if (read < 0) {
+                throw new EOFException("Connection closed while reading response head");
+            }
+            this.lineBuilder.append((char) read);
+        }
+        this.responseBytes += this.lineBuilder.length() + 1;
+        final int length = this.lineBuilder.length();
+        if (length > 0 && this.lineBuilder.charAt(length - 1) == '\r') {
+            this.lineBuilder.setLength(length - 1);
+        }
+        return this.lineBuilder.toString();
+    }
+
+    private void closeConnection() {
+        if (this.socket != null) {
+            try {
+                this.socket.close();
+            } catch (final IOException ignored) {
+                // Die Verbindung wird ohnehin nicht mehr genutzt
+            }
+            this.socket = null;
+            this.input = null;
+            this.output = null;
+        }
+    }
+}
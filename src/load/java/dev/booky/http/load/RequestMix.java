@@ -0,0 +1,71 @@
+package dev.booky.http.load;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.SplittableRandom;
+
+// Gewichtung der angefragten Arten von Dateien, z.B. "small:90,large:2,index:5,missing:3"
+@NullMarked
+public record RequestMix(int small, int large, int index, int missing) {
+
+    public static final RequestMix DEFAULT_MIX = new RequestMix(90, 2, 5, 3);
+
+    public RequestMix {
+        if (small < 0 || large < 0 || index < 0 || missing < 0) {
+            throw new IllegalArgumentException("Request weights must not be negative");
+        }
+        if (small + large + index + missing <= 0) {
+            throw new IllegalArgumentException("At least one request weight has to be positive");
+        }
+    }
+
+    public static RequestMix parse(final String value) {
+        int small = 0;
+        int large = 0;
+        int index = 0;
+        int missing = 0;
+        for (final String part : value.split(",")) {
+            final int separator = part.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected request weight as kind:weight: " + part);
+            }
+            final int weight = Integer.parseInt(part.substring(separator + 1));
+            switch (part.substring(0, separator)) {
+                case "small" -> small = weight;
+                case "large" -> large = weight;
+                case "index" -> index = weight;
+                case "missing" -> missing = weight;
+                default -> throw new IllegalArgumentException("Unknown request kind: " + part);
+            }
+        }
+        return new RequestMix(small, large, index, missing);
+    }
+
+    public RequestKind pick(final SplittableRandom random) {
+        int value = random.nextInt(this.small + this.large + this.index + this.missing);
+        if ((value -= this.small) < 0) {
+            return RequestKind.SMALL;
+        } else if ((value -= this.large) < 0) {
+            return RequestKind.LARGE;
+        } else if (value - this.index < 0) {
+            return RequestKind.INDEX;
+        }
+        return RequestKind.MISSING;
+    }
+
+    @Override
+    public String toString() {
+        return "small:" + this.small + ",large:" + this.large + ",index:" + this.index + ",missing:" + this.missing;
+    }
+
+    public enum RequestKind {
+        // Eine zufällige kleine Datei, welche in den Datei-Cache des Servers passt
+        SMALL,
+        // Eine zufällige große Datei, welche direkt aus dem Dateisystem übertragen wird
+        LARGE,
+        // Die Startseite über den Pfad "/"
+        INDEX,
+        // Eine nicht existierende Datei, welche mit "404 Not Found" beantwortet wird
+        MISSING,
+    }
+}
@@ -0,0 +1,89 @@
+package dev.booky.http;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Entscheidet beim Annehmen jeder Verbindung, ob der Server diese noch bearbeiten kann; angenommene Verbindungen
+// warten eventuell zuerst, bis ein Thread bzw. Event-Loop frei ist, und zählen bis dahin als "wartend"
+//
+// Abgelehnt wird, falls bereits zu viele Verbindungen offen sind, zu viele Verbindungen warten oder die zuletzt
+// übernommene Verbindung zu lange gewartet hat; eine Verbindung, welche selbst zu lange gewartet hat, wird bei ihrer
+// Übernahme noch abgelehnt, da der Browser bis zu ihrer Bearbeitung vermutlich ohnehin aufgegeben hätte
+@NullMarked
+final class AdmissionControl {
+
+    // Die jeweiligen Grenzen; 0 bedeutet unbegrenzt
+    private final int maxConnections;
+    private final int maxQueuedConnections;
+    private final long maxQueueDelayNanos;
+
+    // Alle angenommenen, noch nicht geschlossenen Verbindungen (inklusive der wartenden)
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger queuedConnections = new AtomicInteger();
+    private volatile long lastQueueDelayNanos;
+
+    AdmissionControl(final int maxConnections, final int maxQueuedConnections, final long maxQueueDelayNanos) {
+        this.maxConnections = maxConnections;
+        this.maxQueuedConnections = maxQueuedConnections;
+        this.maxQueueDelayNanos = maxQueueDelayNanos;
+    }
+
+    // Wird direkt nach dem Annehmen aufgerufen; bei "true" zählt die Verbindung als offen und wartend
+    boolean tryAdmit() {
+        final int queued = this.queuedConnections.get();
+        if (this.maxQueuedConnections > 0 && queued >= this.maxQueuedConnections) {
+            return false;
+        }
+        // Die Wartezeit der zuletzt übernommenen Verbindung wird nur beachtet, solange noch weitere warten;
+        // ansonsten würden nach einer einzigen langen Wartezeit nie wieder Verbindungen angenommen werden
+        if (this.maxQueueDelayNanos > 0L && queued > 0 && this.lastQueueDelayNanos > this.maxQueueDelayNanos) {
+            return false;
+        }
+        if (this.maxConnections > 0) {
+            int current;
+            do {
+                current = this.connections.get();
+                if (current >= this.maxConnections) {
+                    return false;
+                }
+            } while (!this.connections.compareAndSet(current, current + 1));
+        } else {
+            this.connections.incrementAndGet();
+        }
+        this.queuedConnections.incrementAndGet();
+        return true;
+    }
+
+    // Wird aufgerufen, sobald ein Thread bzw. Event-Loop die Verbindung übernimmt; bei "false" hat diese zu lange
+    // gewartet, zählt nicht mehr als offen und muss abgelehnt werden
+    boolean dequeue(final long admittedNanos) {
+        this.queuedConnections.decrementAndGet();
+        final long delay = System.nanoTime() - admittedNanos;
+        this.lastQueueDelayNanos = delay;
+        if (this.maxQueueDelayNanos > 0L && delay > this.maxQueueDelayNanos) {
+            this.connections.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // Macht "tryAdmit" rückgängig, falls die Verbindung nie übergeben werden konnte
+    void cancel() {
+        this.queuedConnections.decrementAndGet();
+        this.connections.decrementAndGet();
+    }
+
+    // Wird aufgerufen, sobald eine übernommene Verbindung geschlossen wurde
+    void release() {
+        this.connections.decrementAndGet();
+    }
+
+    int getConnectionCount() {
+        return this.connections.get();
+    }
+
+    int getQueuedConnectionCount() {
+        return this.queuedConnections.get();
+    }
+}
@@ -1,80 +1,293 @@
 package dev.booky.http;
 
+import dev.booky.http.file.CachePolicy;
+import dev.booky.http.file.CachedFile;
+import dev.booky.http.file.FileCache;
+import dev.booky.http.file.FileHeaders;
+import dev.booky.http.file.FileMetadataCache;
+import dev.booky.http.file.MappedFile;
+import dev.booky.http.file.MappedFileCache;
+import dev.booky.http.file.ResolvedFile;
+import dev.booky.http.log.AccessLog;
+import dev.booky.http.log.AccessLogConfig;
+import dev.booky.http.log.AccessLogEntry;
+import dev.booky.http.log.AsyncAppender;
 import dev.booky.http.log.Logger;
+import dev.booky.http.log.Logger.Level;
 import dev.booky.http.log.LoggerFactory;
+import dev.booky.http.metrics.HttpMetrics;
+import dev.booky.http.metrics.MetricsRegistry;
+import dev.booky.http.nio.NioEventLoop;
+import dev.booky.http.protocol.HttpBufferBody;
+import dev.booky.http.protocol.HttpCompositeBody;
+import dev.booky.http.protocol.HttpContentEncoding;
+import dev.booky.http.protocol.HttpFileBody;
 import dev.booky.http.protocol.HttpHeaders;
+import dev.booky.http.protocol.HttpPreconditions;
+import dev.booky.http.protocol.HttpRange;
 import dev.booky.http.protocol.HttpRequest;
+import dev.booky.http.protocol.HttpRequestHead;
+import dev.booky.http.protocol.HttpRequestParser;
 import dev.booky.http.protocol.HttpResponse;
-import dev.booky.http.protocol.HttpUri;
+import dev.booky.http.protocol.HttpResponseQueue;
+import dev.booky.http.protocol.HttpStatus;
+import dev.booky.http.protocol.HttpStatusException;
+import dev.booky.http.protocol.HttpVersion;
+import dev.booky.http.util.BufferPool;
+import dev.booky.http.util.CheckedSupplier;
+import dev.booky.http.util.ConnectionTimeout;
 import dev.booky.http.util.HttpMethod;
-import dev.booky.http.util.HttpReader;
 import dev.booky.http.util.MimeType;
+import dev.booky.http.util.HttpInputBuffer;
+import dev.booky.http.util.SocketOptions;
 import dev.booky.http.util.StringUtil;
+import dev.booky.http.util.TimerWheel;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Reader;
-import java.io.Writer;
-import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketAddress;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
 
-import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_DISPOSITION;
+import static dev.booky.http.protocol.HttpDefinitions.CONNECTION_CLOSE;
+import static dev.booky.http.protocol.HttpDefinitions.CONNECTION_KEEP_ALIVE;
+import static dev.booky.http.protocol.HttpDefinitions.CRLF;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT_ENCODING;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT_RANGES;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CACHE_CONTROL;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONNECTION;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_ENCODING;
 import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_LENGTH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_RANGE;
 import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_TYPE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ETAG;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_LAST_MODIFIED;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_RANGE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_RETRY_AFTER;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_VARY;
+import static dev.booky.http.protocol.HttpDefinitions.RANGE_UNIT_BYTES;
 import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
 import static dev.booky.http.protocol.HttpStatus.STATUS_METHOD_NOT_ALLOWED;
 import static dev.booky.http.protocol.HttpStatus.STATUS_NOT_FOUND;
+import static dev.booky.http.protocol.HttpStatus.STATUS_NOT_MODIFIED;
 import static dev.booky.http.protocol.HttpStatus.STATUS_OK;
+import static dev.booky.http.protocol.HttpStatus.STATUS_PARTIAL_CONTENT;
+import static dev.booky.http.protocol.HttpStatus.STATUS_RANGE_NOT_SATISFIABLE;
+import static dev.booky.http.protocol.HttpStatus.STATUS_SERVICE_UNAVAILABLE;
+import static java.net.StandardSocketOptions.SO_RCVBUF;
 import static java.net.StandardSocketOptions.SO_REUSEADDR;
-import static java.net.StandardSocketOptions.TCP_NODELAY;
+import static java.net.StandardSocketOptions.SO_REUSEPORT;
 
 @NullMarked
 public class HttpServer implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger("Http");
+    // Die Header, welche auch in einer "304 Not Modified"-Antwort gesendet werden
+    private static final List<String> NOT_MODIFIED_HEADERS = List.of(
+            HEADER_ETAG, HEADER_LAST_MODIFIED, HEADER_CACHE_CONTROL, HEADER_VARY);
+    // Der Inhaltstyp des Textformats von Prometheus
+    private static final String METRICS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    // Wie lange nach einem Fehler beim Annehmen einer Verbindung gewartet wird
+    private static final long ACCEPT_ERROR_BACKOFF_NANOS = 100_000_000L; // 100 ms
+    // Wie genau Zeitlimits von Verbindungen eingehalten werden und wie viele Fächer das "TimerWheel" hat;
+    // eine Umdrehung dauert damit etwa 51 Sekunden, längere Zeitlimits benötigen mehrere Umdrehungen
+    private static final Duration TIMER_TICK = Duration.ofMillis(100L);
+    private static final int TIMER_WHEEL_SIZE = 512;
 
-    private final ServerSocket socket;
+    // Die lauschenden Sockets; mehrere gibt es nur, falls "listeners" eingestellt ist (siehe "createAndBind")
+    private final ServerSocketChannel[] sockets;
+    // Die gebundene Adresse, welche für alle Sockets gleich ist
+    private final SocketAddress localAddress;
     private final ServerParameters params;
     private final ExecutorService executor;
+    // Entscheidet, ob neue Verbindungen angenommen oder aufgrund von Überlastung abgelehnt werden
+    private final AdmissionControl admission;
+    // Die Threads, welche Verbindungen annehmen, sobald der Server mit "start" gestartet wurde
+    private final Thread[] acceptors;
+    // Die Event-Loops der NIO-Engine; bei der blockierenden Engine ist dieses Array leer
+    private final NioEventLoop[] eventLoops;
+    // Hält kleine Dateien im Speicher, damit diese nicht bei jeder Anfrage gelesen werden müssen
+    private final FileCache fileCache;
+    // Blendet große Dateien optional in den Speicher ein
+    private final MappedFileCache mappedFileCache;
+    // Merkt sich, zu welcher Datei eine URI aufgelöst wird, damit das Dateisystem nicht bei jeder Anfrage abgefragt wird
+    private final FileMetadataCache metadataCache;
+    // Stellt die Lese- und Schreib-Puffer aller Verbindungen bereit
+    private final BufferPool bufferPool;
+    // Das Zugriffs-Log; falls keines eingestellt ist, ist dies "null"
+    private final @Nullable AccessLog accessLog;
+    // Die Messwerte werden immer gesammelt, aber nur bei eingestelltem Pfad über Http bereitgestellt
+    private final HttpMetrics metrics = new HttpMetrics();
+    // Überwacht die Lese- und Schreib-Zeitlimits aller Verbindungen mit einem einzigen Thread
+    private final TimerWheel timerWheel;
 
     private final AtomicInteger threadCount = new AtomicInteger();
+    // Mit mehreren Akzeptier-Threads werden die Event-Loops weiterhin reihum zugewiesen; jede Socket hat
+    // dabei ihren eigenen Zähler
+    private final AtomicIntegerArray nextEventLoop;
 
     private HttpServer(
-            final ServerSocket socket,
+            final ServerSocketChannel[] sockets,
             final ServerParameters params
-    ) {
-        this.socket = socket;
+    ) throws IOException {
+        this.sockets = sockets;
+        this.localAddress = sockets[0].socket().getLocalSocketAddress();
         this.params = params;
+        this.nextEventLoop = new AtomicIntegerArray(sockets.length);
 
         // Es wird ein Thread-Pool erstellt, damit mehrere Http-Anfragen
         // gleichzeitig verarbeitet werden können
-        this.executor = Executors.newCachedThreadPool(this::constructThread);
+        this.executor = this.constructExecutor();
+        this.admission = new AdmissionControl(this.params.maxConcurrentConnections(),
+                this.params.maxQueuedConnections(), this.params.maxQueueDelay().toNanos());
+        // Jede Socket bekommt ihre eigenen Akzeptier-Threads
+        final int acceptorThreads = Math.max(1, this.params.acceptorThreads());
+        this.acceptors = new Thread[sockets.length * acceptorThreads];
+        for (int i = 0; i < this.acceptors.length; i++) {
+            final int listener = i / acceptorThreads;
+            this.acceptors[i] = new Thread(() -> this.acceptLoop(listener), "Http Socket "
+                    + this.localAddress + " Acceptor #" + i);
+        }
+
+        this.fileCache = new FileCache(this.params.fileCacheMaxFileSize(), this.params.fileCacheMaxSize());
+        this.mappedFileCache = new MappedFileCache(this.params.mappedFileMinSize(), this.params.mappedFileIdleTimeout());
+        this.metadataCache = new FileMetadataCache(this.params.rootDir(), this.params.indexFiles(),
+                this.params.metadataCacheMaxEntries(), this.params.metadataCacheTimeout(), this.fileCache);
+        this.bufferPool = new BufferPool(this.params.bufferPoolMaxSize(), this.params.bufferLeakDetection());
+        this.accessLog = this.params.accessLog() != null ? new AccessLog(this.params.accessLog()) : null;
+        this.registerMetrics(this.metrics.getRegistry());
+        this.timerWheel = new TimerWheel("Http Socket " + this.localAddress + " Timer", TIMER_TICK, TIMER_WHEEL_SIZE);
+
+        // Bei der NIO-Engine werden stattdessen einige wenige Threads gestartet, welche
+        // jeweils beliebig viele Verbindungen gleichzeitig ohne Blockieren bearbeiten
+        this.eventLoops = new NioEventLoop[this.params.engine() == ServerEngine.NIO
+                ? this.params.eventLoopThreads() : 0];
+        for (int i = 0; i < this.eventLoops.length; i++) {
+            this.eventLoops[i] = new NioEventLoop(this, this.params, "Http Socket "
+                    + this.localAddress + " Event Loop #" + i);
+        }
+    }
+
+    // Registriert alle Werte, welche bereits an anderer Stelle gezählt werden und erst bei der Ausgabe abgefragt werden
+    private void registerMetrics(final MetricsRegistry registry) {
+        if (this.executor instanceof final ThreadPoolExecutor pool) {
+            registry.gauge("http_executor_threads", "Threads of the blocking engine", pool::getPoolSize);
+            registry.gauge("http_executor_active_threads", "Threads of the blocking engine currently handling a connection",
+                    pool::getActiveCount);
+        }
+        registry.gauge("http_connections_queued", "Accepted connections waiting for a thread or event loop",
+                this.admission::getQueuedConnectionCount);
+        registry.gauge("http_event_loop_threads", "Event loop threads of the NIO engine", () -> this.eventLoops.length);
+
+        registry.gauge("http_file_cache_bytes", "Size of all files in the file cache", this.fileCache::getTotalSize);
+        registry.gauge("http_file_cache_files", "Files in the file cache", this.fileCache::getFileCount);
+        registry.counter("http_file_cache_hits_total", "File cache hits", this.fileCache::getHits);
+        registry.counter("http_file_cache_misses_total", "File cache misses", this.fileCache::getMisses);
+        registry.counter("http_file_cache_evictions_total", "Files evicted from the file cache", this.fileCache::getEvictions);
+        registry.gauge("http_mapped_files", "Files currently mapped into memory", this.mappedFileCache::getFileCount);
+        registry.counter("http_mapped_file_hits_total", "Mapped file cache hits", this.mappedFileCache::getHits);
+        registry.counter("http_mapped_file_misses_total", "Mapped file cache misses", this.mappedFileCache::getMisses);
+        registry.gauge("http_metadata_cache_entries", "Entries in the file metadata cache", this.metadataCache::getEntryCount);
+        registry.counter("http_metadata_cache_hits_total", "File metadata cache hits", this.metadataCache::getHits);
+        registry.counter("http_metadata_cache_misses_total", "File metadata cache misses", this.metadataCache::getMisses);
+
+        registry.gauge("http_buffers_in_use", "Buffers currently acquired from the buffer pool", this.bufferPool::getInUseCount);
+        registry.gauge("http_buffer_pool_bytes", "Size of all buffers waiting for reuse", this.bufferPool::getPooledBytes);
+        registry.counter("http_buffer_acquires_total", "Buffers acquired from the buffer pool", this.bufferPool::getAcquireCount);
+        registry.counter("http_buffer_allocations_total", "Buffers newly allocated by the buffer pool",
+                this.bufferPool::getAllocationCount);
+        registry.counter("http_buffer_discards_total", "Released buffers which were not kept for reuse",
+                this.bufferPool::getDiscardCount);
+        registry.counter("http_buffer_leaks_total", "Buffers which were never released", this.bufferPool::getLeakCount);
+
+        if (LoggerFactory.getAppender() instanceof final AsyncAppender appender) {
+            registry.counter("http_log_dropped_total", "Log messages dropped because the log buffer was full",
+                    appender::getDroppedCount);
+        }
+        if (this.accessLog != null) {
+            registry.counter("http_access_log_dropped_total", "Access log entries dropped because the queue was full",
+                    this.accessLog::getDroppedCount);
+        }
     }
 
     public static HttpServer createAndBind(
             final SocketAddress address,
             final ServerParameters params
     ) throws IOException {
-        final ServerSocket socket = new ServerSocket();
+        // Mit "SO_REUSEPORT" können mehrere Sockets auf demselben Port lauschen, wobei das Betriebssystem
+        // neue Verbindungen auf diese verteilt; jede Socket hat eigene Akzeptier-Threads, wodurch das Annehmen
+        // von Verbindungen nicht mehr auf einen einzigen Thread beschränkt ist
+        int listeners = Math.max(1, params.listeners());
+        final ServerSocketChannel first = openSocket(params);
+        if (listeners > 1 && !first.supportedOptions().contains(SO_REUSEPORT)) {
+            LOGGER.warn("SO_REUSEPORT is not supported on this system, using a single socket instead of %s", listeners);
+            listeners = 1;
+        }
+        final ServerSocketChannel[] sockets = new ServerSocketChannel[listeners];
+        sockets[0] = first;
         try {
-            socket.setOption(TCP_NODELAY, true);
-        } catch (final UnsupportedOperationException ignored) {
-            // Einige Betriebssysteme (z.B. Windows) unterstützen nicht den TCP_NODELAY Socket-Parameter
+            for (int i = 1; i < listeners; i++) {
+                sockets[i] = openSocket(params);
+            }
+            SocketAddress bindAddress = address;
+            for (final ServerSocketChannel socket : sockets) {
+                if (listeners > 1) {
+                    socket.setOption(SO_REUSEPORT, true);
+                }
+                // Schließlich wird die TCP-Socket erstellt; die Warteschlange gibt an, wie viele
+                // Verbindungen das Betriebssystem vorhält, bis diese angenommen werden
+                socket.bind(bindAddress, params.acceptBacklog());
+                // Falls der Port 0 angegeben wurde, müssen alle weiteren Sockets an den tatsächlich
+                // gewählten Port gebunden werden
+                bindAddress = socket.getLocalAddress();
+            }
+        } catch (final IOException | RuntimeException exception) {
+            for (final ServerSocketChannel socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+            throw exception;
+        }
+        LOGGER.info("Http socket bound on http://%s/%s", StringUtil.stringifyBindAddress(address),
+                listeners > 1 ? " with " + listeners + " listening sockets" : "");
+
+        return new HttpServer(sockets, params);
+    }
+
+    private static ServerSocketChannel openSocket(final ServerParameters params) throws IOException {
+        // Es wird ein Socket-Kanal statt einer klassischen Socket verwendet, da dieser sowohl
+        // blockierend (mit Thread pro Verbindung) als auch nicht-blockierend (NIO) genutzt werden kann
+        final ServerSocketChannel socket = ServerSocketChannel.open();
+        // Die restlichen Socket-Parameter gelten nur für angenommene Verbindungen (siehe "beginConnection");
+        // die Größe des Empfangs-Puffers muss dagegen bereits vor dem Binden gesetzt werden, da angenommene
+        // Verbindungen diese erben und das Betriebssystem nur so die TCP-Fenstergröße entsprechend aushandelt
+        final int receiveBufferSize = params.socketOptions().receiveBufferSize();
+        if (receiveBufferSize > 0) {
+            socket.setOption(SO_RCVBUF, receiveBufferSize);
         }
 
         // Das TCP-Protokoll würde nach einem schnellen Programmneustart die
@@ -82,87 +295,377 @@ public class HttpServer implements AutoCloseable {
         // im Netzwerk sein könnten; mit dieser Option wird trotzdem direkt die IP-Adresse
         // wieder verwendet; siehe https://stackoverflow.com/a/3233022 für mehr Informationen
         socket.setOption(SO_REUSEADDR, true);
+        return socket;
+    }
 
-        // Schließlich wird die TCP-Socket erstellt und eine Info-Nachricht
-        // in die Konsole gesendet
-        socket.bind(address);
-        LOGGER.info("Http socket bound on http://%s/",
-                StringUtil.stringifyBindAddress(address));
-
-        return new HttpServer(socket, params);
+    private ExecutorService constructExecutor() {
+        // Je nach Einstellung werden Verbindungen unterschiedlich auf Threads verteilt
+        return switch (this.params.executorType()) {
+            // Für jede Verbindung wird bei Bedarf ein neuer Thread erstellt; inaktive Threads werden wiederverwendet
+            case CACHED -> Executors.newCachedThreadPool(this::constructThread);
+            // Es gibt eine feste Anzahl an Threads; weitere Verbindungen warten, bis ein Thread frei wird
+            case FIXED -> Executors.newFixedThreadPool(this.params.workerThreads(), this::constructThread);
+            // Jede Verbindung bekommt einen eigenen virtuellen Thread; diese sind sehr günstig, da sie beim
+            // blockierenden Lesen keinen Betriebssystem-Thread belegen
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                    .name("Http Socket " + this.localAddress + " Virtual Thread #", 0).factory());
+        };
     }
 
     private Thread constructThread(final Runnable runnable) {
         // Es wird ein neuer Anfragen-Thread erstellt und benannt
-        final SocketAddress address = this.socket.getLocalSocketAddress();
-        final Thread thread = new Thread(runnable, "Http Socket " + address
+        final Thread thread = new Thread(runnable, "Http Socket " + this.localAddress
                 + " Thread #" + this.threadCount.getAndIncrement());
         thread.setDaemon(true);
         return thread;
     }
 
-    public void tryAccept() throws IOException {
+    // Startet die Event-Loops sowie die Akzeptier-Threads, welche bis zum Schließen des Servers Verbindungen annehmen
+    public void start() {
+        // Die Event-Loops müssen laufen, bevor die ersten Verbindungen angenommen werden
+        for (final NioEventLoop eventLoop : this.eventLoops) {
+            eventLoop.start();
+        }
+        for (final Thread acceptor : this.acceptors) {
+            acceptor.start();
+        }
+    }
+
+    // Wartet, bis alle Akzeptier-Threads nach dem Schließen des Servers beendet sind
+    public void awaitClose() throws InterruptedException {
+        for (final Thread acceptor : this.acceptors) {
+            acceptor.join();
+        }
+    }
+
+    private void acceptLoop(final int listener) {
+        while (this.sockets[listener].isOpen()) {
+            try {
+                this.tryAccept(listener);
+            } catch (final ClosedChannelException exception) {
+                // Der Server wurde geschlossen
+                return;
+            } catch (final IOException exception) {
+                // Z.B. bei zu vielen offenen Dateien wird kurz gewartet, anstatt
+                // ohne Pause immer wieder am selben Fehler zu scheitern
+                LOGGER.error("Error while accepting socket connection", exception);
+                LockSupport.parkNanos(ACCEPT_ERROR_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private void tryAccept(final int listener) throws IOException {
         // Es wird gewartet, bis eine Verbindung zu einem Browser verfügbar ist
-        final Socket socket = this.socket.accept();
-        // Direkt nach dem Akzeptieren einer Browser-Verbindung wird zu einem neuen Thread
+        final SocketChannel channel = this.sockets[listener].accept();
+        final long acceptStart = System.nanoTime();
+        // Falls der Server bereits überlastet ist, wird die Verbindung direkt abgelehnt, anstatt
+        // immer mehr Verbindungen (und bei der blockierenden Engine Threads) anzusammeln
+        if (!this.admission.tryAdmit()) {
+            this.rejectConnection(channel);
+            return;
+        }
+        // Direkt nach dem Akzeptieren einer Browser-Verbindung wird zu einem anderen Thread
         // gewechselt, um die Dauer des Blockierens der Verbindungsannahme so weit wie möglich
         // zu reduzieren
-        this.executor.execute(() -> {
-            final String addressString = StringUtil.stringifyAddress(socket.getRemoteSocketAddress());
-            LOGGER.info("Accepted socket connection from %s", addressString);
-
-            // Im Http-1.1-Protokoll bestehen Anfragen aus Metadaten und dem Inhalt
-            // die Metadaten sind reiner Text, der Inhalt kann auch im Binärformat vorliegen
-            try (socket; final InputStream input = socket.getInputStream();
-                 final Reader inputReader = new InputStreamReader(input);
-                 final BufferedReader bufferedReader = new BufferedReader(inputReader)) {
-
-                // Der HttpReader besteht aus mehreren Hilfs-Methoden, mit welchen
-                // öfters verwendete Bestandteile einer Http-Anfrage ausgelesen werden können
-                final HttpReader reader = new HttpReader(bufferedReader);
-
-                // Falls eine Anfrage komplett leer ist, wird
-                // die Bearbeitung komplett übersprungen
-                if (!reader.isReadable()) {
+        switch (this.params.engine()) {
+            case BLOCKING -> this.dispatchBlocking(channel, acceptStart);
+            case NIO -> this.selectEventLoop(listener).register(channel, acceptStart);
+        }
+        this.metrics.recordAccept(System.nanoTime() - acceptStart);
+    }
+
+    // Die Verbindungen werden reihum auf die Event-Loops der Socket verteilt: bei mehreren Sockets nutzt jede
+    // einen eigenen Teil der Event-Loops (Socket 0 die Event-Loops 0, n, 2n, ...), sofern es genug davon gibt
+    private NioEventLoop selectEventLoop(final int listener) {
+        final int listeners = this.sockets.length;
+        final int next = this.nextEventLoop.getAndIncrement(listener);
+        if (this.eventLoops.length < listeners) {
+            return this.eventLoops[Math.floorMod(next, this.eventLoops.length)];
+        }
+        final int count = (this.eventLoops.length - listener + listeners - 1) / listeners;
+        return this.eventLoops[listener + Math.floorMod(next, count) * listeners];
+    }
+
+    private void dispatchBlocking(final SocketChannel channel, final long admittedNanos) {
+        try {
+            this.executor.execute(() -> {
+                if (!this.beginConnection(channel, admittedNanos)) {
                     return;
                 }
+                try {
+                    this.handleConnection(channel.socket());
+                } finally {
+                    this.endConnection();
+                }
+            });
+        } catch (final RejectedExecutionException exception) {
+            // Der Thread-Pool wurde bereits beendet, die Verbindung wird verworfen
+            this.admission.cancel();
+            this.rejectConnection(channel);
+        }
+    }
+
+    // Wird aufgerufen, sobald ein Thread bzw. Event-Loop eine angenommene Verbindung übernimmt; hat
+    // diese zu lange darauf gewartet, wird sie stattdessen abgelehnt und "false" zurückgegeben
+    public boolean beginConnection(final SocketChannel channel, final long admittedNanos) {
+        if (!this.admission.dequeue(admittedNanos)) {
+            this.rejectConnection(channel);
+            return false;
+        }
+        try {
+            this.params.socketOptions().apply(channel);
+        } catch (final IOException exception) {
+            // Die Verbindung kann auch ohne die eingestellten Socket-Parameter bearbeitet werden
+            LOGGER.warn("Error while setting socket options for %s: %s",
+                    StringUtil.stringifyAddress(channel.socket().getRemoteSocketAddress()), exception.getMessage());
+        }
+        return true;
+    }
+
+    // Wird aufgerufen, sobald eine mit "beginConnection" übernommene Verbindung geschlossen wurde
+    public void endConnection() {
+        this.admission.release();
+    }
+
+    // Lehnt eine Verbindung aufgrund von Überlastung ab, ohne ihre Anfrage zu lesen
+    private void rejectConnection(final SocketChannel channel) {
+        final Socket socket = channel.socket();
+        final String addressString = StringUtil.stringifyAddress(socket.getRemoteSocketAddress());
+        // Abgelehnte Verbindungen werden nur gezählt und nicht einzeln protokolliert: bei Überlastung würde der
+        // Akzeptier-Thread sonst auf die volle Warteschlange des Logs warten und noch weniger Verbindungen annehmen
+        this.metrics.recordRejectedConnection();
+        if (this.params.overloadResponse() == OverloadResponse.CLOSE) {
+            // Die Verbindung wird ohne Antwort geschlossen, was den Server am wenigsten kostet
+            try {
+                channel.close();
+            } catch (final IOException exception) {
+                LOGGER.warn("Error while rejecting socket connection from %s: %s", addressString, exception.getMessage());
+            }
+            return;
+        }
+        // Die Fehlerantwort ist so klein, dass sie direkt in den Sendepuffer des Betriebssystems
+        // passt; dadurch blockiert das Schreiben den Akzeptier-Thread praktisch nicht
+        try (channel; final HttpResponseQueue responses = new HttpResponseQueue(channel, this.bufferPool)) {
+            HttpResponse response = HttpResponse.buildError(HttpVersion.HTTP_1_1, STATUS_SERVICE_UNAVAILABLE,
+                    "Server is overloaded").withHeader(HEADER_CONNECTION, CONNECTION_CLOSE);
+            // Browser und andere Programme können anhand von "Retry-After" erkennen, wann ein neuer Versuch sinnvoll ist
+            final long retryAfter = this.params.retryAfter().toSeconds();
+            if (retryAfter > 0L) {
+                response = response.withHeader(HEADER_RETRY_AFTER, Long.toString(retryAfter));
+            }
+            responses.add(response);
+            responses.flush();
+            shutdownAndDiscard(channel);
+        } catch (final IOException exception) {
+            LOGGER.warn("Error while rejecting socket connection from %s: %s", addressString, exception.getMessage());
+        }
+    }
+
+    // Beendet die Verbindung zuerst nur in Senderichtung und verwirft bereits empfangene Daten, ohne
+    // zu warten; würde die Verbindung mit ungelesenen Daten geschlossen werden, sendet das Betriebssystem
+    // ein "Reset" und der Browser bekommt eine vorher gesendete Fehlerantwort eventuell nie zu sehen
+    private static void shutdownAndDiscard(final SocketChannel channel) throws IOException {
+        channel.shutdownOutput();
+        channel.configureBlocking(false);
+        final ByteBuffer discard = ByteBuffer.allocate(1024);
+        while (channel.read(discard) > 0) {
+            discard.clear();
+        }
+    }
 
+    private void handleConnection(final Socket socket) {
+        final String addressString = StringUtil.stringifyAddress(socket.getRemoteSocketAddress());
+        LOGGER.debug("Accepted socket connection from %s", addressString);
+        this.metrics.connectionOpened();
+
+        // Im Http-1.1-Protokoll bestehen Anfragen aus Metadaten und dem Inhalt
+        // die Metadaten sind reiner Text, der Inhalt kann auch im Binärformat vorliegen;
+        // Ein- und Ausgabe-Streams werden für die gesamte Verbindung nur einmal erstellt,
+        // da über eine persistente Verbindung mehrere Anfragen hintereinander gesendet werden können
+        // Die Metadaten werden direkt als Bytes im Puffer durchsucht, damit der Inhalt danach
+        // exakt aus demselben gepufferten Byte-Stream gelesen werden kann
+        // Antworten werden in einer Warteschlange gesammelt, solange der Browser bereits weitere Anfragen
+        // gesendet hat, und erst geschrieben, bevor wieder auf neue Daten gewartet werden muss
+        // Falls der Browser innerhalb eines Zeitlimits keine Daten sendet bzw. annimmt, wird die Verbindung aus
+        // dem Thread des "TimerWheel" geschlossen, wodurch das blockierende Lesen bzw. Schreiben abgebrochen wird
+        final ConnectionTimeout timeout = new ConnectionTimeout(this.timerWheel, () -> closeQuietly(socket));
+        try (socket; final HttpResponseQueue responses = new HttpResponseQueue(socket.getChannel(), this.bufferPool);
+             final InputStream input = socket.getInputStream();
+             final HttpInputBuffer inputBuffer = new HttpInputBuffer(input,
+                     this.bufferPool.acquireHeap(this.params.maxRequestHeadSize()), responses)) {
+
+            inputBuffer.setTimeouts(timeout, this.params.keepAliveTimeout().toNanos(),
+                    this.params.headerReadTimeout().toNanos(), this.params.bodyReadTimeout().toNanos());
+            responses.setWriteTimeout(timeout, this.params.writeTimeout().toNanos());
+
+            // Der Parser sucht die einzelnen Bestandteile einer Http-Anfrage
+            // direkt in den empfangenen Bytes, ohne diese vorher zu dekodieren
+            final HttpRequestParser parser = new HttpRequestParser(this.params.maxRequestHeadSize());
+
+            // Solange die Verbindung persistent bleiben soll, werden weitere Anfragen gelesen
+            int requestCount = 0;
+            boolean keepAlive;
+            do {
                 // Hier wird die Anfrage eingelesen, um sowohl Metadaten
                 // als auch (falls vorhanden) den Inhalt auszulesen
-                final HttpRequest request = HttpRequest.parseRequest(reader);
+                final HttpRequest request;
+                try {
+                    // Es werden so lange Daten gelesen, bis der Kopfteil der Anfrage vollständig ist; die Dauer
+                    // des Einlesens wird erst ab den letzten empfangenen Daten gemessen, ohne das Warten darauf
+                    HttpRequestHead head;
+                    long parseStart = System.nanoTime();
+                    while ((head = parser.parseHead(inputBuffer.getBuffer(),
+                            inputBuffer.getStart(), inputBuffer.getEnd())) == null) {
+                        // Falls der Browser die Verbindung geschlossen hat, wird die Bearbeitung beendet
+                        if (!inputBuffer.fill()) {
+                            return;
+                        }
+                        parseStart = System.nanoTime();
+                    }
+                    request = HttpRequest.parseRequest(head, inputBuffer, this.params.maxRequestBodySize());
+                    this.metrics.recordParse(System.nanoTime() - parseStart);
+                    // Der Inhalt der Anfrage beginnt direkt nach dem Kopfteil
+                    inputBuffer.consume(head.getLength());
+                    inputBuffer.setReadingBody(true);
+                } catch (final HttpStatusException exception) {
+                    // Falls die Anfrage abgelehnt wurde (z.B. weil der Inhalt zu groß ist), wird der Browser
+                    // darüber informiert; da der Rest der Anfrage nicht gelesen wurde, wird die Verbindung geschlossen
+                    LOGGER.warn("Rejected request from %s with %s: %s", addressString,
+                            exception.getStatus().toString(), exception.getMessage());
+                    this.metrics.recordRejectedRequest();
+                    responses.add(HttpResponse.buildError(HttpVersion.HTTP_1_1, exception.getStatus(),
+                            exception.getMessage()).withHeader(HEADER_CONNECTION, CONNECTION_CLOSE));
+                    responses.flush();
+                    shutdownAndDiscard(socket.getChannel());
+                    break;
+                }
+
+                // Die Verbindung bleibt nur offen, falls der Browser dies möchte und
+                // die maximale Anzahl an Anfragen pro Verbindung noch nicht erreicht wurde
+                keepAlive = request.isKeepAlive()
+                        && ++requestCount < this.params.maxKeepAliveRequests();
 
                 // Nach dem erfolgreichen Auslesen der Http-Anfrage wird
                 // die Anfrage verarbeitet - solange bleibt die Browser-Verbindung noch geöffnet
-                this.handleMessage(socket, request);
-            } catch (final Throwable throwable) {
+                keepAlive = this.handleMessage(socket, responses, request, keepAlive);
+
+                if (keepAlive) {
+                    // Falls der Anfragen-Inhalt nicht (vollständig) gelesen wurde, muss der Rest
+                    // übersprungen werden, damit die nächste Anfrage an der richtigen Stelle beginnt
+                    request.getBody().transferTo(OutputStream.nullOutputStream());
+                    inputBuffer.setReadingBody(false);
+                }
+            } while (keepAlive);
+
+            // Bevor die Verbindung geschlossen wird, werden alle noch eingereihten Antworten geschrieben
+            responses.flush();
+        } catch (final Throwable throwable) {
+            if (timeout.isExpired()) {
+                // Das Lesen bzw. Schreiben wurde durch das Schließen nach Ablauf des Zeitlimits abgebrochen; dies
+                // ist kein Fehler, z.B. hat der Browser die persistente Verbindung einfach nicht mehr genutzt
+                LOGGER.debug("Closed socket connection from %s after timeout", addressString);
+                this.metrics.recordTimedOutConnection();
+            } else {
                 // Falls es einen Fehler bei dem Lesen der Anfrage gab,
                 // wird eine Fehlernachricht abgesendet
                 LOGGER.error("Error while reading request from %s", addressString, throwable);
             }
-        });
+        } finally {
+            timeout.cancel();
+            this.metrics.connectionClosed();
+        }
+    }
+
+    private static void closeQuietly(final Socket socket) {
+        try {
+            socket.close();
+        } catch (final IOException ignored) {
+            // Beim Schließen auftretende Fehler sind hier nicht mehr relevant
+        }
     }
 
-    public void handleMessage(final Socket socket, final HttpRequest request) {
-        // Der ausgehende Netzwerk-Stream wird erstellt und gepuffert
-        try (final OutputStream output = socket.getOutputStream();
-             final Writer outputWriter = new OutputStreamWriter(output);
-             final BufferedWriter writer = new BufferedWriter(outputWriter)) {
+    // Verarbeitet eine Anfrage und reiht die Antwort zum Schreiben in die Browser-Verbindung ein; gibt
+    // zurück, ob die Verbindung für weitere Anfragen offen gehalten werden kann
+    public boolean handleMessage(
+            final Socket socket,
+            final HttpResponseQueue responses,
+            final HttpRequest request,
+            final boolean keepAlive
+    ) {
+        try {
             // Basierend auf der Anfrage wird eine Antwort erstellt
-            final HttpResponse response = this.buildResponse(request);
-            // Nach dem Erstellen der Antwort wird eine Infonachricht in die Konsole gesendet
-            LOGGER.info("Handled %s %s %s from %s with %s", request.getVersion(), request.getMethod(),
-                    request.getUri(), StringUtil.stringifyAddress(socket.getRemoteSocketAddress()),
-                    response.getStatus().toString());
-            // Schließlich wird die Antwort in die Browser-Verbindung geschrieben
-            response.writeTo(output, writer);
+            final HttpResponse response = this.handleRequest(request, socket.getRemoteSocketAddress(), keepAlive);
+            // Schließlich wird die Antwort eingereiht; diese wird zusammen mit den Antworten weiterer, bereits
+            // empfangener Anfragen geschrieben, Dateien werden dabei direkt vom Betriebssystem übertragen
+            this.queueResponse(responses, request, socket.getRemoteSocketAddress(), response);
+            return keepAlive;
         } catch (final Throwable throwable) {
-            // Falls es einen Fehler während der Verarbeitung
-            // gab, wird eine Fehlernachricht abgesendet
-            LOGGER.error("Handled %s %s %s from %s with error", request.getVersion(), request.getMethod(),
-                    request.getUri(), StringUtil.stringifyAddress(socket.getRemoteSocketAddress()), throwable);
+            // Falls es einen Fehler während der Verarbeitung gab, wird eine Fehlernachricht
+            // abgesendet; die Verbindung befindet sich in einem unbekannten Zustand und wird geschlossen
+            this.logHandleError(request, socket.getRemoteSocketAddress(), throwable);
+            return false;
         }
     }
 
+    // Reiht die Antwort auf eine Anfrage ein; sobald die Antwort vollständig gesendet wurde, werden die
+    // Messwerte aktualisiert und, falls ein Zugriffs-Log eingestellt ist, dort ein Eintrag geschrieben
+    public void queueResponse(
+            final HttpResponseQueue responses,
+            final HttpRequest request,
+            final SocketAddress remoteAddress,
+            final HttpResponse response
+    ) {
+        final AccessLog accessLog = this.accessLog;
+        final HttpStatus status = response.getStatus();
+        responses.add(response, (bytesWritten, firstByteNanos, lastByteNanos) -> {
+            final long totalNanos = lastByteNanos - request.getReceivedNanos();
+            this.metrics.recordResponse(request.getMethod(), status, bytesWritten,
+                    lastByteNanos - firstByteNanos, totalNanos);
+            if (accessLog != null) {
+                accessLog.log(new AccessLogEntry(request.getReceivedMillis(), remoteAddress,
+                        request.getMethod().toString(), request.getUri().toString(), request.getVersion().toString(),
+                        status.getCode(), bytesWritten, firstByteNanos - request.getReceivedNanos(), totalNanos));
+            }
+        });
+    }
+
+    // Erstellt die vollständige Antwort auf eine Anfrage, unabhängig davon, mit welcher Engine
+    // die Verbindung bearbeitet wird; das Schreiben der Antwort übernimmt der Aufrufer
+    public HttpResponse handleRequest(
+            final HttpRequest request,
+            final SocketAddress remoteAddress,
+            final boolean keepAlive
+    ) {
+        final long handleStart = System.nanoTime();
+        // Basierend auf der Anfrage wird eine Antwort erstellt
+        HttpResponse response = this.buildResponse(request);
+        // Der Browser wird darüber informiert, ob die Verbindung offen bleibt; dies muss
+        // nur gesendet werden, falls es vom Standard der Http-Version abweicht
+        if (!keepAlive) {
+            response = response.withHeader(HEADER_CONNECTION, CONNECTION_CLOSE);
+        } else if (!request.getVersion().isPersistentByDefault()) {
+            response = response.withHeader(HEADER_CONNECTION, CONNECTION_KEEP_ALIVE);
+        }
+        // Nach dem Erstellen der Antwort wird eine Infonachricht in die Konsole gesendet, außer die Anfrage
+        // landet bereits im Zugriffs-Log; die Argumente werden erst bei der Ausgabe formatiert und nur
+        // berechnet, falls die Nachricht ausgegeben wird
+        if (this.accessLog == null && LOGGER.isEnabled(Level.INFO)) {
+            LOGGER.info("Handled %s %s %s from %s with %s", request.getVersion(), request.getMethod(),
+                    request.getUri(), StringUtil.stringifyAddress(remoteAddress), response.getStatus());
+        }
+        this.metrics.recordHandle(System.nanoTime() - handleStart);
+        return response;
+    }
+
+    public void logHandleError(
+            final HttpRequest request,
+            final SocketAddress remoteAddress,
+            final Throwable throwable
+    ) {
+        LOGGER.error("Handled %s %s %s from %s with error", request.getVersion(), request.getMethod(),
+                request.getUri(), StringUtil.stringifyAddress(remoteAddress), throwable);
+    }
+
     // Erstellt eine Http-Antwort mit dem Inhalt der angefragten Datei
     public HttpResponse buildResponse(final HttpRequest request) {
         // Für Dateianfragen sind nur Http-GET-Anfragen und Http-HEAD-Anfragen erlaubt
@@ -178,83 +681,492 @@ public class HttpServer implements AutoCloseable {
         if (uriPath.isEmpty() || uriPath.charAt(0) != '/') {
             return request.buildError(STATUS_BAD_REQUEST, "Invalid request URI");
         }
-        // Aus der Anfrage wird der Zieldateipfad extrahiert, basierend auf den Server-Parametern
-        final Path targetPath = this.extractPath(request.getUri());
-        // Falls die Datei NICHT existiert, wird ein Fehler zurückgegeben
-        if (!Files.isRegularFile(targetPath)) {
+        // Die Messwerte werden unter einem eigenen Pfad bereitgestellt, welcher Vorrang vor Dateien hat
+        if (uriPath.equals(this.params.metricsPath())) {
+            return this.buildMetricsResponse(request);
+        }
+        // Aus der Anfrage wird der Zieldateipfad samt Attributen der Datei ermittelt, basierend auf den
+        // Server-Parametern; falls die Datei NICHT existiert, wird ein Fehler zurückgegeben
+        final ResolvedFile resolvedFile = this.metadataCache.resolve(request.getUri());
+        final Path targetPath = resolvedFile.path();
+        final BasicFileAttributes attributes = resolvedFile.attributes();
+        if (attributes == null || !attributes.isRegularFile()) {
             return request.buildError(STATUS_NOT_FOUND, "Path " + targetPath + " not found");
         }
 
-        // Die Dateigröße wird ausgelesen, um sie bereits vorher über die
-        final long fileSize;
+        // Textformate werden, falls vom Browser unterstützt, komprimiert gesendet
+        final MimeType mimeType = resolvedFile.mimeType();
+        if (!mimeType.isCompressible()) {
+            return this.buildFileResponse(request, targetPath, attributes,
+                    this.fileHeaderFactory(targetPath, attributes, null, false));
+        }
+        final HttpResponse encodedResponse = this.buildEncodedResponse(request, targetPath, attributes);
+        if (encodedResponse != null) {
+            return encodedResponse;
+        }
+        return this.buildFileResponse(request, targetPath, attributes,
+                this.fileHeaderFactory(targetPath, attributes, null, true));
+    }
+
+    // Gibt alle Messwerte im Textformat von Prometheus aus; die Antwort darf nicht zwischengespeichert werden
+    private HttpResponse buildMetricsResponse(final HttpRequest request) {
+        final StringBuilder builder = new StringBuilder();
+        this.metrics.getRegistry().writePrometheus(builder);
+        final byte[] body = builder.toString().getBytes(StandardCharsets.UTF_8);
+        final HttpHeaders headers = HttpHeaders.buildResponseHeaders(Map.of(
+                HEADER_CONTENT_TYPE, METRICS_CONTENT_TYPE,
+                HEADER_CONTENT_LENGTH, Integer.toString(body.length),
+                HEADER_CACHE_CONTROL, "no-store"
+        ));
+        return new HttpResponse(request.getVersion(), STATUS_OK, headers,
+                request.getMethod() == HttpMethod.GET ? body : null);
+    }
+
+    // Erstellt die Http-Header einer Datei, sobald die Größe des gesendeten Inhalts bekannt ist; zusätzlich
+    // wird über den "Cache-Control"-Header der ersten passenden Regel festgelegt, wie lange die Datei
+    // zwischengespeichert werden darf
+    private LongFunction<Map<String, String>> fileHeaderFactory(
+            final Path targetPath,
+            final BasicFileAttributes attributes,
+            final @Nullable HttpContentEncoding encoding,
+            final boolean varyEncoding
+    ) {
+        return size -> {
+            final Map<String, String> headers = FileHeaders.buildFileHeaders(
+                    targetPath, attributes, size, encoding, varyEncoding);
+            final List<CachePolicy> cachePolicies = this.params.cachePolicies();
+            if (!cachePolicies.isEmpty()) {
+                // Regeln werden immer mit dem Pfad der Datei relativ zum Server-Verzeichnis verglichen,
+                // damit z.B. "/" und "/index.html" dieselbe Regel erhalten
+                final String relativePath = "/" + this.params.rootDir().relativize(targetPath).normalize()
+                        .toString().replace(targetPath.getFileSystem().getSeparator(), "/");
+                final String cacheControl = CachePolicy.findCacheControl(cachePolicies,
+                        relativePath, MimeType.guessFromPathName(targetPath));
+                if (cacheControl != null) {
+                    headers.put(HEADER_CACHE_CONTROL, cacheControl);
+                }
+            }
+            return headers;
+        };
+    }
+
+    // Versucht eine komprimierte Antwort zu erstellen; falls der Browser keine passende Kodierung
+    // akzeptiert oder sich die Datei nicht für eine Komprimierung eignet, wird "null" zurückgegeben
+    private @Nullable HttpResponse buildEncodedResponse(
+            final HttpRequest request,
+            final Path targetPath,
+            final BasicFileAttributes attributes
+    ) {
+        final List<HttpContentEncoding> encodings = HttpContentEncoding.parseAcceptEncoding(
+                request.getHeaders().getHeader(HEADER_ACCEPT_ENCODING));
+        // Zuerst wird nach einer bereits vorab komprimierten Datei gesucht (z.B. "index.html.gz"),
+        // diese wird genauso wie eine normale Datei ausgeliefert
+        for (final HttpContentEncoding encoding : encodings) {
+            final String extension = encoding.getFileExtension();
+            if (extension == null) {
+                continue;
+            }
+            final Path encodedPath = targetPath.resolveSibling(targetPath.getFileName() + extension);
+            final BasicFileAttributes encodedAttributes = this.metadataCache.lookup(encodedPath).attributes();
+            if (encodedAttributes != null && encodedAttributes.isRegularFile()) {
+                return this.buildFileResponse(request, encodedPath, encodedAttributes,
+                        this.fileHeaderFactory(targetPath, encodedAttributes, encoding, true));
+            }
+        }
+
+        // Andernfalls wird die Datei selbst komprimiert; sehr kleine Dateien werden dadurch kaum kleiner,
+        // sehr große Dateien würden zu viel Zeit und Speicher für die Komprimierung benötigen
+        final long size = attributes.size();
+        if (this.params.compressionMinSize() <= 0L || size < this.params.compressionMinSize()
+                || size > this.params.compressionMaxSize()) {
+            return null;
+        }
+        for (final HttpContentEncoding encoding : encodings) {
+            if (!encoding.isEncodable()) {
+                continue;
+            }
+            // Die komprimierte Variante wird im Datei-Cache abgelegt, damit nicht bei jeder Anfrage erneut komprimiert wird
+            final CachedFile encodedFile;
+            try {
+                encodedFile = this.fileCache.getEncoded(targetPath, attributes, encoding,
+                        this.fileHeaderFactory(targetPath, attributes, encoding, true));
+            } catch (final IOException exception) {
+                throw new RuntimeException("Error while compressing file " + targetPath, exception);
+            }
+            final HttpResponse conditionalResponse = buildConditionalResponse(
+                    request, encodedFile.headers(), attributes);
+            if (conditionalResponse != null) {
+                return conditionalResponse;
+            }
+            return new HttpResponse(request.getVersion(), STATUS_OK, encodedFile.responseHeaders().withCurrentDate(),
+                    request.getMethod() == HttpMethod.GET ? encodedFile.body() : null);
+        }
+        return null;
+    }
+
+    // Erstellt eine Antwort mit dem Inhalt einer Datei; die Http-Header werden erst
+    // anhand der Größe des gesendeten Inhalts erstellt
+    private HttpResponse buildFileResponse(
+            final HttpRequest request,
+            final Path contentPath,
+            final BasicFileAttributes attributes,
+            final LongFunction<Map<String, String>> headerFactory
+    ) {
+        final boolean sendBody = request.getMethod() == HttpMethod.GET;
+        // Der Browser wird darüber informiert, dass auch nur Teile der Datei angefragt werden können
+        final LongFunction<Map<String, String>> fileHeaderFactory = size -> {
+            final Map<String, String> headers = headerFactory.apply(size);
+            headers.put(HEADER_ACCEPT_RANGES, RANGE_UNIT_BYTES);
+            return headers;
+        };
+        // Kleine Dateien werden direkt aus dem Cache beantwortet, ohne die Datei erneut zu lesen
+        final CachedFile cachedFile;
         try {
-            fileSize = Files.size(targetPath);
+            cachedFile = this.fileCache.get(contentPath, attributes, fileHeaderFactory);
         } catch (final IOException exception) {
-            throw new RuntimeException("Error while reading file size from " + targetPath);
+            throw new RuntimeException("Error while reading file " + contentPath, exception);
+        }
+        // Die Dateigröße wird vorher über die Http-Header angegeben
+        final long contentSize = cachedFile != null ? cachedFile.size() : attributes.size();
+        final Map<String, String> headers = cachedFile != null
+                ? cachedFile.headers() : fileHeaderFactory.apply(contentSize);
+
+        // Falls der Browser die Datei bereits kennt, wird diese gar nicht erst bereitgestellt
+        final HttpResponse conditionalResponse = buildConditionalResponse(request, headers, attributes);
+        if (conditionalResponse != null) {
+            return conditionalResponse;
         }
 
-        // Der Browser wird über den Namen der Datei informiert, damit er sie bei einem Download
-        // unter dem richtigen Namen abspeichern kann
-        final String fileName = targetPath.getFileName().toString();
-        final String contentDisposition = "inline; filename=\"" + fileName + "\"";
+        // Je nach Quelle wird ein (Teil-)Bereich der Datei auf eine andere Art bereitgestellt: große Dateien
+        // werden, falls eingestellt, in den Speicher eingeblendet; alle anderen Dateien werden direkt ab
+        // der angefragten Position übertragen
+        final BodySlicer slicer;
+        if (cachedFile != null) {
+            slicer = cachedFile::body;
+        } else {
+            final MappedFile mappedFile;
+            try {
+                mappedFile = sendBody ? this.mappedFileCache.get(contentPath, attributes) : null;
+            } catch (final IOException exception) {
+                throw new RuntimeException("Error while mapping file " + contentPath, exception);
+            }
+            slicer = mappedFile != null ? mappedFile::retainBody
+                    : (position, length) -> new HttpFileBody(contentPath, position, length);
+        }
 
-        // Basierend auf dem Dateipfad wird ein MIME-Typ "geraten";
-        // falls nichts erkannt werden kann, wird es als Binärdatei gesendet
-        final MimeType mimeType = MimeType.guessFromPathName(targetPath);
-        final Map<String, String> headers = Map.of(
-                HEADER_CONTENT_TYPE, mimeType.toString(),
-                HEADER_CONTENT_LENGTH, Long.toString(fileSize),
-                HEADER_CONTENT_DISPOSITION, contentDisposition
-        );
+        // Teil-Anfragen sind nur für GET-Anfragen definiert, siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.35.2
+        final String rangeHeader = request.getHeaders().getHeader(HEADER_RANGE);
+        if (sendBody && rangeHeader != null && HttpPreconditions.isRangeApplicable(request,
+                headers.get(HEADER_ETAG), attributes.lastModifiedTime().toInstant())) {
+            final List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader, contentSize);
+            final HttpResponse rangeResponse = ranges != null
+                    ? buildRangeResponse(request, ranges, contentSize, headers, slicer) : null;
+            if (rangeResponse != null) {
+                return rangeResponse;
+            }
+        }
 
-        // Die Antwort wird gebaut - der Dateiinhalt wird als Stream-Supplier angegeben,
+        // Die Antwort wird gebaut - der Dateiinhalt wird als Datei-Inhalt angegeben,
         // damit die Datei direkt zur Antwort "gestreamt" werden kann, ohne vorher komplett im RAM
-        // liegen zu müssen
-        return new HttpResponse(request.getVersion(), STATUS_OK, HttpHeaders.buildResponseHeaders(headers),
-                method == HttpMethod.GET ? () -> Files.newInputStream(targetPath) : null);
-    }
-
-    // Hier wird die Anfragen-URI umgewandelt und es wird, falls es ein Ordner ist,
-    // versucht eine Index-Datei aufzufinden
-    private Path extractPath(final HttpUri uri) {
-        // Relativ vom Server-Verzeichnis wird ein Dateipfad aufgelöst
-        final Path targetPath = uri.resolvePath(this.params.rootDir());
-        // Falls der Dateipfad ungültig war, wird einfach das Root-Verzeichnis zurückgegeben
-        if (targetPath == null) {
-            return this.params.rootDir();
-        }
-        // Falls der Dateipfad kein Ordner ist, wird dieser direkt zurückgegeben
-        if (!Files.isDirectory(targetPath)) {
-            return targetPath;
-        }
-        // Andernfalls wird geprüft, ob irgendeine der erlaubten Index-Dateien
-        // im gegebenen Ordner existiert
-        final Optional<Path> indexPath = this.params.indexFiles().stream()
-                .map(targetPath::resolve)
-                .filter(Files::isRegularFile)
-                .findFirst();
-        // Falls eine Index-Datei existiert, wird diese zurückgegeben;
-        // andernfalls wird einfach der Ursprungspfad des Ordners zurückgegeben
-        return indexPath.orElse(targetPath);
+        // liegen zu müssen; bei Dateien aus dem Cache werden die vorab kodierten Header wiederverwendet
+        final HttpHeaders responseHeaders = cachedFile != null
+                ? cachedFile.responseHeaders().withCurrentDate() : HttpHeaders.buildResponseHeaders(headers);
+        return new HttpResponse(request.getVersion(), STATUS_OK, responseHeaders,
+                sendBody ? slicer.slice(0L, contentSize) : null);
+    }
+
+    // Prüft die Bedingungen der Anfrage ("If-None-Match", "If-Modified-Since", ...) gegen die Validatoren der Datei;
+    // falls die Anfrage normal beantwortet werden soll, wird "null" zurückgegeben
+    private static @Nullable HttpResponse buildConditionalResponse(
+            final HttpRequest request,
+            final Map<String, String> fileHeaders,
+            final BasicFileAttributes attributes
+    ) {
+        final HttpStatus status = HttpPreconditions.evaluate(request,
+                fileHeaders.get(HEADER_ETAG), attributes.lastModifiedTime().toInstant());
+        if (status == null) {
+            return null;
+        } else if (status != STATUS_NOT_MODIFIED) {
+            return request.buildError(status, status.getName());
+        }
+        // Eine "304 Not Modified"-Antwort hat nie einen Inhalt, enthält aber trotzdem alle Header,
+        // welche der Browser zum Aktualisieren seines Caches benötigt, siehe https://www.rfc-editor.org/rfc/rfc2616#section-10.3.5
+        final Map<String, String> headers = new HashMap<>();
+        for (final String name : NOT_MODIFIED_HEADERS) {
+            final String value = fileHeaders.get(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return new HttpResponse(request.getVersion(), STATUS_NOT_MODIFIED,
+                HttpHeaders.buildResponseHeaders(headers), (byte[]) null);
+    }
+
+    // Erstellt eine Antwort für eine Teil-Anfrage, siehe https://www.rfc-editor.org/rfc/rfc2616#section-10.2.7; falls
+    // die Teilbereiche nicht sinnvoll gesendet werden können, wird "null" zurückgegeben und die gesamte Datei gesendet
+    private static @Nullable HttpResponse buildRangeResponse(
+            final HttpRequest request,
+            final List<HttpRange> ranges,
+            final long contentSize,
+            final Map<String, String> fileHeaders,
+            final BodySlicer slicer
+    ) {
+        if (ranges.isEmpty()) {
+            // Keiner der Teilbereiche liegt innerhalb der Datei
+            return request.buildError(STATUS_RANGE_NOT_SATISFIABLE, "None of the requested ranges are satisfiable")
+                    .withHeader(HEADER_CONTENT_RANGE, HttpRange.toUnsatisfiedContentRange(contentSize));
+        }
+        final Map<String, String> headers = new HashMap<>(fileHeaders);
+        if (ranges.size() == 1) {
+            final HttpRange range = ranges.get(0);
+            headers.put(HEADER_CONTENT_LENGTH, Long.toString(range.length()));
+            headers.put(HEADER_CONTENT_RANGE, range.toContentRange(contentSize));
+            return new HttpResponse(request.getVersion(), STATUS_PARTIAL_CONTENT,
+                    HttpHeaders.buildResponseHeaders(headers), slicer.slice(range.start(), range.length()));
+        }
+        // Bei einem komprimierten Inhalt würde sich die Kodierung auf die gesamte mehrteilige
+        // Antwort beziehen, daher wird in diesem Fall einfach die gesamte Datei gesendet
+        if (headers.containsKey(HEADER_CONTENT_ENCODING)) {
+            return null;
+        }
+
+        // Mehrere Teilbereiche werden als "multipart/byteranges" gesendet, wobei jeder Teil eigene Header
+        // erhält, siehe https://www.rfc-editor.org/rfc/rfc2616#section-19.2; die Header der Teile werden
+        // vorab erstellt, damit die Gesamtlänge der Antwort bekannt ist
+        final String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        final String contentType = headers.get(HEADER_CONTENT_TYPE);
+        final List<CheckedSupplier<InputStream, IOException>> parts = new ArrayList<>(ranges.size() * 2 + 1);
+        long contentLength = 0L;
+        for (final HttpRange range : ranges) {
+            final byte[] partHead = (CRLF + "--" + boundary + CRLF
+                    + HEADER_CONTENT_TYPE + ": " + contentType + CRLF
+                    + HEADER_CONTENT_RANGE + ": " + range.toContentRange(contentSize) + CRLF
+                    + CRLF).getBytes(StandardCharsets.ISO_8859_1);
+            parts.add(new HttpBufferBody(ByteBuffer.wrap(partHead)));
+            parts.add(slicer.slice(range.start(), range.length()));
+            contentLength += partHead.length + range.length();
+        }
+        final byte[] closeDelimiter = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.ISO_8859_1);
+        parts.add(new HttpBufferBody(ByteBuffer.wrap(closeDelimiter)));
+        contentLength += closeDelimiter.length;
+
+        headers.put(HEADER_CONTENT_TYPE, new MimeType("multipart", "byteranges",
+                Map.of("boundary", boundary)).toString());
+        headers.put(HEADER_CONTENT_LENGTH, Long.toString(contentLength));
+        return new HttpResponse(request.getVersion(), STATUS_PARTIAL_CONTENT,
+                HttpHeaders.buildResponseHeaders(headers), new HttpCompositeBody(parts));
+    }
+
+    // Die tatsächlich gebundene Adresse, z.B. falls beim Binden der Port 0 angegeben wurde
+    public SocketAddress getLocalAddress() {
+        return this.localAddress;
+    }
+
+    public FileCache getFileCache() {
+        return this.fileCache;
+    }
+
+    public MappedFileCache getMappedFileCache() {
+        return this.mappedFileCache;
+    }
+
+    public FileMetadataCache getMetadataCache() {
+        return this.metadataCache;
+    }
+
+    public BufferPool getBufferPool() {
+        return this.bufferPool;
+    }
+
+    public HttpMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    public TimerWheel getTimerWheel() {
+        return this.timerWheel;
     }
 
     @Override
     public void close() throws IOException {
         // Wenn der Http-Server geschlossen wird,
-        // wird auch die TCP-Socket geschlossen
-        this.socket.close();
+        // werden auch die TCP-Sockets geschlossen
+        for (final ServerSocketChannel socket : this.sockets) {
+            socket.close();
+        }
+        this.metadataCache.close();
+        // Zusätzlich werden alle Event-Loops samt ihrer Verbindungen beendet
+        for (final NioEventLoop eventLoop : this.eventLoops) {
+            eventLoop.close();
+        }
+        this.timerWheel.close();
+        // Erst danach wird das Zugriffs-Log geschlossen, damit auch die letzten Antworten darin landen
+        if (this.accessLog != null) {
+            this.accessLog.close();
+        }
+    }
+
+    // Stellt einen Bereich einer Datei als Antwort-Inhalt bereit
+    @FunctionalInterface
+    private interface BodySlicer {
+
+        CheckedSupplier<InputStream, IOException> slice(long position, long length);
+    }
+
+    // Die möglichen Thread-Pools, mit welchen die blockierende Engine Verbindungen bearbeitet
+    public enum ExecutorType {
+        CACHED,
+        FIXED,
+        VIRTUAL,
+    }
+
+    // Wie bei Überlastung abgelehnte Verbindungen beantwortet werden
+    public enum OverloadResponse {
+        // Es wird "503 Service Unavailable" gesendet, damit der Browser einen Fehler anzeigen kann
+        SERVICE_UNAVAILABLE,
+        // Die Verbindung wird ohne Antwort geschlossen
+        CLOSE,
+    }
+
+    // Die möglichen Arten, Verbindungen zu bearbeiten
+    public enum ServerEngine {
+        // Jede Verbindung wird von einem eigenen Thread blockierend bearbeitet
+        BLOCKING,
+        // Einige wenige Event-Loop-Threads bearbeiten alle Verbindungen nicht-blockierend mithilfe eines "Selectors"
+        NIO,
     }
 
     // Konfigurationsparameter für den Http-Server
     public record ServerParameters(
             Path rootDir,
-            List<String> indexFiles
+            List<String> indexFiles,
+            // Wie lange auf eine weitere Anfrage einer persistenten Verbindung gewartet wird
+            Duration keepAliveTimeout,
+            // Wie lange das Empfangen von Anfragen-Zeile und Http-Headern ab deren ersten Bytes insgesamt dauern darf;
+            // damit kann ein Browser die Verbindung nicht durch sehr langsames Senden beliebig lange belegen
+            Duration headerReadTimeout,
+            // Wie lange beim Empfangen des Anfragen-Inhalts höchstens auf weitere Daten gewartet wird
+            Duration bodyReadTimeout,
+            // Wie lange beim Schreiben einer Antwort höchstens darauf gewartet wird, dass der Browser weitere Daten annimmt
+            Duration writeTimeout,
+            // Wie viele Anfragen maximal über eine einzige Verbindung verarbeitet werden
+            int maxKeepAliveRequests,
+            // Die maximale Größe von Anfragen-Zeile und Http-Headern zusammen in Bytes; größere
+            // Anfragen werden mit "431 Request Header Fields Too Large" abgelehnt
+            int maxRequestHeadSize,
+            // Die maximale Größe eines Anfragen-Inhalts in Bytes; größere Anfragen werden abgelehnt
+            long maxRequestBodySize,
+            // Mit welcher Engine Verbindungen bearbeitet werden
+            ServerEngine engine,
+            // Die Anzahl an Event-Loop-Threads, falls die NIO-Engine genutzt wird
+            int eventLoopThreads,
+            // Mit welchem Thread-Pool die blockierende Engine Verbindungen bearbeitet
+            ExecutorType executorType,
+            // Die Anzahl an Threads, falls ein Thread-Pool mit fester Größe genutzt wird
+            int workerThreads,
+            // Wie viele Verbindungen das Betriebssystem vorhält, bis diese angenommen werden; weitere Verbindungen
+            // werden vom Betriebssystem abgewiesen; 0 nutzt den Standard-Wert von Java
+            int acceptBacklog,
+            // Wie viele Threads nach "start" gleichzeitig Verbindungen annehmen (pro Socket)
+            int acceptorThreads,
+            // Wie viele Sockets mit "SO_REUSEPORT" auf demselben Port lauschen, damit das Betriebssystem (z.B. Linux)
+            // neue Verbindungen auf mehrere Akzeptier-Threads verteilt; Event-Loops werden auf die Sockets aufgeteilt,
+            // Thread-Pool und Begrenzungen gelten für alle gemeinsam; 1 nutzt eine einzige Socket ohne "SO_REUSEPORT"
+            int listeners,
+            // Wie viele Verbindungen gleichzeitig offen sein dürfen, bevor weitere abgelehnt werden
+            // (siehe "overloadResponse"); 0 bedeutet unbegrenzt; der Standard (siehe "defaultMaxConcurrentConnections")
+            // begrenzt nur die blockierende Engine mit "CACHED"-Thread-Pool, die NIO-Engine ist standardmäßig unbegrenzt
+            int maxConcurrentConnections,
+            // Wie viele angenommene Verbindungen gleichzeitig auf einen freien Thread bzw. Event-Loop warten dürfen,
+            // bevor weitere abgelehnt werden; 0 bedeutet unbegrenzt
+            int maxQueuedConnections,
+            // Wie lange eine angenommene Verbindung höchstens auf einen freien Thread bzw. Event-Loop wartet, bevor
+            // sie abgelehnt wird; solange wartende Verbindungen länger brauchen, werden auch neue direkt abgelehnt;
+            // 0 bedeutet unbegrenzt
+            Duration maxQueueDelay,
+            // Wie bei Überlastung abgelehnte Verbindungen beantwortet werden
+            OverloadResponse overloadResponse,
+            // Nach wie vielen Sekunden abgelehnte Browser es laut "Retry-After"-Header erneut versuchen
+            // sollen; 0 sendet keinen "Retry-After"-Header
+            Duration retryAfter,
+            // Mit welchen Socket-Parametern (Puffergrößen, "TCP_NODELAY", "SO_KEEPALIVE", ...) jede angenommene
+            // Verbindung eingestellt wird
+            SocketOptions socketOptions,
+            // Bis zu welcher Größe Dateien im Speicher zwischengespeichert werden; 0 deaktiviert den Cache
+            long fileCacheMaxFileSize,
+            // Die maximale Gesamtgröße aller zwischengespeicherten Dateien
+            long fileCacheMaxSize,
+            // Ab welcher Größe Textdateien selbst komprimiert werden, falls keine vorab komprimierte Datei
+            // existiert; 0 deaktiviert das Komprimieren (vorab komprimierte Dateien werden trotzdem genutzt)
+            long compressionMinSize,
+            // Bis zu welcher Größe Textdateien selbst komprimiert werden
+            long compressionMaxSize,
+            // Ab welcher Größe Dateien in den Speicher eingeblendet statt aus der Datei übertragen werden;
+            // 0 deaktiviert das Einblenden
+            long mappedFileMinSize,
+            // Nach welcher Zeit ohne Anfragen eine eingeblendete Datei wieder freigegeben wird
+            Duration mappedFileIdleTimeout,
+            // Die Regeln für den "Cache-Control"-Header, in absteigender Priorität; ohne passende
+            // Regel wird kein "Cache-Control"-Header gesendet
+            List<CachePolicy> cachePolicies,
+            // Für wie viele URIs und Dateien die aufgelöste Datei samt Attributen gespeichert wird; 0 deaktiviert den Cache
+            int metadataCacheMaxEntries,
+            // Nach welcher Zeit gespeicherte Attribute spätestens neu gelesen werden, auch wenn keine Änderung gemeldet wurde
+            Duration metadataCacheTimeout,
+            // Wie viel Speicher freigegebene Lese- und Schreib-Puffer maximal belegen, während diese auf eine
+            // Wiederverwendung warten; 0 deaktiviert das Wiederverwenden
+            long bufferPoolMaxSize,
+            // Ob nie freigegebene Puffer erkannt und mit der Stelle ihrer Anforderung ausgegeben werden; dies
+            // kostet bei jeder Anforderung etwas Leistung und sollte daher nur zur Fehlersuche genutzt werden
+            boolean bufferLeakDetection,
+            // Wohin und in welchem Format beantwortete Anfragen protokolliert werden; "null" deaktiviert das Zugriffs-Log
+            @Nullable AccessLogConfig accessLog,
+            // Unter welchem Pfad (z.B. "/metrics") die Messwerte des Servers im Textformat von Prometheus
+            // bereitgestellt werden; dieser sollte nur intern erreichbar sein, "null" deaktiviert den Pfad
+            @Nullable String metricsPath
     ) {
 
         private static final List<String> DEFAULT_INDEX_FILES = List.of("index.html");
+        private static final Duration DEFAULT_KEEP_ALIVE_TIMEOUT = Duration.ofSeconds(5L);
+        private static final Duration DEFAULT_HEADER_READ_TIMEOUT = Duration.ofSeconds(10L);
+        private static final Duration DEFAULT_BODY_READ_TIMEOUT = Duration.ofSeconds(30L);
+        private static final Duration DEFAULT_WRITE_TIMEOUT = Duration.ofSeconds(30L);
+        private static final int DEFAULT_MAX_KEEP_ALIVE_REQUESTS = 100;
+        private static final int DEFAULT_MAX_REQUEST_HEAD_SIZE = 16 * 1024; // 16 KiB
+        private static final long DEFAULT_MAX_REQUEST_BODY_SIZE = 1024L * 1024L; // 1 MiB
+        private static final int DEFAULT_WORKER_THREADS = 200;
+        private static final int DEFAULT_ACCEPT_BACKLOG = 1024;
+        // Begrenzt, wie viele Threads die blockierende Engine mit dem "CACHED"-Thread-Pool erstellt
+        private static final int DEFAULT_MAX_CONCURRENT_CONNECTIONS = 4096;
+        private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1L);
+        private static final long DEFAULT_FILE_CACHE_MAX_FILE_SIZE = 64L * 1024L; // 64 KiB
+        private static final long DEFAULT_FILE_CACHE_MAX_SIZE = 32L * 1024L * 1024L; // 32 MiB
+        private static final long DEFAULT_COMPRESSION_MIN_SIZE = 1024L; // 1 KiB
+        private static final long DEFAULT_COMPRESSION_MAX_SIZE = 4L * 1024L * 1024L; // 4 MiB
+        private static final Duration DEFAULT_MAPPED_FILE_IDLE_TIMEOUT = Duration.ofSeconds(60L);
+        private static final int DEFAULT_METADATA_CACHE_MAX_ENTRIES = 10_000;
+        private static final Duration DEFAULT_METADATA_CACHE_TIMEOUT = Duration.ofSeconds(60L);
+        private static final long DEFAULT_BUFFER_POOL_MAX_SIZE = 64L * 1024L * 1024L; // 64 MiB
 
         public ServerParameters(final Path rootDir) {
-            this(rootDir, DEFAULT_INDEX_FILES);
+            this(rootDir, DEFAULT_INDEX_FILES, DEFAULT_KEEP_ALIVE_TIMEOUT,
+                    DEFAULT_HEADER_READ_TIMEOUT, DEFAULT_BODY_READ_TIMEOUT, DEFAULT_WRITE_TIMEOUT,
+                    DEFAULT_MAX_KEEP_ALIVE_REQUESTS, DEFAULT_MAX_REQUEST_HEAD_SIZE, DEFAULT_MAX_REQUEST_BODY_SIZE,
+                    ServerEngine.BLOCKING, Runtime.getRuntime().availableProcessors(),
+                    ExecutorType.CACHED, DEFAULT_WORKER_THREADS, DEFAULT_ACCEPT_BACKLOG, 1, 1,
+                    defaultMaxConcurrentConnections(ServerEngine.BLOCKING, ExecutorType.CACHED), 0, Duration.ZERO,
+                    OverloadResponse.SERVICE_UNAVAILABLE, DEFAULT_RETRY_AFTER, SocketOptions.DEFAULT,
+                    DEFAULT_FILE_CACHE_MAX_FILE_SIZE, DEFAULT_FILE_CACHE_MAX_SIZE,
+                    DEFAULT_COMPRESSION_MIN_SIZE, DEFAULT_COMPRESSION_MAX_SIZE,
+                    0L, DEFAULT_MAPPED_FILE_IDLE_TIMEOUT, List.of(),
+                    DEFAULT_METADATA_CACHE_MAX_ENTRIES, DEFAULT_METADATA_CACHE_TIMEOUT,
+                    DEFAULT_BUFFER_POOL_MAX_SIZE, false, null, null);
+        }
+
+        // Nur die blockierende Engine mit "CACHED"-Thread-Pool erstellt für jede Verbindung einen eigenen Thread und
+        // wird daher standardmäßig begrenzt; Event-Loops und Thread-Pools fester Größe kosten pro Verbindung kaum mehr
+        public static int defaultMaxConcurrentConnections(final ServerEngine engine, final ExecutorType executorType) {
+            return engine == ServerEngine.BLOCKING && executorType == ExecutorType.CACHED
+                    ? DEFAULT_MAX_CONCURRENT_CONNECTIONS : 0;
         }
     }
 }
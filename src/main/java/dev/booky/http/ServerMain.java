@@ -18,7 +18,7 @@ public final class ServerMain {
     private ServerMain() {
     }
 
-    public static void main(final String[] args) throws IOException {
+    public static void main(final String[] args) throws IOException, InterruptedException {
         // Aus den Programmargumenten wird sowohl Http-Server-Port als
         // auch der Dateipfad ausgelesen, von welchem Dateien bereitgestellt werden
         final int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_HTTP_PORT;
@@ -32,11 +32,10 @@ public final class ServerMain {
         // Der Http-Server wird mithilfe der Parameter erstellt
         // und an die erstellte IP-Adresse gebunden
         try (final HttpServer server = HttpServer.createAndBind(address, params)) {
-            // Solange das Programm läuft, wird versucht eine
-            // Verbindung eines Browsers anzunehmen
-            while (true) {
-                server.tryAccept();
-            }
+            // Solange das Programm läuft, nehmen die Akzeptier-Threads
+            // Verbindungen von Browsern an
+            server.start();
+            server.awaitClose();
         }
     }
 }
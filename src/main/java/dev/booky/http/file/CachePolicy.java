@@ -0,0 +1,57 @@
+package dev.booky.http.file;
+
+import dev.booky.http.util.MimeType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+// Eine Regel, welche den "Cache-Control"-Header für bestimmte Dateien festlegt, d.h. wie lange Browser
+// und Caches diese ohne erneute Nachfrage verwenden dürfen, siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.9;
+// eine Regel gilt entweder für alle Dateien unterhalb eines Pfades (z.B. "/assets/") oder für alle Dateien
+// eines MIME-Typs (z.B. "image/*" oder "text/css")
+@NullMarked
+public record CachePolicy(
+        @Nullable String pathPrefix,
+        @Nullable String mimeType,
+        String cacheControl
+) {
+
+    public static CachePolicy forPathPrefix(final String pathPrefix, final String cacheControl) {
+        return new CachePolicy(pathPrefix, null, cacheControl);
+    }
+
+    public static CachePolicy forMimeType(final String mimeType, final String cacheControl) {
+        return new CachePolicy(null, mimeType, cacheControl);
+    }
+
+    // Gibt den "Cache-Control"-Header der ersten passenden Regel zurück; falls keine Regel passt, wird "null"
+    // zurückgegeben - der Pfad ist dabei immer der Pfad der Datei relativ zum Server-Verzeichnis, beginnend mit "/"
+    public static @Nullable String findCacheControl(
+            final List<CachePolicy> policies,
+            final String path,
+            final MimeType mimeType
+    ) {
+        for (final CachePolicy policy : policies) {
+            if (policy.matches(path, mimeType)) {
+                return policy.cacheControl();
+            }
+        }
+        return null;
+    }
+
+    public boolean matches(final String path, final MimeType mimeType) {
+        if (this.pathPrefix != null && !path.startsWith(this.pathPrefix)) {
+            return false;
+        }
+        if (this.mimeType != null) {
+            // Bei "type/*" passt jeder Untertyp, Parameter wie "charset" werden nie verglichen
+            final int slashIndex = this.mimeType.indexOf('/');
+            final String type = slashIndex == -1 ? this.mimeType : this.mimeType.substring(0, slashIndex);
+            final String subtype = slashIndex == -1 ? "*" : this.mimeType.substring(slashIndex + 1);
+            return ("*".equals(type) || type.equalsIgnoreCase(mimeType.getType()))
+                    && ("*".equals(subtype) || subtype.equalsIgnoreCase(mimeType.getSubtype()));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package dev.booky.http.file;
+
+import dev.booky.http.protocol.HttpBufferBody;
+import dev.booky.http.protocol.HttpHeaders;
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.ByteBuffer;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+// Eine im Speicher abgelegte (eventuell komprimierte) Datei samt ihrer bereits erstellten Http-Header;
+// anhand von Änderungszeitpunkt und Größe der Datei wird erkannt, ob diese seitdem verändert wurde
+@NullMarked
+public record CachedFile(
+        ByteBuffer content,
+        long sourceSize,
+        FileTime lastModified,
+        // Die Header als Map, z.B. um Validatoren nachzuschlagen oder Header für Teil-Anfragen abzuleiten
+        Map<String, String> headers,
+        // Dieselben Header bereits als Bytes kodiert, damit eine vollständige Antwort
+        // nur noch um die Header der jeweiligen Anfrage ergänzt werden muss
+        HttpHeaders responseHeaders
+) {
+
+    public CachedFile(
+            final ByteBuffer content,
+            final long sourceSize,
+            final FileTime lastModified,
+            final Map<String, String> headers
+    ) {
+        this(content, sourceSize, lastModified, headers, HttpHeaders.buildEncodedResponseHeaders(headers));
+    }
+
+    public long size() {
+        return this.content.capacity();
+    }
+
+    public HttpBufferBody body() {
+        return new HttpBufferBody(this.content);
+    }
+
+    // Erstellt einen Antwort-Inhalt für einen Teilbereich der Datei, z.B. für eine Teil-Anfrage
+    public HttpBufferBody body(final long position, final long length) {
+        return new HttpBufferBody(this.content.slice((int) position, (int) length));
+    }
+}
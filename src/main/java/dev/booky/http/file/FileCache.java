@@ -0,0 +1,159 @@
+package dev.booky.http.file;
+
+import dev.booky.http.protocol.HttpContentEncoding;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+// Ein Cache, welcher kleine, häufig angefragte Dateien vollständig im Speicher hält, damit diese nicht
+// bei jeder Anfrage erneut vom Dateisystem gelesen werden müssen; falls die Gesamtgröße aller Dateien
+// das Limit überschreitet, werden die am längsten nicht mehr angefragten Dateien entfernt ("LRU")
+@NullMarked
+public final class FileCache {
+
+    // Die maximale Größe einer einzelnen Datei, damit diese im Cache abgelegt wird
+    private final long maxFileSize;
+    // Die maximale Gesamtgröße aller Dateien im Cache
+    private final long maxTotalSize;
+
+    // Eine "LinkedHashMap" in Zugriffsreihenfolge: bei jedem Zugriff wird der Eintrag ans Ende
+    // verschoben, wodurch der erste Eintrag immer der am längsten nicht genutzte ist
+    private final Map<CacheKey, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public FileCache(final long maxFileSize, final long maxTotalSize) {
+        this.maxFileSize = maxFileSize;
+        this.maxTotalSize = maxTotalSize;
+    }
+
+    // Gibt die Datei aus dem Cache zurück bzw. lädt diese in den Cache; falls die Datei
+    // zu groß für den Cache ist, wird "null" zurückgegeben - die Http-Header werden nur beim
+    // Laden der Datei anhand ihrer Größe erstellt
+    public @Nullable CachedFile get(
+            final Path path,
+            final BasicFileAttributes attributes,
+            final LongFunction<Map<String, String>> headerFactory
+    ) throws IOException {
+        final long size = attributes.size();
+        if (this.maxFileSize <= 0L || size > this.maxFileSize || size > this.maxTotalSize) {
+            return null;
+        }
+        return this.get(new CacheKey(path, null), attributes, headerFactory);
+    }
+
+    // Gibt eine komprimierte Variante der Datei aus dem Cache zurück bzw. komprimiert diese; ob sich die
+    // Datei für eine Komprimierung eignet, muss vorher vom Aufrufer entschieden werden
+    public CachedFile getEncoded(
+            final Path path,
+            final BasicFileAttributes attributes,
+            final HttpContentEncoding encoding,
+            final LongFunction<Map<String, String>> headerFactory
+    ) throws IOException {
+        return this.get(new CacheKey(path, encoding), attributes, headerFactory);
+    }
+
+    private CachedFile get(
+            final CacheKey key,
+            final BasicFileAttributes attributes,
+            final LongFunction<Map<String, String>> headerFactory
+    ) throws IOException {
+        final CachedFile cachedFile;
+        synchronized (this) {
+            cachedFile = this.files.get(key);
+        }
+        // Falls sich Größe oder Änderungszeitpunkt der Datei verändert haben, wird diese neu geladen
+        if (cachedFile != null && cachedFile.sourceSize() == attributes.size()
+                && cachedFile.lastModified().equals(attributes.lastModifiedTime())) {
+            this.hits.incrementAndGet();
+            return cachedFile;
+        }
+        this.misses.incrementAndGet();
+
+        // Die Datei wird außerhalb der Synchronisierung gelesen, damit andere Anfragen nicht warten müssen;
+        // der Inhalt liegt außerhalb des Java-Heaps, damit dieser ohne weitere Kopie gesendet werden kann
+        final byte[] sourceBytes = Files.readAllBytes(key.path());
+        final HttpContentEncoding encoding = key.encoding();
+        final byte[] bytes = encoding != null ? encoding.encode(sourceBytes) : sourceBytes;
+        final ByteBuffer content = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+        final CachedFile loadedFile = new CachedFile(content, sourceBytes.length,
+                attributes.lastModifiedTime(), headerFactory.apply(bytes.length));
+        // Komprimierte Varianten, welche größer als das gesamte Limit sind, werden nicht abgelegt
+        if (loadedFile.size() <= this.maxTotalSize) {
+            this.put(key, loadedFile);
+        }
+        return loadedFile;
+    }
+
+    private synchronized void put(final CacheKey key, final CachedFile file) {
+        final CachedFile previousFile = this.files.put(key, file);
+        if (previousFile != null) {
+            this.totalSize -= previousFile.size();
+        }
+        this.totalSize += file.size();
+
+        // Solange das Limit überschritten ist, werden die ältesten Einträge entfernt
+        final Iterator<CachedFile> iterator = this.files.values().iterator();
+        while (this.totalSize > this.maxTotalSize && iterator.hasNext()) {
+            final CachedFile eldestFile = iterator.next();
+            iterator.remove();
+            this.totalSize -= eldestFile.size();
+            this.evictions.incrementAndGet();
+        }
+    }
+
+    // Entfernt eine Datei samt aller komprimierten Varianten aus dem Cache, z.B. weil diese gelöscht wurde; falls
+    // der Pfad ein Ordner ist, werden auch alle Dateien darin entfernt - der Pfad muss absolut und normalisiert sein
+    public synchronized void invalidate(final Path path) {
+        final Iterator<Map.Entry<CacheKey, CachedFile>> iterator = this.files.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<CacheKey, CachedFile> entry = iterator.next();
+            if (entry.getKey().path().toAbsolutePath().normalize().startsWith(path)) {
+                iterator.remove();
+                this.totalSize -= entry.getValue().size();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        this.files.clear();
+        this.totalSize = 0L;
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    public synchronized long getTotalSize() {
+        return this.totalSize;
+    }
+
+    public synchronized int getFileCount() {
+        return this.files.size();
+    }
+
+    // Eine Datei wird zusammen mit ihrer Kodierung abgelegt; "null" steht dabei für den unveränderten Inhalt
+    private record CacheKey(Path path, @Nullable HttpContentEncoding encoding) {
+    }
+}
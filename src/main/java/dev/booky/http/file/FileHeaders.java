@@ -0,0 +1,95 @@
+package dev.booky.http.file;
+
+import dev.booky.http.protocol.HttpContentEncoding;
+import dev.booky.http.protocol.HttpHeaders;
+import dev.booky.http.util.MimeType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT_ENCODING;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_DISPOSITION;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_ENCODING;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_LENGTH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_TYPE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ETAG;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_LAST_MODIFIED;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_VARY;
+
+// Eine Hilfsklasse, welche die Http-Header für eine ausgelieferte Datei erstellt
+@NullMarked
+public final class FileHeaders {
+
+    private FileHeaders() {
+    }
+
+    public static Map<String, String> buildFileHeaders(
+            final Path path,
+            final BasicFileAttributes attributes,
+            final long size
+    ) {
+        return buildFileHeaders(path, attributes, size, null, false);
+    }
+
+    // Erstellt die Http-Header für eine Datei; "size" ist dabei die Größe des tatsächlich gesendeten
+    // (eventuell komprimierten) Inhalts, Name und MIME-Typ stammen immer von der ursprünglichen Datei - die
+    // Attribute stammen dagegen von der tatsächlich gesendeten Datei (z.B. einer vorab komprimierten Datei)
+    public static Map<String, String> buildFileHeaders(
+            final Path path,
+            final BasicFileAttributes attributes,
+            final long size,
+            final @Nullable HttpContentEncoding encoding,
+            final boolean varyEncoding
+    ) {
+        // Der Browser wird über den Namen der Datei informiert, damit er sie bei einem Download
+        // unter dem richtigen Namen abspeichern kann
+        final String fileName = path.getFileName().toString();
+        final String contentDisposition = "inline; filename=\"" + fileName + "\"";
+
+        // Basierend auf dem Dateipfad wird ein MIME-Typ "geraten";
+        // falls nichts erkannt werden kann, wird es als Binärdatei gesendet
+        final MimeType mimeType = MimeType.guessFromPathName(path);
+        final Map<String, String> headers = new HashMap<>();
+        headers.put(HEADER_CONTENT_TYPE, mimeType.toString());
+        headers.put(HEADER_CONTENT_LENGTH, Long.toString(size));
+        headers.put(HEADER_CONTENT_DISPOSITION, contentDisposition);
+        // Anhand dieser Header kann der Browser später nachfragen, ob sich die Datei verändert hat,
+        // siehe https://www.rfc-editor.org/rfc/rfc2616#section-13.3
+        headers.put(HEADER_ETAG, buildEntityTag(attributes, encoding));
+        headers.put(HEADER_LAST_MODIFIED, HttpHeaders.formatDate(attributes.lastModifiedTime().toInstant()));
+        if (encoding != null) {
+            headers.put(HEADER_CONTENT_ENCODING, encoding.getName());
+        }
+        // Falls die Antwort je nach "Accept-Encoding" unterschiedlich ausfallen kann, muss dies Caches
+        // mitgeteilt werden, siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.44
+        if (varyEncoding) {
+            headers.put(HEADER_VARY, HEADER_ACCEPT_ENCODING);
+        }
+        return headers;
+    }
+
+    // Erstellt einen "starken" Entity-Tag aus Änderungszeitpunkt, Größe und (falls vom Dateisystem bereitgestellt)
+    // der Identität der Datei, z.B. der Inode unter Linux; dadurch muss der Inhalt nie gelesen werden - jede
+    // Kodierung erhält einen eigenen Tag, da sich die gesendeten Bytes unterscheiden
+    public static String buildEntityTag(
+            final BasicFileAttributes attributes,
+            final @Nullable HttpContentEncoding encoding
+    ) {
+        final StringBuilder entityTag = new StringBuilder().append('"')
+                .append(Long.toHexString(attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS)))
+                .append('-').append(Long.toHexString(attributes.size()));
+        final Object fileKey = attributes.fileKey();
+        if (fileKey != null) {
+            entityTag.append('-').append(Integer.toHexString(fileKey.hashCode()));
+        }
+        if (encoding != null) {
+            entityTag.append('-').append(encoding.getName());
+        }
+        return entityTag.append('"').toString();
+    }
+}
@@ -0,0 +1,297 @@
+package dev.booky.http.file;
+
+import dev.booky.http.log.Logger;
+import dev.booky.http.log.LoggerFactory;
+import dev.booky.http.protocol.HttpUri;
+import dev.booky.http.util.MimeType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+// Ein Cache, welcher für jede angefragte URI die aufgelöste Datei samt Attributen, MIME-Typ und der Wahl der
+// Index-Datei speichert, damit nicht bei jeder Anfrage mehrfach das Dateisystem abgefragt werden muss; auch
+// nicht existierende Dateien werden gespeichert, damit z.B. massenhafte Anfragen von Scannern nicht jedes Mal
+// auf die Festplatte zugreifen
+//
+// Über einen "WatchService" wird das Server-Verzeichnis auf Änderungen überwacht, betroffene Einträge werden
+// dabei sofort entfernt; zusätzlich verfallen alle Einträge nach einer festen Zeit, damit auch Änderungen,
+// welche nicht gemeldet werden (z.B. auf Netzwerk-Dateisystemen), irgendwann bemerkt werden
+@NullMarked
+public final class FileMetadataCache implements Runnable, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("Http");
+
+    private final Path rootDir;
+    private final List<String> indexFiles;
+    // Wie viele Einträge maximal gespeichert werden; 0 deaktiviert den Cache
+    private final int maxEntries;
+    private final long timeoutNanos;
+    // Der Cache für Dateiinhalte, aus welchem geänderte Dateien ebenfalls sofort entfernt werden
+    private final FileCache fileCache;
+
+    // Die aufgelösten Dateien, einmal nach URI-Pfad und einmal nach Dateipfad (z.B. für Index-Dateien
+    // und vorab komprimierte Dateien)
+    private final Map<String, Entry> uris = new ConcurrentHashMap<>();
+    private final Map<Path, Entry> files = new ConcurrentHashMap<>();
+    // Wird bei jeder Änderung erhöht; eine Datei, welche während einer Änderung gelesen
+    // wurde, wird nicht gespeichert, da ihre Attribute eventuell bereits veraltet sind
+    private final AtomicLong generation = new AtomicLong();
+
+    private final @Nullable WatchService watchService;
+    private volatile boolean running = true;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public FileMetadataCache(
+            final Path rootDir,
+            final List<String> indexFiles,
+            final int maxEntries,
+            final Duration timeout,
+            final FileCache fileCache
+    ) {
+        this.rootDir = rootDir;
+        this.indexFiles = indexFiles;
+        this.maxEntries = maxEntries;
+        this.timeoutNanos = timeout.toNanos();
+        this.fileCache = fileCache;
+
+        WatchService watchService = null;
+        if (maxEntries > 0) {
+            try {
+                watchService = rootDir.getFileSystem().newWatchService();
+                this.registerTree(watchService, rootDir.toAbsolutePath().normalize());
+            } catch (final IOException | UnsupportedOperationException exception) {
+                // Ohne Überwachung verfallen Einträge nur noch nach der eingestellten Zeit
+                LOGGER.warn("Unable to watch %s for changes, file metadata expires after %s only: %s",
+                        rootDir, timeout, exception);
+                closeQuietly(watchService);
+                watchService = null;
+            }
+        }
+        this.watchService = watchService;
+        if (watchService != null) {
+            final Thread thread = new Thread(this, "Http File Watcher " + rootDir);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private static void closeQuietly(final @Nullable WatchService watchService) {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (final IOException ignored) {
+            // Beim Schließen auftretende Fehler sind hier nicht mehr relevant
+        }
+    }
+
+    // Löst eine Anfragen-URI zu einer Datei auf; falls die URI auf einen Ordner zeigt, wird
+    // die erste existierende Index-Datei gewählt bzw. der Ordner selbst zurückgegeben
+    public ResolvedFile resolve(final HttpUri uri) {
+        final String uriPath = uri.uri().getPath();
+        final long now = System.nanoTime();
+        final Entry entry = this.uris.get(uriPath);
+        if (entry != null && !entry.isExpired(now, this.timeoutNanos)) {
+            this.hits.incrementAndGet();
+            return entry.file();
+        }
+        this.misses.incrementAndGet();
+
+        final long generation = this.generation.get();
+        final ResolvedFile file = this.resolveUncached(uri);
+        this.store(this.uris, uriPath, file, now, generation);
+        return file;
+    }
+
+    // Gibt die Attribute einer einzelnen Datei zurück, z.B. einer vorab komprimierten Datei
+    public ResolvedFile lookup(final Path path) {
+        final long now = System.nanoTime();
+        final Entry entry = this.files.get(path);
+        if (entry != null && !entry.isExpired(now, this.timeoutNanos)) {
+            this.hits.incrementAndGet();
+            return entry.file();
+        }
+        this.misses.incrementAndGet();
+
+        final long generation = this.generation.get();
+        final ResolvedFile file = new ResolvedFile(path, readAttributes(path), MimeType.guessFromPathName(path));
+        this.store(this.files, path, file, now, generation);
+        return file;
+    }
+
+    private ResolvedFile resolveUncached(final HttpUri uri) {
+        // Relativ vom Server-Verzeichnis wird ein Dateipfad aufgelöst; falls der Dateipfad
+        // ungültig war, wird einfach das Root-Verzeichnis genutzt
+        final Path resolvedPath = uri.resolvePath(this.rootDir);
+        final ResolvedFile target = this.lookup(resolvedPath != null ? resolvedPath : this.rootDir);
+        // Falls der Dateipfad kein Ordner ist, wird dieser direkt zurückgegeben
+        final BasicFileAttributes attributes = target.attributes();
+        if (attributes == null || !attributes.isDirectory()) {
+            return target;
+        }
+        // Andernfalls wird die erste existierende Index-Datei im Ordner gewählt; falls keine
+        // existiert, wird der Ordner selbst zurückgegeben
+        for (final String indexFile : this.indexFiles) {
+            final ResolvedFile index = this.lookup(target.path().resolve(indexFile));
+            if (index.isRegularFile()) {
+                return index;
+            }
+        }
+        return target;
+    }
+
+    private static @Nullable BasicFileAttributes readAttributes(final Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (final IOException exception) {
+            // Die Datei existiert nicht oder kann nicht gelesen werden
+            return null;
+        }
+    }
+
+    private <K> void store(
+            final Map<K, Entry> entries,
+            final K key,
+            final ResolvedFile file,
+            final long now,
+            final long generation
+    ) {
+        if (this.maxEntries <= 0) {
+            return;
+        }
+        // Damit z.B. Scanner mit zufälligen URIs den Speicher nicht füllen können, wird der Cache
+        // beim Erreichen des Limits geleert; häufig angefragte Dateien landen danach schnell wieder im Cache
+        if (entries.size() >= this.maxEntries) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(file, file.path().toAbsolutePath().normalize(), now));
+        // Falls sich währenddessen etwas geändert hat, wird der eventuell veraltete Eintrag wieder entfernt
+        if (this.generation.get() != generation) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public void run() {
+        final WatchService watchService = this.watchService;
+        if (watchService == null) {
+            return;
+        }
+        while (this.running) {
+            final WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (final InterruptedException | ClosedWatchServiceException exception) {
+                return;
+            }
+            final Path directory = (Path) key.watchable();
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    // Es sind zu viele Ereignisse aufgetreten, daher ist unklar, was sich verändert hat
+                    this.invalidateAll();
+                    continue;
+                }
+                final Path changedPath = directory.resolve((Path) event.context());
+                this.invalidate(directory, changedPath);
+                // Neue Ordner werden ebenfalls überwacht
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(changedPath, LinkOption.NOFOLLOW_LINKS)) {
+                    try {
+                        this.registerTree(watchService, changedPath);
+                    } catch (final IOException | ClosedWatchServiceException exception) {
+                        LOGGER.warn("Unable to watch %s for changes: %s", changedPath, exception);
+                    }
+                }
+            }
+            // Falls der Ordner gelöscht wurde, ist der Schlüssel ungültig und wird nicht weiter genutzt
+            key.reset();
+        }
+    }
+
+    // Der "WatchService" überwacht nur einzelne Ordner, daher wird jeder Unterordner einzeln registriert
+    private void registerTree(final WatchService watchService, final Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    // Entfernt alle Einträge, welche von einer Änderung betroffen sein könnten: die geänderte Datei selbst,
+    // alles unterhalb davon (falls es ein Ordner war) sowie Ordner-Einträge, deren Index-Datei sich ändern könnte
+    private void invalidate(final Path directory, final Path changedPath) {
+        this.generation.incrementAndGet();
+        this.uris.values().removeIf(entry -> entry.isAffectedBy(directory, changedPath, this.indexFiles));
+        this.files.values().removeIf(entry -> entry.isAffectedBy(directory, changedPath, this.indexFiles));
+        this.fileCache.invalidate(changedPath);
+    }
+
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.uris.clear();
+        this.files.clear();
+        this.fileCache.clear();
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public int getEntryCount() {
+        return this.uris.size() + this.files.size();
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+        closeQuietly(this.watchService);
+    }
+
+    // Ein Eintrag merkt sich zusätzlich den absoluten Pfad, damit dieser mit den gemeldeten Änderungen verglichen werden kann
+    private record Entry(ResolvedFile file, Path absolutePath, long loadedAt) {
+
+        boolean isExpired(final long now, final long timeoutNanos) {
+            return now - this.loadedAt > timeoutNanos;
+        }
+
+        boolean isAffectedBy(final Path directory, final Path changedPath, final List<String> indexFiles) {
+            if (this.absolutePath.startsWith(changedPath) || this.absolutePath.equals(directory)) {
+                return true;
+            }
+            // Eine neue Index-Datei mit höherer Priorität kann eine bisherige Index-Datei ersetzen
+            final Path fileName = this.absolutePath.getFileName();
+            return directory.equals(this.absolutePath.getParent())
+                    && fileName != null && indexFiles.contains(fileName.toString());
+        }
+    }
+}
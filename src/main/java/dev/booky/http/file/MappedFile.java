@@ -0,0 +1,56 @@
+package dev.booky.http.file;
+
+import dev.booky.http.protocol.HttpBufferBody;
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.MappedByteBuffer;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Eine in den Speicher eingeblendete Datei, welche von mehreren Antworten gleichzeitig genutzt werden kann;
+// über einen Referenzzähler wird erkannt, ob die Datei gerade noch gesendet wird
+@NullMarked
+public final class MappedFile {
+
+    private final MappedByteBuffer buffer;
+    private final FileTime lastModified;
+
+    // Die Anzahl an Antworten, welche diese Datei gerade senden
+    private final AtomicInteger references = new AtomicInteger();
+    // Wann die Datei zuletzt genutzt wurde, in Nanosekunden
+    private volatile long lastUsed = System.nanoTime();
+
+    MappedFile(final MappedByteBuffer buffer, final FileTime lastModified) {
+        this.buffer = buffer;
+        this.lastModified = lastModified;
+    }
+
+    // Erstellt einen Antwort-Inhalt, welcher die Referenz nach dem Senden wieder freigibt
+    public HttpBufferBody retainBody() {
+        return this.retainBody(0L, this.buffer.capacity());
+    }
+
+    // Erstellt einen Antwort-Inhalt für einen Teilbereich der Datei, z.B. für eine Teil-Anfrage
+    public HttpBufferBody retainBody(final long position, final long length) {
+        this.references.incrementAndGet();
+        this.lastUsed = System.nanoTime();
+        return new HttpBufferBody(this.buffer.slice((int) position, (int) length), this::release);
+    }
+
+    private void release() {
+        this.lastUsed = System.nanoTime();
+        this.references.decrementAndGet();
+    }
+
+    boolean matches(final long size, final FileTime lastModified) {
+        return this.buffer.capacity() == size && this.lastModified.equals(lastModified);
+    }
+
+    boolean isIdle(final long now, final long idleTimeoutNanos) {
+        return this.references.get() <= 0 && now - this.lastUsed > idleTimeoutNanos;
+    }
+
+    public long size() {
+        return this.buffer.capacity();
+    }
+}
@@ -0,0 +1,96 @@
+package dev.booky.http.file;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Blendet große Dateien in den Speicher ein ("mmap"), damit diese direkt aus dem Datei-Cache
+// des Betriebssystems gesendet werden können, ohne für jedes Stück einen Systemaufruf zum Lesen
+// zu benötigen; eine Einblendung wird von allen Anfragen auf dieselbe Datei gemeinsam genutzt
+//
+// Java bietet (ohne Vorschau-Funktionen) keine Möglichkeit, eine Einblendung direkt aufzuheben; nicht mehr
+// genutzte Einblendungen werden daher aus diesem Cache entfernt und vom Garbage-Collector aufgehoben,
+// sobald auch keine Antwort mehr auf diese zugreift
+@NullMarked
+public final class MappedFileCache {
+
+    // Wie oft maximal nach nicht mehr genutzten Einblendungen gesucht wird
+    private static final long SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1L).toNanos();
+
+    // Ab welcher Größe Dateien eingeblendet werden
+    private final long minFileSize;
+    // Nach welcher Zeit ohne Nutzung eine Einblendung entfernt wird
+    private final long idleTimeoutNanos;
+
+    private final Map<Path, MappedFile> files = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public MappedFileCache(final long minFileSize, final Duration idleTimeout) {
+        this.minFileSize = minFileSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    // Gibt die eingeblendete Datei zurück bzw. blendet diese ein; falls die Datei nicht
+    // eingeblendet werden soll, wird "null" zurückgegeben
+    public @Nullable MappedFile get(final Path path, final BasicFileAttributes attributes) throws IOException {
+        final long size = attributes.size();
+        // Ein einzelner Puffer kann in Java maximal 2 GiB groß sein
+        if (this.minFileSize <= 0L || size < this.minFileSize || size > Integer.MAX_VALUE) {
+            return null;
+        }
+        this.sweepIdle();
+
+        // Falls sich Größe oder Änderungszeitpunkt der Datei verändert haben, wird diese neu eingeblendet;
+        // noch laufende Antworten senden dabei weiter aus der alten Einblendung
+        final MappedFile mappedFile = this.files.get(path);
+        if (mappedFile != null && mappedFile.matches(size, attributes.lastModifiedTime())) {
+            this.hits.incrementAndGet();
+            return mappedFile;
+        }
+        this.misses.incrementAndGet();
+
+        final MappedByteBuffer buffer;
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Die Einblendung bleibt auch nach dem Schließen des Kanals gültig
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+        }
+        final MappedFile loadedFile = new MappedFile(buffer, attributes.lastModifiedTime());
+        this.files.put(path, loadedFile);
+        return loadedFile;
+    }
+
+    private void sweepIdle() {
+        // Es wird nur ungefähr einmal pro Intervall gesucht, da dafür über alle Einblendungen iteriert wird
+        final long now = System.nanoTime();
+        final long last = this.lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !this.lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        this.files.values().removeIf(file -> file.isIdle(now, this.idleTimeoutNanos));
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public int getFileCount() {
+        return this.files.size();
+    }
+}
@@ -0,0 +1,23 @@
+package dev.booky.http.file;
+
+import dev.booky.http.util.MimeType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+// Das Ergebnis einer Pfad-Auflösung: der Pfad der Datei samt ihren Attributen und ihrem MIME-Typ;
+// falls die Datei nicht existiert, sind die Attribute "null"
+@NullMarked
+public record ResolvedFile(
+        Path path,
+        @Nullable BasicFileAttributes attributes,
+        MimeType mimeType
+) {
+
+    // Nur normale Dateien können ausgeliefert werden, Ordner ohne Index-Datei dagegen nicht
+    public boolean isRegularFile() {
+        return this.attributes != null && this.attributes.isRegularFile();
+    }
+}
@@ -0,0 +1,325 @@
+package dev.booky.http.log;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Schreibt ein Zugriffs-Log mit einem Eintrag pro beantworteter Anfrage in eine Datei
+//
+// Die Einträge werden von den Threads, welche Anfragen bearbeiten, nur in eine Warteschlange gelegt; ein eigener
+// Thread kodiert diese in einen Puffer im Speicher und schreibt den Puffer erst, wenn dieser voll ist, die
+// eingestellte Zeit abgelaufen ist oder gerade keine weiteren Einträge vorliegen; ist die Warteschlange voll,
+// werden Einträge verworfen und nur gezählt, damit das Log nie Anfragen ausbremst
+//
+// Die Datei wird nach Größe und/oder Zeit rotiert: die bisherige Datei wird mit Zeitstempel im Namen umbenannt
+// (z.B. "access.log" zu "access-20261018-130939.log") und zu alte Dateien werden gelöscht
+@NullMarked
+public final class AccessLog implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("Http");
+
+    // Wie viele Einträge höchstens auf das Schreiben warten
+    private static final int QUEUE_CAPACITY = 65536;
+    // Wie viele Einträge auf einmal aus der Warteschlange genommen werden
+    private static final int DRAIN_BATCH_SIZE = 1024;
+    // Wie lange der Schreib-Thread höchstens wartet, bevor er nachsieht, ob geschlossen wurde
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+    private static final DateTimeFormatter ROTATED_NAME_FORMAT = DateTimeFormatter.ofPattern(
+            "yyyyMMdd-HHmmss", Locale.ROOT).withZone(ZoneOffset.UTC);
+
+    private final AccessLogConfig config;
+    private final BlockingQueue<AccessLogEntry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Nur vom Schreib-Thread genutzt
+    private final AccessLogEncoder encoder;
+    private final ByteBuffer buffer;
+    private final List<AccessLogEntry> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+    private @Nullable FileChannel channel;
+    private long fileSize;
+    // Wann die nächste Rotation nach Zeit fällig ist, in Millisekunden seit 1970; 0 falls deaktiviert
+    private long nextRotation;
+    private long lastFlushNanos = System.nanoTime();
+    private long reportedDropped;
+
+    private final Thread thread;
+    private volatile boolean closed;
+
+    public AccessLog(final AccessLogConfig config) throws IOException {
+        if (config.bufferSize() <= 0) {
+            throw new IllegalArgumentException("Buffer size has to be positive: " + config.bufferSize());
+        }
+        this.config = config;
+        this.encoder = new AccessLogEncoder(config.format());
+        this.buffer = ByteBuffer.allocateDirect(config.bufferSize());
+
+        final Path parent = config.file().toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.openFile();
+        this.nextRotation = this.computeNextRotation(System.currentTimeMillis());
+
+        this.thread = new Thread(this::run, "Http-Access-Log-Writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Reiht einen Eintrag zum Schreiben ein; blockiert nie
+    public void log(final AccessLogEntry entry) {
+        if (this.closed || !this.queue.offer(entry)) {
+            this.dropped.incrementAndGet();
+        }
+    }
+
+    // Wie viele Einträge bisher wegen einer vollen Warteschlange verworfen wurden
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    private void run() {
+        final long flushIntervalNanos = this.config.flushInterval().toNanos();
+        while (true) {
+            AccessLogEntry entry;
+            try {
+                entry = this.queue.poll(Math.min(flushIntervalNanos, MAX_POLL_NANOS), TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException exception) {
+                entry = null;
+            }
+            if (entry != null) {
+                this.batch.add(entry);
+                this.queue.drainTo(this.batch, DRAIN_BATCH_SIZE - 1);
+                for (final AccessLogEntry batchEntry : this.batch) {
+                    this.write(batchEntry);
+                }
+                this.batch.clear();
+            }
+            if (this.closed && this.queue.isEmpty()) {
+                this.flush();
+                return;
+            }
+            // Ohne weitere Einträge wird direkt geschrieben, bei dauerhafter Last spätestens nach der eingestellten Zeit
+            if (entry == null || System.nanoTime() - this.lastFlushNanos >= flushIntervalNanos) {
+                this.flush();
+            }
+        }
+    }
+
+    private void write(final AccessLogEntry entry) {
+        // Die Rotation nach Zeit findet erst mit dem ersten Eintrag nach der fälligen Zeit statt,
+        // damit keine leeren Dateien entstehen
+        if (this.nextRotation != 0L && entry.timestamp() >= this.nextRotation) {
+            this.flush();
+            this.rotate(entry.timestamp());
+        }
+        final int start = this.buffer.position();
+        try {
+            this.encoder.encode(entry, this.buffer);
+            return;
+        } catch (final BufferOverflowException exception) {
+            this.buffer.position(start);
+        }
+        // Der Puffer ist voll, der Eintrag wird nach dem Schreiben des Puffers erneut kodiert
+        this.flush();
+        try {
+            this.encoder.encode(entry, this.buffer);
+        } catch (final BufferOverflowException exception) {
+            this.buffer.clear();
+            this.dropped.incrementAndGet();
+        }
+    }
+
+    private void flush() {
+        this.lastFlushNanos = System.nanoTime();
+        this.reportDropped();
+        this.buffer.flip();
+        try {
+            if (!this.buffer.hasRemaining()) {
+                return;
+            }
+            final long maxFileSize = this.config.maxFileSize();
+            if (maxFileSize > 0L && this.fileSize > this.encoder.getFileHeader().length
+                    && this.fileSize + this.buffer.remaining() > maxFileSize) {
+                this.rotate(System.currentTimeMillis());
+            }
+            if (this.channel == null) {
+                // Die Datei konnte beim letzten Versuch nicht geöffnet werden
+                this.openFile();
+            }
+            while (this.buffer.hasRemaining()) {
+                this.fileSize += this.channel.write(this.buffer);
+            }
+        } catch (final IOException exception) {
+            // Der Inhalt des Puffers geht verloren, die folgenden Einträge werden trotzdem weiter geschrieben
+            LOGGER.error("Error while writing access log to %s", this.config.file(), exception);
+            this.closeFile();
+        } finally {
+            this.buffer.clear();
+        }
+    }
+
+    private void reportDropped() {
+        final long dropped = this.dropped.get();
+        if (dropped != this.reportedDropped) {
+            LOGGER.warn("Dropped %s access log entries because the access log queue was full",
+                    dropped - this.reportedDropped);
+            this.reportedDropped = dropped;
+        }
+    }
+
+    private void openFile() throws IOException {
+        final FileChannel channel = FileChannel.open(this.config.file(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.fileSize = channel.size();
+        if (this.fileSize == 0L) {
+            final ByteBuffer header = ByteBuffer.wrap(this.encoder.getFileHeader());
+            while (header.hasRemaining()) {
+                this.fileSize += channel.write(header);
+            }
+        }
+        this.channel = channel;
+    }
+
+    private void closeFile() {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            this.channel.close();
+        } catch (final IOException exception) {
+            LOGGER.error("Error while closing access log %s", this.config.file(), exception);
+        }
+        this.channel = null;
+    }
+
+    // Benennt die aktuelle Datei um, beginnt eine neue Datei und löscht zu alte Dateien
+    private void rotate(final long now) {
+        this.nextRotation = this.computeNextRotation(now);
+        this.closeFile();
+        try {
+            final Path file = this.config.file();
+            if (Files.exists(file)) {
+                Files.move(file, this.findRotatedPath(now));
+            }
+            this.openFile();
+            this.deleteOldFiles();
+        } catch (final IOException exception) {
+            LOGGER.error("Error while rotating access log %s", this.config.file(), exception);
+        }
+    }
+
+    // Die Rotation nach Zeit wird an ganzen Vielfachen des Abstands (in UTC) ausgerichtet, d.h. bei täglicher
+    // Rotation wird immer um Mitternacht eine neue Datei begonnen
+    private long computeNextRotation(final long now) {
+        final long interval = this.config.rotationInterval().toMillis();
+        return interval > 0L ? (Math.floorDiv(now, interval) + 1L) * interval : 0L;
+    }
+
+    private Path findRotatedPath(final long now) {
+        final String fileName = this.config.file().getFileName().toString();
+        final int extensionIndex = fileName.lastIndexOf('.');
+        final String baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        final String extension = extensionIndex > 0 ? fileName.substring(extensionIndex) : "";
+        final String timestamp = ROTATED_NAME_FORMAT.format(Instant.ofEpochMilli(now));
+
+        // Falls in derselben Sekunde mehrfach rotiert wird, wird eine fortlaufende Nummer angehängt
+        Path path = this.config.file().resolveSibling(baseName + '-' + timestamp + extension);
+        for (int i = 1; Files.exists(path); i++) {
+            path = this.config.file().resolveSibling(baseName + '-' + timestamp + '-' + i + extension);
+        }
+        return path;
+    }
+
+    private void deleteOldFiles() throws IOException {
+        final int maxFiles = this.config.maxFiles();
+        final Path file = this.config.file().toAbsolutePath();
+        if (maxFiles <= 0 || file.getParent() == null) {
+            return;
+        }
+        final String fileName = file.getFileName().toString();
+        final int extensionIndex = fileName.lastIndexOf('.');
+        final String prefix = (extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName) + '-';
+        final String extension = extensionIndex > 0 ? fileName.substring(extensionIndex) : "";
+
+        // Die Dateien werden nach dem Zeitstempel und der fortlaufenden Nummer im Namen sortiert (ohne Nummer zuerst);
+        // Dateien, deren Name nicht diesem Schema entspricht, werden nicht angefasst
+        final List<Path> rotatedFiles;
+        try (final Stream<Path> stream = Files.list(file.getParent())) {
+            rotatedFiles = stream
+                    .map(path -> RotatedFile.parse(path, prefix, extension))
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparingLong(RotatedFile::timestamp)
+                            .thenComparingInt(RotatedFile::counter))
+                    .map(RotatedFile::path)
+                    .toList();
+        }
+        for (int i = 0; i < rotatedFiles.size() - maxFiles; i++) {
+            Files.deleteIfExists(rotatedFiles.get(i));
+        }
+    }
+
+    // Schreibt alle bisherigen Einträge und beendet den Schreib-Thread
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.thread.join(TimeUnit.SECONDS.toMillis(5L));
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.closeFile();
+    }
+
+    // Eine rotierte Datei samt dem aus ihrem Namen gelesenen Zeitstempel (in Millisekunden seit 1970)
+    // und der fortlaufenden Nummer, welche ohne Nummer im Namen 0 ist
+    private record RotatedFile(Path path, long timestamp, int counter) {
+
+        static @Nullable RotatedFile parse(final Path path, final String prefix, final String extension) {
+            final String name = path.getFileName().toString();
+            if (!name.startsWith(prefix) || !name.endsWith(extension)
+                    || name.length() < prefix.length() + extension.length()) {
+                return null;
+            }
+            final String suffix = name.substring(prefix.length(), name.length() - extension.length());
+            // Der Zeitstempel hat immer dieselbe Länge, z.B. "20261018-130939", danach folgt eventuell "-1"
+            final int timestampLength = "yyyyMMdd-HHmmss".length();
+            if (suffix.length() < timestampLength
+                    || (suffix.length() > timestampLength && suffix.charAt(timestampLength) != '-')) {
+                return null;
+            }
+            try {
+                final long timestamp = Instant.from(ROTATED_NAME_FORMAT.parse(
+                        suffix.substring(0, timestampLength))).toEpochMilli();
+                final int counter = suffix.length() > timestampLength
+                        ? Integer.parseUnsignedInt(suffix.substring(timestampLength + 1)) : 0;
+                return new RotatedFile(path, timestamp, counter);
+            } catch (final DateTimeException | NumberFormatException exception) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package dev.booky.http.log;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Die Einstellungen des Zugriffs-Logs, siehe "AccessLog"
+@NullMarked
+public record AccessLogConfig(
+        // Die aktuelle Log-Datei; ältere Dateien werden daneben mit Zeitstempel im Namen abgelegt
+        Path file,
+        AccessLogFormat format,
+        // Wie viele Bytes im Speicher gesammelt werden, bevor diese in die Datei geschrieben werden
+        int bufferSize,
+        // Wie lange Einträge höchstens im Speicher liegen, bevor diese in die Datei geschrieben werden
+        Duration flushInterval,
+        // Ab welcher Größe eine neue Datei begonnen wird; 0 deaktiviert das Rotieren nach Größe
+        long maxFileSize,
+        // In welchem Abstand eine neue Datei begonnen wird (z.B. täglich); 0 deaktiviert das Rotieren nach Zeit
+        Duration rotationInterval,
+        // Wie viele ältere Dateien behalten werden; 0 behält alle
+        int maxFiles
+) {
+
+    public static final AccessLogFormat DEFAULT_FORMAT = AccessLogFormat.TEXT;
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024; // 256 KiB
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1L);
+    public static final long DEFAULT_MAX_FILE_SIZE = 100L * 1024L * 1024L; // 100 MiB
+    public static final Duration DEFAULT_ROTATION_INTERVAL = Duration.ofDays(1L);
+    public static final int DEFAULT_MAX_FILES = 30;
+
+    public AccessLogConfig(final Path file) {
+        this(file, DEFAULT_FORMAT);
+    }
+
+    public AccessLogConfig(final Path file, final AccessLogFormat format) {
+        this(file, format, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL,
+                DEFAULT_MAX_FILE_SIZE, DEFAULT_ROTATION_INTERVAL, DEFAULT_MAX_FILES);
+    }
+}
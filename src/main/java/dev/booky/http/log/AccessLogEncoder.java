@@ -0,0 +1,160 @@
+package dev.booky.http.log;
+
+import dev.booky.http.util.StringUtil;
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Kodiert Einträge des Zugriffs-Logs im eingestellten Format direkt in einen Byte-Puffer; falls der Puffer
+// voll ist, wird eine "BufferOverflowException" geworfen und der Puffer muss erst geleert werden
+//
+// Wird nur vom Schreib-Thread des Zugriffs-Logs genutzt und ist daher nicht threadsicher
+@NullMarked
+final class AccessLogEncoder {
+
+    // Die Kennung am Anfang jeder Datei im Binärformat, gefolgt von der Formatversion
+    private static final byte[] BINARY_HEADER = {'H', 'T', 'A', 'L', 1};
+    private static final byte[] NO_HEADER = new byte[0];
+    // Längere Zeichenketten (z.B. sehr lange URIs) werden im Binärformat abgeschnitten,
+    // damit die Länge eines Eintrags immer in zwei Bytes passt
+    private static final int MAX_BINARY_STRING_LENGTH = 8192;
+
+    private static final DateTimeFormatter TEXT_TIME_FORMAT = DateTimeFormatter.ofPattern(
+            "dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH).withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter JSON_TIME_FORMAT = DateTimeFormatter.ofPattern(
+            "yyyy-MM-dd'T'HH:mm:ss", Locale.ROOT).withZone(ZoneOffset.UTC);
+
+    private final AccessLogFormat format;
+    // Die Zeit wird höchstens einmal pro Sekunde neu formatiert
+    private long cachedEpochSecond = Long.MIN_VALUE;
+    private String cachedTime = "";
+
+    AccessLogEncoder(final AccessLogFormat format) {
+        this.format = format;
+    }
+
+    private String formatTime(final long timestamp) {
+        final long epochSecond = Math.floorDiv(timestamp, 1000L);
+        if (epochSecond != this.cachedEpochSecond) {
+            final DateTimeFormatter formatter = this.format == AccessLogFormat.JSON ? JSON_TIME_FORMAT : TEXT_TIME_FORMAT;
+            this.cachedTime = formatter.format(Instant.ofEpochSecond(epochSecond));
+            this.cachedEpochSecond = epochSecond;
+        }
+        return this.cachedTime;
+    }
+
+    // Der Anfang einer neuen, leeren Datei; darf nicht verändert werden
+    byte[] getFileHeader() {
+        return this.format == AccessLogFormat.BINARY ? BINARY_HEADER : NO_HEADER;
+    }
+
+    void encode(final AccessLogEntry entry, final ByteBuffer buffer) {
+        switch (this.format) {
+            case TEXT -> this.encodeText(entry, buffer);
+            case JSON -> this.encodeJson(entry, buffer);
+            case BINARY -> encodeBinary(entry, buffer);
+        }
+    }
+
+    private void encodeText(final AccessLogEntry entry, final ByteBuffer buffer) {
+        putEscaped(buffer, StringUtil.stringifyAddress(entry.remoteAddress()), false);
+        StringUtil.putAscii(buffer, " - - [");
+        StringUtil.putAscii(buffer, this.formatTime(entry.timestamp()));
+        StringUtil.putAscii(buffer, "] \"");
+        putEscaped(buffer, entry.method(), false);
+        buffer.put((byte) ' ');
+        putEscaped(buffer, entry.uri(), false);
+        buffer.put((byte) ' ');
+        putEscaped(buffer, entry.version(), false);
+        StringUtil.putAscii(buffer, "\" ");
+        putNumber(buffer, entry.status());
+        buffer.put((byte) ' ');
+        putNumber(buffer, entry.bytesSent());
+        buffer.put((byte) ' ');
+        putNumber(buffer, TimeUnit.NANOSECONDS.toMicros(entry.timeToFirstByteNanos()));
+        buffer.put((byte) ' ');
+        putNumber(buffer, TimeUnit.NANOSECONDS.toMicros(entry.totalNanos()));
+        buffer.put((byte) '\n');
+    }
+
+    private void encodeJson(final AccessLogEntry entry, final ByteBuffer buffer) {
+        StringUtil.putAscii(buffer, "{\"time\":\"");
+        StringUtil.putAscii(buffer, this.formatTime(entry.timestamp()));
+        buffer.put((byte) '.');
+        final long millis = Math.floorMod(entry.timestamp(), 1000L);
+        buffer.put((byte) ('0' + millis / 100L)).put((byte) ('0' + millis / 10L % 10L)).put((byte) ('0' + millis % 10L));
+        StringUtil.putAscii(buffer, "Z\",\"remote\":\"");
+        putEscaped(buffer, StringUtil.stringifyAddress(entry.remoteAddress()), true);
+        StringUtil.putAscii(buffer, "\",\"method\":\"");
+        putEscaped(buffer, entry.method(), true);
+        StringUtil.putAscii(buffer, "\",\"uri\":\"");
+        putEscaped(buffer, entry.uri(), true);
+        StringUtil.putAscii(buffer, "\",\"version\":\"");
+        putEscaped(buffer, entry.version(), true);
+        StringUtil.putAscii(buffer, "\",\"status\":");
+        putNumber(buffer, entry.status());
+        StringUtil.putAscii(buffer, ",\"bytes\":");
+        putNumber(buffer, entry.bytesSent());
+        StringUtil.putAscii(buffer, ",\"ttfbMicros\":");
+        putNumber(buffer, TimeUnit.NANOSECONDS.toMicros(entry.timeToFirstByteNanos()));
+        StringUtil.putAscii(buffer, ",\"totalMicros\":");
+        putNumber(buffer, TimeUnit.NANOSECONDS.toMicros(entry.totalNanos()));
+        StringUtil.putAscii(buffer, "}\n");
+    }
+
+    private static void encodeBinary(final AccessLogEntry entry, final ByteBuffer buffer) {
+        final int lengthPosition = buffer.position();
+        buffer.putShort((short) 0); // Die Länge wird am Ende eingetragen
+        buffer.putLong(entry.timestamp());
+        buffer.putShort((short) entry.status());
+        buffer.putLong(entry.bytesSent());
+        buffer.putLong(TimeUnit.NANOSECONDS.toMicros(entry.timeToFirstByteNanos()));
+        buffer.putLong(TimeUnit.NANOSECONDS.toMicros(entry.totalNanos()));
+        putBinaryString(buffer, StringUtil.stringifyAddress(entry.remoteAddress()));
+        putBinaryString(buffer, entry.method());
+        putBinaryString(buffer, entry.uri());
+        putBinaryString(buffer, entry.version());
+        buffer.putShort(lengthPosition, (short) (buffer.position() - lengthPosition - Short.BYTES));
+    }
+
+    private static void putBinaryString(final ByteBuffer buffer, final String string) {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        final int length = Math.min(bytes.length, MAX_BINARY_STRING_LENGTH);
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+
+    private static void putNumber(final ByteBuffer buffer, final long number) {
+        StringUtil.putAscii(buffer, Long.toString(number));
+    }
+
+    // Schreibt eine Zeichenkette als ASCII; Anführungszeichen, Backslashes, Steuerzeichen und Zeichen außerhalb
+    // von ASCII werden maskiert, damit jeder Eintrag genau eine Zeile bleibt und eindeutig gelesen werden kann
+    private static void putEscaped(final ByteBuffer buffer, final String string, final boolean json) {
+        for (int i = 0, length = string.length(); i < length; i++) {
+            final char character = string.charAt(i);
+            if (character >= 0x20 && character < 0x7F && character != '"' && character != '\\') {
+                buffer.put((byte) character);
+            } else if (json) {
+                if (character == '"' || character == '\\') {
+                    buffer.put((byte) '\\').put((byte) character);
+                } else {
+                    StringUtil.putAscii(buffer, String.format(Locale.ROOT, "\\u%04x", (int) character));
+                }
+            } else if (character < 0x100) {
+                StringUtil.putAscii(buffer, String.format(Locale.ROOT, "\\x%02x", (int) character));
+            } else {
+                // Im Textformat werden Zeichen außerhalb von ISO-8859-1 als UTF-8-Bytes maskiert
+                for (final byte utf8Byte : String.valueOf(character).getBytes(StandardCharsets.UTF_8)) {
+                    StringUtil.putAscii(buffer, String.format(Locale.ROOT, "\\x%02x", utf8Byte & 0xFF));
+                }
+            }
+        }
+    }
+}
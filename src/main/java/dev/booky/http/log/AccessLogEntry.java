@@ -0,0 +1,24 @@
+package dev.booky.http.log;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.net.SocketAddress;
+
+// Ein Eintrag im Zugriffs-Log, d.h. eine vollständig geschriebene Antwort auf eine Anfrage
+@NullMarked
+public record AccessLogEntry(
+        // Wann die Anfrage empfangen wurde, in Millisekunden seit 1970
+        long timestamp,
+        SocketAddress remoteAddress,
+        String method,
+        String uri,
+        String version,
+        int status,
+        // Wie viele Bytes der Antwort (Kopfteil und Inhalt) geschrieben wurden
+        long bytesSent,
+        // Wie lange es vom Empfangen der Anfrage bis zum Schreiben des ersten Bytes der Antwort gedauert hat
+        long timeToFirstByteNanos,
+        // Wie lange es vom Empfangen der Anfrage bis zum Schreiben des letzten Bytes der Antwort gedauert hat
+        long totalNanos
+) {
+}
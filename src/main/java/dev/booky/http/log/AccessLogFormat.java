@@ -0,0 +1,24 @@
+package dev.booky.http.log;
+
+import org.jspecify.annotations.NullMarked;
+
+// Die möglichen Formate des Zugriffs-Logs; Zeiten werden immer in Mikrosekunden angegeben
+@NullMarked
+public enum AccessLogFormat {
+
+    // Eine Zeile pro Anfrage, angelehnt an das "Common Log Format", ergänzt um die Zeit bis zum ersten
+    // und bis zum letzten Byte der Antwort, z.B.:
+    // 127.0.0.1:50000 - - [18/Oct/2026:13:09:39 +0000] "GET / HTTP/1.1" 200 345 120 130
+    TEXT,
+    // Ein JSON-Objekt pro Zeile ("JSON Lines"), z.B.:
+    // {"time":"2026-10-18T13:09:39.123Z","remote":"127.0.0.1:50000","method":"GET","uri":"/",
+    //  "version":"HTTP/1.1","status":200,"bytes":345,"ttfbMicros":120,"totalMicros":130}
+    JSON,
+    // Ein kompaktes Binärformat (Big Endian): jede Datei beginnt mit "HTAL" und der Formatversion (1 Byte),
+    // danach folgen die Einträge mit jeweils:
+    // - Länge des restlichen Eintrags (u16)
+    // - Zeitstempel in Millisekunden seit 1970 (i64), Status (u16), gesendete Bytes (i64),
+    //   Zeit bis zum ersten Byte (i64), Zeit bis zum letzten Byte (i64)
+    // - Adresse, Methode, URI und Version als Zeichenketten, jeweils Länge (u16) und UTF-8-Bytes
+    BINARY,
+}
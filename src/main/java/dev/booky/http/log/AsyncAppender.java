@@ -0,0 +1,304 @@
+package dev.booky.http.log;
+
+import dev.booky.http.log.Logger.Level;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Gibt Lognachrichten über einen eigenen Thread aus, damit Threads, welche Anfragen bearbeiten, nie auf die
+// Konsole warten müssen und sich nicht gegenseitig beim Schreiben blockieren
+//
+// Die Nachrichten landen dazu in einem Ringpuffer fester Größe, in welchen ohne Sperren geschrieben wird: jeder
+// Platz hat eine Sequenznummer, über welche Schreibende sehen, ob dieser frei ist, und der Log-Thread sieht, ob
+// dieser bereits vollständig beschrieben wurde (siehe https://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue)
+//
+// Der Log-Thread formatiert alle bereits vorliegenden Nachrichten zusammen und gibt diese gesammelt aus; da die
+// Nachrichten erst dort formatiert werden, dürfen die Argumente nach dem Loggen nicht mehr verändert werden
+@NullMarked
+public final class AsyncAppender implements LogAppender {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_SAMPLE_RATE = 16;
+
+    // Wie lange der Log-Thread ohne Nachrichten schläft, bevor er nachsieht, ob geschlossen wurde
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+    // Wie lange Schreibende bei vollem Puffer warten, bevor sie es erneut versuchen
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50L);
+    // Ab welcher Größe der Ausgabe-Puffer nach einem Durchlauf wieder verkleinert wird
+    private static final int MAX_RETAINED_OUTPUT_SIZE = 64 * 1024;
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final PrintStream stout;
+    private final PrintStream sterr;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+
+    private final Event[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    // Die nächste zu beschreibende bzw. zu lesende Position; beide wachsen nur
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    // Nur vom Log-Thread genutzt
+    private final StringBuilder outBuilder = new StringBuilder();
+    private final StringBuilder errBuilder = new StringBuilder();
+    private long reportedDropped;
+
+    private final Thread thread;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    public AsyncAppender(
+            final PrintStream stout,
+            final PrintStream sterr,
+            final int bufferSize,
+            final OverflowPolicy overflowPolicy,
+            final int sampleRate
+    ) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size has to be a power of two: " + bufferSize);
+        }
+        this.stout = stout;
+        this.sterr = sterr;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+
+        this.events = new Event[bufferSize];
+        this.sequences = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            this.events[i] = new Event();
+            this.sequences.set(i, i);
+        }
+        this.mask = bufferSize - 1;
+
+        this.thread = new Thread(this::run, "Http-Log-Writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void append(
+            final long timestamp,
+            final Level level,
+            final String loggerName,
+            final String message,
+            final Object[] args,
+            final @Nullable Throwable throwable
+    ) {
+        if (this.closed) {
+            // Nach dem Schließen wird direkt ausgegeben, damit z.B. beim Herunterfahren keine Nachricht verloren geht
+            this.appendDirect(timestamp, level, loggerName, message, args, throwable);
+            return;
+        }
+        // Warnungen und Fehler werden bei "SAMPLE" nie verworfen; normale Nachrichten werden ab einem
+        // halb vollen Puffer nur noch stichprobenartig angenommen
+        final boolean sampling = this.overflowPolicy == OverflowPolicy.SAMPLE && !level.isError();
+        if (sampling && this.size() >= this.events.length / 2
+                && this.sampleCounter.getAndIncrement() % this.sampleRate != 0L) {
+            this.dropped.incrementAndGet();
+            return;
+        }
+        final boolean blocking = this.overflowPolicy == OverflowPolicy.BLOCK
+                || (this.overflowPolicy == OverflowPolicy.SAMPLE && !sampling);
+        while (!this.tryPublish(timestamp, level, loggerName, message, args, throwable)) {
+            if (!blocking) {
+                this.dropped.incrementAndGet();
+                return;
+            } else if (this.closed || Thread.currentThread() == this.thread) {
+                this.appendDirect(timestamp, level, loggerName, message, args, throwable);
+                return;
+            }
+            LockSupport.unpark(this.thread);
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        }
+        if (this.waiting) {
+            LockSupport.unpark(this.thread);
+        }
+    }
+
+    private boolean tryPublish(
+            final long timestamp,
+            final Level level,
+            final String loggerName,
+            final String message,
+            final Object[] args,
+            final @Nullable Throwable throwable
+    ) {
+        long position = this.tail.get();
+        while (true) {
+            final int index = (int) position & this.mask;
+            final long difference = this.sequences.get(index) - position;
+            if (difference == 0L) {
+                // Der Platz ist frei und wird reserviert, falls kein anderer Thread schneller war
+                if (this.tail.compareAndSet(position, position + 1L)) {
+                    this.events[index].set(timestamp, level, loggerName, message, args, throwable);
+                    // Erst danach sieht der Log-Thread, dass der Platz beschrieben wurde
+                    this.sequences.set(index, position + 1L);
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0L) {
+                // Der Log-Thread hat diesen Platz noch nicht gelesen, der Puffer ist also voll
+                return false;
+            } else {
+                // Ein anderer Thread hat diesen Platz bereits reserviert
+                position = this.tail.get();
+            }
+        }
+    }
+
+    private void appendDirect(
+            final long timestamp,
+            final Level level,
+            final String loggerName,
+            final String message,
+            final Object[] args,
+            final @Nullable Throwable throwable
+    ) {
+        final StringBuilder builder = new StringBuilder();
+        LogFormatter.format(builder, timestamp, level, loggerName, message, args, throwable);
+        (level.isError() ? this.sterr : this.stout).print(builder);
+    }
+
+    private void run() {
+        while (true) {
+            if (this.drain() != 0) {
+                continue;
+            } else if (this.closed) {
+                // Nachrichten, welche noch während des Schließens geschrieben wurden, werden auch noch ausgegeben
+                this.drain();
+                return;
+            }
+            this.waiting = true;
+            if (this.size() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            this.waiting = false;
+        }
+    }
+
+    // Formatiert alle bereits vorliegenden Nachrichten und gibt diese gesammelt aus
+    private int drain() {
+        int count = 0;
+        while (true) {
+            final int index = (int) this.head & this.mask;
+            if (this.sequences.get(index) != this.head + 1L) {
+                break;
+            }
+            final Event event = this.events[index];
+            try {
+                LogFormatter.format(event.level.isError() ? this.errBuilder : this.outBuilder,
+                        event.timestamp, event.level, event.loggerName, event.message, event.args, event.throwable);
+            } catch (final RuntimeException exception) {
+                // Eine fehlerhafte Nachricht darf den Log-Thread nicht beenden
+                LogFormatter.format(this.errBuilder, event.timestamp, Level.ERROR, event.loggerName,
+                        "Unable to format log message \"%s\"", new Object[]{event.message}, exception);
+            }
+            event.clear();
+            // Der Platz wird für die übernächste Runde durch den Puffer freigegeben
+            this.sequences.set(index, this.head + this.events.length);
+            this.head++;
+            count++;
+        }
+
+        final long dropped = this.dropped.get();
+        if (dropped != this.reportedDropped) {
+            LogFormatter.format(this.errBuilder, System.currentTimeMillis(), Level.WARN, "Log",
+                    "Dropped %s log messages because the log buffer was full", new Object[]{dropped - this.reportedDropped}, null);
+            this.reportedDropped = dropped;
+        }
+        flush(this.stout, this.outBuilder);
+        flush(this.sterr, this.errBuilder);
+        return count;
+    }
+
+    private static void flush(final PrintStream stream, final StringBuilder builder) {
+        if (builder.isEmpty()) {
+            return;
+        }
+        stream.print(builder);
+        stream.flush();
+        builder.setLength(0);
+        if (builder.capacity() > MAX_RETAINED_OUTPUT_SIZE) {
+            builder.trimToSize();
+        }
+    }
+
+    // Wie viele Nachrichten aktuell auf die Ausgabe warten
+    public int size() {
+        return (int) Math.max(0L, this.tail.get() - this.head);
+    }
+
+    // Wie viele Nachrichten bisher wegen eines vollen Puffers verworfen wurden
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    // Wartet, bis alle bisherigen Nachrichten ausgegeben wurden, und beendet den Log-Thread
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        LockSupport.unpark(this.thread);
+        try {
+            this.thread.join(TimeUnit.SECONDS.toMillis(5L));
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Was passiert, falls der Puffer voll ist
+    public enum OverflowPolicy {
+        // Der loggende Thread wartet, bis wieder Platz frei ist; es geht keine Nachricht verloren
+        BLOCK,
+        // Die Nachricht wird verworfen und nur gezählt
+        DROP,
+        // Ab einem halb vollen Puffer wird nur noch jede n-te normale Nachricht angenommen, bei vollem
+        // Puffer keine mehr; Warnungen und Fehler werden wie bei "BLOCK" nie verworfen
+        SAMPLE,
+    }
+
+    // Ein Platz im Ringpuffer; wird immer wiederverwendet, damit beim Loggen keine Objekte angelegt werden müssen
+    private static final class Event {
+
+        private long timestamp;
+        private Level level = Level.INFO;
+        private String loggerName = "";
+        private String message = "";
+        private Object[] args = NO_ARGS;
+        private @Nullable Throwable throwable;
+
+        private void set(
+                final long timestamp,
+                final Level level,
+                final String loggerName,
+                final String message,
+                final Object[] args,
+                final @Nullable Throwable throwable
+        ) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.loggerName = loggerName;
+            this.message = message;
+            this.args = args;
+            this.throwable = throwable;
+        }
+
+        // Die Argumente werden nicht länger als nötig referenziert
+        private void clear() {
+            this.message = "";
+            this.args = NO_ARGS;
+            this.throwable = null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package dev.booky.http.log;
+
+import dev.booky.http.log.Logger.Level;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.PrintStream;
+
+// Gibt Lognachrichten direkt im aufrufenden Thread an die Standard-Output- bzw. Standard-Error-Streams aus
+@NullMarked
+public final class ConsoleAppender implements LogAppender {
+
+    private final PrintStream stout;
+    private final PrintStream sterr;
+
+    public ConsoleAppender(final PrintStream stout, final PrintStream sterr) {
+        this.stout = stout;
+        this.sterr = sterr;
+    }
+
+    @Override
+    public void append(
+            final long timestamp,
+            final Level level,
+            final String loggerName,
+            final String message,
+            final Object[] args,
+            final @Nullable Throwable throwable
+    ) {
+        final StringBuilder builder = new StringBuilder();
+        LogFormatter.format(builder, timestamp, level, loggerName, message, args, throwable);
+        // Die gesamte Nachricht wird auf einmal ausgegeben, damit sich diese nicht mit anderen Nachrichten vermischt
+        (level.isError() ? this.sterr : this.stout).print(builder);
+    }
+
+    @Override
+    public void close() {
+        this.stout.flush();
+        this.sterr.flush();
+    }
+}
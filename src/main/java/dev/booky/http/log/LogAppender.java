@@ -0,0 +1,25 @@
+package dev.booky.http.log;
+
+import dev.booky.http.log.Logger.Level;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+// Gibt Lognachrichten aus, z.B. direkt in die Konsole ("ConsoleAppender") oder gesammelt
+// über einen eigenen Thread ("AsyncAppender")
+@NullMarked
+public interface LogAppender extends AutoCloseable {
+
+    // Die Nachricht wird erst bei der Ausgabe mit den Argumenten formatiert
+    void append(
+            long timestamp,
+            Level level,
+            String loggerName,
+            String message,
+            Object[] args,
+            @Nullable Throwable throwable
+    );
+
+    // Gibt alle noch ausstehenden Nachrichten aus
+    @Override
+    void close();
+}
@@ -0,0 +1,81 @@
+package dev.booky.http.log;
+
+import dev.booky.http.log.Logger.Level;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Locale;
+
+// Baut Log-Zeilen zusammen, z.B. "[19:59:59 INFO] [Test] Hallo Welt!"; wird von allen Appendern genutzt
+@NullMarked
+final class LogFormatter {
+
+    // Das Format, mit dem die Zeit in Lognachrichten angezeigt wird, z.B.: "19:59:59"
+    private static final DateTimeFormatter TIME_FORMAT = new DateTimeFormatterBuilder()
+            .appendValue(ChronoField.HOUR_OF_DAY, 2)
+            .appendLiteral(':')
+            .appendValue(ChronoField.MINUTE_OF_HOUR, 2)
+            .appendLiteral(':')
+            .appendValue(ChronoField.SECOND_OF_MINUTE, 2)
+            .toFormatter(Locale.ROOT);
+
+    // Da die Zeit nur sekundengenau angezeigt wird, wird diese höchstens einmal pro Sekunde neu formatiert
+    private static volatile CachedTime cachedTime = new CachedTime(Long.MIN_VALUE, "");
+
+    private LogFormatter() {
+    }
+
+    private static String formatTime(final long timestamp) {
+        final long epochSecond = Math.floorDiv(timestamp, 1000L);
+        CachedTime time = cachedTime;
+        if (time.epochSecond() != epochSecond) {
+            final LocalTime localTime = LocalTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+            time = cachedTime = new CachedTime(epochSecond, TIME_FORMAT.format(localTime));
+        }
+        return time.value();
+    }
+
+    // Hängt die formatierte Nachricht an; jede Zeile der Nachricht bekommt dabei die Meta-Infos vorangestellt
+    static void format(
+            final StringBuilder builder,
+            final long timestamp,
+            final Level level,
+            final String loggerName,
+            final String message,
+            final Object[] args,
+            final @Nullable Throwable throwable
+    ) {
+        final String time = formatTime(timestamp);
+        // Falls es Argumente gibt, werden diese in der angegebenen Nachricht ersetzt
+        final String formattedMessage = args.length != 0 ? message.formatted(args) : message;
+        int lineStart = 0;
+        while (true) {
+            final int lineEnd = formattedMessage.indexOf('\n', lineStart);
+            builder.append('[').append(time).append(' ').append(level.getName())
+                    .append("] [").append(loggerName).append("] ")
+                    .append(formattedMessage, lineStart, lineEnd == -1 ? formattedMessage.length() : lineEnd)
+                    .append('\n');
+            if (lineEnd == -1) {
+                break;
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (throwable != null) {
+            // Der komplette Fehler wird samt Stacktrace angehängt
+            final StringWriter writer = new StringWriter();
+            throwable.printStackTrace(new PrintWriter(writer));
+            builder.append(writer.getBuffer());
+        }
+    }
+
+    private record CachedTime(long epochSecond, String value) {
+    }
+}
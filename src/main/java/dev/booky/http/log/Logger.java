@@ -1,97 +1,74 @@
 package dev.booky.http.log;
 
-import dev.booky.http.util.StringUtil;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import java.io.PrintStream;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.temporal.ChronoField;
 import java.util.Arrays;
-import java.util.Locale;
 
 @NullMarked
 public final class Logger {
 
-    // Das Format, mit dem die Zeit in Lognachrichten angezeigt wird, z.B.: "19:59:59"
-    private static final DateTimeFormatter TIME_FORMAT = new DateTimeFormatterBuilder()
-            .appendValue(ChronoField.HOUR_OF_DAY, 2)
-            .appendLiteral(':')
-            .appendValue(ChronoField.MINUTE_OF_HOUR, 2)
-            .appendLiteral(':')
-            .appendValue(ChronoField.SECOND_OF_MINUTE, 2)
-            .toFormatter(Locale.ROOT);
-
     // Der Name dieses Loggers
     private final String name;
-    // Die Standard-Output- und Standard-Error-Streams, mit welchen
-    // Nachrichten an die Programmschnittestelle geleitet werden
-    private final PrintStream stout;
-    private final PrintStream sterr;
+    // Gibt die Nachrichten dieses Loggers aus, z.B. an die Programmschnittestelle
+    private final LogAppender appender;
+    // Nachrichten unterhalb dieses Log-Levels werden ignoriert
+    private volatile Level level = Level.INFO;
 
     public Logger(
             final String name,
             final PrintStream stout,
             final PrintStream sterr
     ) {
+        this(name, new ConsoleAppender(stout, sterr));
+    }
+
+    public Logger(final String name, final LogAppender appender) {
         this.name = name;
-        this.stout = stout;
-        this.sterr = sterr;
+        this.appender = appender;
     }
 
-    private String formatLine(final Level level, final String line) {
-        // Baut eine Log-Zeile zusammen, z.B. "[19:59:59 INFO] [Test] Hallo Welt!"
-        return '[' + TIME_FORMAT.format(LocalTime.now())
-                + ' ' + level.name + "] [" + this.name + "] " +
-                // Schließlich wird die eigentliche Nachricht an die Meta-Infos angehängt
-                line + '\n';
+    // Ob Nachrichten mit dem gegebenen Log-Level ausgegeben werden; teure Argumente
+    // sollten nur berechnet werden, falls dies der Fall ist
+    public boolean isEnabled(final Level level) {
+        return level.ordinal() >= this.level.ordinal();
+    }
+
+    public void setLevel(final Level level) {
+        this.level = level;
     }
 
     public void log(final Level level, final String message, final Object... args) {
+        // Deaktivierte Log-Level werden noch vor dem Formatieren der Nachricht aussortiert
+        if (!this.isEnabled(level)) {
+            return;
+        }
+        final long timestamp = System.currentTimeMillis();
         // Falls das letzte Argument ein Fehler ist, wird der Fehler separat ausgegeben
         // So etwas machen auch häufig verwendete Logger-Bibliotheken wie z.B. Log4J
         if (args.length > 0 && args[args.length - 1] instanceof final Throwable throwable) {
             // Der Fehler wird aus dem eigentlichen Argumenten-Array ausgebaut
             final Object[] trimmedArgs = Arrays.copyOf(args, args.length - 1);
-            this.logDirect(level, message, trimmedArgs);
-            this.logError(level, throwable);
+            this.logDirect(timestamp, level, message, trimmedArgs, throwable);
         } else {
-            this.logDirect(level, message, args);
-        }
-    }
-
-    private void logDirect(final Level level, final String message, final Object... args) {
-        // Basierend auf dem angegebenen Log-Level wird ein Output-Stream ausgesucht
-        final PrintStream stream = this.getStream(level);
-
-        // Falls es Argumente gibt, werden diese in der angegebenen Nachricht ersetzt
-        final String formattedMessage = args.length != 0
-                ? message.formatted(args) : message;
-        // Die formatierte Nachricht wird an Zeilenumbrüchen getrennt, damit
-        // jede einzelne Zeile vernünftig formatiert werden kann
-        final String[] lines = StringUtil.split(formattedMessage, '\n');
-        for (int i = 0, len = lines.length; i < len; ++i) {
-            // Nun wird jede einzelne Zeile formatiert ...
-            final String formattedLine = this.formatLine(level, lines[0]);
-            // ... und an den Output-Stream ausgegeben, um sie in der Konsole anzuzeigen
-            stream.print(formattedLine);
+            this.logDirect(timestamp, level, message, args, null);
         }
     }
 
-    private void logError(final Level level, final Throwable throwable) {
-        // Basierend auf dem angegebenen Log-Level wird ein Output-Stream ausgesucht
-        final PrintStream stream = this.getStream(level);
-        // Der komplette Error wird einfach an den Output-Stream weitergegeben
-        throwable.printStackTrace(stream);
+    private void logDirect(
+            final long timestamp,
+            final Level level,
+            final String message,
+            final Object[] args,
+            final @Nullable Throwable throwable
+    ) {
+        // Die Nachricht wird erst vom Appender formatiert, bei "AsyncAppender" also nicht im aufrufenden Thread
+        this.appender.append(timestamp, level, this.name, message, args, throwable);
     }
 
-    private PrintStream getStream(final Level level) {
-        // Löst den jeweiligen Output-Stream aus einem Log-Level auf
-        return switch (level.stream) {
-            case OUT -> this.stout;
-            case ERR -> this.sterr;
-        };
+    public void debug(final String message, final Object... args) {
+        this.log(Level.DEBUG, message, args);
     }
 
     public void info(final String message, final Object... args) {
@@ -112,9 +89,10 @@ public final class Logger {
         ERR,
     }
 
-    // Mögliche Log-Level
+    // Mögliche Log-Level, aufsteigend nach Wichtigkeit
     public enum Level {
 
+        DEBUG(StandardStream.OUT, "DEBUG"),
         INFO(StandardStream.OUT, "INFO"),
         WARN(StandardStream.ERR, "WARN"),
         ERROR(StandardStream.ERR, "ERROR");
@@ -126,5 +104,14 @@ public final class Logger {
             this.stream = stream;
             this.name = name;
         }
+
+        String getName() {
+            return this.name;
+        }
+
+        // Ob Nachrichten mit diesem Log-Level an den Standard-Error-Stream ausgegeben werden
+        boolean isError() {
+            return this.stream == StandardStream.ERR;
+        }
     }
 }
@@ -1,26 +1,56 @@
 package dev.booky.http.log;
 
+import dev.booky.http.log.AsyncAppender.OverflowPolicy;
+import dev.booky.http.log.Logger.Level;
 import org.jspecify.annotations.NullMarked;
 
 import java.io.PrintStream;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 // Eine "Fabrik", welche eine Liste an bereits existierenden Loggern
-// und die Standard Input- und Error-Streams beinhaltet
+// und den gemeinsamen Appender aller Logger beinhaltet
+//
+// Das Logging wird über System-Properties eingestellt, z.B. "-Dhttp.log.level=WARN":
+// - "http.log.level": das niedrigste ausgegebene Log-Level (DEBUG, INFO, WARN oder ERROR);
+//   einzelne Verbindungen werden nur bei DEBUG ausgegeben
+// - "http.log.async": ob Nachrichten über einen eigenen Thread ausgegeben werden (Standard: "true")
+// - "http.log.bufferSize": wie viele Nachrichten auf die Ausgabe warten können (Zweierpotenz)
+// - "http.log.overflow": was bei vollem Puffer passiert (BLOCK, DROP oder SAMPLE)
+// - "http.log.sampleRate": jede wievielte Nachricht bei "SAMPLE" unter Last noch ausgegeben wird
 @NullMarked
 public final class LoggerFactory {
 
     private static final PrintStream STOUT = System.out;
     private static final PrintStream STERR = System.err;
 
+    private static final LogAppender APPENDER = createAppender();
+
     // Dies ist eine "ConcurrentHashMap" und keine normale "HashMap", da diese Logger
     // teilweise auch parallel geladen werden könnten und so dadurch keine Fehler entstehen
     private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
 
+    private static volatile Level level = Level.valueOf(
+            System.getProperty("http.log.level", Level.INFO.name()).toUpperCase(Locale.ROOT));
+
     private LoggerFactory() {
     }
 
+    private static LogAppender createAppender() {
+        if (!Boolean.parseBoolean(System.getProperty("http.log.async", "true"))) {
+            return new ConsoleAppender(STOUT, STERR);
+        }
+        final AsyncAppender appender = new AsyncAppender(STOUT, STERR,
+                Integer.getInteger("http.log.bufferSize", AsyncAppender.DEFAULT_BUFFER_SIZE),
+                OverflowPolicy.valueOf(System.getProperty("http.log.overflow",
+                        OverflowPolicy.BLOCK.name()).toUpperCase(Locale.ROOT)),
+                Integer.getInteger("http.log.sampleRate", AsyncAppender.DEFAULT_SAMPLE_RATE));
+        // Beim Beenden des Programms werden alle noch ausstehenden Nachrichten ausgegeben
+        Runtime.getRuntime().addShutdownHook(new Thread(appender::close, "Http-Log-Shutdown"));
+        return appender;
+    }
+
     public static Logger getLogger(final String name) {
         // Falls ein Logger mit dem gegebenen Namen noch nicht existiert,
         // wird er neu konstruiert
@@ -29,6 +59,20 @@ public final class LoggerFactory {
 
     private static Logger constructLogger(final String name) {
         // Konstruiert ein neues Logger-Objekt, basierend auf dem Namen
-        return new Logger(name, STOUT, STERR);
+        final Logger logger = new Logger(name, APPENDER);
+        logger.setLevel(level);
+        return logger;
+    }
+
+    // Setzt das niedrigste ausgegebene Log-Level für alle bestehenden und zukünftigen Logger
+    public static void setLevel(final Level level) {
+        LoggerFactory.level = level;
+        for (final Logger logger : LOGGERS.values()) {
+            logger.setLevel(level);
+        }
+    }
+
+    public static LogAppender getAppender() {
+        return APPENDER;
     }
 }
@@ -0,0 +1,25 @@
+package dev.booky.http.metrics;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Ein nur wachsender Zähler; mehrere Threads zählen dabei in getrennte Zellen, damit sich
+// diese beim gleichzeitigen Zählen nicht gegenseitig ausbremsen (siehe "LongAdder")
+@NullMarked
+public final class Counter {
+
+    private final LongAdder adder = new LongAdder();
+
+    public void increment() {
+        this.adder.increment();
+    }
+
+    public void add(final long value) {
+        this.adder.add(value);
+    }
+
+    public long get() {
+        return this.adder.sum();
+    }
+}
@@ -0,0 +1,147 @@
+package dev.booky.http.metrics;
+
+import dev.booky.http.protocol.HttpStatus;
+import dev.booky.http.util.HttpMethod;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Die Messwerte eines Http-Servers: Dauer der einzelnen Schritte einer Anfrage (Annehmen der Verbindung,
+// Einlesen, Bearbeiten und Schreiben), Anzahl an Verbindungen sowie Anfragen und gesendete Bytes je Methode
+// und Statusklasse; weitere Werte (z.B. Caches) werden vom Server direkt in der "MetricsRegistry" registriert
+@NullMarked
+public final class HttpMetrics {
+
+    // Die Methoden, welche getrennt gezählt werden; alle anderen werden als "OTHER" zusammengefasst,
+    // damit beliebige Methoden von Browsern nicht beliebig viele Messwerte erzeugen können
+    private static final HttpMethod[] METHODS = {
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.POST, HttpMethod.PUT,
+            HttpMethod.DELETE, HttpMethod.OPTIONS, HttpMethod.TRACE, HttpMethod.CONNECT,
+    };
+    private static final String OTHER_METHOD = "OTHER";
+    // Die Statusklassen 1xx bis 5xx
+    private static final int STATUS_CLASSES = 5;
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    private final LatencyHistogram acceptLatency;
+    private final LatencyHistogram parseLatency;
+    private final LatencyHistogram handleLatency;
+    private final LatencyHistogram writeLatency;
+    private final LatencyHistogram requestLatency;
+
+    private final Counter acceptedConnections;
+    private final Counter rejectedConnections;
+    private final Counter rejectedRequests;
+    private final Counter timedOutConnections;
+    private final LongAdder activeConnections = new LongAdder();
+    // Pro Methode und Statusklasse ein Zähler, Index ist "methodIndex * STATUS_CLASSES + statusClass"
+    private final Counter[] requests = new Counter[(METHODS.length + 1) * STATUS_CLASSES];
+    private final Counter[] bytesSent = new Counter[(METHODS.length + 1) * STATUS_CLASSES];
+
+    public HttpMetrics() {
+        this.acceptLatency = this.registry.histogram("http_accept_duration_seconds",
+                "Time from accepting a connection until it was handed to a thread");
+        this.parseLatency = this.registry.histogram("http_parse_duration_seconds",
+                "Time spent parsing a request after its last bytes were received");
+        this.handleLatency = this.registry.histogram("http_handle_duration_seconds",
+                "Time spent building the response to a request");
+        this.writeLatency = this.registry.histogram("http_write_duration_seconds",
+                "Time from writing the first byte of a response until its last byte was written");
+        this.requestLatency = this.registry.histogram("http_request_duration_seconds",
+                "Time from receiving a request until the last byte of its response was written");
+
+        this.acceptedConnections = this.registry.counter("http_connections_accepted_total",
+                "Accepted connections");
+        this.rejectedConnections = this.registry.counter("http_connections_rejected_total",
+                "Connections rejected because the server was overloaded");
+        this.registry.gauge("http_connections_active", "Currently open connections", this.activeConnections::sum);
+        this.rejectedRequests = this.registry.counter("http_requests_rejected_total",
+                "Requests rejected while parsing (e.g. malformed or too large)");
+        this.timedOutConnections = this.registry.counter("http_connections_timed_out_total",
+                "Connections closed because a read or write timeout expired");
+
+        for (int method = 0; method <= METHODS.length; method++) {
+            final String methodName = method < METHODS.length ? METHODS[method].toString() : OTHER_METHOD;
+            for (int statusClass = 0; statusClass < STATUS_CLASSES; statusClass++) {
+                final String statusName = (statusClass + 1) + "xx";
+                this.requests[method * STATUS_CLASSES + statusClass] = this.registry.counter("http_requests_total",
+                        "Completely written responses", "method", methodName, "status", statusName);
+            }
+        }
+        for (int method = 0; method <= METHODS.length; method++) {
+            final String methodName = method < METHODS.length ? METHODS[method].toString() : OTHER_METHOD;
+            for (int statusClass = 0; statusClass < STATUS_CLASSES; statusClass++) {
+                final String statusName = (statusClass + 1) + "xx";
+                this.bytesSent[method * STATUS_CLASSES + statusClass] = this.registry.counter("http_response_bytes_total",
+                        "Bytes written for responses, including status line and headers",
+                        "method", methodName, "status", statusName);
+            }
+        }
+    }
+
+    private static int methodIndex(final HttpMethod method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i] == method) {
+                return i;
+            }
+        }
+        return METHODS.length;
+    }
+
+    private static int statusClass(final HttpStatus status) {
+        return Math.max(0, Math.min(STATUS_CLASSES - 1, status.getCode() / 100 - 1));
+    }
+
+    public void recordAccept(final long nanos) {
+        this.acceptedConnections.increment();
+        this.acceptLatency.record(nanos);
+    }
+
+    public void recordRejectedConnection() {
+        this.rejectedConnections.increment();
+    }
+
+    public void recordRejectedRequest() {
+        this.rejectedRequests.increment();
+    }
+
+    public void recordTimedOutConnection() {
+        this.timedOutConnections.increment();
+    }
+
+    public void connectionOpened() {
+        this.activeConnections.increment();
+    }
+
+    public void connectionClosed() {
+        this.activeConnections.decrement();
+    }
+
+    public void recordParse(final long nanos) {
+        this.parseLatency.record(nanos);
+    }
+
+    public void recordHandle(final long nanos) {
+        this.handleLatency.record(nanos);
+    }
+
+    // Wird aufgerufen, sobald eine Antwort vollständig geschrieben wurde
+    public void recordResponse(
+            final HttpMethod method,
+            final HttpStatus status,
+            final long bytes,
+            final long writeNanos,
+            final long totalNanos
+    ) {
+        final int index = methodIndex(method) * STATUS_CLASSES + statusClass(status);
+        this.requests[index].increment();
+        this.bytesSent[index].add(bytes);
+        this.writeLatency.record(writeNanos);
+        this.requestLatency.record(totalNanos);
+    }
+
+    public MetricsRegistry getRegistry() {
+        return this.registry;
+    }
+}
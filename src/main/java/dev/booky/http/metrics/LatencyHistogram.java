@@ -0,0 +1,88 @@
+package dev.booky.http.metrics;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ein Histogramm für Dauern in Nanosekunden, angelehnt an "HdrHistogram" (siehe http://hdrhistogram.org/):
+// jede Zweierpotenz wird in gleich große Unter-Bereiche aufgeteilt, dadurch ist der Fehler eines Werts
+// unabhängig von seiner Größe immer höchstens ca. 3%, obwohl nur wenige Zähler benötigt werden
+//
+// Beim Aufzeichnen wird nur ein einziger Zähler atomar erhöht; es gibt keine Sperren, und Auswertungen sehen
+// höchstens einzelne Werte noch nicht, welche gleichzeitig aufgezeichnet werden
+@NullMarked
+public final class LatencyHistogram {
+
+    // In wie viele Unter-Bereiche jede Zweierpotenz aufgeteilt wird (2^5 = 32)
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Größere Werte (ca. 18 Minuten) werden im letzten Bereich gezählt
+    static final long MAX_VALUE = (1L << 40) - 1L;
+    static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    // Werte unterhalb von "SUB_BUCKET_COUNT" haben jeweils einen eigenen Bereich; danach wird der Wert so weit
+    // verschoben, dass nur die obersten Bits übrig bleiben, welche den Unter-Bereich der Zweierpotenz angeben
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    // Der größte Wert, welcher im gegebenen Bereich gezählt wird
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index >> SUB_BUCKET_BITS) - 1;
+        final long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1L) << shift) - 1L;
+    }
+
+    public void record(final long nanos) {
+        final long value = Math.max(0L, Math.min(nanos, MAX_VALUE));
+        this.buckets.getAndIncrement(bucketIndex(value));
+        this.count.increment();
+        this.sum.add(value);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    // Die Summe aller aufgezeichneten Werte in Nanosekunden
+    public long getSum() {
+        return this.sum.sum();
+    }
+
+    // Gibt für jedes der gegebenen, aufsteigend sortierten Quantile (z.B. 0.99) den Wert zurück, unter
+    // welchem dieser Anteil aller Werte liegt; die Werte werden dabei nach oben gerundet
+    public long[] getValuesAtQuantiles(final double... quantiles) {
+        final long[] counts = new long[BUCKET_COUNT];
+        long total = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = this.buckets.get(i);
+            total += counts[i];
+        }
+        final long[] values = new long[quantiles.length];
+        if (total == 0L) {
+            return values;
+        }
+        int index = 0;
+        long seen = counts[0];
+        for (int i = 0; i < quantiles.length; i++) {
+            final long rank = Math.max(1L, (long) Math.ceil(quantiles[i] * total));
+            while (seen < rank && index < BUCKET_COUNT - 1) {
+                seen += counts[++index];
+            }
+            values[i] = bucketUpperBound(index);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,144 @@
+package dev.booky.http.metrics;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Sammelt alle Messwerte und gibt diese im Textformat von Prometheus aus
+// (siehe https://prometheus.io/docs/instrumenting/exposition_formats/)
+//
+// Messwerte werden einmalig beim Start registriert und danach direkt über ihr Objekt aktualisiert, damit beim
+// Zählen keine Namen nachgeschlagen werden müssen; Werte, welche ohnehin bereits an anderer Stelle gezählt
+// werden (z.B. die Größe eines Caches), werden stattdessen erst bei der Ausgabe abgefragt
+@NullMarked
+public final class MetricsRegistry {
+
+    // Welche Quantile für Histogramme ausgegeben werden
+    private static final double[] QUANTILES = {0.5d, 0.9d, 0.99d, 0.999d};
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    // Die Messwerte sind nach Namen gruppiert, damit Beschreibung und Typ nur einmal ausgegeben werden
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    // Registriert einen Zähler; die Labels werden abwechselnd als Name und Wert angegeben
+    public Counter counter(final String name, final String help, final String... labels) {
+        final Counter counter = new Counter();
+        this.register(name, help, Type.COUNTER, labels, (LongSupplier) counter::get);
+        return counter;
+    }
+
+    // Registriert einen Zähler, dessen Wert bei jeder Ausgabe abgefragt wird
+    public void counter(final String name, final String help, final LongSupplier supplier, final String... labels) {
+        this.register(name, help, Type.COUNTER, labels, supplier);
+    }
+
+    // Registriert einen Wert, welcher auch sinken kann und bei jeder Ausgabe abgefragt wird
+    public void gauge(final String name, final String help, final LongSupplier supplier, final String... labels) {
+        this.register(name, help, Type.GAUGE, labels, supplier);
+    }
+
+    // Registriert ein Histogramm für Dauern; diese werden in Sekunden mit einigen Quantilen ausgegeben
+    public LatencyHistogram histogram(final String name, final String help, final String... labels) {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        this.register(name, help, Type.SUMMARY, labels, histogram);
+        return histogram;
+    }
+
+    private synchronized void register(
+            final String name,
+            final String help,
+            final Type type,
+            final String[] labels,
+            final Object source
+    ) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels have to be given as name-value pairs: " + name);
+        }
+        final Family family = this.families.computeIfAbsent(name, key -> new Family(name, help, type, new ArrayList<>()));
+        if (family.type() != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type());
+        }
+        family.samples().add(new Sample(formatLabels(labels), source));
+    }
+
+    private static String formatLabels(final String[] labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            builder.append(i == 0 ? "" : ",").append(labels[i]).append("=\"");
+            // Im Wert müssen Backslashes, Anführungszeichen und Zeilensprünge maskiert werden
+            builder.append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"));
+            builder.append('"');
+        }
+        return builder.toString();
+    }
+
+    public synchronized void writePrometheus(final StringBuilder builder) {
+        for (final Family family : this.families.values()) {
+            builder.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+            builder.append("# TYPE ").append(family.name()).append(' ').append(family.type().getName()).append('\n');
+            for (final Sample sample : family.samples()) {
+                if (sample.source() instanceof final LatencyHistogram histogram) {
+                    writeHistogram(builder, family.name(), sample.labels(), histogram);
+                } else {
+                    writeSample(builder, family.name(), sample.labels(), ((LongSupplier) sample.source()).getAsLong());
+                }
+            }
+        }
+    }
+
+    private static void writeHistogram(
+            final StringBuilder builder,
+            final String name,
+            final String labels,
+            final LatencyHistogram histogram
+    ) {
+        final long[] values = histogram.getValuesAtQuantiles(QUANTILES);
+        final String separator = labels.isEmpty() ? "" : ",";
+        for (int i = 0; i < QUANTILES.length; i++) {
+            builder.append(name).append('{').append(labels).append(separator)
+                    .append("quantile=\"").append(QUANTILES[i]).append("\"} ")
+                    .append(values[i] / NANOS_PER_SECOND).append('\n');
+        }
+        writeSample(builder, name + "_sum", labels, histogram.getSum() / NANOS_PER_SECOND);
+        writeSample(builder, name + "_count", labels, histogram.getCount());
+    }
+
+    private static void writeSample(
+            final StringBuilder builder,
+            final String name,
+            final String labels,
+            final Object value
+    ) {
+        builder.append(name);
+        if (!labels.isEmpty()) {
+            builder.append('{').append(labels).append('}');
+        }
+        builder.append(' ').append(value).append('\n');
+    }
+
+    private enum Type {
+
+        COUNTER,
+        GAUGE,
+        SUMMARY;
+
+        private String getName() {
+            return this.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Family(String name, String help, Type type, List<Sample> samples) {
+    }
+
+    // "source" ist entweder ein "LongSupplier" oder ein "LatencyHistogram"
+    private record Sample(String labels, Object source) {
+    }
+}
@@ -0,0 +1,353 @@
+package dev.booky.http.nio;
+
+import dev.booky.http.HttpServer;
+import dev.booky.http.HttpServer.ServerParameters;
+import dev.booky.http.log.Logger;
+import dev.booky.http.log.LoggerFactory;
+import dev.booky.http.protocol.HttpRequest;
+import dev.booky.http.protocol.HttpRequestHead;
+import dev.booky.http.protocol.HttpRequestParser;
+import dev.booky.http.protocol.HttpResponse;
+import dev.booky.http.protocol.HttpResponseQueue;
+import dev.booky.http.protocol.HttpStatusException;
+import dev.booky.http.protocol.HttpVersion;
+import dev.booky.http.util.ChunkedBodyDecoder;
+import dev.booky.http.util.ConnectionTimeout;
+import dev.booky.http.util.PooledBuffer;
+import dev.booky.http.util.StringUtil;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import static dev.booky.http.protocol.HttpDefinitions.CONNECTION_CLOSE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONNECTION;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_TRANSFER_ENCODING;
+
+// Der Zustand einer einzelnen Verbindung der NIO-Engine; da nie blockiert werden darf, werden
+// eingehende Daten so lange gepuffert, bis der Kopfteil einer Anfrage vollständig ist, und Antworten werden
+// nur so weit geschrieben, wie die Verbindung gerade Daten annimmt
+//
+// Der Datei-Server liest keine Anfragen-Inhalte (andere Methoden als GET und HEAD werden direkt abgelehnt), daher
+// wird eine Anfrage wie bei der blockierenden Engine schon nach ihrem Kopfteil bearbeitet und der Inhalt danach
+// verworfen, sobald er empfangen wird; eine Verbindung belegt dadurch nie mehr Speicher als für den Kopfteil nötig
+//
+// Nach jedem Lesen und Schreiben wird die Frist der Verbindung passend zu ihrem Zustand gesetzt (Warten auf eine neue
+// Anfrage, begonnener Kopfteil, Inhalt oder Antwort); läuft diese ab, schließt der Event-Loop die Verbindung
+@NullMarked
+final class NioConnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("Http");
+
+    // Die Startgröße des Lese-Puffers; dieser wächst bei Bedarf bis zur maximalen Größe des Kopfteils
+    private static final int INITIAL_READ_BUFFER_SIZE = 8192;
+    // Wie viele Teile von Antworten maximal eingereiht werden, bevor weitere Anfragen erst nach dem
+    // Schreiben verarbeitet werden; damit kann ein Browser nicht beliebig viele Antworten auf einmal anfordern
+    private static final int MAX_QUEUED_PARTS = 64;
+
+    // Die Markierung dafür, dass der Java InputStream am Ende angekommen ist
+    private static final int END_MARKER = -1;
+
+    private final HttpServer server;
+    private final ServerParameters params;
+    private final NioEventLoop eventLoop;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final SocketAddress remoteAddress;
+    private final String addressString;
+    private final HttpRequestParser parser;
+
+    // Alle bisher empfangenen, aber noch nicht verarbeiteten Bytes; der Puffer
+    // befindet sich immer im "Schreib-Modus", d.h. die Position ist das Ende der Daten; der Puffer
+    // stammt aus dem "BufferPool" und wird beim Schließen der Verbindung wieder freigegeben
+    private PooledBuffer pooledReadBuffer;
+    private ByteBuffer readBuffer;
+
+    // Wie viele Bytes des Inhalts der zuletzt bearbeiteten Anfrage noch verworfen werden müssen bzw. der Dekodierer
+    // für einen "chunked"-Inhalt; solange der Inhalt nicht vollständig verworfen wurde, wird keine neue Anfrage gelesen
+    private long bodyRemaining;
+    private @Nullable ChunkedBodyDecoder chunkedBody;
+
+    // Die noch nicht vollständig geschriebenen Antworten; bei hintereinander gesendeten Anfragen werden
+    // zuerst alle Antworten eingereiht und danach gemeinsam geschrieben
+    private final HttpResponseQueue responses;
+    private boolean closeAfterWrite;
+
+    // Die Frist der Verbindung; wann die ersten Bytes des aktuellen Kopfteils empfangen wurden (0, falls
+    // noch keine empfangen wurden), damit das Zeitlimit für den Kopfteil nicht durch jedes Byte verlängert wird
+    private final ConnectionTimeout timeout;
+    private long headStart;
+
+    private int requestCount;
+    private boolean closed;
+
+    NioConnection(
+            final HttpServer server,
+            final ServerParameters params,
+            final NioEventLoop eventLoop,
+            final SocketChannel channel,
+            final SelectionKey key
+    ) {
+        this.server = server;
+        this.params = params;
+        this.eventLoop = eventLoop;
+        this.channel = channel;
+        this.key = key;
+        this.remoteAddress = channel.socket().getRemoteSocketAddress();
+        this.addressString = StringUtil.stringifyAddress(this.remoteAddress);
+        this.parser = new HttpRequestParser(params.maxRequestHeadSize());
+        this.pooledReadBuffer = server.getBufferPool().acquireDirect(INITIAL_READ_BUFFER_SIZE);
+        this.readBuffer = this.pooledReadBuffer.buffer();
+        this.responses = new HttpResponseQueue(channel, server.getBufferPool());
+        // Das "TimerWheel" läuft in einem eigenen Thread, die Verbindung darf aber nur im Event-Loop geschlossen werden
+        this.timeout = new ConnectionTimeout(server.getTimerWheel(), () -> eventLoop.execute(this::expire));
+        this.responses.setWriteTimeout(this.timeout, params.writeTimeout().toNanos());
+        LOGGER.debug("Accepted socket connection from %s", this.addressString);
+        server.getMetrics().connectionOpened();
+        this.updateTimeout();
+    }
+
+    static void closeQuietly(final Channel channel) {
+        try {
+            channel.close();
+        } catch (final IOException ignored) {
+            // Beim Schließen auftretende Fehler sind hier nicht mehr relevant
+        }
+    }
+
+    void handleRead() throws IOException {
+        // Es wird so viel gelesen, wie gerade verfügbar ist und in den Puffer passt
+        final int read = this.channel.read(this.readBuffer);
+        if (read == END_MARKER) {
+            // Der Browser hat die Verbindung geschlossen
+            this.close();
+            return;
+        }
+        this.processRequests();
+        this.updateTimeout();
+    }
+
+    void handleWrite() throws IOException {
+        if (this.flushResponses()) {
+            // Nachdem alle Antworten vollständig geschrieben wurden, werden
+            // bereits empfangene weitere Anfragen verarbeitet
+            this.processRequests();
+        }
+        this.updateTimeout();
+    }
+
+    // Setzt die Frist passend dazu, worauf die Verbindung gerade wartet
+    private void updateTimeout() {
+        if (this.closed || !this.responses.isEmpty()) {
+            // Solange noch Antworten geschrieben werden, verlängert die Warteschlange selbst die Schreib-Frist
+            return;
+        }
+        final long now = System.nanoTime();
+        final long deadline;
+        if (this.bodyRemaining > 0L || this.chunkedBody != null) {
+            deadline = ConnectionTimeout.deadlineAfter(now, this.params.bodyReadTimeout().toNanos());
+        } else if (this.readBuffer.position() > 0) {
+            if (this.headStart == 0L) {
+                this.headStart = now;
+            }
+            deadline = ConnectionTimeout.deadlineAfter(this.headStart, this.params.headerReadTimeout().toNanos());
+        } else {
+            this.headStart = 0L;
+            deadline = ConnectionTimeout.deadlineAfter(now, this.params.keepAliveTimeout().toNanos());
+        }
+        this.timeout.setDeadline(deadline);
+    }
+
+    // Wird im Event-Loop ausgeführt, nachdem das "TimerWheel" eine abgelaufene Frist gemeldet hat
+    private void expire() {
+        // In der Zwischenzeit könnte die Verbindung doch noch Fortschritt gemacht und die Frist verlängert haben
+        if (this.closed || !this.timeout.isOverdue()) {
+            return;
+        }
+        LOGGER.debug("Closed socket connection from %s after timeout", this.addressString);
+        this.server.getMetrics().recordTimedOutConnection();
+        this.close();
+    }
+
+    // Verarbeitet alle vollständig im Puffer liegenden Anfragen und schreibt die Antworten danach gemeinsam
+    private void processRequests() throws IOException {
+        boolean queueFull;
+        do {
+            queueFull = this.queueResponses();
+            if (this.closed || !this.flushResponses()) {
+                return;
+            }
+            // Falls nicht alle Anfragen auf einmal eingereiht werden konnten, geht es direkt mit den restlichen weiter
+        } while (queueFull);
+    }
+
+    // Reiht die Antworten aller vollständig im Puffer liegenden Anfragen ein; gibt "true" zurück,
+    // falls dabei die maximale Anzahl an eingereihten Teilen erreicht wurde
+    private boolean queueResponses() throws IOException {
+        while (!this.closed && !this.closeAfterWrite) {
+            if (this.responses.size() >= MAX_QUEUED_PARTS) {
+                return true;
+            }
+            final HttpRequest request;
+            try {
+                request = this.tryParseRequest();
+            } catch (final HttpStatusException exception) {
+                // Falls die Anfrage abgelehnt wurde, wird der Browser darüber informiert; da der
+                // Rest der Anfrage nicht gelesen wurde, wird die Verbindung danach geschlossen
+                LOGGER.warn("Rejected request from %s with %s: %s", this.addressString,
+                        exception.getStatus().toString(), exception.getMessage());
+                this.server.getMetrics().recordRejectedRequest();
+                this.responses.add(HttpResponse.buildError(HttpVersion.HTTP_1_1, exception.getStatus(),
+                        exception.getMessage()).withHeader(HEADER_CONNECTION, CONNECTION_CLOSE));
+                this.closeAfterWrite = true;
+                return false;
+            }
+            if (request == null) {
+                // Es liegt keine weitere vollständige Anfrage vor, es wird auf weitere Daten gewartet
+                return false;
+            }
+
+            // Die Verbindung bleibt nur offen, falls der Browser dies möchte und
+            // die maximale Anzahl an Anfragen pro Verbindung noch nicht erreicht wurde
+            final boolean keepAlive = request.isKeepAlive()
+                    && ++this.requestCount < this.params.maxKeepAliveRequests();
+            final HttpResponse response;
+            try {
+                response = this.server.handleRequest(request, this.remoteAddress, keepAlive);
+            } catch (final Throwable throwable) {
+                this.server.logHandleError(request, this.remoteAddress, throwable);
+                this.close();
+                return false;
+            }
+            this.server.queueResponse(this.responses, request, this.remoteAddress, response);
+            this.closeAfterWrite = !keepAlive;
+        }
+        return false;
+    }
+
+    // Versucht den Kopfteil einer Anfrage aus dem Lese-Puffer zu lesen; falls noch Daten fehlen, wird "null" zurückgegeben
+    private @Nullable HttpRequest tryParseRequest() throws IOException {
+        // Zuerst muss der Inhalt der vorherigen Anfrage vollständig verworfen werden
+        if (!this.skipBody()) {
+            return null;
+        }
+
+        // Der Kopfteil wird direkt im Lese-Puffer gesucht; falls dieser noch nicht vollständig ist,
+        // merkt sich der Parser, wie weit bereits gesucht wurde
+        final long parseStart = System.nanoTime();
+        final HttpRequestHead parsedHead = this.parser.parseHead(this.readBuffer, 0, this.readBuffer.position());
+        if (parsedHead == null) {
+            if (!this.readBuffer.hasRemaining()) {
+                this.ensureCapacity(Math.min(this.readBuffer.capacity() * 2, this.params.maxRequestHeadSize()));
+            }
+            return null;
+        }
+        // Dabei werden auch "Transfer-Encoding" und die Größe des Inhalts wie bei der blockierenden Engine überprüft
+        final HttpRequest request = HttpRequest.parseRequest(parsedHead,
+                InputStream.nullInputStream(), this.params.maxRequestBodySize());
+        this.server.getMetrics().recordParse(System.nanoTime() - parseStart);
+        // Alle Bestandteile wurden kopiert, der Kopfteil kann daher direkt aus dem Puffer entfernt werden
+        this.consume(parsedHead.getLength());
+        this.headStart = 0L;
+
+        if (request.getHeaders().getHeader(HEADER_TRANSFER_ENCODING) != null) {
+            // Andere Kodierungen als "chunked" wurden bereits beim Einlesen abgelehnt
+            this.chunkedBody = new ChunkedBodyDecoder(this.params.maxRequestBodySize());
+        } else {
+            this.bodyRemaining = Math.max(0L, HttpRequest.parseContentLength(request.getHeaders()));
+        }
+        return request;
+    }
+
+    // Verwirft den bereits empfangenen Teil des Inhalts der zuletzt bearbeiteten Anfrage; gibt
+    // zurück, ob der Inhalt vollständig verworfen wurde und die nächste Anfrage gelesen werden kann
+    private boolean skipBody() throws IOException {
+        final int available = this.readBuffer.position();
+        if (this.chunkedBody != null) {
+            this.consume(this.chunkedBody.skip(this.readBuffer, 0, available));
+            if (!this.chunkedBody.isFinished()) {
+                return false;
+            }
+            this.chunkedBody = null;
+        } else if (this.bodyRemaining > 0L) {
+            final int skipped = (int) Math.min(this.bodyRemaining, available);
+            this.consume(skipped);
+            this.bodyRemaining -= skipped;
+            return this.bodyRemaining == 0L;
+        }
+        return true;
+    }
+
+    // Entfernt die gegebene Anzahl an Bytes vom Anfang des Lese-Puffers
+    private void consume(final int length) {
+        this.readBuffer.flip();
+        this.readBuffer.position(length);
+        this.readBuffer.compact();
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (this.readBuffer.capacity() >= capacity) {
+            return;
+        }
+        // Ein größerer Puffer wird angefordert, der bisherige Inhalt übernommen und der alte Puffer freigegeben
+        final PooledBuffer newBuffer = this.server.getBufferPool().acquireDirect(capacity);
+        this.readBuffer.flip();
+        newBuffer.buffer().put(this.readBuffer);
+        this.pooledReadBuffer.close();
+        this.pooledReadBuffer = newBuffer;
+        this.readBuffer = newBuffer.buffer();
+    }
+
+    // Schreibt so viel der eingereihten Antworten wie möglich; gibt zurück, ob alle Antworten
+    // vollständig geschrieben wurden und die Verbindung weiterhin offen ist
+    private boolean flushResponses() throws IOException {
+        final boolean complete = this.responses.write();
+        if (!complete) {
+            // Die Verbindung nimmt gerade keine weiteren Daten an; es wird gewartet,
+            // bis der Selector meldet, dass wieder geschrieben werden kann
+            this.key.interestOps(SelectionKey.OP_WRITE);
+            return false;
+        }
+        if (this.closeAfterWrite) {
+            // Bereits empfangene, ungelesene Daten werden vor dem Schließen verworfen, da das Betriebssystem
+            // sonst ein "Reset" sendet und der Browser die Antwort eventuell nie zu sehen bekommt
+            this.channel.shutdownOutput();
+            this.readBuffer.clear();
+            while (this.channel.read(this.readBuffer) > 0) {
+                this.readBuffer.clear();
+            }
+            this.close();
+            return false;
+        }
+        this.key.interestOps(SelectionKey.OP_READ);
+        return true;
+    }
+
+    void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.timeout.cancel();
+        this.server.getMetrics().connectionClosed();
+        this.server.endConnection();
+        this.key.cancel();
+        closeQuietly(this.channel);
+        this.pooledReadBuffer.close();
+        try {
+            this.responses.close();
+        } catch (final IOException ignored) {
+            // Beim Schließen auftretende Fehler sind hier nicht mehr relevant
+        }
+    }
+
+    String getAddressString() {
+        return this.addressString;
+    }
+}
@@ -0,0 +1,171 @@
+package dev.booky.http.nio;
+
+import dev.booky.http.HttpServer;
+import dev.booky.http.HttpServer.ServerParameters;
+import dev.booky.http.log.Logger;
+import dev.booky.http.log.LoggerFactory;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Ein einzelner Event-Loop-Thread der NIO-Engine; mithilfe eines "Selectors" wartet dieser
+// gleichzeitig auf alle ihm zugewiesenen Verbindungen und bearbeitet nur die, bei welchen
+// gerade gelesen oder geschrieben werden kann - dadurch belegt eine inaktive Verbindung keinen Thread
+@NullMarked
+public final class NioEventLoop implements Runnable, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("Http");
+
+    // Wie lange beim Schließen höchstens auf das Ende des Event-Loop-Threads gewartet wird
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000L;
+
+    private final HttpServer server;
+    private final ServerParameters params;
+    private final Selector selector;
+    private final Thread thread;
+
+    // Neu akzeptierte Verbindungen werden vom Akzeptier-Thread hier eingereiht und erst
+    // im Event-Loop-Thread registriert, da der "Selector" nicht thread-sicher ist
+    private final Queue<PendingChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+    // Aufgaben anderer Threads (z.B. abgelaufene Zeitlimits), welche im Event-Loop-Thread ausgeführt werden müssen
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running = true;
+
+    public NioEventLoop(
+            final HttpServer server,
+            final ServerParameters params,
+            final String threadName
+    ) throws IOException {
+        this.server = server;
+        this.params = params;
+        this.selector = Selector.open();
+
+        this.thread = new Thread(this, threadName);
+        this.thread.setDaemon(true);
+    }
+
+    // Startet den Event-Loop-Thread; dies passiert erst nach dem Erstellen, damit
+    // der Thread kein unvollständig initialisiertes Objekt zu sehen bekommt
+    public void start() {
+        this.thread.start();
+    }
+
+    // Übergibt eine neu akzeptierte Verbindung an diesen Event-Loop; der Zeitpunkt der Annahme
+    // wird benötigt, um zu lange wartende Verbindungen bei Überlastung abzulehnen
+    public void register(final SocketChannel channel, final long admittedNanos) {
+        this.pendingChannels.add(new PendingChannel(channel, admittedNanos));
+        // Der Event-Loop wird aufgeweckt, falls er gerade auf Ereignisse wartet
+        this.selector.wakeup();
+    }
+
+    // Führt die Aufgabe im Event-Loop-Thread aus, sobald dieser das nächste Mal aufwacht
+    public void execute(final Runnable task) {
+        this.tasks.add(task);
+        this.selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (this.running) {
+            try {
+                // Es wird gewartet, bis bei mindestens einer Verbindung gelesen oder geschrieben werden kann;
+                // alle bereiten Verbindungen werden direkt bearbeitet - Zeitlimits werden nicht hier geprüft,
+                // sondern vom "TimerWheel" des Servers als Aufgabe eingereiht
+                this.selector.select(this::processKey);
+                this.registerPending();
+                this.runTasks();
+            } catch (final Throwable throwable) {
+                if (this.running) {
+                    LOGGER.error("Error in event loop %s", this.thread.getName(), throwable);
+                }
+            }
+        }
+    }
+
+    private void registerPending() {
+        PendingChannel pending;
+        while ((pending = this.pendingChannels.poll()) != null) {
+            final SocketChannel channel = pending.channel();
+            if (!this.server.beginConnection(channel, pending.admittedNanos())) {
+                continue;
+            }
+            try {
+                // Die Verbindung wird auf nicht-blockierend umgestellt und zuerst nur auf lesbare Daten überwacht
+                channel.configureBlocking(false);
+                final SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+                key.attach(new NioConnection(this.server, this.params, this, channel, key));
+            } catch (final IOException exception) {
+                LOGGER.error("Error while registering connection", exception);
+                NioConnection.closeQuietly(channel);
+                this.server.endConnection();
+            }
+        }
+    }
+
+    private void processKey(final SelectionKey key) {
+        final NioConnection connection = (NioConnection) key.attachment();
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            // Je nach Ereignis wird entweder weiter gelesen oder weiter geschrieben
+            if (key.isReadable()) {
+                connection.handleRead();
+            } else if (key.isWritable()) {
+                connection.handleWrite();
+            }
+        } catch (final Throwable throwable) {
+            // Falls es einen Fehler bei dem Bearbeiten der Verbindung gab,
+            // wird eine Fehlernachricht abgesendet und die Verbindung geschlossen
+            LOGGER.error("Error while handling connection from %s", connection.getAddressString(), throwable);
+            connection.close();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (final Throwable throwable) {
+                LOGGER.error("Error while running task in event loop %s", this.thread.getName(), throwable);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+        this.selector.wakeup();
+        try {
+            // Es wird gewartet, bis der Event-Loop-Thread beendet ist,
+            // bevor die restlichen Verbindungen geschlossen werden
+            this.thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        // Offene Verbindungen werden vollständig geschlossen, damit Zeitlimits, Puffer und Zähler freigegeben werden
+        for (final SelectionKey key : this.selector.keys()) {
+            if (key.attachment() instanceof final NioConnection connection) {
+                connection.close();
+            } else {
+                NioConnection.closeQuietly(key.channel());
+            }
+        }
+        this.tasks.clear();
+        PendingChannel pending;
+        while ((pending = this.pendingChannels.poll()) != null) {
+            NioConnection.closeQuietly(pending.channel());
+        }
+        this.selector.close();
+    }
+
+    private record PendingChannel(SocketChannel channel, long admittedNanos) {
+    }
+}
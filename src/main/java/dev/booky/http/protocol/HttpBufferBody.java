@@ -0,0 +1,56 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.ByteBufferInputStream;
+import dev.booky.http.util.CheckedSupplier;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+// Ein Antwort-Inhalt, welcher bereits vollständig in einem Byte-Puffer vorliegt (z.B. aus einem Cache);
+// der Puffer wird dabei nie verändert, damit dieser gleichzeitig für mehrere Antworten genutzt werden kann
+//
+// Falls der Puffer nach dem Schreiben wieder freigegeben werden muss (z.B. eine eingeblendete Datei),
+// wird die Freigabe-Aktion genau einmal ausgeführt: nach "transferTo", beim Schließen des Streams
+// von "get" oder - beim manuellen Schreiben mit "slice" - durch einen Aufruf von "release"
+@NullMarked
+public record HttpBufferBody(
+        ByteBuffer buffer,
+        @Nullable Runnable releaseAction
+) implements CheckedSupplier<InputStream, IOException> {
+
+    public HttpBufferBody(final ByteBuffer buffer) {
+        this(buffer, null);
+    }
+
+    @Override
+    public InputStream get() {
+        return new ByteBufferInputStream(this.slice(), this.releaseAction);
+    }
+
+    // Gibt eine eigene Ansicht auf den Puffer zurück, deren Position beim Schreiben verändert werden darf
+    public ByteBuffer slice() {
+        return this.buffer.duplicate();
+    }
+
+    // Überträgt den gesamten Inhalt in einen blockierenden Kanal
+    public void transferTo(final WritableByteChannel target) throws IOException {
+        try {
+            final ByteBuffer slice = this.slice();
+            while (slice.hasRemaining()) {
+                target.write(slice);
+            }
+        } finally {
+            this.release();
+        }
+    }
+
+    public void release() {
+        if (this.releaseAction != null) {
+            this.releaseAction.run();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.CheckedSupplier;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Ein Antwort-Inhalt, welcher aus mehreren hintereinander gesendeten Teilen besteht (z.B. eine
+// "multipart/byteranges"-Antwort); jeder Teil wird dabei auf seine eigene Art übertragen, d.h.
+// Datei-Bereiche weiterhin direkt vom Betriebssystem und Puffer ohne Umweg über einen Stream
+@NullMarked
+public record HttpCompositeBody(
+        List<CheckedSupplier<InputStream, IOException>> parts
+) implements CheckedSupplier<InputStream, IOException> {
+
+    @Override
+    public InputStream get() throws IOException {
+        // Alle Teile werden direkt geöffnet, damit ein Fehler nicht erst mitten in der Antwort auftritt;
+        // falls das Öffnen eines Teils fehlschlägt, werden alle anderen Teile wieder geschlossen bzw. freigegeben
+        final List<InputStream> inputs = new ArrayList<>(this.parts.size());
+        try {
+            for (final CheckedSupplier<InputStream, IOException> part : this.parts) {
+                inputs.add(part.get());
+            }
+        } catch (final IOException | RuntimeException exception) {
+            releaseParts(this.parts.subList(inputs.size(), this.parts.size()));
+            for (final InputStream input : inputs) {
+                try {
+                    input.close();
+                } catch (final IOException closeException) {
+                    exception.addSuppressed(closeException);
+                }
+            }
+            throw exception;
+        }
+        return new SequenceInputStream(Collections.enumeration(inputs));
+    }
+
+    // Gibt die Puffer aller Teile frei, welche nicht mehr gesendet werden
+    public static void releaseParts(final List<CheckedSupplier<InputStream, IOException>> parts) {
+        for (final CheckedSupplier<InputStream, IOException> part : parts) {
+            if (part instanceof final HttpBufferBody bufferBody) {
+                bufferBody.release();
+            }
+        }
+    }
+}
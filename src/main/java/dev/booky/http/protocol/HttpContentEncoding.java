@@ -0,0 +1,111 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.StringUtil;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Die unterstützten "Content Codings", mit welchen der Inhalt einer Antwort komprimiert werden kann,
+// siehe https://www.rfc-editor.org/rfc/rfc2616#section-3.5; die Reihenfolge entspricht der Präferenz
+// des Servers, d.h. bei mehreren vom Browser akzeptierten Kodierungen wird die erste ausgewählt
+@NullMarked
+public enum HttpContentEncoding {
+
+    // Brotli kann von Java nicht selbst komprimiert werden, daher werden
+    // nur bereits vorab komprimierte ".br"-Dateien ausgeliefert
+    BROTLI("br", ".br", false),
+    GZIP("gzip", ".gz", true),
+    // "deflate" meint im Http-Protokoll das "zlib"-Format, nicht rohe Deflate-Daten
+    DEFLATE("deflate", null, true);
+
+    private final String name;
+    // Die Dateiendung von vorab komprimierten Dateien, welche neben der eigentlichen Datei liegen
+    private final @Nullable String fileExtension;
+    // Ob der Server selbst mit dieser Kodierung komprimieren kann
+    private final boolean encodable;
+
+    HttpContentEncoding(final String name, final @Nullable String fileExtension, final boolean encodable) {
+        this.name = name;
+        this.fileExtension = fileExtension;
+        this.encodable = encodable;
+    }
+
+    // Liest den "Accept-Encoding"-Header aus und gibt alle akzeptierten Kodierungen in der Reihenfolge
+    // der Server-Präferenz zurück, siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.3
+    public static List<HttpContentEncoding> parseAcceptEncoding(final @Nullable String header) {
+        if (header == null) {
+            return List.of();
+        }
+        // Zuerst wird für jede Kodierung die Gewichtung ("q") ausgelesen; -1 bedeutet nicht angegeben
+        final float[] weights = new float[values().length];
+        Arrays.fill(weights, -1f);
+        float wildcardWeight = -1f;
+        for (final String element : StringUtil.split(header, ',')) {
+            final String[] parts = StringUtil.split(element, ';');
+            final String coding = parts[0].strip().toLowerCase(Locale.ROOT);
+            float weight = 1f;
+            for (int i = 1; i < parts.length; i++) {
+                final String parameter = parts[i].strip();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        weight = Float.parseFloat(parameter.substring(2));
+                    } catch (final NumberFormatException exception) {
+                        weight = 0f;
+                    }
+                }
+            }
+            if ("*".equals(coding)) {
+                wildcardWeight = weight;
+                continue;
+            }
+            for (final HttpContentEncoding encoding : values()) {
+                if (encoding.name.equals(coding)) {
+                    weights[encoding.ordinal()] = weight;
+                }
+            }
+        }
+        // Eine Gewichtung von 0 bedeutet, dass die Kodierung explizit nicht akzeptiert wird
+        final List<HttpContentEncoding> encodings = new ArrayList<>();
+        for (final HttpContentEncoding encoding : values()) {
+            final float weight = weights[encoding.ordinal()] >= 0f ? weights[encoding.ordinal()] : wildcardWeight;
+            if (weight > 0f) {
+                encodings.add(encoding);
+            }
+        }
+        return encodings;
+    }
+
+    // Komprimiert den gegebenen Inhalt mit dieser Kodierung
+    public byte[] encode(final byte[] content) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 2);
+        try (final OutputStream encoder = switch (this) {
+            case GZIP -> new GZIPOutputStream(output);
+            case DEFLATE -> new DeflaterOutputStream(output);
+            case BROTLI -> throw new UnsupportedOperationException("Brotli encoding is not supported");
+        }) {
+            encoder.write(content);
+        }
+        return output.toByteArray();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public @Nullable String getFileExtension() {
+        return this.fileExtension;
+    }
+
+    public boolean isEncodable() {
+        return this.encodable;
+    }
+}
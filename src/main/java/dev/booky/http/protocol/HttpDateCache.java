@@ -0,0 +1,52 @@
+package dev.booky.http.protocol;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static dev.booky.http.protocol.HttpDefinitions.CRLF;
+
+// Das aktuelle Datum für den "Date"-Header jeder Antwort, siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.18;
+// da das Datum nur sekundengenau gesendet wird, wird es höchstens einmal pro Sekunde neu formatiert und
+// danach von allen Antworten geteilt - zusätzlich wird die vollständige Header-Zeile vorab als Bytes kodiert
+@NullMarked
+public final class HttpDateCache {
+
+    private static volatile CachedDate current = formatDate(System.currentTimeMillis() / 1000L);
+
+    private HttpDateCache() {
+    }
+
+    private static CachedDate formatDate(final long epochSecond) {
+        final String value = HttpHeaders.formatDate(Instant.ofEpochSecond(epochSecond));
+        final byte[] headerLine = ("date: " + value + CRLF).getBytes(StandardCharsets.ISO_8859_1);
+        return new CachedDate(epochSecond, value, headerLine);
+    }
+
+    // Gibt das formatierte aktuelle Datum zurück
+    public static String now() {
+        return current().value();
+    }
+
+    private static CachedDate current() {
+        final long epochSecond = System.currentTimeMillis() / 1000L;
+        CachedDate date = current;
+        if (date.epochSecond() != epochSecond) {
+            // Falls mehrere Threads gleichzeitig formatieren, gewinnt einfach der letzte; alle Ergebnisse sind gleich
+            date = current = formatDate(epochSecond);
+        }
+        return date;
+    }
+
+    // Falls der Wert noch dem aktuell gespeicherten Datum entspricht, wird die vorab kodierte Header-Zeile
+    // zurückgegeben; ältere Werte müssen dagegen normal kodiert werden
+    static byte @Nullable [] getHeaderLine(final String value) {
+        final CachedDate date = current;
+        return date.value().equals(value) ? date.headerLine() : null;
+    }
+
+    private record CachedDate(long epochSecond, String value, byte[] headerLine) {
+    }
+}
@@ -20,6 +20,41 @@ public final class HttpDefinitions {
     public static final String HEADER_CONTENT_TYPE = "Content-Type";
     public static final String HEADER_CONTENT_LENGTH = "Content-Length";
     public static final String HEADER_CONTENT_DISPOSITION = "Content-Disposition";
+    public static final String HEADER_CONNECTION = "Connection";
+    public static final String HEADER_TRANSFER_ENCODING = "Transfer-Encoding";
+    public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    public static final String HEADER_VARY = "Vary";
+    public static final String HEADER_RANGE = "Range";
+    public static final String HEADER_IF_RANGE = "If-Range";
+    public static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
+    public static final String HEADER_CONTENT_RANGE = "Content-Range";
+    public static final String HEADER_ETAG = "ETag";
+    public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    public static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    public static final String HEADER_IF_MATCH = "If-Match";
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    public static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    public static final String HEADER_SERVER = "Server";
+    public static final String HEADER_DATE = "Date";
+    public static final String HEADER_HOST = "Host";
+    public static final String HEADER_USER_AGENT = "User-Agent";
+    public static final String HEADER_ACCEPT = "Accept";
+    public static final String HEADER_ACCEPT_LANGUAGE = "Accept-Language";
+    public static final String HEADER_COOKIE = "Cookie";
+    public static final String HEADER_REFERER = "Referer";
+    public static final String HEADER_ORIGIN = "Origin";
+    public static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    // Mögliche Werte des "Connection"-Headers, siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.10
+    public static final String CONNECTION_CLOSE = "close";
+    public static final String CONNECTION_KEEP_ALIVE = "keep-alive";
+
+    // Die einzige unterstützte Einheit für Teil-Anfragen, siehe https://www.rfc-editor.org/rfc/rfc2616#section-3.12
+    public static final String RANGE_UNIT_BYTES = "bytes";
+
+    // Die einzige unterstützte "Transfer-Coding", siehe https://www.rfc-editor.org/rfc/rfc2616#section-3.6.1
+    public static final String TRANSFER_ENCODING_CHUNKED = "chunked";
 
     private HttpDefinitions() {
     }
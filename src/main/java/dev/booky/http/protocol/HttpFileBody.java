@@ -0,0 +1,74 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.CheckedSupplier;
+import dev.booky.http.util.FixedLengthInputStream;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Ein Antwort-Inhalt, welcher direkt aus einer Datei stammt; falls die Verbindung einen
+// Kanal bereitstellt, wird die Datei mit "FileChannel#transferTo" übertragen - das Betriebssystem
+// kopiert die Bytes dabei direkt aus dem Datei-Cache in die Verbindung (z.B. "sendfile" unter Linux),
+// ohne dass diese jemals im Java-Speicher landen; ansonsten wird die Datei normal als Stream gelesen
+//
+// Bei Teil-Anfragen wird nur der Bereich ab "position" übertragen; dieser wird direkt angesprungen,
+// anstatt die vorherigen Bytes erst lesen und verwerfen zu müssen
+@NullMarked
+public record HttpFileBody(
+        Path path,
+        long position,
+        long length
+) implements CheckedSupplier<InputStream, IOException> {
+
+    public HttpFileBody(final Path path, final long length) {
+        this(path, 0L, length);
+    }
+
+    @Override
+    public InputStream get() throws IOException {
+        final FileChannel channel = this.openChannel();
+        try {
+            channel.position(this.position);
+        } catch (final IOException exception) {
+            channel.close();
+            throw exception;
+        }
+        // Der Stream endet nach dem angefragten Bereich und schließt dabei die Datei
+        return new FilterInputStream(new FixedLengthInputStream(Channels.newInputStream(channel), this.length)) {
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    public FileChannel openChannel() throws IOException {
+        return FileChannel.open(this.path, StandardOpenOption.READ);
+    }
+
+    // Überträgt den gesamten Inhalt in einen blockierenden Kanal
+    public void transferTo(final WritableByteChannel target) throws IOException {
+        try (final FileChannel channel = this.openChannel()) {
+            final long end = this.position + this.length;
+            long position = this.position;
+            while (position < end) {
+                final long count = channel.transferTo(position, end - position, target);
+                if (count <= 0L) {
+                    // Bei einem blockierenden Kanal wird nur dann nichts übertragen, wenn
+                    // die Datei seit dem Erstellen der Antwort kürzer geworden ist
+                    throw new EOFException("File " + this.path + " ended after " + position
+                            + " of " + end + " bytes");
+                }
+                position += count;
+            }
+        }
+    }
+}
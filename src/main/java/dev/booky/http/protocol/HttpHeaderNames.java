@@ -0,0 +1,177 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.StringUtil;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT_ENCODING;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT_LANGUAGE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT_RANGES;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CACHE_CONTROL;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONNECTION;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_DISPOSITION;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_ENCODING;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_LENGTH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_RANGE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_TYPE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_COOKIE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_DATE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ETAG;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_HOST;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_MATCH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_MODIFIED_SINCE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_NONE_MATCH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_RANGE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_LAST_MODIFIED;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ORIGIN;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_RANGE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_REFERER;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_SERVER;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_TRANSFER_ENCODING;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_USER_AGENT;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_VARY;
+
+// Normalisiert Http-Header-Namen (für diese ist Groß-/Kleinschreibung egal, siehe
+// https://www.rfc-editor.org/rfc/rfc2616#section-4.2) zu Kleinbuchstaben
+//
+// Häufig vorkommende Namen liegen bereits normalisiert in einer kleinen Hash-Tabelle; diese werden über eine
+// von Groß-/Kleinschreibung unabhängige Prüfsumme direkt aus Zeichenketten oder Byte-Puffern nachgeschlagen,
+// damit für bekannte Namen keine neue Zeichenkette erstellt werden muss und alle Header dieselben Instanzen teilen
+@NullMarked
+final class HttpHeaderNames {
+
+    // Die Tabelle ist deutlich größer als die Anzahl an Namen, damit kaum Kollisionen auftreten
+    private static final int TABLE_SIZE = 128;
+    private static final String[] TABLE = new String[TABLE_SIZE];
+    private static final int[] TABLE_HASHES = new int[TABLE_SIZE];
+
+    static {
+        final String[] knownNames = {
+                HEADER_CONTENT_TYPE, HEADER_CONTENT_LENGTH, HEADER_CONTENT_DISPOSITION, HEADER_CONNECTION,
+                HEADER_TRANSFER_ENCODING, HEADER_ACCEPT_ENCODING, HEADER_CONTENT_ENCODING, HEADER_VARY,
+                HEADER_RANGE, HEADER_IF_RANGE, HEADER_ACCEPT_RANGES, HEADER_CONTENT_RANGE, HEADER_ETAG,
+                HEADER_LAST_MODIFIED, HEADER_CACHE_CONTROL, HEADER_IF_MATCH, HEADER_IF_NONE_MATCH,
+                HEADER_IF_MODIFIED_SINCE, HEADER_SERVER, HEADER_DATE, HEADER_HOST, HEADER_USER_AGENT,
+                HEADER_ACCEPT, HEADER_ACCEPT_LANGUAGE, HEADER_COOKIE, HEADER_REFERER, HEADER_ORIGIN,
+                // Weitere Header, welche von Browsern bei fast jeder Anfrage gesendet werden
+                "Pragma", "Upgrade-Insecure-Requests", "DNT", "Priority", "Sec-Fetch-Dest", "Sec-Fetch-Mode",
+                "Sec-Fetch-Site", "Sec-Fetch-User", "Sec-CH-UA", "Sec-CH-UA-Mobile", "Sec-CH-UA-Platform",
+        };
+        for (final String knownName : knownNames) {
+            final String name = toLowerCase(knownName);
+            final int hash = hash(name);
+            int index = hash & (TABLE_SIZE - 1);
+            while (TABLE[index] != null) {
+                index = (index + 1) & (TABLE_SIZE - 1);
+            }
+            TABLE[index] = name;
+            TABLE_HASHES[index] = hash;
+        }
+    }
+
+    private HttpHeaderNames() {
+    }
+
+    private static int toLowerCase(final int character) {
+        return character >= 'A' && character <= 'Z' ? character + ('a' - 'A') : character;
+    }
+
+    // Wandelt nur ASCII-Großbuchstaben um; falls der Name bereits klein geschrieben ist,
+    // wird dieselbe Zeichenkette zurückgegeben
+    private static String toLowerCase(final String name) {
+        final int length = name.length();
+        for (int i = 0; i < length; i++) {
+            final char character = name.charAt(i);
+            if (character >= 'A' && character <= 'Z') {
+                final char[] chars = name.toCharArray();
+                for (int j = i; j < length; j++) {
+                    chars[j] = (char) toLowerCase(chars[j]);
+                }
+                return new String(chars);
+            }
+        }
+        return name;
+    }
+
+    // Eine Prüfsumme, welche für Namen mit unterschiedlicher Groß-/Kleinschreibung gleich ist
+    static int hash(final String name) {
+        int hash = 0;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            hash = 31 * hash + toLowerCase(name.charAt(i));
+        }
+        return mix(hash);
+    }
+
+    static int hash(final ByteBuffer buffer, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + toLowerCase(buffer.get(i) & 0xFF);
+        }
+        return mix(hash);
+    }
+
+    // Verteilt auch die oberen Bits der Prüfsumme auf die unteren, da für die Tabelle nur diese genutzt werden
+    private static int mix(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // Vergleicht zwei Namen, ohne Groß-/Kleinschreibung von ASCII-Zeichen zu beachten
+    static boolean equals(final String name1, final String name2) {
+        final int length = name1.length();
+        if (length != name2.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (toLowerCase(name1.charAt(i)) != toLowerCase(name2.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(final String name, final ByteBuffer buffer, final int start, final int end) {
+        final int length = name.length();
+        if (length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (toLowerCase(name.charAt(i)) != toLowerCase(buffer.get(start + i) & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Gibt den normalisierten Namen zurück; bekannte Namen werden dabei aus der Tabelle genommen
+    // (die Prüfsumme muss bereits mit "hash" berechnet worden sein)
+    static String normalize(final String name, final int hash) {
+        for (int index = hash & (TABLE_SIZE - 1); TABLE[index] != null; index = (index + 1) & (TABLE_SIZE - 1)) {
+            if (TABLE_HASHES[index] == hash && equals(TABLE[index], name)) {
+                return TABLE[index];
+            }
+        }
+        return toLowerCase(name);
+    }
+
+    // Dekodiert und normalisiert einen Namen aus einem Bereich eines Byte-Puffers
+    // (die Prüfsumme muss bereits mit "hash" berechnet worden sein)
+    static String normalize(final ByteBuffer buffer, final int start, final int end, final int hash) {
+        final String knownName = lookup(buffer, start, end, hash);
+        if (knownName != null) {
+            return knownName;
+        }
+        return toLowerCase(StringUtil.decodeLatin1(buffer, start, end));
+    }
+
+    private static @Nullable String lookup(final ByteBuffer buffer, final int start, final int end, final int hash) {
+        for (int index = hash & (TABLE_SIZE - 1); TABLE[index] != null; index = (index + 1) & (TABLE_SIZE - 1)) {
+            if (TABLE_HASHES[index] == hash && equals(TABLE[index], buffer, start, end)) {
+                return TABLE[index];
+            }
+        }
+        return null;
+    }
+}
@@ -1,109 +1,244 @@
 package dev.booky.http.protocol;
 
 import dev.booky.http.HttpServer;
-import dev.booky.http.util.HttpReader;
-import org.jetbrains.annotations.Contract;
+import dev.booky.http.util.StringUtil;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import static dev.booky.http.protocol.HttpDefinitions.CONNECTION_CLOSE;
+import static dev.booky.http.protocol.HttpDefinitions.CONNECTION_KEEP_ALIVE;
 import static dev.booky.http.protocol.HttpDefinitions.CRLF;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT_ENCODING;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_ACCEPT_RANGES;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONNECTION;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_DATE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_SERVER;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_VARY;
+import static dev.booky.http.protocol.HttpDefinitions.RANGE_UNIT_BYTES;
 
-// Beinhaltet eine Map an Http-Header-Namen zu Http-Header-Werten
+// Beinhaltet alle Http-Header einer Anfrage bzw. Antwort; statt einer Map werden Name, Prüfsumme des Namens
+// und Wert jedes Headers in flachen Arrays abgespeichert (bei den wenigen Headern einer Anfrage ist das
+// Durchsuchen eines Arrays schneller als eine Hash-Tabelle) - mehrfach vorkommende Header belegen dabei
+// jeweils einen eigenen Eintrag, statt deren Werte zusammenzufügen
+//
+// Die Namen sind normalisiert (Kleinbuchstaben, siehe "HttpHeaderNames"), für das Nachschlagen wird aber
+// keine neue Zeichenkette erstellt; bei aus Anfragen gelesenen Headern werden die Werte zudem erst beim
+// ersten Zugriff dekodiert
 @NullMarked
 public final class HttpHeaders {
 
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Die normalisierten Namen der Standard-Header jeder Antwort
+    private static final String HEADER_SERVER_NAME = normalizeHeaderName(HEADER_SERVER);
+    private static final String HEADER_DATE_NAME = normalizeHeaderName(HEADER_DATE);
+
     // Siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.18
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern(
                     "EEE, dd MMM yyyy HH:mm:ss z", Locale.ENGLISH)
             .withZone(ZoneId.of("GMT"));
 
-    private final Map<String, String> headers;
+    // Der Wert des "Server"-Headers, welcher bei jeder Antwort gesendet wird
+    private static final String SERVER_NAME = HttpServer.class.getSimpleName();
+
+    // Header, welche bei sehr vielen Antworten mit immer demselben Wert gesendet werden; die vollständigen
+    // Header-Zeilen werden einmalig vorab als Bytes kodiert und beim Schreiben nur noch kopiert
+    private static final Map<String, List<PreEncodedHeader>> PRE_ENCODED_HEADERS = buildPreEncodedHeaders(List.of(
+            new PreEncodedHeader(HEADER_SERVER, SERVER_NAME),
+            new PreEncodedHeader(HEADER_ACCEPT_RANGES, RANGE_UNIT_BYTES),
+            new PreEncodedHeader(HEADER_VARY, HEADER_ACCEPT_ENCODING),
+            new PreEncodedHeader(HEADER_CONNECTION, CONNECTION_CLOSE),
+            new PreEncodedHeader(HEADER_CONNECTION, CONNECTION_KEEP_ALIVE)
+    ));
+
+    private final String[] names;
+    private final int[] hashes;
+    // Bereits dekodierte Werte; bei aus Anfragen gelesenen Headern zunächst "null"
+    private final @Nullable String[] values;
+    // Nur bei aus Anfragen gelesenen Headern: die kopierten Bytes der Header sowie Start und Ende jedes Werts darin
+    private final byte @Nullable [] source;
+    private final int @Nullable [] valueBounds;
+    private final int size;
+    // Optional die bereits als Bytes kodierten Zeilen der ersten "encodedCount" Einträge, welche beim Schreiben
+    // am Stück kopiert werden (z.B. die Header einer zwischengespeicherten Datei)
+    private final byte @Nullable [] encodedLines;
+    private final int encodedCount;
 
-    private HttpHeaders(final Map<String, String> headers) {
-        this.headers = headers.entrySet().stream()
-                .filter(entry -> !entry.getValue().isEmpty())
-                .map(entry -> Map.entry(normalizeHeaderName(entry.getKey()), entry.getValue()))
-                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    private HttpHeaders(
+            final String[] names,
+            final int[] hashes,
+            final @Nullable String[] values,
+            final byte @Nullable [] source,
+            final int @Nullable [] valueBounds,
+            final int size
+    ) {
+        this(names, hashes, values, source, valueBounds, size, null, 0);
+    }
+
+    private HttpHeaders(
+            final String[] names,
+            final int[] hashes,
+            final @Nullable String[] values,
+            final byte @Nullable [] source,
+            final int @Nullable [] valueBounds,
+            final int size,
+            final byte @Nullable [] encodedLines,
+            final int encodedCount
+    ) {
+        this.names = names;
+        this.hashes = hashes;
+        this.values = values;
+        this.source = source;
+        this.valueBounds = valueBounds;
+        this.size = size;
+        this.encodedLines = encodedLines;
+        this.encodedCount = encodedCount;
+    }
+
+    private static Map<String, List<PreEncodedHeader>> buildPreEncodedHeaders(final List<PreEncodedHeader> headers) {
+        final Map<String, List<PreEncodedHeader>> headersByName = new HashMap<>();
+        for (final PreEncodedHeader header : headers) {
+            headersByName.computeIfAbsent(header.name(), __ -> new ArrayList<>()).add(header);
+        }
+        return Map.copyOf(headersByName);
     }
 
     // "Normt" den Namen eines Http-Headers
     private static String normalizeHeaderName(final String name) {
         // Für Header-Namen ist Groß-/Kleinschreibung egal, siehe https://www.rfc-editor.org/rfc/rfc2616#section-4.2
-        return name.toLowerCase(Locale.ROOT);
+        return HttpHeaderNames.normalize(name, HttpHeaderNames.hash(name));
     }
 
-    // Fügt zwei Header-Werte zusammen, nach den Regeln von https://www.rfc-editor.org/rfc/rfc2616#section-4.2
-    @Contract("null, null -> null; !null, _ -> !null; _, !null -> !null")
-    private static @Nullable String joinHeaderValues(@Nullable final String value1, @Nullable final String value2) {
-        if (value1 == null) return value2;
-        if (value2 == null) return value1;
-        return value1 + ',' + value2;
+    public static Builder builder() {
+        return new Builder(INITIAL_CAPACITY);
     }
 
     public static HttpHeaders buildResponseHeaders(final Map<String, String> headers) {
-        final Map<String, String> allHeaders = new HashMap<>();
+        // Um Dopplung bei den Antwort-Headern zu vermeiden, werden die Header-Namen im Builder normalisiert
+        final Builder builder = new Builder(headers.size() + 2);
         for (final Map.Entry<String, String> entry : headers.entrySet()) {
-            // Um Dopplung bei den Antwort-Headern zu vermeiden,
-            // werden hier die Header-Namen normalisiert
-            allHeaders.put(normalizeHeaderName(entry.getKey()), entry.getValue());
+            builder.set(entry.getKey(), entry.getValue());
         }
-        // Falls nicht bereits gesetzt, werden hier einige Standard-Header gesetzt
-        allHeaders.putIfAbsent("server", HttpServer.class.getSimpleName());
-        allHeaders.putIfAbsent("date", DATE_FORMAT.format(ZonedDateTime.now()));
-        return new HttpHeaders(allHeaders);
+        return builder.buildResponse();
     }
 
-    // Nutzt den HTTP-Reader, um alle HTTP-Header auszulesen, bis entweder der
-    // Inhalt vorbei ist oder der Anfragen-Inhalt anfängt
-    public static HttpHeaders parseHeaders(final HttpReader reader) throws IOException {
-        final Map<String, String> headers = new HashMap<>();
-        do {
-            if (CRLF.equals(reader.peek(CRLF.length()))) {
-                // Falls nach einem Zeilenbruch (wird in der Bedingung der Fußgesteuerten
-                // while-Schleife überprüft) noch ein weiterer Zeilenbruch vorliegt,
-                // ist das Ende der HTTP-Header erreicht
-                break;
+    // Erstellt Antwort-Header, deren Zeilen einmalig vorab als Bytes kodiert werden; gedacht für Header, welche
+    // für viele Antworten gleich bleiben - der "Date"-Header fehlt daher und wird mit "withCurrentDate" ergänzt
+    public static HttpHeaders buildEncodedResponseHeaders(final Map<String, String> headers) {
+        final Builder builder = new Builder(headers.size() + 1);
+        for (final Map.Entry<String, String> entry : headers.entrySet()) {
+            builder.set(entry.getKey(), entry.getValue());
+        }
+        final HttpHeaders responseHeaders = builder.setIfAbsent(HEADER_SERVER_NAME, SERVER_NAME).build();
+
+        int length = 0;
+        for (int i = 0; i < responseHeaders.size; i++) {
+            length += responseHeaders.names[i].length() + responseHeaders.getValue(i).length() + 2 + CRLF.length();
+        }
+        final ByteBuffer encodedLines = ByteBuffer.allocate(length);
+        responseHeaders.writeTo(encodedLines);
+        return new HttpHeaders(responseHeaders.names, responseHeaders.hashes, responseHeaders.values,
+                null, null, responseHeaders.size, encodedLines.array(), responseHeaders.size);
+    }
+
+    // Formatiert einen Zeitpunkt als Http-Datum, siehe https://www.rfc-editor.org/rfc/rfc2616#section-3.3.1
+    public static String formatDate(final Instant instant) {
+        return DATE_FORMAT.format(instant);
+    }
+
+    // Liest ein Http-Datum aus; falls das Datum ungültig ist, wird "null" zurückgegeben
+    public static @Nullable Instant parseDate(final String date) {
+        try {
+            return DATE_FORMAT.parse(date.strip(), Instant::from);
+        } catch (final DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    // Erstellt eine Kopie dieser Header, bei welcher der gegebene Header gesetzt bzw. ersetzt wurde; vorab
+    // kodierte Zeilen bleiben erhalten, solange keiner dieser Einträge ersetzt wird
+    public HttpHeaders withHeader(final String name, final String value) {
+        final Builder builder = new Builder(this.size + 1);
+        for (int i = 0; i < this.size; i++) {
+            builder.append(this.names[i], this.hashes[i], this.getValue(i));
+        }
+        builder.set(name, value);
+        final int hash = HttpHeaderNames.hash(name);
+        for (int i = 0; i < this.encodedCount; i++) {
+            if (this.hashes[i] == hash && HttpHeaderNames.equals(this.names[i], name)) {
+                return builder.build();
             }
-            // Ein Header ist normalerweise nach "<Name> ': ' <Wert>" formatiert -
-            // deshalb wird jetzt bis zum ersten ":" der Header-Name eingelesen
-            final String name = reader.readLineUntil(':');
-            reader.skip(1); // Das Trennzeichen zwischen Header-Name und Header-Wert (":") wird übersprungen
-            reader.skipLWS(); // Weißzeichen werden übersprungen
-            // Der Wert des Headers kann auch mehrzeilig sein - es wird nun bis zum nächsten
-            // Zeilenbruch ohne Fortsetzung des Headers der Wert des Headers eingelesen
-            final String value = reader.readMultiLine();
-            // Schließlich wird der Header-Wert in einer Map abgespeichert - falls der Header-Wert bereits
-            // existiert, werden die Werte nach Http-Standard zusammengefügt
-            headers.compute(normalizeHeaderName(name),
-                    (key, existingValue) -> joinHeaderValues(existingValue, value));
-            // Nachdem der eine Header gelesen wurde, wird ein Zeilensprung erwartet - falls
-            // dieser vorliegt und noch mindestens ein weiterer Zeilensprung gelesen werden könnte,
-            // wird weiter gelesen
-        } while (reader.skipCRLF() && reader.isReadable(CRLF.length()));
-        // Aus der eingelesenen Map wird nun ein Objekt gebaut
-        return new HttpHeaders(headers);
+        }
+        return builder.build(this.encodedLines, this.encodedCount);
+    }
+
+    // Erstellt eine Kopie dieser Header mit dem aktuellen "Date"-Header
+    public HttpHeaders withCurrentDate() {
+        return this.withHeader(HEADER_DATE_NAME, HttpDateCache.now());
+    }
+
+    // Liest die Http-Header aus den vom "HttpRequestParser" gefundenen Bereichen; die Bytes aller Header
+    // werden dabei einmalig kopiert, da der Lese-Puffer nach der Anfrage weiterverwendet wird - die Werte
+    // werden erst bei Bedarf aus dieser Kopie dekodiert
+    static HttpHeaders parseHeaders(final HttpRequestHead head) {
+        final int count = head.getHeaderCount();
+        final String[] names = new String[count];
+        final int[] hashes = new int[count];
+        final int[] valueBounds = new int[count * 2];
+        if (count == 0) {
+            return new HttpHeaders(names, hashes, new String[0], null, valueBounds, 0);
+        }
+
+        final ByteBuffer buffer = head.getBuffer();
+        final int sourceStart = head.getHeaderNameStart(0);
+        final byte[] source = new byte[head.getHeaderValueEnd(count - 1) - sourceStart];
+        buffer.get(sourceStart, source);
+
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            final int valueStart = head.getHeaderValueStart(i);
+            final int valueEnd = head.getHeaderValueEnd(i);
+            if (valueStart == valueEnd) {
+                // Header mit leerem Wert werden ignoriert
+                continue;
+            }
+            final int nameStart = head.getHeaderNameStart(i);
+            final int nameEnd = head.getHeaderNameEnd(i);
+            hashes[size] = HttpHeaderNames.hash(buffer, nameStart, nameEnd);
+            names[size] = HttpHeaderNames.normalize(buffer, nameStart, nameEnd, hashes[size]);
+            valueBounds[size * 2] = valueStart - sourceStart;
+            valueBounds[size * 2 + 1] = valueEnd - sourceStart;
+            size++;
+        }
+        return new HttpHeaders(names, hashes, new String[size], source, valueBounds, size);
     }
 
     public void writeTo(final BufferedWriter writer) throws IOException {
         // Es wird über alle Header-Einträge iteriert
-        for (final Map.Entry<String, String> entry : this.headers.entrySet()) {
+        for (int i = 0; i < this.size; i++) {
             // Ein Header ist normalerweise nach "<Name> ': ' <Wert>" formatiert -
             // deshalb wird zuerst der Header-Name geschriebene ...
-            writer.write(entry.getKey());
+            writer.write(this.names[i]);
             // ... dann das Trennzeichen ...
             writer.write(": ");
             // ... und schließlich der Wert des Headers
-            writer.write(entry.getValue());
+            writer.write(this.getValue(i));
 
             // Am Ende wird das Ende des Header-Einträgs mithilfe
             // eines Zeilensprungs markiert
@@ -111,16 +246,254 @@ public final class HttpHeaders {
         }
     }
 
+    // Schreibt alle Header direkt als Bytes in den Puffer, siehe "HttpResponse#writeHeadTo(ByteBuffer)"
+    public void writeTo(final ByteBuffer buffer) {
+        if (this.encodedLines != null) {
+            buffer.put(this.encodedLines);
+        }
+        for (int i = this.encodedCount; i < this.size; i++) {
+            final String name = this.names[i];
+            final String value = this.getValue(i);
+            // Vorab kodierte Header-Zeilen werden direkt kopiert
+            final byte[] headerLine = getPreEncodedLine(name, value);
+            if (headerLine != null) {
+                buffer.put(headerLine);
+                continue;
+            }
+            StringUtil.putAscii(buffer, name);
+            buffer.put((byte) ':').put((byte) ' ');
+            StringUtil.putAscii(buffer, value);
+            StringUtil.putAscii(buffer, CRLF);
+        }
+    }
+
+    private static byte @Nullable [] getPreEncodedLine(final String name, final String value) {
+        if (HEADER_DATE_NAME.equals(name)) {
+            return HttpDateCache.getHeaderLine(value);
+        }
+        final List<PreEncodedHeader> headers = PRE_ENCODED_HEADERS.get(name);
+        if (headers != null) {
+            for (final PreEncodedHeader header : headers) {
+                if (header.value().equals(value)) {
+                    return header.line();
+                }
+            }
+        }
+        return null;
+    }
+
+    // Sucht ab dem gegebenen Eintrag nach einem Header mit dem gegebenen Namen; zuerst werden nur die
+    // Prüfsummen verglichen, die Namen selbst nur bei gleicher Prüfsumme
+    private int indexOf(final String name, final int hash, final int fromIndex) {
+        for (int i = fromIndex; i < this.size; i++) {
+            if (this.hashes[i] == hash && HttpHeaderNames.equals(this.names[i], name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Gibt den Wert des Headers zurück; falls dieser mehrfach vorkommt, werden die Werte nach
+    // Http-Standard zusammengefügt, siehe https://www.rfc-editor.org/rfc/rfc2616#section-4.2
     public @Nullable String getHeader(final String name) {
-        return this.headers.get(normalizeHeaderName(name));
+        final int hash = HttpHeaderNames.hash(name);
+        final int index = this.indexOf(name, hash, 0);
+        if (index == -1) {
+            return null;
+        }
+        final String value = this.getValue(index);
+        int nextIndex = this.indexOf(name, hash, index + 1);
+        if (nextIndex == -1) {
+            return value;
+        }
+        // Nur in diesem seltenen Fall wird eine neue Zeichenkette erstellt
+        final StringBuilder joinedValue = new StringBuilder(value);
+        do {
+            joinedValue.append(',').append(this.getValue(nextIndex));
+            nextIndex = this.indexOf(name, hash, nextIndex + 1);
+        } while (nextIndex != -1);
+        return joinedValue.toString();
     }
 
+    // Gibt alle Werte des Headers einzeln zurück, ohne diese zusammenzufügen
+    public List<String> getHeaderValues(final String name) {
+        final int hash = HttpHeaderNames.hash(name);
+        int index = this.indexOf(name, hash, 0);
+        if (index == -1) {
+            return List.of();
+        }
+        final List<String> values = new ArrayList<>(1);
+        do {
+            values.add(this.getValue(index));
+            index = this.indexOf(name, hash, index + 1);
+        } while (index != -1);
+        return values;
+    }
+
+    public boolean hasHeader(final String name) {
+        return this.indexOf(name, HttpHeaderNames.hash(name), 0) != -1;
+    }
+
+    // Die Anzahl an Einträgen; mehrfach vorkommende Header zählen dabei mehrfach
+    public int size() {
+        return this.size;
+    }
+
+    public String getName(final int index) {
+        this.checkIndex(index);
+        return this.names[index];
+    }
+
+    public String getValue(final int index) {
+        this.checkIndex(index);
+        String value = this.values[index];
+        if (value == null && this.source != null && this.valueBounds != null) {
+            final int start = this.valueBounds[index * 2];
+            final int end = this.valueBounds[index * 2 + 1];
+            // Gleichzeitiges Dekodieren ist unproblematisch, da beide Threads dieselbe Zeichenkette erhalten
+            value = this.values[index] = new String(this.source, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        return value != null ? value : "";
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Header index " + index + " out of bounds for size " + this.size);
+        }
+    }
+
+    // Erstellt eine Map aller Header, bei welcher mehrfach vorkommende Werte zusammengefügt wurden
     public Map<String, String> getHeaders() {
-        return this.headers;
+        final Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < this.size; i++) {
+            headers.merge(this.names[i], this.getValue(i), (value1, value2) -> value1 + ',' + value2);
+        }
+        return headers;
     }
 
     @Override
     public String toString() {
-        return this.headers.toString();
+        return this.getHeaders().toString();
+    }
+
+    // Sammelt Http-Header, ohne diese mehrfach zu kopieren; nach dem Erstellen der
+    // "HttpHeaders" darf der Builder nicht weiter verwendet werden
+    public static final class Builder {
+
+        private String[] names;
+        private int[] hashes;
+        private String[] values;
+        private int size;
+        private boolean built;
+
+        private Builder(final int capacity) {
+            this.names = new String[capacity];
+            this.hashes = new int[capacity];
+            this.values = new String[capacity];
+        }
+
+        private void append(final String name, final int hash, final String value) {
+            if (this.size == this.names.length) {
+                final int capacity = Math.max(INITIAL_CAPACITY, this.size * 2);
+                this.names = Arrays.copyOf(this.names, capacity);
+                this.hashes = Arrays.copyOf(this.hashes, capacity);
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+            this.names[this.size] = name;
+            this.hashes[this.size] = hash;
+            this.values[this.size] = value;
+            this.size++;
+        }
+
+        private boolean contains(final String name, final int hash) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.hashes[i] == hash && this.names[i].equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Entfernt alle Einträge mit dem gegebenen (bereits normalisierten) Namen
+        private void remove(final String name, final int hash) {
+            int newSize = 0;
+            for (int i = 0; i < this.size; i++) {
+                if (this.hashes[i] == hash && this.names[i].equals(name)) {
+                    continue;
+                }
+                this.names[newSize] = this.names[i];
+                this.hashes[newSize] = this.hashes[i];
+                this.values[newSize] = this.values[i];
+                newSize++;
+            }
+            Arrays.fill(this.names, newSize, this.size, null);
+            Arrays.fill(this.values, newSize, this.size, null);
+            this.size = newSize;
+        }
+
+        // Setzt bzw. ersetzt einen Header; Header mit leerem Wert werden nicht gesendet
+        public Builder set(final String name, final String value) {
+            this.checkNotBuilt();
+            final int hash = HttpHeaderNames.hash(name);
+            final String normalizedName = HttpHeaderNames.normalize(name, hash);
+            this.remove(normalizedName, hash);
+            if (!value.isEmpty()) {
+                this.append(normalizedName, hash, value);
+            }
+            return this;
+        }
+
+        // Fügt einen Header hinzu; falls dieser bereits existiert, bekommt dieser einen weiteren Wert
+        public Builder add(final String name, final String value) {
+            this.checkNotBuilt();
+            if (!value.isEmpty()) {
+                final int hash = HttpHeaderNames.hash(name);
+                this.append(HttpHeaderNames.normalize(name, hash), hash, value);
+            }
+            return this;
+        }
+
+        public HttpHeaders build() {
+            return this.build(null, 0);
+        }
+
+        private HttpHeaders build(final byte @Nullable [] encodedLines, final int encodedCount) {
+            this.checkNotBuilt();
+            this.built = true;
+            return new HttpHeaders(this.names, this.hashes, this.values, null, null, this.size,
+                    encodedLines, encodedCount);
+        }
+
+        // Setzt zusätzlich die Standard-Header jeder Antwort, falls diese nicht bereits gesetzt wurden
+        public HttpHeaders buildResponse() {
+            return this.setIfAbsent(HEADER_SERVER_NAME, SERVER_NAME)
+                    .setIfAbsent(HEADER_DATE_NAME, HttpDateCache.now())
+                    .build();
+        }
+
+        // Fügt einen Header mit bereits normalisiertem Namen hinzu, falls dieser noch nicht gesetzt wurde
+        private Builder setIfAbsent(final String normalizedName, final String value) {
+            this.checkNotBuilt();
+            final int hash = HttpHeaderNames.hash(normalizedName);
+            if (!this.contains(normalizedName, hash)) {
+                this.append(normalizedName, hash, value);
+            }
+            return this;
+        }
+
+        private void checkNotBuilt() {
+            if (this.built) {
+                throw new IllegalStateException("Headers have already been built");
+            }
+        }
+    }
+
+    // Eine Header-Zeile mit festem Wert, welche vorab vollständig als Bytes kodiert wurde
+    private record PreEncodedHeader(String name, String value, byte[] line) {
+
+        PreEncodedHeader(final String name, final String value) {
+            this(normalizeHeaderName(name), value,
+                    (normalizeHeaderName(name) + ": " + value + CRLF).getBytes(StandardCharsets.ISO_8859_1));
+        }
     }
 }
@@ -0,0 +1,119 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.HttpMethod;
+import dev.booky.http.util.StringUtil;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_MATCH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_MODIFIED_SINCE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_NONE_MATCH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_RANGE;
+import static dev.booky.http.protocol.HttpStatus.STATUS_NOT_MODIFIED;
+import static dev.booky.http.protocol.HttpStatus.STATUS_PRECONDITION_FAILED;
+
+// Eine Hilfsklasse, welche die Bedingungen einer Anfrage ("If-Match", "If-None-Match", ...) gegen
+// die aktuellen Validatoren einer Datei prüft, siehe https://www.rfc-editor.org/rfc/rfc2616#section-13.3
+@NullMarked
+public final class HttpPreconditions {
+
+    // Ein "schwacher" Entity-Tag beginnt mit diesem Präfix, siehe https://www.rfc-editor.org/rfc/rfc2616#section-3.11
+    private static final String WEAK_PREFIX = "W/";
+    // Steht für jede beliebige Variante einer existierenden Datei
+    private static final String ANY_ENTITY_TAG = "*";
+
+    private HttpPreconditions() {
+    }
+
+    // Prüft alle Bedingungen der Anfrage; falls die Anfrage normal beantwortet werden soll, wird "null"
+    // zurückgegeben, ansonsten der Status, mit welchem stattdessen geantwortet werden muss
+    public static @Nullable HttpStatus evaluate(
+            final HttpRequest request,
+            final String entityTag,
+            final Instant lastModified
+    ) {
+        final HttpHeaders headers = request.getHeaders();
+        // Zuerst wird geprüft, ob die Datei noch der vom Browser erwarteten Variante entspricht,
+        // siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.24
+        final String ifMatch = headers.getHeader(HEADER_IF_MATCH);
+        if (ifMatch != null && !matchesEntityTag(ifMatch, entityTag, false)) {
+            return STATUS_PRECONDITION_FAILED;
+        }
+
+        // Danach wird geprüft, ob der Browser die aktuelle Variante bereits kennt; falls
+        // "If-None-Match" gesetzt ist, wird "If-Modified-Since" ignoriert,
+        // siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.26
+        final HttpMethod method = request.getMethod();
+        final String ifNoneMatch = headers.getHeader(HEADER_IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            if (!matchesEntityTag(ifNoneMatch, entityTag, true)) {
+                return null;
+            }
+            return method == HttpMethod.GET || method == HttpMethod.HEAD
+                    ? STATUS_NOT_MODIFIED : STATUS_PRECONDITION_FAILED;
+        }
+        // Siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.25
+        final String ifModifiedSince = headers.getHeader(HEADER_IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null && (method == HttpMethod.GET || method == HttpMethod.HEAD)) {
+            final Instant date = HttpHeaders.parseDate(ifModifiedSince);
+            if (date != null && !truncate(lastModified).isAfter(date)) {
+                return STATUS_NOT_MODIFIED;
+            }
+        }
+        return null;
+    }
+
+    // Prüft anhand des "If-Range"-Headers, ob die Datei seit der ersten Teil-Anfrage unverändert ist; falls nicht,
+    // muss die gesamte Datei gesendet werden, siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.27
+    public static boolean isRangeApplicable(
+            final HttpRequest request,
+            final String entityTag,
+            final Instant lastModified
+    ) {
+        final String ifRange = request.getHeaders().getHeader(HEADER_IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        final String trimmedIfRange = ifRange.strip();
+        if (trimmedIfRange.startsWith("\"") || trimmedIfRange.startsWith(WEAK_PREFIX)) {
+            // Für Teil-Anfragen muss der Entity-Tag "stark" übereinstimmen
+            return isStrongMatch(trimmedIfRange, entityTag);
+        }
+        // Ein Datum passt nur, falls es genau dem Änderungszeitpunkt der Datei entspricht
+        final Instant date = HttpHeaders.parseDate(trimmedIfRange);
+        return date != null && date.equals(truncate(lastModified));
+    }
+
+    // Prüft, ob einer der mit Kommas getrennten Entity-Tags des Headers zum gegebenen Entity-Tag passt;
+    // beim "schwachen" Vergleich wird das "W/"-Präfix beider Tags ignoriert
+    private static boolean matchesEntityTag(final String header, final String entityTag, final boolean weak) {
+        for (final String element : StringUtil.split(header, ',')) {
+            final String candidate = element.strip();
+            if (ANY_ENTITY_TAG.equals(candidate)) {
+                // Die Datei existiert, daher passt jede Variante
+                return true;
+            }
+            if (weak ? stripWeakPrefix(candidate).equals(stripWeakPrefix(entityTag))
+                    : isStrongMatch(candidate, entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isStrongMatch(final String candidate, final String entityTag) {
+        return !candidate.startsWith(WEAK_PREFIX) && !entityTag.startsWith(WEAK_PREFIX) && candidate.equals(entityTag);
+    }
+
+    private static String stripWeakPrefix(final String entityTag) {
+        return entityTag.startsWith(WEAK_PREFIX) ? entityTag.substring(WEAK_PREFIX.length()) : entityTag;
+    }
+
+    // Http-Daten sind nur sekundengenau, daher wird der Änderungszeitpunkt für Vergleiche entsprechend gekürzt
+    private static Instant truncate(final Instant lastModified) {
+        return lastModified.truncatedTo(ChronoUnit.SECONDS);
+    }
+}
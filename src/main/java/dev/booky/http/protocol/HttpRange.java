@@ -0,0 +1,110 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.StringUtil;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.booky.http.protocol.HttpDefinitions.RANGE_UNIT_BYTES;
+
+// Ein angefragter Teilbereich einer Datei, siehe https://www.rfc-editor.org/rfc/rfc2616#section-14.35;
+// "start" und "length" sind dabei bereits an die tatsächliche Größe der Datei angepasst
+@NullMarked
+public record HttpRange(long start, long length) {
+
+    // Wie viele Teilbereiche maximal in einer Anfrage angegeben werden dürfen; sehr viele kleine
+    // (oder überlappende) Teilbereiche würden die Antwort nur unnötig aufblähen
+    static final int MAX_RANGES = 16;
+    // Die Markierungen für eine leere bzw. ungültige Byte-Position
+    private static final long MISSING_POSITION = -1L;
+    private static final long INVALID_POSITION = -2L;
+
+    // Liest den "Range"-Header für eine Datei der gegebenen Größe aus; falls der Header ungültig ist oder
+    // eine unbekannte Einheit nutzt, wird "null" zurückgegeben und der Header muss ignoriert werden - falls
+    // keiner der Teilbereiche innerhalb der Datei liegt, wird eine leere Liste zurückgegeben
+    public static @Nullable List<HttpRange> parseRanges(final String header, final long size) {
+        // Ranges-Specifier = Bytes-Unit "=" Byte-Range-Set
+        final int equalsIndex = header.indexOf('=');
+        if (equalsIndex == -1 || !RANGE_UNIT_BYTES.equalsIgnoreCase(header.substring(0, equalsIndex).strip())) {
+            return null;
+        }
+        final String[] specs = StringUtil.split(header.substring(equalsIndex + 1), ',');
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        final List<HttpRange> ranges = new ArrayList<>(specs.length);
+        for (final String spec : specs) {
+            final String trimmedSpec = spec.strip();
+            final int dashIndex = trimmedSpec.indexOf('-');
+            if (dashIndex == -1) {
+                return null;
+            }
+            final long first = parsePosition(trimmedSpec.substring(0, dashIndex));
+            final long last = parsePosition(trimmedSpec.substring(dashIndex + 1));
+            if (first == INVALID_POSITION || last == INVALID_POSITION) {
+                return null;
+            }
+            if (first == MISSING_POSITION) {
+                // Suffix-Byte-Range-Spec = "-" Suffix-Length, d.h. die letzten n Bytes der Datei
+                if (last == MISSING_POSITION) {
+                    return null;
+                }
+                // Ein leerer Suffix (oder eine leere Datei) kann nie erfüllt werden
+                final long length = Math.min(last, size);
+                if (length > 0L) {
+                    ranges.add(new HttpRange(size - length, length));
+                }
+                continue;
+            }
+            // Byte-Range-Spec = First-Byte-Pos "-" [Last-Byte-Pos]
+            if (last != MISSING_POSITION && last < first) {
+                return null;
+            }
+            if (first >= size) {
+                // Dieser Teilbereich liegt vollständig hinter dem Ende der Datei
+                continue;
+            }
+            final long end = last == MISSING_POSITION ? size - 1L : Math.min(last, size - 1L);
+            ranges.add(new HttpRange(first, end - first + 1L));
+        }
+        return ranges;
+    }
+
+    // Liest eine nicht-negative Byte-Position aus
+    private static long parsePosition(final String position) {
+        final String trimmedPosition = position.strip();
+        if (trimmedPosition.isEmpty()) {
+            return MISSING_POSITION;
+        }
+        // Vorzeichen sind hier nicht erlaubt, werden aber von "Long#parseLong" akzeptiert
+        for (int i = 0; i < trimmedPosition.length(); i++) {
+            final char c = trimmedPosition.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID_POSITION;
+            }
+        }
+        try {
+            return Long.parseLong(trimmedPosition);
+        } catch (final NumberFormatException exception) {
+            // Zu große Zahlen liegen in jedem Fall hinter dem Ende der Datei
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // Erstellt den Wert des "Content-Range"-Headers für diesen Teilbereich
+    public String toContentRange(final long size) {
+        return RANGE_UNIT_BYTES + " " + this.start + "-" + this.end() + "/" + size;
+    }
+
+    // Erstellt den Wert des "Content-Range"-Headers, falls kein Teilbereich erfüllt werden kann
+    public static String toUnsatisfiedContentRange(final long size) {
+        return RANGE_UNIT_BYTES + " */" + size;
+    }
+
+    // Die Position des letzten Bytes in diesem Teilbereich
+    public long end() {
+        return this.start + this.length - 1L;
+    }
+}
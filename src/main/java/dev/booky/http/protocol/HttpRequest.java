@@ -1,15 +1,22 @@
 package dev.booky.http.protocol;
 
+import dev.booky.http.util.ChunkedInputStream;
+import dev.booky.http.util.FixedLengthInputStream;
 import dev.booky.http.util.HttpMethod;
-import dev.booky.http.util.HttpReader;
+import dev.booky.http.util.StringUtil;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
+import java.io.InputStream;
 import org.jspecify.annotations.NullMarked;
 
+import static dev.booky.http.protocol.HttpDefinitions.CONNECTION_CLOSE;
+import static dev.booky.http.protocol.HttpDefinitions.CONNECTION_KEEP_ALIVE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONNECTION;
 import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_LENGTH;
-import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_TYPE;
-import static dev.booky.http.util.MimeType.TYPE_PLAIN_UTF8;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_TRANSFER_ENCODING;
+import static dev.booky.http.protocol.HttpDefinitions.TRANSFER_ENCODING_CHUNKED;
+import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
+import static dev.booky.http.protocol.HttpStatus.STATUS_CONTENT_TOO_LARGE;
+import static dev.booky.http.protocol.HttpStatus.STATUS_NOT_IMPLEMENTED;
 
 // Das Objekt, welche alle Attribute einer Http-Anfrage beinhaltet
 // und die Logik, um diese aus Text auszulesen
@@ -20,14 +27,19 @@ public class HttpRequest {
     private final HttpUri uri;
     private final HttpVersion version;
     private final HttpHeaders headers;
-    private final byte[] body;
+    // Der Inhalt wird als Stream bereitgestellt, damit er nicht vollständig im RAM liegen muss
+    private final InputStream body;
+    // Wann die Anfrage empfangen wurde (nach "System#nanoTime"), z.B. um die Bearbeitungsdauer zu messen
+    private final long receivedNanos = System.nanoTime();
+    // Derselbe Zeitpunkt als Uhrzeit in Millisekunden seit 1970, z.B. für das Zugriffs-Log
+    private final long receivedMillis = System.currentTimeMillis();
 
     public HttpRequest(
             final HttpMethod method,
             final HttpUri uri,
             final HttpVersion version,
             final HttpHeaders headers,
-            final byte[] body
+            final InputStream body
     ) {
         this.method = method;
         this.uri = uri;
@@ -36,46 +48,90 @@ public class HttpRequest {
         this.body = body;
     }
 
-    public static HttpRequest parseRequest(final HttpReader reader) throws IOException {
-        // Laut dem Http-Protokoll sollte beim Start einer Anfrage eigentlich nur
-        // ein Zeilensprung übersprungen werden, allerdings überspringen wir hier
-        // zur Sicherheit alle Weißzeichen, siehe https://www.rfc-editor.org/rfc/rfc2616#section-4.1
-        reader.skipLWS();
-
-        // Die erste Zeile einer Http-Anfrage sieht wie folgt aus:
-        // Request-Line = Method SP Request-URI SP HTTP-Version CRLF
-        // (https://www.rfc-editor.org/rfc/rfc2616#section-5.1)
-
-        // Zuerst wird die Http-Methode eingelesen:
-        final HttpMethod method = HttpMethod.parseMethod(reader);
-        reader.skipLWS(); // statt nur einem Leerzeichen überspringen wir hier zur Sicherheit alle Weißzeichen
-        final HttpUri uri = HttpUri.parseUri(reader);
-        reader.skipLWS(); // statt nur einem Leerzeichen überspringen wir hier zur Sicherheit alle Weißzeichen
-        final HttpVersion version = HttpVersion.parseVersion(reader);
-        reader.skipLWS(); // statt nur einem Zeilensprung überspringen wir hier zur Sicherheit alle Weißzeichen
-
-        // Nach der Anfragen-Zeile folgen die Http-Header
-        final HttpHeaders headers = HttpHeaders.parseHeaders(reader);
-
-        // Schließlich wird der restliche Anfragen-Inhalt als Zeichenkette
-        // eingelesen und zu einem UTF-8-kodiertem Byte-Array umgewandelt;
-        // zum aktuellen Zeitpunkt werden durch den Http-Reader dadurch
-        // keine Binäranfragen unterstützt, sondern nur UTF-8-kodierte Textdateien
-        final String bodyString = reader.readRemaining();
-        final byte[] bodyBytes = bodyString.getBytes(StandardCharsets.UTF_8);
-
-        return new HttpRequest(method, uri, version, headers, bodyBytes);
+    // Erstellt eine Anfrage aus einem vom "HttpRequestParser" gelesenen Kopfteil; alle Bestandteile
+    // werden dabei sofort dekodiert bzw. kopiert, da der Kopfteil nur bis zum nächsten Lesen aus der Verbindung gültig ist
+    public static HttpRequest parseRequest(
+            final HttpRequestHead head,
+            final InputStream input,
+            final long maxBodySize
+    ) throws IOException {
+        final HttpHeaders headers = head.getHeaders();
+        final InputStream body = frameBody(headers, input, maxBodySize);
+        return new HttpRequest(head.getMethod(), head.getUri(), head.getVersion(), headers, body);
+    }
+
+    // Bestimmt anhand der Header, wie der Anfragen-Inhalt aus dem Eingabe-Stream gelesen
+    // werden muss, siehe https://www.rfc-editor.org/rfc/rfc2616#section-4.4
+    private static InputStream frameBody(
+            final HttpHeaders headers,
+            final InputStream input,
+            final long maxBodySize
+    ) throws IOException {
+        // Falls ein "Transfer-Encoding"-Header gesetzt ist, hat dieser Vorrang
+        // vor dem "Content-Length"-Header; aktuell wird hier nur "chunked" unterstützt
+        final String transferEncoding = headers.getHeader(HEADER_TRANSFER_ENCODING);
+        if (transferEncoding != null) {
+            if (!TRANSFER_ENCODING_CHUNKED.equalsIgnoreCase(transferEncoding.strip())) {
+                throw new HttpStatusException(STATUS_NOT_IMPLEMENTED,
+                        "Unsupported transfer encoding: " + transferEncoding);
+            }
+            return new ChunkedInputStream(input, maxBodySize);
+        }
+        // Ohne beide Header hat eine Anfrage keinen Inhalt
+        final long contentLength = parseContentLength(headers);
+        if (contentLength <= 0L) {
+            return InputStream.nullInputStream();
+        }
+        // Zu große Inhalte werden direkt abgelehnt, ohne überhaupt gelesen zu werden
+        if (contentLength > maxBodySize) {
+            throw new HttpStatusException(STATUS_CONTENT_TOO_LARGE,
+                    "Content length " + contentLength + " exceeds maximum size of " + maxBodySize + " bytes");
+        }
+        return new FixedLengthInputStream(input, contentLength);
+    }
+
+    // Liest den "Content-Length"-Header aus; falls dieser nicht gesetzt ist, wird -1 zurückgegeben
+    public static long parseContentLength(final HttpHeaders headers) throws HttpStatusException {
+        final String contentLength = headers.getHeader(HEADER_CONTENT_LENGTH);
+        if (contentLength == null) {
+            return -1L;
+        }
+        try {
+            final long length = Long.parseLong(contentLength.strip());
+            if (length >= 0L) {
+                return length;
+            }
+        } catch (final NumberFormatException ignored) {
+            // Wird unten als ungültige Anfrage behandelt
+        }
+        throw new HttpStatusException(STATUS_BAD_REQUEST, "Invalid content length: " + contentLength);
     }
 
     // Eine Hilfsmethode, um basierend auf dieser Http-Anfrage eine
     // einfache Http-Fehlermeldung-Antwort zu erstellen
     public HttpResponse buildError(final HttpStatus status, final String message) {
-        final byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
-        final HttpHeaders headers = HttpHeaders.buildResponseHeaders(Map.of(
-                HEADER_CONTENT_TYPE, TYPE_PLAIN_UTF8.getType(),
-                HEADER_CONTENT_LENGTH, Integer.toString(messageBytes.length)
-        ));
-        return new HttpResponse(this.version, status, headers, messageBytes);
+        return HttpResponse.buildError(this.version, status, message);
+    }
+
+    // Entscheidet, ob die Verbindung nach dieser Anfrage für weitere Anfragen offen gehalten werden soll;
+    // siehe https://www.rfc-editor.org/rfc/rfc2616#section-8.1.2.1
+    public boolean isKeepAlive() {
+        final String connection = this.headers.getHeader(HEADER_CONNECTION);
+        if (connection == null) {
+            // Ohne "Connection"-Header gilt der Standard der jeweiligen Http-Version
+            return this.version.isPersistentByDefault();
+        }
+        // Der Header kann mehrere, mit Kommas getrennte Optionen enthalten; "close" hat dabei immer Vorrang
+        boolean keepAlive = this.version.isPersistentByDefault();
+        for (final String option : StringUtil.split(connection, ',')) {
+            final String trimmedOption = option.strip();
+            if (CONNECTION_CLOSE.equalsIgnoreCase(trimmedOption)) {
+                return false;
+            } else if (CONNECTION_KEEP_ALIVE.equalsIgnoreCase(trimmedOption)) {
+                keepAlive = true;
+            }
+        }
+        return keepAlive;
     }
 
     public HttpMethod getMethod() {
@@ -94,7 +150,15 @@ public class HttpRequest {
         return this.headers;
     }
 
-    public byte[] getBody() {
+    public InputStream getBody() {
         return this.body;
     }
+
+    public long getReceivedNanos() {
+        return this.receivedNanos;
+    }
+
+    public long getReceivedMillis() {
+        return this.receivedMillis;
+    }
 }
@@ -0,0 +1,137 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.HttpMethod;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Der vom "HttpRequestParser" gefundene Kopfteil einer Anfrage; statt Zeichenketten werden hier nur
+// die Positionen der einzelnen Bestandteile im Lese-Puffer abgespeichert, welche erst bei Bedarf
+// dekodiert werden - dieses Objekt ist daher nur gültig, bis der Puffer weiter verwendet wird
+@NullMarked
+public final class HttpRequestHead {
+
+    // Pro Header werden vier Positionen abgespeichert: Start und Ende von Name und Wert
+    private static final int HEADER_OFFSET_COUNT = 4;
+    private static final int INITIAL_HEADER_CAPACITY = 16;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+    private int methodStart;
+    private int methodEnd;
+    private int uriStart;
+    private int uriEnd;
+    private int versionStart;
+    private int versionEnd;
+
+    private int[] headerOffsets = new int[INITIAL_HEADER_CAPACITY * HEADER_OFFSET_COUNT];
+    private int headerCount;
+    // Die Länge des gesamten Kopfteils inklusive der abschließenden leeren Zeile
+    private int length;
+
+    // Bereits dekodierte Bestandteile, damit diese bei mehrfachem Zugriff nicht erneut dekodiert werden
+    private @Nullable HttpMethod method;
+    private @Nullable HttpUri uri;
+    private @Nullable HttpVersion version;
+    private @Nullable HttpHeaders headers;
+
+    HttpRequestHead() {
+    }
+
+    void reset(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.headerCount = 0;
+        this.method = null;
+        this.uri = null;
+        this.version = null;
+        this.headers = null;
+    }
+
+    void setRequestLine(
+            final int methodStart, final int methodEnd,
+            final int uriStart, final int uriEnd,
+            final int versionStart, final int versionEnd
+    ) {
+        this.methodStart = methodStart;
+        this.methodEnd = methodEnd;
+        this.uriStart = uriStart;
+        this.uriEnd = uriEnd;
+        this.versionStart = versionStart;
+        this.versionEnd = versionEnd;
+    }
+
+    void addHeader(final int nameStart, final int nameEnd, final int valueStart, final int valueEnd) {
+        final int offset = this.headerCount * HEADER_OFFSET_COUNT;
+        if (offset + HEADER_OFFSET_COUNT > this.headerOffsets.length) {
+            // Das Array wird nur bei ungewöhnlich vielen Headern vergrößert und danach wiederverwendet
+            this.headerOffsets = Arrays.copyOf(this.headerOffsets, this.headerOffsets.length * 2);
+        }
+        this.headerOffsets[offset] = nameStart;
+        this.headerOffsets[offset + 1] = nameEnd;
+        this.headerOffsets[offset + 2] = valueStart;
+        this.headerOffsets[offset + 3] = valueEnd;
+        this.headerCount++;
+    }
+
+    void setLength(final int length) {
+        this.length = length;
+    }
+
+    public HttpMethod getMethod() {
+        if (this.method == null) {
+            this.method = HttpMethod.parseMethod(this.buffer, this.methodStart, this.methodEnd);
+        }
+        return this.method;
+    }
+
+    public HttpUri getUri() throws HttpStatusException {
+        if (this.uri == null) {
+            this.uri = HttpUri.parseUri(this.buffer, this.uriStart, this.uriEnd);
+        }
+        return this.uri;
+    }
+
+    public HttpVersion getVersion() throws HttpStatusException {
+        if (this.version == null) {
+            this.version = HttpVersion.parseVersion(this.buffer, this.versionStart, this.versionEnd);
+        }
+        return this.version;
+    }
+
+    public HttpHeaders getHeaders() {
+        if (this.headers == null) {
+            this.headers = HttpHeaders.parseHeaders(this);
+        }
+        return this.headers;
+    }
+
+    public int getLength() {
+        return this.length;
+    }
+
+    ByteBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    int getHeaderCount() {
+        return this.headerCount;
+    }
+
+    int getHeaderNameStart(final int index) {
+        return this.headerOffsets[index * HEADER_OFFSET_COUNT];
+    }
+
+    int getHeaderNameEnd(final int index) {
+        return this.headerOffsets[index * HEADER_OFFSET_COUNT + 1];
+    }
+
+    int getHeaderValueStart(final int index) {
+        return this.headerOffsets[index * HEADER_OFFSET_COUNT + 2];
+    }
+
+    int getHeaderValueEnd(final int index) {
+        return this.headerOffsets[index * HEADER_OFFSET_COUNT + 3];
+    }
+}
@@ -0,0 +1,221 @@
+package dev.booky.http.protocol;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+import static dev.booky.http.protocol.HttpDefinitions.CR;
+import static dev.booky.http.protocol.HttpDefinitions.HT;
+import static dev.booky.http.protocol.HttpDefinitions.LF;
+import static dev.booky.http.protocol.HttpDefinitions.SP;
+import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
+import static dev.booky.http.protocol.HttpStatus.STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE;
+import static dev.booky.http.protocol.HttpStatus.STATUS_URI_TOO_LONG;
+
+// Liest den Kopfteil einer Http-Anfrage (Anfragen-Zeile und Http-Header) direkt aus einem
+// Byte-Puffer, ohne dabei Zeichen zu dekodieren oder Zeichenketten zu erstellen; es werden nur
+// die Positionen der einzelnen Bestandteile abgespeichert, siehe "HttpRequestHead"
+//
+// Ein Parser gehört immer zu genau einer Verbindung: falls der Kopfteil noch nicht vollständig
+// empfangen wurde, merkt sich dieser, wie weit bereits gesucht wurde, damit beim nächsten Aufruf
+// nicht wieder von vorne gesucht werden muss
+@NullMarked
+public final class HttpRequestParser {
+
+    // Die maximale Größe von Anfragen-Zeile und Http-Headern zusammen
+    private final int maxHeadSize;
+    // Das Ergebnis wird für jede Anfrage wiederverwendet
+    private final HttpRequestHead head = new HttpRequestHead();
+
+    // Wie viele Bytes des aktuellen Kopfteils bereits nach dessen Ende durchsucht wurden
+    private int scannedLength;
+    // Die Länge der Anfragen-Zeile inklusive Zeilenumbruch, oder -1 falls deren Ende noch nicht gefunden wurde
+    private int requestLineLength = -1;
+
+    public HttpRequestParser(final int maxHeadSize) {
+        this.maxHeadSize = maxHeadSize;
+    }
+
+    // Versucht einen vollständigen Kopfteil im Bereich von "start" bis "end" zu lesen; falls dieser
+    // noch nicht vollständig empfangen wurde, wird "null" zurückgegeben - der Aufrufer muss dann
+    // weitere Daten lesen und diese Methode mit demselben Start erneut aufrufen
+    public @Nullable HttpRequestHead parseHead(
+            final ByteBuffer buffer,
+            final int start,
+            final int end
+    ) throws HttpStatusException {
+        // Zwischen Anfragen gesendete Zeilenumbrüche werden übersprungen, siehe https://www.rfc-editor.org/rfc/rfc2616#section-4.1
+        int headStart = start;
+        while (headStart < end && isLineBreak(buffer.get(headStart))) {
+            headStart++;
+        }
+
+        // Zuerst wird nach dem Ende der Http-Header gesucht (eine leere Zeile)
+        final int headEnd = this.findHeadEnd(buffer, headStart, end);
+        if (headEnd == -1) {
+            if (end - start >= this.maxHeadSize) {
+                throw this.tooLarge();
+            }
+            return null;
+        } else if (headEnd - start > this.maxHeadSize) {
+            throw this.tooLarge();
+        }
+
+        // Für die nächste Anfrage wird wieder von vorne gesucht
+        this.scannedLength = 0;
+        this.requestLineLength = -1;
+
+        this.head.reset(buffer);
+        this.head.setLength(headEnd - start);
+        final int lineEnd = this.parseRequestLine(buffer, headStart, headEnd);
+        this.parseHeaderLines(buffer, lineEnd, headEnd);
+        return this.head;
+    }
+
+    // Sucht nach einem Zeilenumbruch, welchem direkt ein weiterer Zeilenumbruch folgt, und gibt
+    // die Position nach diesem zurück; wie bei den meisten Servern wird auch ein einzelnes LF akzeptiert
+    private int findHeadEnd(final ByteBuffer buffer, final int headStart, final int end) {
+        int i = headStart + this.scannedLength;
+        for (; i < end; i++) {
+            if (buffer.get(i) != LF) {
+                continue;
+            }
+            if (this.requestLineLength == -1) {
+                this.requestLineLength = i + 1 - headStart;
+            }
+            // Um zu entscheiden, ob die nächste Zeile leer ist, müssen die nächsten Bytes bereits
+            // empfangen worden sein; ansonsten wird beim nächsten Aufruf ab hier weiter gesucht
+            if (i + 1 >= end) {
+                break;
+            }
+            final byte next = buffer.get(i + 1);
+            if (next == LF) {
+                return i + 2;
+            } else if (next == CR) {
+                if (i + 2 >= end) {
+                    break;
+                } else if (buffer.get(i + 2) == LF) {
+                    return i + 3;
+                }
+            }
+        }
+        this.scannedLength = i - headStart;
+        return -1;
+    }
+
+    private HttpStatusException tooLarge() {
+        final int requestLineLength = this.requestLineLength;
+        this.scannedLength = 0;
+        this.requestLineLength = -1;
+        // Falls die Anfragen-Zeile alleine bereits das Limit überschreitet
+        // (oder noch nicht einmal vollständig ist), ist die URI zu lang
+        if (requestLineLength == -1 || requestLineLength > this.maxHeadSize) {
+            return new HttpStatusException(STATUS_URI_TOO_LONG,
+                    "Request line exceeds " + this.maxHeadSize + " bytes");
+        }
+        return new HttpStatusException(STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE,
+                "Request head exceeds " + this.maxHeadSize + " bytes");
+    }
+
+    // Liest die Anfragen-Zeile und gibt die Position nach deren Zeilenumbruch zurück:
+    // Request-Line = Method SP Request-URI SP HTTP-Version CRLF
+    // (https://www.rfc-editor.org/rfc/rfc2616#section-5.1)
+    private int parseRequestLine(final ByteBuffer buffer, final int start, final int headEnd) throws HttpStatusException {
+        final int lineBreak = indexOf(buffer, start, headEnd, LF);
+        final int lineEnd = trimCR(buffer, start, lineBreak);
+
+        final int methodEnd = indexOf(buffer, start, lineEnd, SP);
+        // Statt nur einem Leerzeichen überspringen wir hier zur Sicherheit alle Leerzeichen
+        final int uriStart = skipSpaces(buffer, methodEnd, lineEnd);
+        final int uriEnd = indexOf(buffer, uriStart, lineEnd, SP);
+        final int versionStart = skipSpaces(buffer, uriEnd, lineEnd);
+        final int versionEnd = trimTrailingSpaces(buffer, versionStart, lineEnd);
+        if (methodEnd == start || uriEnd == uriStart || versionEnd == versionStart) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Malformed request line");
+        }
+
+        this.head.setRequestLine(start, methodEnd, uriStart, uriEnd, versionStart, versionEnd);
+        return lineBreak + 1;
+    }
+
+    // Liest alle Http-Header-Zeilen bis zur abschließenden leeren Zeile:
+    // message-header = field-name ":" [ field-value ]
+    // (https://www.rfc-editor.org/rfc/rfc2616#section-4.2)
+    private void parseHeaderLines(final ByteBuffer buffer, final int start, final int headEnd) throws HttpStatusException {
+        int lineStart = start;
+        while (lineStart < headEnd) {
+            final int lineBreak = indexOf(buffer, lineStart, headEnd, LF);
+            final int lineEnd = trimCR(buffer, lineStart, lineBreak);
+            if (lineEnd == lineStart) {
+                // Die leere Zeile am Ende des Kopfteils
+                break;
+            }
+
+            // Über mehrere Zeilen verteilte Header ("obs-fold") sind laut https://www.rfc-editor.org/rfc/rfc7230#section-3.2.4
+            // veraltet und werden hier abgelehnt, da diese häufig für "Request Smuggling" verwendet werden
+            final byte first = buffer.get(lineStart);
+            if (first == SP || first == HT) {
+                throw new HttpStatusException(STATUS_BAD_REQUEST, "Obsolete line folding is not supported");
+            }
+            final int colon = indexOf(buffer, lineStart, lineEnd, (byte) ':');
+            if (colon == lineEnd) {
+                throw new HttpStatusException(STATUS_BAD_REQUEST, "Header line without colon");
+            }
+            // Zwischen Header-Name und Doppelpunkt sind keine Weißzeichen erlaubt
+            final byte last = buffer.get(colon - 1);
+            if (colon == lineStart || last == SP || last == HT) {
+                throw new HttpStatusException(STATUS_BAD_REQUEST, "Invalid header name");
+            }
+
+            // Weißzeichen um den Header-Wert herum gehören nicht zum Wert
+            final int valueStart = skipSpaces(buffer, colon + 1, lineEnd);
+            final int valueEnd = trimTrailingSpaces(buffer, valueStart, lineEnd);
+            this.head.addHeader(lineStart, colon, valueStart, valueEnd);
+            lineStart = lineBreak + 1;
+        }
+    }
+
+    // Gibt die Position des ersten Vorkommens des Bytes zurück; falls es nicht vorkommt, wird "end" zurückgegeben
+    private static int indexOf(final ByteBuffer buffer, final int start, final int end, final byte search) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == search) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int indexOf(final ByteBuffer buffer, final int start, final int end, final char search) {
+        return indexOf(buffer, start, end, (byte) search);
+    }
+
+    private static int skipSpaces(final ByteBuffer buffer, final int start, final int end) {
+        int i = start;
+        while (i < end && isSpace(buffer.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimTrailingSpaces(final ByteBuffer buffer, final int start, final int end) {
+        int i = end;
+        while (i > start && isSpace(buffer.get(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    // Das Wagenrücklauf-Zeichen vor dem Zeilenvorschub gehört nicht zur Zeile
+    private static int trimCR(final ByteBuffer buffer, final int start, final int lineBreak) {
+        return lineBreak > start && buffer.get(lineBreak - 1) == CR ? lineBreak - 1 : lineBreak;
+    }
+
+    private static boolean isSpace(final byte b) {
+        return b == SP || b == HT;
+    }
+
+    private static boolean isLineBreak(final byte b) {
+        return b == CR || b == LF;
+    }
+}
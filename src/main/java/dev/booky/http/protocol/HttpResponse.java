@@ -1,16 +1,22 @@
 package dev.booky.http.protocol;
 
 import dev.booky.http.util.CheckedSupplier;
+import dev.booky.http.util.StringUtil;
 import java.io.BufferedWriter;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import static dev.booky.http.protocol.HttpDefinitions.CRLF;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_LENGTH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_CONTENT_TYPE;
 import static dev.booky.http.protocol.HttpDefinitions.SP;
+import static dev.booky.http.util.MimeType.TYPE_PLAIN_UTF8;
 
 @NullMarked
 public final class HttpResponse {
@@ -25,7 +31,8 @@ public final class HttpResponse {
     private final @Nullable CheckedSupplier<InputStream, IOException> body;
 
     // Ein Hilfs-Construktor, mit welchem ein einfaches Byte-Array
-    // als Antwortsinhalt genommen wird
+    // als Antwortsinhalt genommen wird; dieses wird direkt als Puffer geschrieben
+    // und kann so zusammen mit anderen Antworten gesendet werden
     public HttpResponse(
             final HttpVersion version,
             final HttpStatus status,
@@ -33,7 +40,7 @@ public final class HttpResponse {
             final byte @Nullable [] body
     ) {
         this(version, status, headers, body != null
-                ? () -> new ByteArrayInputStream(body) : null);
+                ? new HttpBufferBody(ByteBuffer.wrap(body)) : null);
     }
 
     public HttpResponse(
@@ -48,26 +55,24 @@ public final class HttpResponse {
         this.body = body;
     }
 
+    // Eine Hilfsmethode, um eine einfache Http-Fehlermeldung-Antwort zu erstellen
+    public static HttpResponse buildError(final HttpVersion version, final HttpStatus status, final String message) {
+        final byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+        final HttpHeaders headers = HttpHeaders.buildResponseHeaders(Map.of(
+                HEADER_CONTENT_TYPE, TYPE_PLAIN_UTF8.toString(),
+                HEADER_CONTENT_LENGTH, Integer.toString(messageBytes.length)
+        ));
+        return new HttpResponse(version, status, headers, messageBytes);
+    }
+
+    // Schreibt die Antwort über einen Stream; Verbindungen mit einem Socket-Kanal nutzen stattdessen
+    // die "HttpResponseQueue", welche Kopfteil und Inhalt ohne Umweg über einen Writer schreibt
     public void writeTo(
             final OutputStream output,
             final BufferedWriter writer
     ) throws IOException {
-        // Die erste Zeile einer Http-Antwort sieht wie folgt aus:
-        // Status-Line = HTTP-Version SP Status-Code SP Reason-Phrase CRLF
-        // (https://www.rfc-editor.org/rfc/rfc2616#section-6.1)
-        writer.write(this.version.toString());
-        writer.write(SP);
-        writer.write(this.status.toString());
-        writer.write(CRLF);
-
-        // Auf die Statuszeile der Http-Antwort folgen die Http-Header
-        this.headers.writeTo(writer);
-
-        if (this.body != null) {
-            // Durch einen doppelten Zeilensprung wird das Ende der Http-Header
-            // markiert und der Start des Http-Antwort-Inhalts eingeleitet
-            writer.write(CRLF);
-        }
+        // Zuerst werden Statuszeile und Http-Header geschrieben
+        this.writeHeadTo(writer);
 
         // Der "Writer" wird "gespült"; da wir hier einen "BufferedWriter" haben,
         // müssen zuerst alle gepufferten Textinhalte in den eigentlichen OutputStream
@@ -84,6 +89,42 @@ public final class HttpResponse {
         }
     }
 
+    // Schreibt nur die Statuszeile und die Http-Header (inklusive der abschließenden leeren Zeile);
+    // der Inhalt der Antwort muss danach separat übertragen werden
+    public void writeHeadTo(final BufferedWriter writer) throws IOException {
+        // Die erste Zeile einer Http-Antwort sieht wie folgt aus:
+        // Status-Line = HTTP-Version SP Status-Code SP Reason-Phrase CRLF
+        // (https://www.rfc-editor.org/rfc/rfc2616#section-6.1)
+        writer.write(this.version.toString());
+        writer.write(SP);
+        writer.write(this.status.toString());
+        writer.write(CRLF);
+
+        // Auf die Statuszeile der Http-Antwort folgen die Http-Header
+        this.headers.writeTo(writer);
+
+        // Durch einen doppelten Zeilensprung wird das Ende der Http-Header markiert und der
+        // Start des Http-Antwort-Inhalts eingeleitet; dieser muss auch ohne Inhalt (z.B. bei HEAD-Anfragen)
+        // gesendet werden, da der Browser bei persistenten Verbindungen sonst nicht das Ende der Antwort erkennt
+        writer.write(CRLF);
+    }
+
+    // Schreibt Statuszeile und Http-Header direkt als Bytes in den Puffer, ohne Umweg über einen Writer
+    // und dessen Zeichenkodierung; falls der Puffer zu klein ist, wird eine "BufferOverflowException" geworfen
+    public void writeHeadTo(final ByteBuffer buffer) {
+        StringUtil.putAscii(buffer, this.version.toString());
+        buffer.put((byte) SP);
+        StringUtil.putAscii(buffer, this.status.toString());
+        StringUtil.putAscii(buffer, CRLF);
+        this.headers.writeTo(buffer);
+        StringUtil.putAscii(buffer, CRLF);
+    }
+
+    // Erstellt eine Kopie dieser Antwort, bei welcher der gegebene Header gesetzt bzw. ersetzt wurde
+    public HttpResponse withHeader(final String name, final String value) {
+        return new HttpResponse(this.version, this.status, this.headers.withHeader(name, value), this.body);
+    }
+
     public HttpVersion getVersion() {
         return this.version;
     }
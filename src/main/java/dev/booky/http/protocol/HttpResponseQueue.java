@@ -0,0 +1,353 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.BufferPool;
+import dev.booky.http.util.CheckedSupplier;
+import dev.booky.http.util.ConnectionTimeout;
+import dev.booky.http.util.PooledBuffer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+// Eine Warteschlange für die Antworten einer Verbindung: bei hintereinander gesendeten Anfragen ("Pipelining")
+// werden alle Antworten zuerst gesammelt und danach in der richtigen Reihenfolge geschrieben; aufeinanderfolgende
+// Kopfteile und im Speicher liegende Inhalte werden dabei mit einem einzigen "gathering write" gesendet, damit
+// viele kleine Antworten nicht jeweils einen eigenen Systemaufruf benötigen
+//
+// Die Warteschlange kann sowohl mit blockierenden als auch mit nicht-blockierenden Kanälen genutzt werden;
+// bei nicht-blockierenden Kanälen wird immer nur so viel geschrieben, wie der Kanal gerade annimmt
+//
+// Mit einem Schreib-Zeitlimit wird die Frist vor jedem Schreiben verlängert; ein Browser, welcher eine große Antwort
+// nur sehr langsam (oder gar nicht) annimmt, wird also erst getrennt, sobald er für die gesamte Zeit nichts annimmt
+@NullMarked
+public final class HttpResponseQueue implements Flushable, Closeable {
+
+    // Wie viele Puffer maximal mit einem einzigen Systemaufruf geschrieben werden
+    private static final int MAX_GATHERED_BUFFERS = 64;
+    // Die Größe des Puffers, mit welchem Inhalte ohne bekannte Größe stückweise geschrieben werden
+    private static final int WRITE_BUFFER_SIZE = 16384;
+    // Wie viele Bytes einer Datei maximal mit einem Systemaufruf übertragen werden; bei einem blockierenden Kanal
+    // würde das Betriebssystem sonst die gesamte Datei am Stück senden, ohne dass die Schreib-Frist verlängert wird
+    private static final long MAX_TRANSFER_SIZE = 1024L * 1024L; // 1 MiB
+
+    // Die Markierung dafür, dass der Java InputStream am Ende angekommen ist
+    private static final int END_MARKER = -1;
+
+    private final GatheringByteChannel channel;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final ByteBuffer[] gatheredBuffers = new ByteBuffer[MAX_GATHERED_BUFFERS];
+
+    private final BufferPool pool;
+    // Statuszeile und Http-Header werden direkt in einen wiederverwendeten Puffer kodiert
+    private final HttpResponseSerializer serializer;
+
+    // Der Teil, welcher gerade geschrieben wird, falls dieser nicht aus einem Puffer besteht
+    private @Nullable FileChannel file;
+    private long filePosition;
+    private long fileEnd;
+    private @Nullable InputStream stream;
+    // Der Puffer für Streams wird nur angefordert, solange ein Stream geschrieben wird
+    private @Nullable PooledBuffer writeBuffer;
+    // Der Teil der Datei bzw. des Streams, welcher gerade geschrieben wird, sowie die bisher davon geschriebenen Bytes
+    private @Nullable Segment currentSegment;
+    private long currentBytes;
+
+    // Die Frist, welche vor jedem Schreiben verlängert wird; ohne Schreib-Zeitlimit ist dies "null"
+    private @Nullable ConnectionTimeout writeTimeout;
+    private long writeTimeoutNanos;
+
+    public HttpResponseQueue(final GatheringByteChannel channel, final BufferPool pool) {
+        this.channel = channel;
+        this.pool = pool;
+        this.serializer = new HttpResponseSerializer(pool);
+    }
+
+    public void setWriteTimeout(final ConnectionTimeout timeout, final long timeoutNanos) {
+        this.writeTimeout = timeoutNanos > 0L ? timeout : null;
+        this.writeTimeoutNanos = timeoutNanos;
+    }
+
+    // Reiht eine Antwort ein; diese wird erst beim nächsten Schreiben tatsächlich gesendet
+    public void add(final HttpResponse response) {
+        this.add(response, null);
+    }
+
+    // Reiht eine Antwort ein; der "listener" wird aufgerufen, sobald die Antwort vollständig geschrieben wurde
+    public void add(final HttpResponse response, final @Nullable ResponseListener listener) {
+        final ResponseTracker tracker = listener != null ? new ResponseTracker(listener) : null;
+        this.addSegment(new Segment(null, this.serializer.serializeHead(response), tracker));
+
+        final CheckedSupplier<InputStream, IOException> body = response.getBody();
+        if (body instanceof final HttpCompositeBody compositeBody) {
+            for (final CheckedSupplier<InputStream, IOException> part : compositeBody.parts()) {
+                this.addBody(part, tracker);
+            }
+        } else if (body != null) {
+            this.addBody(body, tracker);
+        }
+    }
+
+    private void addBody(final CheckedSupplier<InputStream, IOException> body, final @Nullable ResponseTracker tracker) {
+        // Im Speicher liegende Inhalte werden direkt aus einer eigenen Ansicht auf ihren Puffer geschrieben
+        final ByteBuffer buffer = body instanceof final HttpBufferBody bufferBody ? bufferBody.slice() : null;
+        this.addSegment(new Segment(body, buffer, tracker));
+    }
+
+    private void addSegment(final Segment segment) {
+        if (segment.tracker() != null) {
+            segment.tracker().pendingSegments++;
+        }
+        this.segments.add(segment);
+    }
+
+    // Schreibt so viel wie möglich; gibt zurück, ob alle eingereihten Antworten vollständig geschrieben wurden
+    public boolean write() throws IOException {
+        while (true) {
+            if (this.file != null) {
+                this.extendWriteTimeout();
+                if (!this.transferFile(this.file)) {
+                    return false;
+                }
+                continue;
+            } else if (this.stream != null && this.writeBuffer != null) {
+                this.extendWriteTimeout();
+                if (!this.writeStream(this.stream, this.writeBuffer.buffer())) {
+                    return false;
+                }
+                continue;
+            }
+            final Segment segment = this.segments.peek();
+            if (segment == null) {
+                // Alle Kopfteile wurden geschrieben, der Puffer kann wiederverwendet werden
+                this.serializer.reset();
+                if (this.writeTimeout != null) {
+                    this.writeTimeout.clear();
+                }
+                return true;
+            } else if (segment.buffer() != null) {
+                this.extendWriteTimeout();
+                if (!this.writeBuffers()) {
+                    return false;
+                }
+                continue;
+            }
+            // Dateien und Streams werden erst geöffnet, sobald sie an der Reihe sind
+            this.segments.poll();
+            this.currentSegment = segment;
+            this.currentBytes = 0L;
+            if (segment.tracker() != null) {
+                segment.tracker().start(System.nanoTime());
+            }
+            if (segment.body() instanceof final HttpFileBody fileBody) {
+                this.file = fileBody.openChannel();
+                this.filePosition = fileBody.position();
+                this.fileEnd = fileBody.position() + fileBody.length();
+            } else if (segment.body() != null) {
+                this.stream = segment.body().get();
+                this.writeBuffer = this.pool.acquireHeap(WRITE_BUFFER_SIZE);
+                this.writeBuffer.buffer().flip();
+            } else {
+                this.completeSegment();
+            }
+        }
+    }
+
+    private void extendWriteTimeout() {
+        if (this.writeTimeout != null) {
+            this.writeTimeout.setTimeout(this.writeTimeoutNanos);
+        }
+    }
+
+    // Schreibt alle eingereihten Antworten in einen blockierenden Kanal
+    @Override
+    public void flush() throws IOException {
+        while (!this.write()) {
+            // Bei einem blockierenden Kanal wird nur in Ausnahmefällen nicht alles auf einmal geschrieben
+            Thread.onSpinWait();
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.segments.isEmpty() && this.file == null && this.stream == null;
+    }
+
+    // Die Anzahl an eingereihten, noch nicht begonnenen Teilen
+    public int size() {
+        return this.segments.size();
+    }
+
+    // Schreibt alle direkt aufeinanderfolgenden Puffer mit einem einzigen Systemaufruf
+    private boolean writeBuffers() throws IOException {
+        int count = 0;
+        long now = 0L;
+        for (final Segment segment : this.segments) {
+            if (segment.buffer() == null || count == MAX_GATHERED_BUFFERS) {
+                break;
+            }
+            this.gatheredBuffers[count++] = segment.buffer();
+            if (segment.tracker() != null) {
+                // Die Zeit wird nur einmal pro Systemaufruf abgefragt
+                segment.tracker().start(now != 0L ? now : (now = System.nanoTime()));
+            }
+        }
+        try {
+            this.channel.write(this.gatheredBuffers, 0, count);
+        } finally {
+            Arrays.fill(this.gatheredBuffers, 0, count, null);
+        }
+        // Vollständig geschriebene Puffer werden entfernt und freigegeben
+        Segment segment;
+        while ((segment = this.segments.peek()) != null
+                && segment.buffer() != null && !segment.buffer().hasRemaining()) {
+            this.segments.poll();
+            segment.release();
+            if (segment.tracker() != null) {
+                // Die Ansichten beginnen immer bei Position 0, die Größe entspricht also dem Limit
+                segment.tracker().complete(segment.buffer().limit());
+            }
+        }
+        // Falls noch ein Puffer übrig ist, nimmt die Verbindung gerade keine weiteren Daten an
+        return segment == null || segment.buffer() == null;
+    }
+
+    // Überträgt so viel der Datei wie möglich; gibt "false" zurück, falls die Verbindung gerade keine weiteren Daten annimmt
+    private boolean transferFile(final FileChannel file) throws IOException {
+        final long remaining = this.fileEnd - this.filePosition;
+        if (remaining <= 0L) {
+            file.close();
+            this.file = null;
+            this.completeSegment();
+            return true;
+        }
+        final long count = file.transferTo(this.filePosition, Math.min(remaining, MAX_TRANSFER_SIZE), this.channel);
+        if (count <= 0L) {
+            // Es wurde entweder nichts übertragen, weil die Verbindung voll ist, oder
+            // weil die Datei seit dem Erstellen der Antwort kürzer geworden ist
+            if (this.filePosition >= file.size()) {
+                throw new EOFException("File ended after " + this.filePosition
+                        + " of " + this.fileEnd + " bytes");
+            }
+            return false;
+        }
+        this.filePosition += count;
+        this.currentBytes += count;
+        return true;
+    }
+
+    // Schreibt das nächste Stück eines Streams; gibt "false" zurück, falls die Verbindung gerade keine weiteren Daten annimmt
+    private boolean writeStream(final InputStream stream, final ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            final int count = stream.read(buffer.array(), buffer.arrayOffset(), buffer.capacity());
+            if (count == END_MARKER) {
+                this.closeStream();
+                this.completeSegment();
+                return true;
+            }
+            buffer.clear().limit(count);
+            this.currentBytes += count;
+        }
+        this.channel.write(buffer);
+        return !buffer.hasRemaining();
+    }
+
+    // Wird aufgerufen, nachdem die aktuelle Datei bzw. der aktuelle Stream vollständig geschrieben wurde
+    private void completeSegment() {
+        final Segment segment = this.currentSegment;
+        this.currentSegment = null;
+        if (segment != null && segment.tracker() != null) {
+            segment.tracker().complete(this.currentBytes);
+        }
+    }
+
+    // Verwirft alle noch nicht geschriebenen Antworten und gibt deren Puffer wieder frei
+    @Override
+    public void close() throws IOException {
+        Segment segment;
+        while ((segment = this.segments.poll()) != null) {
+            segment.release();
+        }
+        this.serializer.close();
+        try {
+            if (this.file != null) {
+                this.file.close();
+            }
+        } finally {
+            this.file = null;
+            this.currentSegment = null;
+            this.closeStream();
+        }
+    }
+
+    private void closeStream() throws IOException {
+        try {
+            if (this.stream != null) {
+                this.stream.close();
+            }
+        } finally {
+            this.stream = null;
+            if (this.writeBuffer != null) {
+                this.writeBuffer.close();
+                this.writeBuffer = null;
+            }
+        }
+    }
+
+    // Wird aufgerufen, sobald eine Antwort vollständig geschrieben wurde; die Zeitpunkte
+    // stammen von "System#nanoTime" und sind daher nur relativ zueinander aussagekräftig
+    @FunctionalInterface
+    public interface ResponseListener {
+
+        void onResponseWritten(long bytesWritten, long firstByteNanos, long lastByteNanos);
+    }
+
+    // Verfolgt, wann eine Antwort zu schreiben begonnen wurde und wie viele ihrer Teile noch ausstehen
+    private static final class ResponseTracker {
+
+        private final ResponseListener listener;
+        private int pendingSegments;
+        private long bytesWritten;
+        private long firstByteNanos;
+
+        private ResponseTracker(final ResponseListener listener) {
+            this.listener = listener;
+        }
+
+        void start(final long now) {
+            if (this.firstByteNanos == 0L) {
+                this.firstByteNanos = now;
+            }
+        }
+
+        void complete(final long bytes) {
+            this.bytesWritten += bytes;
+            if (--this.pendingSegments == 0) {
+                this.listener.onResponseWritten(this.bytesWritten, this.firstByteNanos, System.nanoTime());
+            }
+        }
+    }
+
+    // Ein einzelner Teil einer Antwort; "buffer" ist nur bei bereits im Speicher liegenden Inhalten gesetzt,
+    // "tracker" nur, falls benachrichtigt werden soll, sobald die Antwort vollständig geschrieben wurde
+    private record Segment(
+            @Nullable CheckedSupplier<InputStream, IOException> body,
+            @Nullable ByteBuffer buffer,
+            @Nullable ResponseTracker tracker
+    ) {
+
+        void release() {
+            if (this.body instanceof final HttpBufferBody bufferBody) {
+                bufferBody.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.BufferPool;
+import dev.booky.http.util.PooledBuffer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Kodiert Statuszeile und Http-Header von Antworten direkt als Bytes in einen wiederverwendeten Puffer;
+// die Kopfteile mehrerer Antworten werden dabei hintereinander in denselben Puffer geschrieben, damit
+// diese zusammen mit den Inhalten über einen einzigen "gathering write" gesendet werden können
+//
+// Da der Puffer direkt ("direct") angelegt wird, muss das Betriebssystem die Bytes beim
+// Schreiben nicht erst noch in einen eigenen Puffer kopieren
+@NullMarked
+public final class HttpResponseSerializer implements AutoCloseable {
+
+    // Die meisten Kopfteile sind nur einige hundert Bytes groß
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private final BufferPool pool;
+    // Der Puffer wird erst beim ersten Kodieren aus dem Pool angefordert
+    private @Nullable PooledBuffer buffer;
+    // Volle Puffer, deren Kopfteile noch nicht geschrieben wurden
+    private final List<PooledBuffer> retiredBuffers = new ArrayList<>();
+
+    public HttpResponseSerializer(final BufferPool pool) {
+        this.pool = pool;
+    }
+
+    // Kodiert den Kopfteil der Antwort und gibt eine Ansicht zurück, welche genau diese Bytes enthält;
+    // die Ansicht bleibt gültig, bis der Puffer mit "reset" wieder freigegeben wird
+    public ByteBuffer serializeHead(final HttpResponse response) {
+        if (this.buffer == null) {
+            this.buffer = this.pool.acquireDirect(DEFAULT_BUFFER_SIZE);
+        }
+        while (true) {
+            final ByteBuffer buffer = this.buffer.buffer();
+            final int start = buffer.position();
+            try {
+                response.writeHeadTo(buffer);
+                return buffer.slice(start, buffer.position() - start);
+            } catch (final BufferOverflowException exception) {
+                // Falls bereits andere Kopfteile im Puffer liegen, wird ein neuer Puffer derselben Größe
+                // angefordert (die bisherigen Ansichten bleiben dabei gültig); andernfalls ist der Kopfteil
+                // selbst zu groß und es wird ein größerer Puffer angefordert
+                final int capacity = this.buffer.capacity();
+                if (start > 0) {
+                    this.retiredBuffers.add(this.buffer);
+                } else {
+                    this.buffer.close();
+                }
+                this.buffer = this.pool.acquireDirect(start > 0 ? capacity : capacity * 2);
+            }
+        }
+    }
+
+    // Setzt den Puffer zurück, nachdem alle bisher kodierten Kopfteile geschrieben wurden
+    public void reset() {
+        this.releaseRetiredBuffers();
+        if (this.buffer != null) {
+            this.buffer.buffer().clear();
+        }
+    }
+
+    private void releaseRetiredBuffers() {
+        for (final PooledBuffer retiredBuffer : this.retiredBuffers) {
+            retiredBuffer.close();
+        }
+        this.retiredBuffers.clear();
+    }
+
+    // Gibt alle Puffer wieder an den Pool zurück
+    @Override
+    public void close() {
+        this.releaseRetiredBuffers();
+        if (this.buffer != null) {
+            this.buffer.close();
+            this.buffer = null;
+        }
+    }
+}
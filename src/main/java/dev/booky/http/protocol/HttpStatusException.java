@@ -0,0 +1,28 @@
+package dev.booky.http.protocol;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.Serial;
+
+// Ein Fehler beim Verarbeiten einer Http-Anfrage, welcher dem Browser mit einem bestimmten
+// Http-Status mitgeteilt werden soll; dies ist eine "IOException", damit er auch beim Lesen
+// des Anfragen-Inhalts aus einem InputStream geworfen werden kann
+@NullMarked
+public final class HttpStatusException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Der Status wird nur innerhalb des Servers benötigt und daher nicht mit serialisiert
+    private final transient HttpStatus status;
+
+    public HttpStatusException(final HttpStatus status, final String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return this.status;
+    }
+}
@@ -1,22 +1,29 @@
 package dev.booky.http.protocol;
 
-import dev.booky.http.util.HttpReader;
+import dev.booky.http.util.StringUtil;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
-import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 
+import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
+
 // Siehe https://www.rfc-editor.org/rfc/rfc2616#section-5.1.2;
 // eine URI kann sowohl ein einzelnes "*" als auch eine absolute URI/Pfad
 // sein - Java's URI Klasse unterstützt beides
 @NullMarked
 public record HttpUri(URI uri) {
 
-    public static HttpUri parseUri(final HttpReader reader) throws IOException {
-        final String uriString = reader.readLineUntilLWS();
-        return new HttpUri(URI.create(uriString));
+    // Liest die URI direkt aus einem Bereich eines Byte-Puffers
+    public static HttpUri parseUri(final ByteBuffer buffer, final int start, final int end) throws HttpStatusException {
+        final String uriString = StringUtil.decodeLatin1(buffer, start, end);
+        try {
+            return new HttpUri(URI.create(uriString));
+        } catch (final IllegalArgumentException exception) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Invalid request URI: " + uriString);
+        }
     }
 
     public @Nullable Path resolvePath(final Path root) {
@@ -28,13 +35,14 @@ public record HttpUri(URI uri) {
         }
         // Falls der Pfad mit einem "/" anfängt, wird dieses weggeschnitten,
         // da wir hier relativ von dem Root-Verzeichnis auflösen wollen
-        final Path targetPath = uriPath.charAt(0) == '/'
+        // Durch das Normalisieren werden ".."-Teile aufgelöst, bevor der Pfad überprüft wird
+        final Path targetPath = (uriPath.charAt(0) == '/'
                 ? root.resolve(uriPath.substring(1))
-                : root.resolve(uriPath);
+                : root.resolve(uriPath)).normalize();
         // Hier wird überprüft, dass ein "Hacker" nicht mithilfe von ".."
         // aus dem Root-Verzeichnis herauswandern kann und somit Zugriff auf alle Dateien
         // im System hätte
-        if (targetPath.toAbsolutePath().startsWith(root.toAbsolutePath())) {
+        if (targetPath.toAbsolutePath().normalize().startsWith(root.toAbsolutePath().normalize())) {
             // Der Zielpfad ist immer noch im Root-Verzeichnis und damit gültig
             return targetPath;
         }
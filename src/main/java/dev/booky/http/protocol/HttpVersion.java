@@ -1,7 +1,9 @@
 package dev.booky.http.protocol;
 
-import dev.booky.http.util.HttpReader;
-import java.io.IOException;
+import dev.booky.http.util.StringUtil;
+import java.nio.ByteBuffer;
+
+import static dev.booky.http.protocol.HttpStatus.STATUS_HTTP_VERSION_NOT_SUPPORTED;
 
 // Die unterstützen Http-Versionen; auch wenn schon HTTP/3 auf
 // Quic-UDP-Protokoll-Basis existiert, unterstützt diese Http-Server-Implementation
@@ -18,18 +20,24 @@ public final class HttpVersion {
     private HttpVersion(final int major, final int minor) {
         this.major = major;
         this.minor = minor;
-        this.string = "HTTP/%s.%s".formatted(major, major);
+        this.string = "HTTP/%s.%s".formatted(major, minor);
+    }
+
+    // Liest die Http-Version direkt aus einem Bereich eines Byte-Puffers, ohne eine Zeichenkette zu erstellen
+    public static HttpVersion parseVersion(final ByteBuffer buffer, final int start, final int end) throws HttpStatusException {
+        if (StringUtil.regionEquals(buffer, start, end, HTTP_1_1.string)) {
+            return HTTP_1_1;
+        } else if (StringUtil.regionEquals(buffer, start, end, HTTP_1_0.string)) {
+            return HTTP_1_0;
+        }
+        throw new HttpStatusException(STATUS_HTTP_VERSION_NOT_SUPPORTED,
+                "Illegal http version: " + StringUtil.decodeLatin1(buffer, start, end));
     }
 
-    public static HttpVersion parseVersion(final HttpReader reader) throws IOException {
-        // Aus dem Http-Reader wird die Http-Version gelesen; da zum aktuellen Zeitpunkt nur HTTP/1.0
-        // und HTTP/1.1 unterstützt wird, wird bei einem anderen Wert eine Fehlermeldung ausgegeben
-        final String version = reader.read("HTTP/0.0".length());
-        return switch (version) {
-            case "HTTP/1.0" -> HTTP_1_0;
-            case "HTTP/1.1" -> HTTP_1_1;
-            default -> throw new IllegalArgumentException("Illegal http version: " + version);
-        };
+    // Ab HTTP/1.1 sind Verbindungen standardmäßig persistent ("keep-alive"); bei HTTP/1.0 muss der
+    // Browser dies explizit anfragen, siehe https://www.rfc-editor.org/rfc/rfc2616#section-8.1.2.1
+    public boolean isPersistentByDefault() {
+        return this.major > 1 || (this.major == 1 && this.minor >= 1);
     }
 
     public int getMajor() {
@@ -0,0 +1,241 @@
+package dev.booky.http.util;
+
+import dev.booky.http.log.Logger;
+import dev.booky.http.log.LoggerFactory;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ein Pool an wiederverwendbaren Byte-Puffern für das Lesen von Anfragen und das Schreiben von Antworten,
+// damit nicht für jede Verbindung neue Puffer angelegt (und danach vom Garbage Collector wieder aufgeräumt)
+// werden müssen; die Puffer werden dabei in Größenklassen (Zweierpotenzen) eingeteilt
+//
+// Freigegebene Puffer landen zuerst in einem kleinen Cache des aktuellen Threads (z.B. einer NIO-Event-Loop)
+// und erst danach in einem gemeinsamen Pool; virtuelle Threads nutzen nur den gemeinsamen Pool, da diese
+// meist nur für eine einzelne Verbindung existieren
+//
+// Im Debug-Modus wird zusätzlich erkannt, falls ein Puffer nie freigegeben wurde: die Stelle, an welcher
+// der Puffer angefordert wurde, wird dann beim Aufräumen durch den Garbage Collector ausgegeben
+@NullMarked
+public final class BufferPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("Http");
+
+    // Die kleinste und größte Größenklasse; größere Puffer werden nicht wiederverwendet
+    public static final int MIN_SIZE_CLASS = 1 << 12; // 4 KiB
+    public static final int MAX_SIZE_CLASS = 1 << 20; // 1 MiB
+    private static final int SIZE_CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_SIZE_CLASS)
+            - Integer.numberOfTrailingZeros(MIN_SIZE_CLASS) + 1;
+
+    // Wie viele Puffer pro Größenklasse im Cache eines Threads liegen dürfen; nur kleine
+    // Puffer werden dort gespeichert, damit jeder Thread nur wenig Speicher belegt
+    private static final int THREAD_CACHE_SIZE = 8;
+    private static final int MAX_THREAD_CACHED_SIZE_CLASS = 1 << 16; // 64 KiB
+
+    // Der gemeinsame Pool; getrennt für direkte Puffer und Puffer mit zugrundeliegendem Array
+    private final ArrayBlockingQueue<ByteBuffer>[] directBuffers;
+    private final ArrayBlockingQueue<ByteBuffer>[] heapBuffers;
+    private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(ThreadCache::new);
+    // Falls kein Speicher für freigegebene Puffer eingestellt ist, werden Puffer nie wiederverwendet
+    private final boolean pooling;
+
+    private final @Nullable Cleaner leakDetector;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public BufferPool(final long maxPooledBytes, final boolean leakDetection) {
+        this.directBuffers = (ArrayBlockingQueue<ByteBuffer>[]) new ArrayBlockingQueue<?>[SIZE_CLASS_COUNT];
+        this.heapBuffers = (ArrayBlockingQueue<ByteBuffer>[]) new ArrayBlockingQueue<?>[SIZE_CLASS_COUNT];
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            // Jede Größenklasse (und jede Art von Puffer) bekommt einen gleich großen Anteil des maximalen Speichers
+            final long classBytes = maxPooledBytes / (SIZE_CLASS_COUNT * 2L);
+            final int capacity = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, classBytes / getSizeClass(i)));
+            this.directBuffers[i] = new ArrayBlockingQueue<>(capacity);
+            this.heapBuffers[i] = new ArrayBlockingQueue<>(capacity);
+        }
+        this.pooling = maxPooledBytes > 0L;
+        this.leakDetector = leakDetection ? Cleaner.create() : null;
+    }
+
+    private static int getSizeClass(final int index) {
+        return MIN_SIZE_CLASS << index;
+    }
+
+    // Gibt den Index der kleinsten Größenklasse zurück, in welche die gegebene Größe passt; falls
+    // die Größe zu groß für alle Größenklassen ist, wird -1 zurückgegeben
+    private static int getSizeClassIndex(final int size) {
+        if (size > MAX_SIZE_CLASS) {
+            return -1;
+        } else if (size <= MIN_SIZE_CLASS) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(MIN_SIZE_CLASS);
+    }
+
+    // Fordert einen direkten Puffer mit mindestens der gegebenen Größe an, z.B. für das Lesen und Schreiben
+    // über Socket-Kanäle, da das Betriebssystem die Daten dann nicht erst noch umkopieren muss
+    public PooledBuffer acquireDirect(final int minSize) {
+        return this.acquire(minSize, true);
+    }
+
+    // Fordert einen Puffer mit zugrundeliegendem Array an, z.B. für das Lesen über einen InputStream
+    public PooledBuffer acquireHeap(final int minSize) {
+        return this.acquire(minSize, false);
+    }
+
+    private PooledBuffer acquire(final int minSize, final boolean direct) {
+        this.acquired.increment();
+        final int index = getSizeClassIndex(minSize);
+        ByteBuffer buffer = null;
+        if (index != -1) {
+            final ThreadCache cache = this.getThreadCache(index);
+            buffer = cache != null ? cache.poll(index, direct) : null;
+            if (buffer == null) {
+                buffer = (direct ? this.directBuffers : this.heapBuffers)[index].poll();
+                if (buffer != null) {
+                    this.pooledBytes.addAndGet(-buffer.capacity());
+                }
+            }
+        }
+        if (buffer == null) {
+            // Es ist kein passender Puffer frei, daher wird ein neuer angelegt
+            this.allocated.increment();
+            final int size = index != -1 ? getSizeClass(index) : minSize;
+            buffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+        buffer.clear();
+        final LeakRecord leakRecord = this.leakDetector != null ? new LeakRecord(this) : null;
+        final PooledBuffer pooledBuffer = new PooledBuffer(this, buffer, leakRecord);
+        if (this.leakDetector != null && leakRecord != null) {
+            leakRecord.cleanable = this.leakDetector.register(pooledBuffer, leakRecord);
+        }
+        return pooledBuffer;
+    }
+
+    // Wird von "PooledBuffer#close" aufgerufen, nachdem der Puffer nicht mehr genutzt wird
+    void release(final ByteBuffer buffer, final @Nullable LeakRecord leakRecord) {
+        this.released.increment();
+        if (leakRecord != null) {
+            leakRecord.released = true;
+            if (leakRecord.cleanable != null) {
+                leakRecord.cleanable.clean();
+            }
+        }
+        final int index = getSizeClassIndex(buffer.capacity());
+        if (!this.pooling || index == -1 || getSizeClass(index) != buffer.capacity()) {
+            // Zu große Puffer (bzw. bei deaktiviertem Pool alle Puffer) werden nicht wiederverwendet
+            this.discarded.increment();
+            return;
+        }
+        final ThreadCache cache = this.getThreadCache(index);
+        if (cache != null && cache.offer(index, buffer)) {
+            return;
+        }
+        if ((buffer.isDirect() ? this.directBuffers : this.heapBuffers)[index].offer(buffer)) {
+            this.pooledBytes.addAndGet(buffer.capacity());
+        } else {
+            // Der Pool ist voll, der Puffer wird vom Garbage Collector aufgeräumt
+            this.discarded.increment();
+        }
+    }
+
+    private @Nullable ThreadCache getThreadCache(final int index) {
+        if (getSizeClass(index) > MAX_THREAD_CACHED_SIZE_CLASS || Thread.currentThread().isVirtual()) {
+            return null;
+        }
+        return this.threadCaches.get();
+    }
+
+    // Wie oft ein Puffer angefordert wurde
+    public long getAcquireCount() {
+        return this.acquired.sum();
+    }
+
+    // Wie oft ein neuer Puffer angelegt werden musste, weil kein passender Puffer frei war
+    public long getAllocationCount() {
+        return this.allocated.sum();
+    }
+
+    // Wie viele Puffer aktuell angefordert, aber noch nicht wieder freigegeben wurden
+    public long getInUseCount() {
+        return this.acquired.sum() - this.released.sum();
+    }
+
+    // Wie viele freigegebene Puffer nicht wiederverwendet werden konnten, da der Pool voll oder diese zu groß waren
+    public long getDiscardCount() {
+        return this.discarded.sum();
+    }
+
+    // Wie viel Speicher aktuell im gemeinsamen Pool auf eine Wiederverwendung wartet (ohne die Caches der Threads)
+    public long getPooledBytes() {
+        return this.pooledBytes.get();
+    }
+
+    // Wie viele Puffer bisher nie freigegeben wurden; wird nur im Debug-Modus gezählt
+    public long getLeakCount() {
+        return this.leaks.get();
+    }
+
+    // Merkt sich im Debug-Modus, wo ein Puffer angefordert wurde; wird vom "Cleaner" ausgeführt,
+    // sobald der "PooledBuffer" aufgeräumt wird, und darf diesen daher selbst nicht referenzieren
+    static final class LeakRecord implements Runnable {
+
+        private final BufferPool pool;
+        private final Throwable allocationSite = new Throwable("Buffer acquired here");
+        private volatile boolean released;
+        private Cleaner.@Nullable Cleanable cleanable;
+
+        private LeakRecord(final BufferPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void run() {
+            if (!this.released) {
+                this.pool.leaks.incrementAndGet();
+                LOGGER.warn("Pooled buffer was garbage collected without being released", this.allocationSite);
+            }
+        }
+    }
+
+    // Ein kleiner Cache pro Thread, auf welchen ohne Synchronisation zugegriffen werden kann
+    private static final class ThreadCache {
+
+        private final ByteBuffer[][] directBuffers = new ByteBuffer[SIZE_CLASS_COUNT][THREAD_CACHE_SIZE];
+        private final ByteBuffer[][] heapBuffers = new ByteBuffer[SIZE_CLASS_COUNT][THREAD_CACHE_SIZE];
+        private final int[] directCounts = new int[SIZE_CLASS_COUNT];
+        private final int[] heapCounts = new int[SIZE_CLASS_COUNT];
+
+        @Nullable ByteBuffer poll(final int index, final boolean direct) {
+            final int[] counts = direct ? this.directCounts : this.heapCounts;
+            if (counts[index] == 0) {
+                return null;
+            }
+            final ByteBuffer[] buffers = (direct ? this.directBuffers : this.heapBuffers)[index];
+            final ByteBuffer buffer = buffers[--counts[index]];
+            buffers[counts[index]] = null;
+            return buffer;
+        }
+
+        boolean offer(final int index, final ByteBuffer buffer) {
+            final boolean direct = buffer.isDirect();
+            final int[] counts = direct ? this.directCounts : this.heapCounts;
+            if (counts[index] == THREAD_CACHE_SIZE) {
+                return false;
+            }
+            (direct ? this.directBuffers : this.heapBuffers)[index][counts[index]++] = buffer;
+            return true;
+        }
+    }
+}
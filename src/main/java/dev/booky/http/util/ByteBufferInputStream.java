@@ -0,0 +1,63 @@
+package dev.booky.http.util;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// Ein InputStream, welcher aus einem Byte-Puffer liest, ohne dessen Inhalt vorher zu kopieren;
+// beim Schließen kann optional eine Aktion ausgeführt werden, z.B. um den Puffer wieder freizugeben
+@NullMarked
+public final class ByteBufferInputStream extends InputStream {
+
+    // Die Markierung dafür, dass der Java InputStream am Ende angekommen ist
+    private static final int END_MARKER = -1;
+
+    private final ByteBuffer buffer;
+    private @Nullable Runnable closeAction;
+
+    public ByteBufferInputStream(final ByteBuffer buffer, final @Nullable Runnable closeAction) {
+        this.buffer = buffer;
+        this.closeAction = closeAction;
+    }
+
+    @Override
+    public int read() {
+        return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : END_MARKER;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) {
+        if (length == 0) {
+            return 0;
+        } else if (!this.buffer.hasRemaining()) {
+            return END_MARKER;
+        }
+        final int count = Math.min(length, this.buffer.remaining());
+        this.buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public long skip(final long length) {
+        final int count = (int) Math.max(0L, Math.min(length, this.buffer.remaining()));
+        this.buffer.position(this.buffer.position() + count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return this.buffer.remaining();
+    }
+
+    @Override
+    public void close() {
+        // Die Aktion wird nur beim ersten Schließen ausgeführt
+        final Runnable action = this.closeAction;
+        this.closeAction = null;
+        if (action != null) {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package dev.booky.http.util;
+
+import dev.booky.http.protocol.HttpStatusException;
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.ByteBuffer;
+
+import static dev.booky.http.protocol.HttpDefinitions.CR;
+import static dev.booky.http.protocol.HttpDefinitions.HT;
+import static dev.booky.http.protocol.HttpDefinitions.LF;
+import static dev.booky.http.protocol.HttpDefinitions.SP;
+import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
+import static dev.booky.http.protocol.HttpStatus.STATUS_CONTENT_TOO_LARGE;
+
+// Dekodiert einen Anfragen-Inhalt mit "Transfer-Encoding: chunked" schrittweise für die NIO-Engine, welche
+// nicht wie der "ChunkedInputStream" blockierend auf weitere Daten warten kann; der Zustand wird daher zwischen
+// den einzelnen Lesevorgängen gespeichert, sodass nie mehr als die gerade empfangenen Bytes gepuffert werden müssen
+//
+// Aktuell werden die Daten der Blöcke nur übersprungen, da kein Handler der NIO-Engine den Inhalt liest
+@NullMarked
+public final class ChunkedBodyDecoder {
+
+    // Die maximale Länge einer Block-Kopfzeile oder einer Trailer-Zeile
+    private static final int MAX_LINE_LENGTH = 4096;
+    // Ab dieser Größe würde eine weitere hexadezimale Ziffer die Block-Größe überlaufen lassen
+    private static final long MAX_SIZE_BEFORE_DIGIT = Long.MAX_VALUE >>> 4;
+
+    // Die maximale Gesamtgröße aller Blöcke, bevor die Anfrage abgelehnt wird
+    private final long maxLength;
+
+    private State state = State.SIZE;
+    // Die bisher gelesene Block-Größe sowie ob diese bereits eine Ziffer enthält
+    private long size;
+    private boolean sizeDigits;
+    // Ob nach der Block-Größe bereits Erweiterungen (nach einem ";") folgen, welche ignoriert werden
+    private boolean extension;
+    // Die Länge der aktuellen Zeile, um zu lange Zeilen abzulehnen
+    private int lineLength;
+    // Die Anzahl an Bytes, welche im aktuellen Block noch übersprungen werden müssen
+    private long chunkRemaining;
+    // Die Gesamtgröße aller bisher angekündigten Blöcke
+    private long totalLength;
+
+    public ChunkedBodyDecoder(final long maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    // Überspringt die Bytes zwischen "start" und "end" des Puffers, soweit diese noch zum Inhalt gehören; gibt
+    // zurück, wie viele Bytes zum Inhalt gehört haben - danach beginnt eventuell bereits die nächste Anfrage
+    public int skip(final ByteBuffer buffer, final int start, final int end) throws HttpStatusException {
+        int index = start;
+        while (index < end && this.state != State.FINISHED) {
+            if (this.state == State.DATA) {
+                // Die Daten eines Blocks werden am Stück übersprungen
+                final int count = (int) Math.min(this.chunkRemaining, end - index);
+                index += count;
+                this.chunkRemaining -= count;
+                if (this.chunkRemaining == 0L) {
+                    this.state = State.DATA_END;
+                    this.lineLength = 0;
+                }
+                continue;
+            }
+            final byte b = buffer.get(index++);
+            switch (this.state) {
+                case SIZE -> this.readSize(b);
+                case DATA_END -> this.readDataEnd(b);
+                case TRAILER -> this.readTrailer(b);
+                default -> throw new IllegalStateException("Unexpected state " + this.state);
+            }
+        }
+        return index - start;
+    }
+
+    // Die Kopfzeile besteht aus der hexadezimalen Länge und optionalen Erweiterungen nach einem ";"
+    private void readSize(final byte b) throws HttpStatusException {
+        if (b == LF) {
+            this.startChunk();
+            return;
+        }
+        if (++this.lineLength > MAX_LINE_LENGTH) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Chunk header line too long");
+        }
+        if (this.extension || b == CR || b == SP || b == HT) {
+            return;
+        } else if (b == ';') {
+            this.extension = true;
+            return;
+        }
+        final int digit = Character.digit(b, 16);
+        if (digit == -1) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Invalid chunk size character: " + (char) (b & 0xFF));
+        } else if (this.size > MAX_SIZE_BEFORE_DIGIT) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Chunk size too large");
+        }
+        this.size = (this.size << 4) | digit;
+        this.sizeDigits = true;
+    }
+
+    private void startChunk() throws HttpStatusException {
+        if (!this.sizeDigits) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Missing chunk size");
+        }
+        final long size = this.size;
+        this.size = 0L;
+        this.sizeDigits = false;
+        this.extension = false;
+        this.lineLength = 0;
+        if (size == 0L) {
+            // Der letzte Block hat die Länge 0; danach können noch "Trailer"-Header folgen,
+            // welche hier bis zur abschließenden leeren Zeile übersprungen werden
+            this.state = State.TRAILER;
+            return;
+        }
+        // Es wird überprüft, dass der gesamte Inhalt nicht das Limit überschreitet
+        this.totalLength += size;
+        if (this.totalLength > this.maxLength) {
+            throw new HttpStatusException(STATUS_CONTENT_TOO_LARGE,
+                    "Chunked body exceeds maximum size of " + this.maxLength + " bytes");
+        }
+        this.chunkRemaining = size;
+        this.state = State.DATA;
+    }
+
+    // Nach den Daten eines Blocks folgt immer ein Zeilenumbruch
+    private void readDataEnd(final byte b) throws HttpStatusException {
+        if (b == LF) {
+            this.state = State.SIZE;
+            this.lineLength = 0;
+        } else if (b == CR && this.lineLength == 0) {
+            this.lineLength = 1;
+        } else {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Expected line break after chunk data");
+        }
+    }
+
+    private void readTrailer(final byte b) throws HttpStatusException {
+        if (b == LF) {
+            // Eine leere Zeile beendet den Inhalt, alle anderen Zeilen sind Trailer und werden nicht ausgewertet
+            if (this.lineLength == 0) {
+                this.state = State.FINISHED;
+            }
+            this.lineLength = 0;
+        } else if (b != CR && ++this.lineLength > MAX_LINE_LENGTH) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Chunk trailer line too long");
+        }
+    }
+
+    // Ob der gesamte Inhalt inklusive der Trailer übersprungen wurde
+    public boolean isFinished() {
+        return this.state == State.FINISHED;
+    }
+
+    private enum State {
+        SIZE,
+        DATA,
+        DATA_END,
+        TRAILER,
+        FINISHED,
+    }
+}
@@ -0,0 +1,138 @@
+package dev.booky.http.util;
+
+import dev.booky.http.protocol.HttpStatusException;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static dev.booky.http.protocol.HttpDefinitions.CR;
+import static dev.booky.http.protocol.HttpDefinitions.LF;
+import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
+import static dev.booky.http.protocol.HttpStatus.STATUS_CONTENT_TOO_LARGE;
+
+// Ein InputStream, welcher einen Anfragen-Inhalt mit "Transfer-Encoding: chunked" dekodiert,
+// siehe https://www.rfc-editor.org/rfc/rfc2616#section-3.6.1; der Inhalt besteht aus mehreren
+// Blöcken, welche jeweils mit ihrer hexadezimalen Länge eingeleitet werden
+@NullMarked
+public final class ChunkedInputStream extends InputStream {
+
+    // Die Markierung dafür, dass der Java InputStream am Ende angekommen ist
+    private static final int END_MARKER = -1;
+    // Die maximale Länge einer Block-Kopfzeile oder einer Trailer-Zeile
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    private final InputStream input;
+    // Die maximale Gesamtgröße aller Blöcke, bevor die Anfrage abgelehnt wird
+    private final long maxLength;
+
+    // Die Anzahl an Bytes, welche im aktuellen Block noch gelesen werden können
+    private long chunkRemaining;
+    // Die Gesamtgröße aller bisher angekündigten Blöcke
+    private long totalLength;
+    // Ob der letzte Block (mit der Länge 0) bereits gelesen wurde
+    private boolean finished;
+
+    public ChunkedInputStream(final InputStream input, final long maxLength) {
+        this.input = input;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] single = new byte[1];
+        final int count = this.read(single, 0, 1);
+        return count == END_MARKER ? END_MARKER : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        // Falls der aktuelle Block vollständig gelesen wurde, wird der nächste Block eingeleitet
+        if (this.chunkRemaining == 0L && !this.nextChunk()) {
+            return END_MARKER;
+        }
+        // Es wird nie über das Ende des aktuellen Blocks hinaus gelesen
+        final int count = this.input.read(bytes, offset, (int) Math.min(length, this.chunkRemaining));
+        if (count == END_MARKER) {
+            throw new EOFException("Stream ended inside of chunk");
+        }
+        this.chunkRemaining -= count;
+        if (this.chunkRemaining == 0L) {
+            // Nach den Daten eines Blocks folgt immer ein Zeilenumbruch
+            if (!this.readLine().isEmpty()) {
+                throw new HttpStatusException(STATUS_BAD_REQUEST, "Expected line break after chunk data");
+            }
+        }
+        return count;
+    }
+
+    // Liest die Kopfzeile des nächsten Blocks und gibt zurück, ob noch Daten folgen
+    private boolean nextChunk() throws IOException {
+        if (this.finished) {
+            return false;
+        }
+        // Die Kopfzeile besteht aus der hexadezimalen Länge und optionalen Erweiterungen nach einem ";"
+        final String line = this.readLine();
+        final int extensionIdx = line.indexOf(';');
+        final String sizeString = (extensionIdx == -1 ? line : line.substring(0, extensionIdx)).strip();
+        final long size;
+        try {
+            size = Long.parseLong(sizeString, 16);
+        } catch (final NumberFormatException exception) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Invalid chunk size: " + sizeString);
+        }
+        if (size < 0L) {
+            throw new HttpStatusException(STATUS_BAD_REQUEST, "Invalid chunk size: " + sizeString);
+        } else if (size == 0L) {
+            // Der letzte Block hat die Länge 0; danach können noch "Trailer"-Header folgen,
+            // welche hier bis zur abschließenden leeren Zeile übersprungen werden
+            while (!this.readLine().isEmpty()) {
+                // Trailer werden aktuell nicht ausgewertet
+            }
+            this.finished = true;
+            return false;
+        }
+        // Es wird überprüft, dass der gesamte Inhalt nicht das Limit überschreitet
+        this.totalLength += size;
+        if (this.totalLength > this.maxLength) {
+            throw new HttpStatusException(STATUS_CONTENT_TOO_LARGE,
+                    "Chunked body exceeds maximum size of " + this.maxLength + " bytes");
+        }
+        this.chunkRemaining = size;
+        return true;
+    }
+
+    // Liest eine einzelne, mit einem Zeilenumbruch beendete Zeile; der Zeilenumbruch wird konsumiert
+    private String readLine() throws IOException {
+        final StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = this.input.read()) != LF) {
+            if (b == END_MARKER) {
+                throw new EOFException("Stream ended inside of chunk header");
+            } else if (line.length() >= MAX_LINE_LENGTH) {
+                throw new HttpStatusException(STATUS_BAD_REQUEST, "Chunk header line too long");
+            }
+            line.append((char) b);
+        }
+        // Das Wagenrücklauf-Zeichen vor dem Zeilenvorschub gehört nicht zur Zeile
+        final int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == CR) {
+            line.setLength(length - 1);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(this.input.available(), this.chunkRemaining);
+    }
+
+    @Override
+    public void close() {
+        // Der darunterliegende Stream gehört zur Verbindung und wird hier absichtlich nicht geschlossen
+    }
+}
@@ -0,0 +1,118 @@
+package dev.booky.http.util;
+
+import dev.booky.http.util.TimerWheel.Timeout;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Das Zeitlimit einer einzelnen Verbindung: die Verbindung setzt vor jedem Lesen bzw. Schreiben eine Frist, welche
+// beim Überschreiten die gegebene Aufgabe ausführt (z.B. die Verbindung schließt); da sich die Frist bei jedem
+// Lesen und Schreiben ändert, wird nicht jedes Mal ein neuer Eintrag im "TimerWheel" erstellt - stattdessen prüft
+// ein einziger Eintrag beim Ablaufen die aktuelle Frist und reiht sich bei Bedarf mit der restlichen Zeit neu ein;
+// nur falls die Frist vor dem eingereihten Eintrag liegt (z.B. kürzeres Zeitlimit), wird ein früherer Eintrag erstellt
+@NullMarked
+public final class ConnectionTimeout {
+
+    // Markiert, dass gerade keine Frist gesetzt ist
+    private static final long NO_DEADLINE = 0L;
+
+    private final TimerWheel wheel;
+    private final Runnable onExpire;
+
+    // Die aktuelle Frist als "System.nanoTime()"-Zeitpunkt
+    private volatile long deadline = NO_DEADLINE;
+    // Wann der aktuell eingereihte Eintrag abläuft ("NO_DEADLINE", falls keiner eingereiht ist); ersetzte,
+    // spätere Einträge bleiben bis zu ihrem Ablauf im Rad, erkennen dann aber, dass sie nicht mehr aktuell sind
+    private final AtomicLong scheduledDeadline = new AtomicLong(NO_DEADLINE);
+    private volatile @Nullable Timeout timeout;
+    private volatile boolean cancelled;
+    private volatile boolean expired;
+
+    public ConnectionTimeout(final TimerWheel wheel, final Runnable onExpire) {
+        this.wheel = wheel;
+        this.onExpire = onExpire;
+    }
+
+    // Berechnet eine Frist für "setDeadline"; ein Zeitlimit von 0 oder weniger bedeutet keine Frist
+    public static long deadlineAfter(final long startNanos, final long timeoutNanos) {
+        if (timeoutNanos <= 0L) {
+            return NO_DEADLINE;
+        }
+        final long deadline = startNanos + timeoutNanos;
+        return deadline == NO_DEADLINE ? 1L : deadline;
+    }
+
+    // Setzt die Frist auf das gegebene Zeitlimit ab jetzt
+    public void setTimeout(final long timeoutNanos) {
+        this.setDeadline(deadlineAfter(System.nanoTime(), timeoutNanos));
+    }
+
+    // Setzt die Frist auf einen "System.nanoTime()"-Zeitpunkt; "NO_DEADLINE" entfernt die Frist
+    public void setDeadline(final long deadline) {
+        this.deadline = deadline;
+        if (deadline != NO_DEADLINE && !this.cancelled) {
+            this.schedule(deadline);
+        }
+    }
+
+    private void schedule(final long deadline) {
+        // Die Frist wird immer vor dem eingereihten Zeitpunkt geschrieben, das Rad liest sie dagegen erst nach dem
+        // Freigeben des Eintrags; dadurch sieht entweder das Rad die neue Frist oder hier wird ein Eintrag erstellt
+        long scheduled;
+        do {
+            scheduled = this.scheduledDeadline.get();
+            if (scheduled != NO_DEADLINE && scheduled - deadline <= 0L) {
+                // Der eingereihte Eintrag läuft vorher ab und prüft dann die neue Frist
+                return;
+            }
+        } while (!this.scheduledDeadline.compareAndSet(scheduled, deadline));
+        this.timeout = this.wheel.schedule(deadline - System.nanoTime(), () -> this.check(deadline));
+    }
+
+    public void clear() {
+        this.deadline = NO_DEADLINE;
+    }
+
+    // Entfernt die Frist endgültig, z.B. sobald die Verbindung geschlossen wurde
+    public void cancel() {
+        this.cancelled = true;
+        this.deadline = NO_DEADLINE;
+        final Timeout timeout = this.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    // Ob die aktuelle Frist überschritten ist; wird genutzt, falls die Verbindung in der Zwischenzeit doch
+    // noch Fortschritt gemacht haben könnte, bevor "onExpire" tatsächlich etwas unternimmt
+    public boolean isOverdue() {
+        final long deadline = this.deadline;
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0L;
+    }
+
+    // Ob die Frist bereits einmal überschritten und "onExpire" ausgeführt wurde
+    public boolean isExpired() {
+        return this.expired;
+    }
+
+    // Wird im Thread des Rads ausgeführt, sobald ein Eintrag abgelaufen ist
+    private void check(final long scheduledDeadline) {
+        if (!this.scheduledDeadline.compareAndSet(scheduledDeadline, NO_DEADLINE)) {
+            // Der Eintrag wurde durch einen früheren ersetzt
+            return;
+        }
+        final long deadline = this.deadline;
+        if (deadline == NO_DEADLINE || this.cancelled) {
+            return;
+        }
+        final long remaining = deadline - System.nanoTime();
+        if (remaining > 0L) {
+            // Die Frist wurde in der Zwischenzeit verlängert, es wird bis zur neuen Frist neu eingereiht
+            this.schedule(deadline);
+            return;
+        }
+        this.expired = true;
+        this.onExpire.run();
+    }
+}
@@ -0,0 +1,66 @@
+package dev.booky.http.util;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Ein InputStream, welcher nur eine bestimmte Anzahl an Bytes aus dem darunterliegenden Stream
+// liest; damit wird ein Anfragen-Inhalt mit "Content-Length"-Header gelesen, ohne dabei in
+// die nächste Anfrage einer persistenten Verbindung hineinzulesen
+@NullMarked
+public final class FixedLengthInputStream extends InputStream {
+
+    // Die Markierung dafür, dass der Java InputStream am Ende angekommen ist
+    private static final int END_MARKER = -1;
+
+    private final InputStream input;
+    // Die Anzahl an Bytes, welche noch gelesen werden dürfen
+    private long remaining;
+
+    public FixedLengthInputStream(final InputStream input, final long length) {
+        this.input = input;
+        this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (this.remaining <= 0L) {
+            return END_MARKER;
+        }
+        final int b = this.input.read();
+        if (b == END_MARKER) {
+            // Der Browser hat weniger Bytes gesendet, als er angekündigt hat
+            throw new EOFException("Stream ended with " + this.remaining + " bytes of body remaining");
+        }
+        --this.remaining;
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        } else if (this.remaining <= 0L) {
+            return END_MARKER;
+        }
+        // Es wird nie mehr gelesen, als noch zu diesem Inhalt gehört
+        final int count = this.input.read(bytes, offset, (int) Math.min(length, this.remaining));
+        if (count == END_MARKER) {
+            throw new EOFException("Stream ended with " + this.remaining + " bytes of body remaining");
+        }
+        this.remaining -= count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(this.input.available(), this.remaining);
+    }
+
+    @Override
+    public void close() {
+        // Der darunterliegende Stream gehört zur Verbindung und wird hier absichtlich nicht geschlossen
+    }
+}
@@ -0,0 +1,179 @@
+package dev.booky.http.util;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// Ein gepufferter InputStream für die blockierende Engine, dessen Puffer direkt vom
+// "HttpRequestParser" durchsucht werden kann; der Anfragen-Inhalt wird danach aus
+// demselben Puffer weiter gelesen, damit keine bereits empfangenen Bytes verloren gehen
+//
+// Bevor tatsächlich auf neue Daten vom Browser gewartet wird, werden alle bisher eingereihten Antworten
+// geschrieben; solange weitere Anfragen bereits im Puffer liegen, werden deren Antworten dagegen gesammelt
+//
+// Optional wird vor jedem Warten auf neue Daten eine Frist gesetzt, welche davon abhängt, was gerade gelesen wird:
+// beim Warten auf eine neue Anfrage gilt das Keep-Alive-Zeitlimit, für einen begonnenen Kopfteil insgesamt das
+// Kopfteil-Zeitlimit (damit ein Browser diesen nicht Byte für Byte beliebig lange senden kann) und für den Inhalt
+// das Inhalt-Zeitlimit ab dem letzten Lesen
+@NullMarked
+public final class HttpInputBuffer extends InputStream {
+
+    // Die Markierung dafür, dass der Java InputStream am Ende angekommen ist
+    private static final int END_MARKER = -1;
+
+    private final InputStream input;
+    // Der Puffer befindet sich immer im "Lese-Modus", d.h. die noch
+    // nicht verarbeiteten Bytes liegen zwischen Position und Limit
+    private final ByteBuffer buffer;
+    // Der Puffer stammt aus dem "BufferPool" und wird beim Schließen wieder freigegeben
+    private final PooledBuffer pooledBuffer;
+    private final @Nullable Flushable output;
+
+    // Die Frist der Verbindung samt der einzelnen Zeitlimits; ohne Frist ist dies "null"
+    private @Nullable ConnectionTimeout timeout;
+    private long idleTimeoutNanos;
+    private long headTimeoutNanos;
+    private long bodyTimeoutNanos;
+    // Ob gerade der Inhalt einer Anfrage gelesen wird, sowie wann die ersten Bytes des aktuellen Kopfteils
+    // empfangen wurden (0, falls noch keine empfangen wurden)
+    private boolean readingBody;
+    private long headStart;
+
+    public HttpInputBuffer(final InputStream input, final PooledBuffer buffer) {
+        this(input, buffer, null);
+    }
+
+    public HttpInputBuffer(final InputStream input, final PooledBuffer buffer, final @Nullable Flushable output) {
+        this.input = input;
+        this.pooledBuffer = buffer;
+        this.buffer = buffer.buffer().clear().flip();
+        this.output = output;
+    }
+
+    public void setTimeouts(
+            final ConnectionTimeout timeout,
+            final long idleTimeoutNanos,
+            final long headTimeoutNanos,
+            final long bodyTimeoutNanos
+    ) {
+        this.timeout = timeout;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.headTimeoutNanos = headTimeoutNanos;
+        this.bodyTimeoutNanos = bodyTimeoutNanos;
+    }
+
+    // Muss nach dem Kopfteil jeder Anfrage mit "true" und nach deren Bearbeitung mit "false" aufgerufen werden,
+    // damit beim Lesen das richtige Zeitlimit gilt
+    public void setReadingBody(final boolean readingBody) {
+        this.readingBody = readingBody;
+        // Liegen bereits Bytes der nächsten Anfrage im Puffer, beginnt deren Kopfteil ab jetzt
+        this.headStart = !readingBody && this.buffer.hasRemaining() ? System.nanoTime() : 0L;
+    }
+
+    // Liest weitere Bytes aus dem darunterliegenden Stream an das Ende des Puffers; bereits
+    // verarbeitete Bytes werden dabei verworfen - gibt zurück, ob der Stream noch nicht zu Ende ist
+    public boolean fill() throws IOException {
+        this.buffer.compact();
+        try {
+            final int count = this.readInput(this.buffer.array(),
+                    this.buffer.arrayOffset() + this.buffer.position(), this.buffer.remaining());
+            if (count == END_MARKER) {
+                return false;
+            }
+            this.buffer.position(this.buffer.position() + count);
+            return true;
+        } finally {
+            this.buffer.flip();
+        }
+    }
+
+    private int readInput(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (this.output != null) {
+            this.output.flush();
+        }
+        final ConnectionTimeout timeout = this.timeout;
+        if (timeout == null) {
+            return this.input.read(bytes, offset, length);
+        }
+        timeout.setDeadline(this.nextDeadline());
+        try {
+            final int count = this.input.read(bytes, offset, length);
+            if (count > 0 && !this.readingBody && this.headStart == 0L) {
+                this.headStart = System.nanoTime();
+            }
+            return count;
+        } finally {
+            timeout.clear();
+        }
+    }
+
+    private long nextDeadline() {
+        if (this.readingBody) {
+            return ConnectionTimeout.deadlineAfter(System.nanoTime(), this.bodyTimeoutNanos);
+        } else if (this.headStart != 0L) {
+            return ConnectionTimeout.deadlineAfter(this.headStart, this.headTimeoutNanos);
+        }
+        return ConnectionTimeout.deadlineAfter(System.nanoTime(), this.idleTimeoutNanos);
+    }
+
+    // Markiert die gegebene Anzahl an Bytes als verarbeitet
+    public void consume(final int length) {
+        this.buffer.position(this.buffer.position() + length);
+    }
+
+    public ByteBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    public int getStart() {
+        return this.buffer.position();
+    }
+
+    public int getEnd() {
+        return this.buffer.limit();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.buffer.hasRemaining() && !this.fill()) {
+            return END_MARKER;
+        }
+        return this.buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!this.buffer.hasRemaining()) {
+            // Große Lesevorgänge werden direkt ohne Umweg über den Puffer ausgeführt
+            if (length >= this.buffer.capacity()) {
+                return this.readInput(bytes, offset, length);
+            } else if (!this.fill()) {
+                return END_MARKER;
+            }
+        }
+        final int count = Math.min(length, this.buffer.remaining());
+        this.buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return this.buffer.remaining() + this.input.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.input.close();
+        } finally {
+            this.pooledBuffer.close();
+        }
+    }
+}
@@ -2,7 +2,7 @@ package dev.booky.http.util;
 
 import org.jspecify.annotations.NullMarked;
 
-import java.io.IOException;
+import java.nio.ByteBuffer;
 
 // Eine Hilfsklasse, welche einige Konstante und Logik für Http-Methoden enthält
 @NullMarked
@@ -18,30 +18,24 @@ public final class HttpMethod {
     public static final HttpMethod TRACE = new HttpMethod("TRACE");
     public static final HttpMethod CONNECT = new HttpMethod("CONNECT");
 
+    // Alle standardisierten Methoden, sortiert nach ihrer ungefähren Häufigkeit
+    private static final HttpMethod[] STANDARD_METHODS = {GET, HEAD, POST, PUT, DELETE, OPTIONS, TRACE, CONNECT};
+
     private final String method;
 
     public HttpMethod(final String method) {
         this.method = method;
     }
 
-    // Liest die benutzte Http-Methode aus dem Http-Reader
-    public static HttpMethod parseMethod(final HttpReader reader) throws IOException {
-        reader.skipLWS(); // zuerst werden wieder Weißzeichen übersprungen
-        // Danach wird bis zum nächsten Weißzeichen Text gelesen
-        final String method = reader.readLineUntilLWS();
-        // Schließlich wird die Methode zurückgegeben - die standardisierten
-        // Methoden haben einige Konstanten oben in der Klasse
-        return switch (method) {
-            case "OPTIONS" -> OPTIONS;
-            case "GET" -> GET;
-            case "HEAD" -> HEAD;
-            case "POST" -> POST;
-            case "PUT" -> PUT;
-            case "DELETE" -> DELETE;
-            case "TRACE" -> TRACE;
-            case "CONNECT" -> CONNECT;
-            default -> new HttpMethod(method);
-        };
+    // Liest die Http-Methode direkt aus einem Bereich eines Byte-Puffers; für die standardisierten
+    // Methoden wird dabei keine neue Zeichenkette erstellt
+    public static HttpMethod parseMethod(final ByteBuffer buffer, final int start, final int end) {
+        for (final HttpMethod method : STANDARD_METHODS) {
+            if (StringUtil.regionEquals(buffer, start, end, method.method)) {
+                return method;
+            }
+        }
+        return new HttpMethod(StringUtil.decodeLatin1(buffer, start, end));
     }
 
     public String getMethod() {
@@ -178,6 +178,17 @@ public final class MimeType {
         };
     }
 
+    // Entscheidet, ob sich Inhalte dieses Typs gut komprimieren lassen; dies sind vor allem Textformate,
+    // bereits komprimierte Formate wie Bilder, Videos oder Archive lassen sich nicht weiter verkleinern
+    public boolean isCompressible() {
+        return "text".equals(this.type)
+                || "javascript".equals(this.subtype)
+                || "json".equals(this.subtype)
+                || "xml".equals(this.subtype)
+                || this.subtype.endsWith("+json")
+                || this.subtype.endsWith("+xml");
+    }
+
     public String getType() {
         return this.type;
     }
@@ -0,0 +1,45 @@
+package dev.booky.http.util;
+
+import dev.booky.http.util.BufferPool.LeakRecord;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+// Ein aus dem "BufferPool" angeforderter Puffer; nach dem Schließen wird der Puffer wieder
+// an den Pool zurückgegeben und darf danach nicht mehr genutzt werden
+@NullMarked
+public final class PooledBuffer implements AutoCloseable {
+
+    private final BufferPool pool;
+    private final ByteBuffer buffer;
+    private final @Nullable LeakRecord leakRecord;
+    private boolean released;
+
+    PooledBuffer(final BufferPool pool, final ByteBuffer buffer, final @Nullable LeakRecord leakRecord) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.leakRecord = leakRecord;
+    }
+
+    public ByteBuffer buffer() {
+        if (this.released) {
+            throw new IllegalStateException("Buffer has already been released");
+        }
+        return this.buffer;
+    }
+
+    public int capacity() {
+        return this.buffer.capacity();
+    }
+
+    // Gibt den Puffer wieder an den Pool zurück; mehrfaches Schließen hat keine Auswirkung
+    @Override
+    public void close() {
+        if (this.released) {
+            return;
+        }
+        this.released = true;
+        this.pool.release(this.buffer, this.leakRecord);
+    }
+}
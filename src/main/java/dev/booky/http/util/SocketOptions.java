@@ -0,0 +1,72 @@
+package dev.booky.http.util;
+
+import jdk.net.ExtendedSocketOptions;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.net.SocketOption;
+import java.nio.channels.NetworkChannel;
+import java.time.Duration;
+import java.util.Set;
+
+import static java.net.StandardSocketOptions.SO_KEEPALIVE;
+import static java.net.StandardSocketOptions.SO_RCVBUF;
+import static java.net.StandardSocketOptions.SO_SNDBUF;
+import static java.net.StandardSocketOptions.TCP_NODELAY;
+
+// Die Socket-Parameter, mit welchen jede angenommene Verbindung eingestellt wird; Parameter, welche das
+// Betriebssystem nicht unterstützt (z.B. "TCP_QUICKACK" außerhalb von Linux), werden einfach übersprungen
+@NullMarked
+public record SocketOptions(
+        // Die Größe des Sende-Puffers des Betriebssystems in Bytes; 0 nutzt den Standard-Wert des Betriebssystems
+        int sendBufferSize,
+        // Die Größe des Empfangs-Puffers des Betriebssystems in Bytes; 0 nutzt den Standard-Wert des Betriebssystems
+        int receiveBufferSize,
+        // Ob kleine Pakete sofort gesendet werden, statt auf weitere Daten zu warten ("Nagle-Algorithmus");
+        // da Antworten ohnehin gesammelt geschrieben werden, würde das Warten nur Latenz kosten
+        boolean tcpNoDelay,
+        // Ob das Betriebssystem bei inaktiven Verbindungen prüft, ob die Gegenseite noch erreichbar ist
+        boolean keepAlive,
+        // Nach welcher Zeit ohne Daten die erste Prüfung gesendet wird ("TCP_KEEPIDLE"); 0 nutzt den
+        // Standard-Wert des Betriebssystems (unter Linux zwei Stunden)
+        Duration keepAliveIdle,
+        // Ob empfangene Pakete sofort bestätigt werden, statt die Bestätigung zu verzögern ("TCP_QUICKACK");
+        // Linux setzt diesen Parameter nach einiger Zeit selbst wieder zurück, er gilt also vor allem zu Beginn
+        boolean quickAck
+) {
+
+    public static final SocketOptions DEFAULT = new SocketOptions(0, 0, true, false, Duration.ZERO, false);
+
+    public void apply(final NetworkChannel channel) throws IOException {
+        final Set<SocketOption<?>> supported = channel.supportedOptions();
+        if (this.sendBufferSize > 0) {
+            setOption(channel, supported, SO_SNDBUF, this.sendBufferSize);
+        }
+        if (this.receiveBufferSize > 0) {
+            setOption(channel, supported, SO_RCVBUF, this.receiveBufferSize);
+        }
+        setOption(channel, supported, TCP_NODELAY, this.tcpNoDelay);
+        if (this.keepAlive) {
+            setOption(channel, supported, SO_KEEPALIVE, true);
+            final long idleSeconds = this.keepAliveIdle.toSeconds();
+            if (idleSeconds > 0L) {
+                setOption(channel, supported, ExtendedSocketOptions.TCP_KEEPIDLE,
+                        (int) Math.min(Integer.MAX_VALUE, idleSeconds));
+            }
+        }
+        if (this.quickAck) {
+            setOption(channel, supported, ExtendedSocketOptions.TCP_QUICKACK, true);
+        }
+    }
+
+    private static <T> void setOption(
+            final NetworkChannel channel,
+            final Set<SocketOption<?>> supported,
+            final SocketOption<T> option,
+            final T value
+    ) throws IOException {
+        if (supported.contains(option)) {
+            channel.setOption(option, value);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package dev.booky.http.util;
 import java.net.Inet6Address;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import org.jspecify.annotations.NullMarked;
 
 import java.util.ArrayList;
@@ -39,6 +42,44 @@ public final class StringUtil {
         return parts.toArray(new String[0]);
     }
 
+    // Dekodiert einen Bereich eines Byte-Puffers als ISO-8859-1-Zeichenkette; bei Puffern mit
+    // zugrundeliegendem Array wird dabei direkt aus dem Array gelesen, ohne vorher zu kopieren
+    public static String decodeLatin1(final ByteBuffer buffer, final int start, final int end) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        final byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    // Vergleicht einen Bereich eines Byte-Puffers mit einer ASCII-Zeichenkette, ohne eine neue Zeichenkette zu erstellen
+    public static boolean regionEquals(final ByteBuffer buffer, final int start, final int end, final String string) {
+        final int length = string.length();
+        if (end - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Schreibt eine Zeichenkette als Bytes in den Puffer; Http-Kopfteile bestehen aus US-ASCII-Zeichen, daher wird
+    // jedes Zeichen ohne Zeichenkodierung direkt als ein Byte geschrieben - Zeichen außerhalb von ISO-8859-1 als "?"
+    public static void putAscii(final ByteBuffer buffer, final String string) {
+        final int length = string.length();
+        if (buffer.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            final char character = string.charAt(i);
+            buffer.put(character <= 0xFF ? (byte) character : (byte) '?');
+        }
+    }
+
     public static String stringifyBindAddress(final SocketAddress address) {
         // Da unter Windows "0.0.0.0" nicht als lokale Adresse erreichbar ist, wird
         // durch diese Logik "0.0.0.0" durch "127.0.0.1" ersetzt
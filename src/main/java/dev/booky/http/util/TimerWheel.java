@@ -0,0 +1,159 @@
+package dev.booky.http.util;
+
+import dev.booky.http.log.Logger;
+import dev.booky.http.log.LoggerFactory;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// Ein "Hashed Timing Wheel" für die Zeitlimits aller Verbindungen: statt eines Threads oder einer sortierten
+// Warteschlange pro Zeitlimit gibt es einen einzigen Thread, welcher in festen Schritten ("Ticks") über ein
+// ringförmiges Array an Fächern läuft und nur die Einträge des aktuellen Fachs prüft; Hinzufügen und Abbrechen
+// kosten damit unabhängig von der Anzahl an Einträgen konstant viel, dafür werden Aufgaben nur auf einen
+// Tick genau ausgeführt - für Zeitlimits im Sekundenbereich ist das mehr als ausreichend
+//
+// Liegt ein Zeitpunkt weiter entfernt als eine Umdrehung, wird im Eintrag gezählt, wie viele Umdrehungen dieser
+// noch überspringen muss; siehe auch "Hashed and Hierarchical Timing Wheels" (Varghese und Lauck, 1987)
+@NullMarked
+public final class TimerWheel implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("Http");
+
+    // Wie lange beim Schließen höchstens auf das Ende des Threads gewartet wird
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000L;
+
+    private final long tickNanos;
+    // Die Anzahl an Fächern ist immer eine Zweierpotenz, damit das Fach mit einer Bitmaske bestimmt werden kann
+    private final int mask;
+    // Jedes Fach ist eine einfach verkettete Liste; diese wird nur vom Thread des Rads verändert
+    private final @Nullable Timeout[] buckets;
+    // Neue Einträge werden von beliebigen Threads hier eingereiht und erst beim nächsten Tick einsortiert
+    private final Queue<Timeout> addedTimeouts = new ConcurrentLinkedQueue<>();
+    // Alle Zeitpunkte werden relativ zum Start des Rads gespeichert
+    private final long startNanos = System.nanoTime();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    // Der aktuelle Tick; wird nur vom Thread des Rads gelesen und verändert
+    private long tick;
+
+    public TimerWheel(final String threadName, final Duration tickDuration, final int wheelSize) {
+        this.tickNanos = Math.max(1L, tickDuration.toNanos());
+        final int size = wheelSize <= 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.mask = size - 1;
+        this.buckets = new Timeout[size];
+
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Führt die Aufgabe nach frühestens der gegebenen Zeit im Thread des Rads aus; die Aufgabe sollte daher
+    // nicht blockieren, sondern länger dauernde Arbeit an einen anderen Thread übergeben
+    public Timeout schedule(final long delayNanos, final Runnable task) {
+        final Timeout timeout = new Timeout(task, System.nanoTime() + Math.max(0L, delayNanos) - this.startNanos);
+        this.addedTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (this.running) {
+            // Es wird bis zum Ende des aktuellen Ticks gewartet; erst danach sind alle Einträge dieses Ticks fällig
+            final long tickDeadline = (this.tick + 1L) * this.tickNanos;
+            long sleepNanos;
+            while (this.running && (sleepNanos = tickDeadline - (System.nanoTime() - this.startNanos)) > 0L) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+            if (!this.running) {
+                break;
+            }
+            this.transferAdded();
+            this.expireBucket((int) (this.tick & this.mask));
+            this.tick++;
+        }
+        // Nicht mehr ausgeführte Einträge werden verworfen; die Verbindungen werden beim Schließen ohnehin beendet
+        this.addedTimeouts.clear();
+    }
+
+    // Sortiert alle neu eingereihten Einträge in ihr Fach ein
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = this.addedTimeouts.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            final long deadlineTick = timeout.deadlineNanos / this.tickNanos;
+            timeout.remainingRounds = (deadlineTick - this.tick) / this.buckets.length;
+            // Bereits vergangene Zeitpunkte landen im aktuellen Fach und werden direkt in diesem Tick ausgeführt
+            final int index = (int) (Math.max(deadlineTick, this.tick) & this.mask);
+            timeout.next = this.buckets[index];
+            this.buckets[index] = timeout;
+        }
+    }
+
+    // Führt alle fälligen Einträge des Fachs aus und entfernt diese zusammen mit abgebrochenen Einträgen
+    private void expireBucket(final int index) {
+        @Nullable Timeout previous = null;
+        @Nullable Timeout timeout = this.buckets[index];
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+            if (!timeout.cancelled && timeout.remainingRounds > 0L) {
+                // Der Eintrag ist erst in einer späteren Umdrehung fällig
+                timeout.remainingRounds--;
+                previous = timeout;
+                timeout = next;
+                continue;
+            }
+            if (previous == null) {
+                this.buckets[index] = next;
+            } else {
+                previous.next = next;
+            }
+            timeout.next = null;
+            if (!timeout.cancelled) {
+                try {
+                    timeout.task.run();
+                } catch (final Throwable throwable) {
+                    LOGGER.error("Error while running timeout task in %s", this.thread.getName(), throwable);
+                }
+            }
+            timeout = next;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+        try {
+            this.thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Ein einzelner eingereihter Eintrag; abgebrochene Einträge werden erst beim Erreichen ihres Fachs entfernt
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        // Werden nur vom Thread des Rads gelesen und verändert
+        private long remainingRounds;
+        private @Nullable Timeout next;
+
+        private volatile boolean cancelled;
+
+        private Timeout(final Runnable task, final long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public void cancel() {
+            this.cancelled = true;
+        }
+    }
+}
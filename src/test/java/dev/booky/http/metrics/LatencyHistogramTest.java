@@ -0,0 +1,86 @@
+package dev.booky.http.metrics;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@NullMarked
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveOwnBuckets() {
+        for (int value = 0; value < 32; value++) {
+            assertEquals(value, LatencyHistogram.bucketIndex(value));
+            assertEquals(value, LatencyHistogram.bucketUpperBound(value));
+        }
+    }
+
+    // Die obere Grenze jedes Bereichs liegt selbst in diesem Bereich, und der nächste Wert bereits im folgenden
+    @Test
+    void upperBoundRoundTrips() {
+        for (int index = 0; index < LatencyHistogram.BUCKET_COUNT; index++) {
+            final long upperBound = LatencyHistogram.bucketUpperBound(index);
+            assertEquals(index, LatencyHistogram.bucketIndex(upperBound));
+            if (index + 1 < LatencyHistogram.BUCKET_COUNT) {
+                assertEquals(index + 1, LatencyHistogram.bucketIndex(upperBound + 1L));
+            }
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE,
+                LatencyHistogram.bucketUpperBound(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    // Die Breite eines Bereichs beträgt höchstens 1/32 seiner unteren Grenze
+    @Test
+    void bucketErrorIsBounded() {
+        for (int index = 1; index < LatencyHistogram.BUCKET_COUNT; index++) {
+            final long lowerBound = LatencyHistogram.bucketUpperBound(index - 1) + 1L;
+            final long width = LatencyHistogram.bucketUpperBound(index) - lowerBound + 1L;
+            assertTrue(width * 32L <= Math.max(32L, lowerBound), "bucket " + index + " too wide: " + width);
+        }
+    }
+
+    @Test
+    void bucketIndexIsMonotonic() {
+        int lastIndex = 0;
+        for (long value = 1L; value <= LatencyHistogram.MAX_VALUE; value = value * 3L / 2L + 1L) {
+            final int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= lastIndex);
+            assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+            lastIndex = index;
+        }
+    }
+
+    @Test
+    void computesQuantiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1L; value <= 1000L; value++) {
+            histogram.record(value * 1000L);
+        }
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(500_500_000L, histogram.getSum());
+
+        final long[] values = histogram.getValuesAtQuantiles(0.5, 0.99, 1.0);
+        final long[] expected = {500_000L, 990_000L, 1_000_000L};
+        for (int i = 0; i < values.length; i++) {
+            // Die Werte werden auf die obere Grenze ihres Bereichs gerundet
+            assertTrue(values[i] >= expected[i], "quantile " + i + ": " + values[i]);
+            assertTrue(values[i] <= expected[i] + expected[i] / 32L, "quantile " + i + ": " + values[i]);
+        }
+    }
+
+    @Test
+    void clampsOutOfRangeValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+        histogram.record(Long.MAX_VALUE);
+        assertArrayEquals(new long[]{0L, LatencyHistogram.MAX_VALUE}, histogram.getValuesAtQuantiles(0.5, 1.0));
+    }
+
+    @Test
+    void emptyHistogramReturnsZeros() {
+        assertArrayEquals(new long[]{0L, 0L}, new LatencyHistogram().getValuesAtQuantiles(0.5, 0.99));
+    }
+}
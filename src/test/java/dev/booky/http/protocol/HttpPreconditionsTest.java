@@ -0,0 +1,115 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.HttpMethod;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
+
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_MATCH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_MODIFIED_SINCE;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_NONE_MATCH;
+import static dev.booky.http.protocol.HttpDefinitions.HEADER_IF_RANGE;
+import static dev.booky.http.protocol.HttpStatus.STATUS_NOT_MODIFIED;
+import static dev.booky.http.protocol.HttpStatus.STATUS_PRECONDITION_FAILED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@NullMarked
+class HttpPreconditionsTest {
+
+    private static final String ENTITY_TAG = "\"abc\"";
+    private static final String OTHER_ENTITY_TAG = "\"def\"";
+    // Die Millisekunden werden beim Vergleich mit sekundengenauen Http-Daten ignoriert
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-05-01T12:00:00.250Z");
+    private static final String LAST_MODIFIED_DATE = HttpHeaders.formatDate(LAST_MODIFIED);
+    private static final String EARLIER_DATE = HttpHeaders.formatDate(LAST_MODIFIED.minusSeconds(60L));
+
+    private static HttpRequest request(final HttpMethod method, final String... headers) {
+        final HttpHeaders.Builder builder = HttpHeaders.builder();
+        for (int i = 0; i < headers.length; i += 2) {
+            builder.add(headers[i], headers[i + 1]);
+        }
+        return new HttpRequest(method, new HttpUri(URI.create("/")), HttpVersion.HTTP_1_1,
+                builder.build(), InputStream.nullInputStream());
+    }
+
+    private static HttpRequest request(final String... headers) {
+        return request(HttpMethod.GET, headers);
+    }
+
+    private static @Nullable HttpStatus evaluate(final HttpRequest request) {
+        return HttpPreconditions.evaluate(request, ENTITY_TAG, LAST_MODIFIED);
+    }
+
+    @Test
+    void servesWithoutPreconditions() {
+        assertNull(evaluate(request()));
+    }
+
+    @Test
+    void ifNoneMatchReturnsNotModified() {
+        assertEquals(STATUS_NOT_MODIFIED, evaluate(request(HEADER_IF_NONE_MATCH, ENTITY_TAG)));
+        assertEquals(STATUS_NOT_MODIFIED, evaluate(request(HEADER_IF_NONE_MATCH, OTHER_ENTITY_TAG + ", " + ENTITY_TAG)));
+        assertEquals(STATUS_NOT_MODIFIED, evaluate(request(HEADER_IF_NONE_MATCH, "*")));
+        // "If-None-Match" nutzt den schwachen Vergleich
+        assertEquals(STATUS_NOT_MODIFIED, evaluate(request(HEADER_IF_NONE_MATCH, "W/" + ENTITY_TAG)));
+        assertNull(evaluate(request(HEADER_IF_NONE_MATCH, OTHER_ENTITY_TAG)));
+    }
+
+    @Test
+    void ifNoneMatchFailsForOtherMethods() {
+        assertEquals(STATUS_PRECONDITION_FAILED, evaluate(request(HttpMethod.POST, HEADER_IF_NONE_MATCH, ENTITY_TAG)));
+    }
+
+    @Test
+    void ifModifiedSinceReturnsNotModified() {
+        assertEquals(STATUS_NOT_MODIFIED, evaluate(request(HEADER_IF_MODIFIED_SINCE, LAST_MODIFIED_DATE)));
+        assertNull(evaluate(request(HEADER_IF_MODIFIED_SINCE, EARLIER_DATE)));
+        // Ungültige Daten sowie andere Methoden als GET und HEAD werden ignoriert
+        assertNull(evaluate(request(HEADER_IF_MODIFIED_SINCE, "yesterday")));
+        assertNull(evaluate(request(HttpMethod.POST, HEADER_IF_MODIFIED_SINCE, LAST_MODIFIED_DATE)));
+    }
+
+    // Sobald "If-None-Match" gesetzt ist, wird "If-Modified-Since" in beide Richtungen ignoriert
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() {
+        assertNull(evaluate(request(
+                HEADER_IF_NONE_MATCH, OTHER_ENTITY_TAG,
+                HEADER_IF_MODIFIED_SINCE, LAST_MODIFIED_DATE)));
+        assertEquals(STATUS_NOT_MODIFIED, evaluate(request(
+                HEADER_IF_NONE_MATCH, ENTITY_TAG,
+                HEADER_IF_MODIFIED_SINCE, EARLIER_DATE)));
+    }
+
+    @Test
+    void ifMatchRequiresStrongMatch() {
+        assertNull(evaluate(request(HEADER_IF_MATCH, ENTITY_TAG)));
+        assertNull(evaluate(request(HEADER_IF_MATCH, "*")));
+        assertEquals(STATUS_PRECONDITION_FAILED, evaluate(request(HEADER_IF_MATCH, OTHER_ENTITY_TAG)));
+        assertEquals(STATUS_PRECONDITION_FAILED, evaluate(request(HEADER_IF_MATCH, "W/" + ENTITY_TAG)));
+    }
+
+    // "If-Match" wird vor allen anderen Bedingungen geprüft
+    @Test
+    void ifMatchTakesPrecedenceOverIfNoneMatch() {
+        assertEquals(STATUS_PRECONDITION_FAILED, evaluate(request(
+                HEADER_IF_MATCH, OTHER_ENTITY_TAG,
+                HEADER_IF_NONE_MATCH, ENTITY_TAG)));
+    }
+
+    @Test
+    void ifRangeMatchesEntityTagOrDate() {
+        assertTrue(HttpPreconditions.isRangeApplicable(request(), ENTITY_TAG, LAST_MODIFIED));
+        assertTrue(HttpPreconditions.isRangeApplicable(request(HEADER_IF_RANGE, ENTITY_TAG), ENTITY_TAG, LAST_MODIFIED));
+        assertTrue(HttpPreconditions.isRangeApplicable(request(HEADER_IF_RANGE, LAST_MODIFIED_DATE), ENTITY_TAG, LAST_MODIFIED));
+        assertFalse(HttpPreconditions.isRangeApplicable(request(HEADER_IF_RANGE, OTHER_ENTITY_TAG), ENTITY_TAG, LAST_MODIFIED));
+        assertFalse(HttpPreconditions.isRangeApplicable(request(HEADER_IF_RANGE, "W/" + ENTITY_TAG), ENTITY_TAG, LAST_MODIFIED));
+        assertFalse(HttpPreconditions.isRangeApplicable(request(HEADER_IF_RANGE, EARLIER_DATE), ENTITY_TAG, LAST_MODIFIED));
+    }
+}
@@ -0,0 +1,106 @@
+package dev.booky.http.protocol;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@NullMarked
+class HttpRangeTest {
+
+    private static final long SIZE = 1000L;
+
+    private static List<HttpRange> parse(final String header) {
+        final List<HttpRange> ranges = HttpRange.parseRanges(header, SIZE);
+        assertNotNull(ranges);
+        return ranges;
+    }
+
+    // Erstellt einen "Range"-Header mit der gegebenen Anzahl an Teilbereichen zu je einem Byte
+    private static String rangesHeader(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> i + "-" + i)
+                .collect(Collectors.joining(",", "bytes=", ""));
+    }
+
+    @Test
+    void parsesSingleRange() {
+        assertEquals(List.of(new HttpRange(0L, 500L)), parse("bytes=0-499"));
+        assertEquals(List.of(new HttpRange(500L, 500L)), parse("bytes=500-"));
+    }
+
+    @Test
+    void clampsRangeToSize() {
+        assertEquals(List.of(new HttpRange(900L, 100L)), parse("bytes=900-5000"));
+        assertEquals(List.of(new HttpRange(0L, SIZE)), parse("bytes=0-99999999999999999999"));
+    }
+
+    @Test
+    void parsesSuffixRange() {
+        assertEquals(List.of(new HttpRange(800L, 200L)), parse("bytes=-200"));
+        // Ein Suffix, welcher größer als die Datei ist, umfasst die gesamte Datei
+        assertEquals(List.of(new HttpRange(0L, SIZE)), parse("bytes=-5000"));
+    }
+
+    @Test
+    void ignoresUnsatisfiableSuffix() {
+        assertTrue(parse("bytes=-0").isEmpty());
+        assertEquals(List.of(), HttpRange.parseRanges("bytes=-100", 0L));
+    }
+
+    @Test
+    void ignoresRangesAfterEnd() {
+        assertTrue(parse("bytes=1000-1500").isEmpty());
+        assertEquals(List.of(new HttpRange(0L, 10L)), parse("bytes=1000-1500, 0-9"));
+    }
+
+    // Überlappende Teilbereiche werden nicht zusammengefasst, sondern in der angefragten Reihenfolge
+    // beantwortet; die Größe der Antwort wird dabei nur über "MAX_RANGES" begrenzt
+    @Test
+    void keepsOverlappingRanges() {
+        assertEquals(List.of(
+                new HttpRange(0L, 500L),
+                new HttpRange(250L, 500L),
+                new HttpRange(900L, 100L)
+        ), parse("bytes=0-499, 250-749, -100"));
+        assertEquals(List.of(
+                new HttpRange(0L, SIZE),
+                new HttpRange(0L, SIZE)
+        ), parse("bytes=0-,0-"));
+    }
+
+    @Test
+    void limitsRangeCount() {
+        assertEquals(HttpRange.MAX_RANGES, parse(rangesHeader(HttpRange.MAX_RANGES)).size());
+        assertNull(HttpRange.parseRanges(rangesHeader(HttpRange.MAX_RANGES + 1), SIZE));
+    }
+
+    @Test
+    void acceptsWhitespaceAndUnitCase() {
+        assertEquals(List.of(new HttpRange(0L, 10L), new HttpRange(20L, 10L)), parse(" Bytes = 0-9 , 20-29 "));
+    }
+
+    @Test
+    void rejectsInvalidHeaders() {
+        assertNull(HttpRange.parseRanges("items=0-9", SIZE));
+        assertNull(HttpRange.parseRanges("bytes 0-9", SIZE));
+        assertNull(HttpRange.parseRanges("bytes=9", SIZE));
+        assertNull(HttpRange.parseRanges("bytes=-", SIZE));
+        assertNull(HttpRange.parseRanges("bytes=9-0", SIZE));
+        assertNull(HttpRange.parseRanges("bytes=+1-9", SIZE));
+        assertNull(HttpRange.parseRanges("bytes=0-9,a-b", SIZE));
+    }
+
+    @Test
+    void formatsContentRange() {
+        assertEquals("bytes 100-199/1000", new HttpRange(100L, 100L).toContentRange(SIZE));
+        assertEquals("bytes */1000", HttpRange.toUnsatisfiedContentRange(SIZE));
+    }
+}
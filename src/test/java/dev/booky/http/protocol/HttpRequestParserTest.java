@@ -0,0 +1,172 @@
+package dev.booky.http.protocol;
+
+import dev.booky.http.util.HttpMethod;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
+import static dev.booky.http.protocol.HttpStatus.STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE;
+import static dev.booky.http.protocol.HttpStatus.STATUS_URI_TOO_LONG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@NullMarked
+class HttpRequestParserTest {
+
+    private static final int MAX_HEAD_SIZE = 256;
+
+    private static ByteBuffer buffer(final String data) {
+        return ByteBuffer.wrap(data.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static @Nullable HttpRequestHead parse(final HttpRequestParser parser, final String data) throws HttpStatusException {
+        return parser.parseHead(buffer(data), 0, data.length());
+    }
+
+    private static HttpRequestHead parseComplete(final String data) throws HttpStatusException {
+        final HttpRequestHead head = parse(new HttpRequestParser(MAX_HEAD_SIZE), data);
+        assertNotNull(head);
+        return head;
+    }
+
+    private static HttpStatus parseFailure(final String data) {
+        return assertThrows(HttpStatusException.class,
+                () -> parse(new HttpRequestParser(MAX_HEAD_SIZE), data)).getStatus();
+    }
+
+    @Test
+    void parsesRequest() throws HttpStatusException {
+        final String request = "GET /index.html HTTP/1.1\r\nHost: localhost\r\nAccept:  text/html \r\n\r\n";
+        final HttpRequestHead head = parseComplete(request);
+        assertSame(HttpMethod.GET, head.getMethod());
+        assertEquals("/index.html", head.getUri().toString());
+        assertSame(HttpVersion.HTTP_1_1, head.getVersion());
+        assertEquals("localhost", head.getHeaders().getHeader("host"));
+        assertEquals("text/html", head.getHeaders().getHeader("Accept"));
+        assertEquals(request.length(), head.getLength());
+    }
+
+    // Leere Zeilen vor der Anfrage werden übersprungen, zählen aber trotzdem zur Länge des Kopfteils
+    @Test
+    void skipsLeadingLineBreaks() throws HttpStatusException {
+        final String request = "\r\n\r\nGET / HTTP/1.0\r\n\r\n";
+        final HttpRequestHead head = parseComplete(request);
+        assertSame(HttpMethod.GET, head.getMethod());
+        assertSame(HttpVersion.HTTP_1_0, head.getVersion());
+        assertEquals(request.length(), head.getLength());
+    }
+
+    @Test
+    void acceptsBareLineFeeds() throws HttpStatusException {
+        final String request = "GET / HTTP/1.1\nHost: localhost\nX-Test: 1\n\n";
+        final HttpRequestHead head = parseComplete(request);
+        assertEquals("localhost", head.getHeaders().getHeader("Host"));
+        assertEquals("1", head.getHeaders().getHeader("X-Test"));
+        assertEquals(request.length(), head.getLength());
+    }
+
+    @Test
+    void acceptsMixedLineBreaks() throws HttpStatusException {
+        final String request = "GET / HTTP/1.1\r\nHost: localhost\n\r\n";
+        final HttpRequestHead head = parseComplete(request);
+        assertEquals("localhost", head.getHeaders().getHeader("Host"));
+        assertEquals(request.length(), head.getLength());
+    }
+
+    // Die Länge ergibt die Position der nächsten Anfrage bzw. des Inhalts
+    @Test
+    void stopsAtEndOfHead() throws HttpStatusException {
+        final String request = "POST /upload HTTP/1.1\r\nContent-Length: 4\r\n\r\n";
+        final HttpRequestHead head = parseComplete(request + "body");
+        assertEquals(request.length(), head.getLength());
+    }
+
+    @Test
+    void returnsNullForIncompleteHead() throws HttpStatusException {
+        final HttpRequestParser parser = new HttpRequestParser(MAX_HEAD_SIZE);
+        assertNull(parse(parser, "GET / HTTP/1.1\r\nHost: localhost\r\n"));
+        assertNull(parse(parser, "GET / HTTP/1.1\r\nHost: localhost\r\n\r"));
+    }
+
+    // Wie bei einer Verbindung werden immer mehr Bytes desselben Puffers verfügbar
+    @Test
+    void parsesHeadReceivedByteByByte() throws HttpStatusException {
+        final HttpRequestParser parser = new HttpRequestParser(MAX_HEAD_SIZE);
+        final String request = "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        final ByteBuffer buffer = buffer(request);
+        for (int end = 1; end < request.length(); end++) {
+            assertNull(parser.parseHead(buffer, 0, end));
+        }
+        final HttpRequestHead head = parser.parseHead(buffer, 0, request.length());
+        assertNotNull(head);
+        assertEquals("localhost", head.getHeaders().getHeader("Host"));
+    }
+
+    // Ohne Ende der Anfragen-Zeile kann nur die URI zu lang sein
+    @Test
+    void rejectsTooLongUri() {
+        assertEquals(STATUS_URI_TOO_LONG, parseFailure("GET /" + "a".repeat(MAX_HEAD_SIZE)));
+        assertEquals(STATUS_URI_TOO_LONG, parseFailure("GET /" + "a".repeat(MAX_HEAD_SIZE) + " HTTP/1.1\r\n\r\n"));
+    }
+
+    @Test
+    void rejectsTooLargeHeaders() {
+        assertEquals(STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE,
+                parseFailure("GET / HTTP/1.1\r\nX-Large: " + "a".repeat(MAX_HEAD_SIZE)));
+        assertEquals(STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE,
+                parseFailure("GET / HTTP/1.1\r\nX-Large: " + "a".repeat(MAX_HEAD_SIZE) + "\r\n\r\n"));
+    }
+
+    @Test
+    void acceptsHeadAtSizeLimit() throws HttpStatusException {
+        final String prefix = "GET / HTTP/1.1\r\nX-Fill: ";
+        final String request = prefix + "a".repeat(MAX_HEAD_SIZE - prefix.length() - 4) + "\r\n\r\n";
+        assertEquals(MAX_HEAD_SIZE, request.length());
+        assertEquals(MAX_HEAD_SIZE, parseComplete(request).getLength());
+    }
+
+    @Test
+    void rejectsObsoleteLineFolding() {
+        assertEquals(STATUS_BAD_REQUEST, parseFailure("GET / HTTP/1.1\r\nX-Test: a\r\n b\r\n\r\n"));
+        assertEquals(STATUS_BAD_REQUEST, parseFailure("GET / HTTP/1.1\r\nX-Test: a\r\n\tb\r\n\r\n"));
+    }
+
+    @Test
+    void rejectsInvalidHeaderLines() {
+        assertEquals(STATUS_BAD_REQUEST, parseFailure("GET / HTTP/1.1\r\nNoColon\r\n\r\n"));
+        assertEquals(STATUS_BAD_REQUEST, parseFailure("GET / HTTP/1.1\r\n: empty name\r\n\r\n"));
+        assertEquals(STATUS_BAD_REQUEST, parseFailure("GET / HTTP/1.1\r\nHost : localhost\r\n\r\n"));
+    }
+
+    @Test
+    void rejectsMalformedRequestLine() {
+        assertEquals(STATUS_BAD_REQUEST, parseFailure("GET\r\n\r\n"));
+        assertEquals(STATUS_BAD_REQUEST, parseFailure("GET /\r\n\r\n"));
+    }
+
+    // Ein Parser wird für alle Anfragen derselben Verbindung wiederverwendet
+    @Test
+    void parsesPipelinedRequests() throws HttpStatusException {
+        final HttpRequestParser parser = new HttpRequestParser(MAX_HEAD_SIZE);
+        final String first = "GET /first HTTP/1.1\r\n\r\n";
+        final String second = "HEAD /second HTTP/1.1\r\n\r\n";
+        final ByteBuffer buffer = buffer(first + second);
+
+        final HttpRequestHead firstHead = parser.parseHead(buffer, 0, buffer.limit());
+        assertNotNull(firstHead);
+        assertEquals("/first", firstHead.getUri().toString());
+        assertEquals(first.length(), firstHead.getLength());
+
+        final HttpRequestHead secondHead = parser.parseHead(buffer, first.length(), buffer.limit());
+        assertNotNull(secondHead);
+        assertSame(HttpMethod.HEAD, secondHead.getMethod());
+        assertEquals("/second", secondHead.getUri().toString());
+    }
+}
@@ -0,0 +1,147 @@
+package dev.booky.http.util;
+
+import dev.booky.http.protocol.HttpStatusException;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
+import static dev.booky.http.protocol.HttpStatus.STATUS_CONTENT_TOO_LARGE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@NullMarked
+class ChunkedBodyDecoderTest {
+
+    private static final long MAX_LENGTH = 1024L;
+
+    private static ByteBuffer buffer(final String data) {
+        return ByteBuffer.wrap(data.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static int skip(final ChunkedBodyDecoder decoder, final String data) throws HttpStatusException {
+        return decoder.skip(buffer(data), 0, data.length());
+    }
+
+    @Test
+    void skipsWholeBody() throws HttpStatusException {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final String body = "5\r\nHello\r\n8\r\n, World!\r\n0\r\n\r\n";
+        assertEquals(body.length(), skip(decoder, body));
+        assertTrue(decoder.isFinished());
+    }
+
+    // Nach dem Ende des Inhalts wird nichts mehr konsumiert, da dort bereits die nächste Anfrage beginnt
+    @Test
+    void stopsBeforeNextRequest() throws HttpStatusException {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final String body = "3\r\nabc\r\n0\r\n\r\n";
+        assertEquals(body.length(), skip(decoder, body + "GET / HTTP/1.1\r\n\r\n"));
+        assertTrue(decoder.isFinished());
+    }
+
+    // Der Inhalt kann an jeder beliebigen Stelle auf mehrere Lesevorgänge aufgeteilt sein
+    @Test
+    void decodesByteByByte() throws HttpStatusException {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final String body = "3;ext=1\r\nabc\r\nA\r\n0123456789\r\n0\r\nX-Trailer: 1\r\n\r\n";
+        final ByteBuffer buffer = buffer(body);
+        for (int i = 0; i < body.length(); i++) {
+            assertFalse(decoder.isFinished());
+            assertEquals(1, decoder.skip(buffer, i, i + 1));
+        }
+        assertTrue(decoder.isFinished());
+    }
+
+    @Test
+    void respectsBufferOffsets() throws HttpStatusException {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final String body = "3\r\nabc\r\n0\r\n\r\n";
+        final ByteBuffer buffer = buffer("HEAD" + body);
+        assertEquals(body.length(), decoder.skip(buffer, 4, buffer.limit()));
+        assertTrue(decoder.isFinished());
+    }
+
+    @Test
+    void ignoresChunkExtensions() throws HttpStatusException {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final String body = "3;name=value\r\nabc\r\n3 ; other\r\ndef\r\n0;last\r\n\r\n";
+        assertEquals(body.length(), skip(decoder, body));
+        assertTrue(decoder.isFinished());
+    }
+
+    @Test
+    void skipsTrailers() throws HttpStatusException {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final String body = "3\r\nabc\r\n0\r\nExpires: never\r\nX-Checksum: 1\r\n\r\n";
+        assertEquals(body.length(), skip(decoder, body));
+        assertTrue(decoder.isFinished());
+    }
+
+    @Test
+    void acceptsBareLineFeeds() throws HttpStatusException {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final String body = "3\nabc\n0\n\n";
+        assertEquals(body.length(), skip(decoder, body));
+        assertTrue(decoder.isFinished());
+    }
+
+    @Test
+    void acceptsBodyAtSizeLimit() throws HttpStatusException {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(4L);
+        skip(decoder, "2\r\nab\r\n2\r\ncd\r\n0\r\n\r\n");
+        assertTrue(decoder.isFinished());
+    }
+
+    @Test
+    void rejectsBodyOverSizeLimit() {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(4L);
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> skip(decoder, "2\r\nab\r\n3\r\n"));
+        assertEquals(STATUS_CONTENT_TOO_LARGE, exception.getStatus());
+    }
+
+    @Test
+    void rejectsOverflowingChunkSize() {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(Long.MAX_VALUE);
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> skip(decoder, "1" + "0".repeat(16) + "\r\n"));
+        assertEquals(STATUS_BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void rejectsInvalidChunkSize() {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> skip(decoder, "xyz\r\n"));
+        assertEquals(STATUS_BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void rejectsMissingChunkSize() {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> skip(decoder, ";ext\r\n"));
+        assertEquals(STATUS_BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void rejectsMissingLineBreakAfterData() {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> skip(decoder, "3\r\nabcd\r\n"));
+        assertEquals(STATUS_BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void rejectsTooLongTrailerLine() {
+        final ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(MAX_LENGTH);
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> skip(decoder, "0\r\nX-Trailer: " + "x".repeat(8192)));
+        assertEquals(STATUS_BAD_REQUEST, exception.getStatus());
+    }
+}
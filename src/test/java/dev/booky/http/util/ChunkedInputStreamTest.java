@@ -0,0 +1,103 @@
+package dev.booky.http.util;
+
+import dev.booky.http.protocol.HttpStatusException;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static dev.booky.http.protocol.HttpStatus.STATUS_BAD_REQUEST;
+import static dev.booky.http.protocol.HttpStatus.STATUS_CONTENT_TOO_LARGE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@NullMarked
+class ChunkedInputStreamTest {
+
+    private static final long MAX_LENGTH = 1024L;
+
+    private static InputStream input(final String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String decode(final InputStream input, final long maxLength) throws IOException {
+        return new String(new ChunkedInputStream(input, maxLength).readAllBytes(), StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    void decodesChunks() throws IOException {
+        assertEquals("Hello, World!", decode(input("5\r\nHello\r\n8\r\n, World!\r\n0\r\n\r\n"), MAX_LENGTH));
+    }
+
+    @Test
+    void acceptsUpperCaseHexSizes() throws IOException {
+        final String data = "x".repeat(0x1A);
+        assertEquals(data, decode(input("1A\r\n" + data + "\r\n0\r\n\r\n"), MAX_LENGTH));
+    }
+
+    @Test
+    void ignoresChunkExtensions() throws IOException {
+        assertEquals("abcdef", decode(input("3;name=value\r\nabc\r\n3 ; other\r\ndef\r\n0;last\r\n\r\n"), MAX_LENGTH));
+    }
+
+    @Test
+    void skipsTrailers() throws IOException {
+        assertEquals("abc", decode(input("3\r\nabc\r\n0\r\nExpires: never\r\nX-Checksum: 1\r\n\r\n"), MAX_LENGTH));
+    }
+
+    // Der Inhalt darf nie über das Ende hinaus gelesen werden, da danach bereits die nächste Anfrage folgen kann
+    @Test
+    void stopsAfterLastChunk() throws IOException {
+        final InputStream input = input("3\r\nabc\r\n0\r\n\r\nGET / HTTP/1.1\r\n");
+        assertEquals("abc", decode(input, MAX_LENGTH));
+        assertEquals("GET / HTTP/1.1\r\n", new String(input.readAllBytes(), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void acceptsBareLineFeeds() throws IOException {
+        assertEquals("abc", decode(input("3\nabc\n0\n\n"), MAX_LENGTH));
+    }
+
+    @Test
+    void acceptsBodyAtSizeLimit() throws IOException {
+        assertEquals("abcd", decode(input("2\r\nab\r\n2\r\ncd\r\n0\r\n\r\n"), 4L));
+    }
+
+    @Test
+    void rejectsBodyOverSizeLimit() {
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> decode(input("2\r\nab\r\n3\r\ncde\r\n0\r\n\r\n"), 4L));
+        assertEquals(STATUS_CONTENT_TOO_LARGE, exception.getStatus());
+    }
+
+    // Das Limit greift bereits anhand der angekündigten Größe, bevor die Daten überhaupt gesendet wurden
+    @Test
+    void rejectsAnnouncedSizeOverLimit() {
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> decode(input("FFFFFFFF\r\n"), MAX_LENGTH));
+        assertEquals(STATUS_CONTENT_TOO_LARGE, exception.getStatus());
+    }
+
+    @Test
+    void rejectsInvalidChunkSize() {
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> decode(input("xyz\r\nabc\r\n0\r\n\r\n"), MAX_LENGTH));
+        assertEquals(STATUS_BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void rejectsMissingLineBreakAfterData() {
+        final HttpStatusException exception = assertThrows(HttpStatusException.class,
+                () -> decode(input("3\r\nabcd\r\n0\r\n\r\n"), MAX_LENGTH));
+        assertEquals(STATUS_BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void rejectsTruncatedBody() {
+        assertThrows(EOFException.class, () -> decode(input("5\r\nabc"), MAX_LENGTH));
+    }
+}